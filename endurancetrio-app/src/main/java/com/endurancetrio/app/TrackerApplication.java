@@ -24,10 +24,12 @@
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.persistence.autoconfigure.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.endurancetrio")
 @EnableJpaRepositories(basePackages = "com.endurancetrio.data")
 @EntityScan("com.endurancetrio.data")
+@EnableScheduling
 public class TrackerApplication {
 
   public static void main(String[] args) {
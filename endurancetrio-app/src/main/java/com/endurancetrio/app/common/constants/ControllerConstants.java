@@ -30,6 +30,8 @@ public class ControllerConstants {
 
   public static final String API_PATH = "/api";
 
+  public static final String TEXT_CSV_VALUE = "text/csv";
+
   public static final int STATUS_200 = HttpStatus.OK.value();
   public static final int STATUS_500 = HttpStatus.INTERNAL_SERVER_ERROR.value();
 
@@ -38,6 +40,7 @@ public class ControllerConstants {
 
   public static final String DETAILS_AUTH_DENIED = "Access Denied: Missing required permissions";
   public static final String DETAILS_AUTH_FAILURE = "Authentication failed";
+  public static final String DETAILS_DUPLICATE = "Duplicate record ignored, it was already saved";
   public static final String DETAILS_SERVER_ERROR = "An internal server error occurred";
   public static final String DETAILS_SUCCESS = "Request handled successfully";
 
@@ -24,11 +24,13 @@
 import static com.endurancetrio.app.common.constants.ControllerConstants.DETAILS_AUTH_FAILURE;
 
 import com.endurancetrio.app.common.response.EnduranceTrioResponse;
+import com.endurancetrio.app.common.security.exception.EnduranceTrioAuthThrottledException;
 import org.jspecify.annotations.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -70,6 +72,30 @@ public class EnduranceTrioExceptionHandlerAuth {
     return ResponseEntity.status(status).body(response);
   }
 
+  /**
+   * Handles 429 Too Many Requests errors (Authentication shedding). Triggered when the
+   * AuthenticationFilter rejects a request, before its key is verified, because its owner or its
+   * client failed too often. The Retry-After header tells the client how long to back off.
+   */
+  @ExceptionHandler({EnduranceTrioAuthThrottledException.class})
+  @RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<@NonNull EnduranceTrioResponse<String>> authThrottledException(
+      EnduranceTrioAuthThrottledException exception
+  ) {
+
+    HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+
+    LOG.warn("Authentication Throttled ({}): {}", status.value(), exception.getMessage());
+
+    EnduranceTrioResponse<String> response = new EnduranceTrioResponse<>(status.value(),
+        status.getReasonPhrase(), DETAILS_AUTH_FAILURE
+    );
+
+    return ResponseEntity.status(status)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter().toSeconds()))
+        .body(response);
+  }
+
   /**
    * Handles 403 Forbidden errors (Authorization failures). Triggered when a user tries to access a
    * resource without the necessary permissions.
@@ -25,13 +25,23 @@
 /**
  * The {@link EnduranceTrioResponse} class is a generic response wrapper used in the project to
  * standardize API responses.
+ * <p>
+ * The optional {@code cursor} is an opaque token returned by the endpoints that support
+ * incremental reads, to be sent back by the client on its next request. It is omitted from the
+ * other responses.
  *
  * @param <T> the type of the data payload contained in the response
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public record EnduranceTrioResponse<T>(int status, String message, String details, T data) {
+public record EnduranceTrioResponse<T>(
+    int status, String message, String details, T data, String cursor
+) {
+
+  public EnduranceTrioResponse(int status, String message, String details, T data) {
+    this(status, message, details, data, null);
+  }
 
   public EnduranceTrioResponse(int status, String message, String details) {
-    this(status, message, details, null);
+    this(status, message, details, null, null);
   }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.app.common.security.exception;
+
+import java.time.Duration;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * The {@link EnduranceTrioAuthThrottledException} class represents an authentication request
+ * rejected, before its key was verified, because its owner or its client failed too often.
+ */
+public class EnduranceTrioAuthThrottledException extends AuthenticationException {
+
+  private final transient Duration retryAfter;
+
+  public EnduranceTrioAuthThrottledException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * @return the time the client should wait before retrying
+   */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
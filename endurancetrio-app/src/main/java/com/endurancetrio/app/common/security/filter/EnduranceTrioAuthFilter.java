@@ -20,19 +20,29 @@
 
 package com.endurancetrio.app.common.security.filter;
 
+import static com.endurancetrio.app.common.security.provider.EnduranceTrioAuthProvider.TRACKER_ROLE;
+
+import com.endurancetrio.app.common.security.exception.EnduranceTrioAuthThrottledException;
 import com.endurancetrio.app.common.security.token.EnduranceTrioAuthToken;
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.tracker.service.AuthFailureGuard;
+import com.endurancetrio.business.tracker.service.AuthFailureGuard.Rejection;
+import com.endurancetrio.business.tracker.service.SessionTokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 import org.jspecify.annotations.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -43,6 +53,15 @@
  * authentication process to the provided AuthenticationManager.
  * <p>
  * Expected Headers: 1. Authorization: Bearer {KEY} 2. ET-Owner: {OWNER_ID}
+ * <p>
+ * A bearer session token, issued by the {@link SessionTokenService} to an account authenticated
+ * with its key, is verified in memory instead, without the AuthenticationManager. The ET-Owner
+ * header is optional in that case, but must match the owner of the token when present.
+ * <p>
+ * Before a key is verified, the {@link AuthFailureGuard} rejects the requests of the unknown
+ * owners with 401 and the requests of the client addresses that failed too often with 429. The
+ * requests of the owners that failed too often are answered with 429 only when their key would need
+ * BCrypt. Every failed key verification is reported to the guard, but not the rejected requests.
  */
 public class EnduranceTrioAuthFilter extends OncePerRequestFilter {
 
@@ -51,17 +70,26 @@ public class EnduranceTrioAuthFilter extends OncePerRequestFilter {
   private static final String AUTH_HEADER_NAME = "Authorization";
   private static final String OWNER_HEADER_NAME = "ET-Owner";
   private static final String BEARER_PREFIX = "Bearer ";
+  private static final String INVALID_SESSION_MESSAGE = "Invalid or Expired Session Token";
+  private static final String UNKNOWN_OWNER_MESSAGE = "Unknown Owner";
+  private static final String THROTTLED_MESSAGE = "Too Many Authentication Failures";
 
   private final AuthenticationManager authManager;
   private final AuthenticationEntryPoint entryPoint;
+  private final SessionTokenService sessionTokenService;
+  private final AuthFailureGuard authFailureGuard;
 
   @Autowired
   public EnduranceTrioAuthFilter(
       AuthenticationManager authManager,
-      AuthenticationEntryPoint entryPoint
+      AuthenticationEntryPoint entryPoint,
+      SessionTokenService sessionTokenService,
+      AuthFailureGuard authFailureGuard
   ) {
     this.authManager = authManager;
     this.entryPoint = entryPoint;
+    this.sessionTokenService = sessionTokenService;
+    this.authFailureGuard = authFailureGuard;
   }
 
   @Override
@@ -81,6 +109,14 @@ protected void doFilterInternal(
       ownerHeader = request.getHeader(OWNER_HEADER_NAME.toLowerCase());
     }
 
+    if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+      String credentials = authHeader.substring(BEARER_PREFIX.length()).trim();
+      if (sessionTokenService.isSessionToken(credentials)) {
+        authenticateSession(request, response, filterChain, credentials, ownerHeader);
+        return;
+      }
+    }
+
     if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX) || ownerHeader == null
         || ownerHeader.isBlank()) {
 
@@ -90,10 +126,18 @@ protected void doFilterInternal(
       return;
     }
 
-    try {
-      String key = authHeader.substring(BEARER_PREFIX.length()).trim();
-      String owner = ownerHeader.trim();
+    String key = authHeader.substring(BEARER_PREFIX.length()).trim();
+    String owner = ownerHeader.trim();
+    String address = request.getRemoteAddr();
 
+    Optional<AuthenticationException> rejection = rejectEarly(owner, address);
+    if (rejection.isPresent()) {
+      SecurityContextHolder.clearContext();
+      entryPoint.commence(request, response, rejection.get());
+      return;
+    }
+
+    try {
       EnduranceTrioAuthToken authRequest = new EnduranceTrioAuthToken(owner, key);
 
       Authentication authResult = authManager.authenticate(authRequest);
@@ -105,9 +149,60 @@ protected void doFilterInternal(
 
       filterChain.doFilter(request, response);
 
+    } catch (TooManyRequestsException exception) {
+      // The owner failed too often and its key would need bcrypt: shed without counting a failure
+      SecurityContextHolder.clearContext();
+      entryPoint.commence(request, response, throttled(Rejection.OWNER_THROTTLED));
     } catch (AuthenticationException exception) {
+      authFailureGuard.recordFailure(owner, address);
       SecurityContextHolder.clearContext();
       entryPoint.commence(request, response, exception);
     }
   }
+
+  /**
+   * Returns the exception to reject the request with, before its key is verified, when the
+   * {@link AuthFailureGuard} sheds it.
+   */
+  private Optional<AuthenticationException> rejectEarly(String owner, String address) {
+
+    return authFailureGuard.check(owner, address).map(rejection -> switch (rejection) {
+      case UNKNOWN_OWNER -> new BadCredentialsException(UNKNOWN_OWNER_MESSAGE);
+      case OWNER_THROTTLED, ADDRESS_THROTTLED -> throttled(rejection);
+    });
+  }
+
+  private EnduranceTrioAuthThrottledException throttled(Rejection rejection) {
+    return new EnduranceTrioAuthThrottledException(THROTTLED_MESSAGE + " (" + rejection + ")",
+        authFailureGuard.getWindow()
+    );
+  }
+
+  /**
+   * Authenticates the request with a session token, verified in memory.
+   */
+  private void authenticateSession(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+      String token, String ownerHeader
+  ) throws ServletException, IOException {
+
+    Optional<String> owner = sessionTokenService.verify(token);
+
+    boolean ownerMatches = owner.isPresent() && (ownerHeader == null || ownerHeader.isBlank()
+        || owner.get().equals(ownerHeader.trim()));
+
+    if (!ownerMatches) {
+      LOG.warn("Session authentication request for owner {} failed", ownerHeader);
+      SecurityContextHolder.clearContext();
+      entryPoint.commence(request, response, new BadCredentialsException(INVALID_SESSION_MESSAGE));
+      return;
+    }
+
+    LOG.debug("Session authentication request for owner {} succeeded", owner.get());
+
+    SecurityContextHolder.getContext().setAuthentication(
+        new EnduranceTrioAuthToken(owner.get(), AuthorityUtils.createAuthorityList(TRACKER_ROLE)));
+
+    filterChain.doFilter(request, response);
+  }
 }
@@ -33,12 +33,17 @@
 
 /**
  * Custom AuthenticationProvider to handle Key based authentication.
+ * <p>
+ * The accounts authenticated with their key are granted {@link #KEY_AUTH_ROLE}, along with
+ * {@link #TRACKER_ROLE}, the role also granted to the accounts authenticated with a session token.
  */
 @Component
 public class EnduranceTrioAuthProvider implements AuthenticationProvider {
 
+  public static final String TRACKER_ROLE = "ROLE_TRACKER";
+  public static final String KEY_AUTH_ROLE = "ROLE_TRACKER_KEY";
+
   private static final String INVALID_KEY_MESSAGE = "Invalid Key or Account Disabled";
-  private static final String KEY_AUTH_ROLE = "ROLE_TRACKER";
 
   private final TrackerAccountService trackerAccountService;
 
@@ -61,7 +66,7 @@ public Authentication authenticate(@NonNull Authentication authentication) throw
     }
 
     return new EnduranceTrioAuthToken(owner,
-        AuthorityUtils.createAuthorityList(KEY_AUTH_ROLE)
+        AuthorityUtils.createAuthorityList(TRACKER_ROLE, KEY_AUTH_ROLE)
     );
   }
 
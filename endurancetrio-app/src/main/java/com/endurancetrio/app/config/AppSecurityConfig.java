@@ -23,6 +23,9 @@
 import com.endurancetrio.app.common.security.entrypoint.EnduranceTrioAuthEntryPoint;
 import com.endurancetrio.app.common.security.filter.EnduranceTrioAuthFilter;
 import com.endurancetrio.app.common.security.provider.EnduranceTrioAuthProvider;
+import com.endurancetrio.business.tracker.service.AuthFailureGuard;
+import com.endurancetrio.business.tracker.service.SessionTokenService;
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -60,14 +63,19 @@ public class AppSecurityConfig {
   private final String allowedOrigins;
   private final EnduranceTrioAuthProvider authProvider;
   private final EnduranceTrioAuthEntryPoint entryPoint;
+  private final SessionTokenService sessionTokenService;
+  private final AuthFailureGuard authFailureGuard;
 
   @Autowired
   public AppSecurityConfig(
       @Value("${cors.allowed-origins}") String allowedOrigins,
-      EnduranceTrioAuthProvider authProvider, EnduranceTrioAuthEntryPoint entryPoint
+      EnduranceTrioAuthProvider authProvider, EnduranceTrioAuthEntryPoint entryPoint,
+      SessionTokenService sessionTokenService, AuthFailureGuard authFailureGuard
   ) {
     this.authProvider = authProvider;
     this.entryPoint = entryPoint;
+    this.sessionTokenService = sessionTokenService;
+    this.authFailureGuard = authFailureGuard;
     this.allowedOrigins = allowedOrigins;
   }
 
@@ -131,6 +139,10 @@ private List<String> getAndValidateAllowedOrigins() {
 
   /**
    * Security filter chain for API endpoints.
+   * <p>
+   * The asynchronous dispatches (e.g. the completion of the live position stream) are permitted,
+   * since they resume a request that was already authenticated and the API key is not checked
+   * again.
    *
    * @param http the HttpSecurity to configure
    * @return the configured SecurityFilterChain
@@ -146,6 +158,8 @@ public SecurityFilterChain securityFilterChainAPI(HttpSecurity http) {
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(
             authorization -> authorization.requestMatchers(HttpMethod.OPTIONS, "/**")
+                .permitAll()
+                .dispatcherTypeMatchers(DispatcherType.ASYNC)
                 .permitAll()
                 .anyRequest()
                 .authenticated())
@@ -201,6 +215,8 @@ public AuthenticationManager authenticationManager() {
 
   @Bean
   public EnduranceTrioAuthFilter authenticationFilter() {
-    return new EnduranceTrioAuthFilter(authenticationManager(), this.entryPoint);
+    return new EnduranceTrioAuthFilter(authenticationManager(), this.entryPoint,
+        this.sessionTokenService, this.authFailureGuard
+    );
   }
 }
@@ -20,9 +20,19 @@
 
 package com.endurancetrio.app.tracker.api;
 
+import static com.endurancetrio.app.common.constants.ControllerConstants.TEXT_CSV_VALUE;
+
 import com.endurancetrio.app.common.annotation.OpenApiStandardErrors;
 import com.endurancetrio.app.common.response.EnduranceTrioResponse;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryBucketDTO;
 import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.NearestDeviceDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBatchResultDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBucketPoint;
+import com.endurancetrio.business.tracker.dto.TelemetryExportFormat;
+import com.endurancetrio.business.tracker.dto.TelemetryImportResultDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryStreamResultDTO;
+import com.endurancetrio.business.tracker.dto.geojson.Feature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.headers.Header;
@@ -33,10 +43,16 @@
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import org.jspecify.annotations.NonNull;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(
     name = "Device",
@@ -48,13 +64,28 @@
 public interface DeviceTelemetryAPI {
 
   /**
-   * Gets the most recent telemetry data record for each device present in the database.
+   * Gets the most recent telemetry data record for each device present in the database, or only
+   * for the devices whose record changed after the provided cursor, or only for the devices within
+   * the provided bounding box.
    *
-   * @return list of telemetry data records containing the latest record for each device
+   * @param since   the cursor returned by a previous call, or {@code null} to get all the devices
+   * @param bbox    the bounding box, as {@code minLon,minLat,maxLon,maxLat}, or {@code null} to
+   *                get the devices anywhere
+   * @param request the current request, used to evaluate the {@code If-None-Match} header
+   * @return list of telemetry data records containing the latest record for each (changed) device
+   * and the cursor to be used on the next call, or {@code 304 Not Modified} when no device changed
+   * since the read identified by the {@code If-None-Match} header
    */
   @Operation(
       summary = "Gets most recent telemetry data per device",
-      description = "Gets the most recent telemetry data record for each device present in the database",
+      description = """
+          Gets the most recent telemetry data record for each device present in the database. The
+          response includes a `cursor`: when it is sent back as the `since` parameter, only the
+          devices whose most recent record changed after the previous call are returned. With a
+          `bbox` (`minLon,minLat,maxLon,maxLat` in degrees, crossing the antimeridian when `minLon`
+          is greater than `maxLon`), only the devices within that bounding box are returned, with
+          no cursor; `bbox` cannot be combined with `since`
+          """,
       security = {
           @SecurityRequirement(name = "Account Name"),
           @SecurityRequirement(name = "API Key")
@@ -74,6 +105,7 @@ public interface DeviceTelemetryAPI {
                         "status": 200,
                         "message": "OK",
                         "details": "Request handled successfully",
+                        "cursor": "MTc2MDY4MjQwMDAwMDo0Mg",
                         "data": [
                           {
                             "device": "SDABC",
@@ -109,12 +141,13 @@ public interface DeviceTelemetryAPI {
               ),
               @ExampleObject(
                   name = "Success Response with empty list",
-                  summary = "Empty list",
+                  summary = "Empty list, e.g. no device changed since the cursor",
                   value = """
                       {
                         "status": 200,
                         "message": "OK",
                         "details": "Request handled successfully",
+                        "cursor": "MTc2MDY4MjQwMDAwMDo0Mg",
                         "data": [
                         ]
                       }
@@ -123,18 +156,474 @@ public interface DeviceTelemetryAPI {
           }
       )
   )
+  @ApiResponse(
+      responseCode = "304",
+      description = "No device changed since the read that returned the `If-None-Match` ETag"
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryDTO>>> getMostRecentRecordForEachDevice(
+      @Parameter(
+          description = "Cursor returned by a previous call, to get only the changed devices",
+          example = "MTc2MDY4MjQwMDAwMDo0Mg"
+      ) String since,
+      @Parameter(
+          description = "Bounding box as minLon,minLat,maxLon,maxLat, to get the devices within",
+          example = "-9.2,39.4,-9.0,39.6"
+      ) String bbox,
+      @Parameter(hidden = true) WebRequest request
+  );
+
+  /**
+   * Streams the position changes of all devices as Server-Sent Events.
+   *
+   * @return the {@link SseEmitter} of the live position stream
+   */
+  @Operation(
+      summary = "Streams live positions",
+      description = """
+          Streams the position changes of all devices as Server-Sent Events. The stream starts with
+          the most recent position of each device, followed by each newer active position as soon
+          as it is saved, as `position` events with the telemetry data as JSON. A client that falls
+          behind only receives the newest position of each device, and a `heartbeat` comment is
+          sent when no position changes for a while. The client is expected to reconnect when the
+          stream ends
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200", description = "Live position stream opened",
+      content = @Content(
+          mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+          examples = {
+              @ExampleObject(
+                  name = "Live Positions",
+                  summary = "Two position events and a heartbeat",
+                  value = """
+                      event:position
+                      data:{"device":"SDABC","time":"2026-09-19T06:00:00Z","lat":39.510058,"lon":-9.136079,"active":true}
+
+                      event:position
+                      data:{"device":"SDDEF","time":"2026-09-19T06:00:06Z","lat":39.509001,"lon":-9.139602,"active":true}
+
+                      :heartbeat
+
+                      """
+              )
+          }
+      )
+  )
+  @ApiResponse(
+      responseCode = "429", description = "Maximum number of live position subscribers reached",
+      content = @Content
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull SseEmitter> getLivePositions();
+
+  /**
+   * Gets a page of the telemetry data history of a device, ordered by time.
+   *
+   * @param device the device identifier
+   * @param from   the start of the time range, inclusive
+   * @param to     the end of the time range, exclusive
+   * @param size   the maximum number of records of the page
+   * @param cursor the cursor returned with the previous page
+   * @return the telemetry data records of the page and the cursor of the next page
+   */
+  @Operation(
+      summary = "Gets the telemetry data history of a device",
+      description = """
+          Gets a page of the telemetry data history of a device, ordered by time, optionally
+          limited to a time range. The response includes a `cursor` while there are more records:
+          it must be sent back as the `cursor` parameter, with the same time range, to get the next
+          page. Every page costs the same to read, however deep into the history it is
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "Page of the telemetry data history successfully obtained",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Page with a cursor to the next page",
+                  value = """
+                      {
+                        "status": 200,
+                        "message": "OK",
+                        "details": "Request handled successfully",
+                        "data": [
+                          {
+                            "device": "SDABC",
+                            "time": "2026-09-19T06:00:00Z",
+                            "lat": 39.510058,
+                            "lon": -9.136079,
+                            "active": true
+                          },
+                          {
+                            "device": "SDABC",
+                            "time": "2026-09-19T06:06:00Z",
+                            "lat": 39.510071,
+                            "lon": -9.136071,
+                            "active": true
+                          }
+                        ],
+                        "cursor": "MjAyNi0wOS0xOVQwNjowNjowMFo"
+                      }
+                      """
+              )
+          }
+      )
+  )
   @OpenApiStandardErrors
-  ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryDTO>>> getMostRecentRecordForEachDevice();
+  ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryDTO>>> getHistory(
+      @Parameter(description = "The device identifier", example = "SDABC") String device,
+      @Parameter(
+          description = "Start of the time range, inclusive", example = "2026-09-19T06:00:00Z"
+      ) Instant from,
+      @Parameter(
+          description = "End of the time range, exclusive", example = "2026-09-19T07:00:00Z"
+      ) Instant to,
+      @Parameter(
+          description = "Maximum number of records of the page", example = "100"
+      ) Integer size,
+      @Parameter(
+          description = "Cursor returned with the previous page, to get the next page",
+          example = "MjAyNi0wOS0xOVQwNjowNjowMFo"
+      ) String cursor
+  );
 
   /**
-   * Saves the provided telemetry data, using the authenticated user as the owner account
+   * Gets the telemetry data history of a set of devices downsampled to one point per device and
+   * time bucket.
+   *
+   * @param devices the device identifiers
+   * @param from    the start of the time range, inclusive, and of the first bucket
+   * @param to      the end of the time range, exclusive
+   * @param bucket  the size of the buckets
+   * @param point   how the records of a bucket are downsampled
+   * @return the point of each non-empty bucket wrapped in an {@link EnduranceTrioResponse}
+   */
+  @Operation(
+      summary = "Gets the downsampled telemetry data history of a set of devices",
+      description = """
+          Gets one point per device and time bucket (e.g. `10s`, `1m`, `5m`) of the telemetry data
+          history of a set of devices, for zoomed-out charts and maps. The point of a bucket is its
+          first record, its last record or the centroid of its records. The buckets are computed
+          by the database and aligned on the start of the time range; empty buckets are omitted.
+          The number of buckets of a request is limited
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "Downsampled telemetry data history successfully obtained",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Last point of each 5 minutes bucket",
+                  value = """
+                      {
+                        "status": 200,
+                        "message": "OK",
+                        "details": "Request handled successfully",
+                        "data": [
+                          {
+                            "device": "SDABC",
+                            "bucket": "2026-09-19T06:00:00Z",
+                            "time": "2026-09-19T06:04:58Z",
+                            "lat": 39.510058,
+                            "lon": -9.136079,
+                            "active": true,
+                            "points": 150
+                          },
+                          {
+                            "device": "SDABC",
+                            "bucket": "2026-09-19T06:05:00Z",
+                            "time": "2026-09-19T06:09:58Z",
+                            "lat": 39.510071,
+                            "lon": -9.136071,
+                            "active": true,
+                            "points": 150
+                          }
+                        ]
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryBucketDTO>>> getBuckets(
+      @Parameter(
+          description = "Identifiers of the devices", example = "SDABC,SDDEF"
+      ) Set<String> devices,
+      @Parameter(
+          description = "Start of the time range, inclusive", example = "2026-09-19T06:00:00Z"
+      ) Instant from,
+      @Parameter(
+          description = "End of the time range, exclusive", example = "2026-09-19T07:00:00Z"
+      ) Instant to,
+      @Parameter(
+          description = "Size of the buckets, a whole number of seconds", example = "5m"
+      ) String bucket,
+      @Parameter(
+          description = "Point of each bucket: its first or last record, or their centroid",
+          example = "LAST"
+      ) TelemetryBucketPoint point
+  );
+
+  /**
+   * Gets the most recent telemetry data record of the devices nearest to a point.
+   *
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @param k         the maximum number of devices
+   * @return the latest record of the nearest devices, with their distance to the point, wrapped in
+   * an {@link EnduranceTrioResponse}
+   */
+  @Operation(
+      summary = "Gets the devices nearest to a point",
+      description = """
+          Gets the most recent active telemetry data record of the `k` devices nearest to a point,
+          such as an aid station, ordered by their great-circle distance (in meters) to the point.
+          The devices are found in memory, by visiting the grid cells around the point, nearest
+          first. The number of devices of a request is limited
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200", description = "Nearest devices successfully obtained",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "The 2 devices nearest to a point",
+                  value = """
+                      {
+                        "status": 200,
+                        "message": "OK",
+                        "details": "Request handled successfully",
+                        "data": [
+                          {
+                            "device": "SDABC",
+                            "time": "2026-09-19T06:00:00Z",
+                            "lat": 39.510058,
+                            "lon": -9.136079,
+                            "active": true,
+                            "distance": 42
+                          },
+                          {
+                            "device": "SDDEF",
+                            "time": "2026-09-19T06:00:06Z",
+                            "lat": 39.509001,
+                            "lon": -9.139602,
+                            "active": true,
+                            "distance": 317
+                          }
+                        ]
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull EnduranceTrioResponse<List<NearestDeviceDTO>>> getNearest(
+      @Parameter(description = "Latitude of the point", example = "39.5101") Double latitude,
+      @Parameter(description = "Longitude of the point", example = "-9.1365") Double longitude,
+      @Parameter(description = "Maximum number of devices", example = "10") Integer k
+  );
+
+  /**
+   * Gets the track of a device as a GeoJSON Feature, optionally simplified.
+   *
+   * @param device    the device identifier
+   * @param from      the start of the time range, inclusive
+   * @param to        the end of the time range, exclusive
+   * @param tolerance the simplification tolerance, in meters
+   * @return the track of the device wrapped in an {@link EnduranceTrioResponse}
+   */
+  @Operation(
+      summary = "Gets the track of a device",
+      description = """
+          Gets the positions of a device, ordered by time and optionally limited to a time range,
+          as a GeoJSON Feature with a LineString geometry. When a `tolerance` (in meters) is set,
+          the track is simplified with the Visvalingam-Whyatt algorithm: the positions that add
+          less than the tolerance to the shape of the track are removed, which keeps the track
+          small enough to be rendered by a browser
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "Track of the device successfully obtained",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Track simplified with a tolerance of 5 meters",
+                  value = """
+                      {
+                        "status": 200,
+                        "message": "OK",
+                        "details": "Request handled successfully",
+                        "data": {
+                          "type": "Feature",
+                          "geometry": {
+                            "type": "LineString",
+                            "coordinates": [
+                              [-9.136079, 39.510058],
+                              [-9.136071, 39.510071],
+                              [-9.138001, 39.509001]
+                            ]
+                          },
+                          "properties": {
+                            "device": "SDABC",
+                            "from": "2026-09-19T06:00:00Z",
+                            "to": "2026-09-19T07:00:00Z",
+                            "positions": 3600,
+                            "simplifiedPositions": 3
+                          }
+                        }
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull EnduranceTrioResponse<Feature>> getTrack(
+      @Parameter(description = "The device identifier", example = "SDABC") String device,
+      @Parameter(
+          description = "Start of the time range, inclusive", example = "2026-09-19T06:00:00Z"
+      ) Instant from,
+      @Parameter(
+          description = "End of the time range, exclusive", example = "2026-09-19T07:00:00Z"
+      ) Instant to,
+      @Parameter(
+          description = "Simplification tolerance, in meters; the track is not simplified when "
+              + "absent", example = "5"
+      ) Double tolerance
+  );
+
+  /**
+   * Exports the telemetry data history of a set of devices, ordered by device and time.
+   * <p>
+   * The records are streamed straight from the database to the response, so the export has no
+   * size limit and its memory use does not depend on the number of records.
+   *
+   * @param devices the device identifiers
+   * @param from    the start of the time range, inclusive
+   * @param to      the end of the time range, exclusive
+   * @param format  the format of the export
+   * @return the stream of the telemetry data records
+   */
+  @Operation(
+      summary = "Exports the telemetry data history of a set of devices",
+      description = """
+          Streams the telemetry data history of a set of devices, optionally limited to a time
+          range, as NDJSON (one telemetry object per line) or CSV (with a header line). The records
+          are ordered by device and time. The number of simultaneous exports is limited
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "Telemetry data history export started",
+      content = {
+          @Content(
+              mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+              examples = @ExampleObject(
+                  name = "NDJSON Export",
+                  value = """
+                      {"device":"SDABC","time":"2026-09-19T06:00:00Z","lat":39.510058,"lon":-9.136079,"active":true}
+                      {"device":"SDABC","time":"2026-09-19T06:06:00Z","lat":39.510071,"lon":-9.136071,"active":true}
+                      """
+              )
+          ),
+          @Content(
+              mediaType = TEXT_CSV_VALUE,
+              examples = @ExampleObject(
+                  name = "CSV Export",
+                  value = """
+                      device,record_time,latitude,longitude,active
+                      SDABC,2026-09-19T06:00:00Z,39.510058,-9.136079,true
+                      SDABC,2026-09-19T06:06:00Z,39.510071,-9.136071,true
+                      """
+              )
+          )
+      }
+  )
+  @ApiResponse(
+      responseCode = "429", description = "Maximum number of simultaneous exports reached",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class)
+      )
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull StreamingResponseBody> export(
+      @Parameter(
+          description = "Identifiers of the devices to export", example = "SDABC,SDDEF"
+      ) Set<String> devices,
+      @Parameter(
+          description = "Start of the time range, inclusive", example = "2026-09-19T06:00:00Z"
+      ) Instant from,
+      @Parameter(
+          description = "End of the time range, exclusive", example = "2026-09-19T07:00:00Z"
+      ) Instant to,
+      @Parameter(description = "Format of the export", example = "CSV")
+      TelemetryExportFormat format,
+      @Parameter(hidden = true) WebRequest request
+  );
+
+  /**
+   * Saves the provided telemetry data, using the authenticated user as the owner account.
+   * <p>
+   * Saving is idempotent: when a record of the same device and time is already saved, the
+   * telemetry data is ignored and the request is answered with 200 (OK) instead of 201 (Created).
+   * When the asynchronous ingestion ("accepted" mode) is enabled, the telemetry data is enqueued
+   * to be saved in the background and the request is answered with 202 (Accepted).
    *
    * @param deviceTelemetryDTO the device telemetry data to be saved
    * @return the saved {@link DeviceTelemetryDTO} wrapped in an {@link EnduranceTrioResponse}
    */
   @Operation(
       summary = "Save telemetry data",
-      description = "Saves the device telemetry data, using the authenticated user as the owner account",
+      description = """
+          Saves the device telemetry data, using the authenticated user as the owner account.
+          Telemetry data already saved for the same device and time is ignored and answered with
+          200 (OK). When the asynchronous ingestion is enabled, the telemetry data is enqueued to be
+          saved in the background and the request is answered with 202 (Accepted)
+          """,
       security = {
           @SecurityRequirement(name = "Account Name"),
           @SecurityRequirement(name = "API Key")
@@ -177,6 +666,66 @@ public interface DeviceTelemetryAPI {
           )
       }
   )
+  @ApiResponse(
+      responseCode = "200", description = "Telemetry data already saved, duplicate ignored",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Duplicate Response",
+                  summary = "Telemetry data already saved",
+                  value = """
+                      {
+                        "status": 200,
+                        "message": "OK",
+                        "details": "Duplicate record ignored, it was already saved",
+                        "data": {
+                          "device": "SDABC",
+                          "time": "2026-09-19T06:00:00Z",
+                          "lat": 39.510058,
+                          "lon": -9.136079,
+                          "active": true
+                        }
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @ApiResponse(
+      responseCode = "202", description = "Telemetry data accepted to be saved asynchronously",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class)
+      )
+  )
+  @ApiResponse(
+      responseCode = "429", description = "Telemetry data ingestion queue is full, retry later",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Too Many Requests Error",
+                  summary = "Example of an ingestion queue full failure",
+                  value = """
+                      {
+                        "status": 429,
+                        "message": "Too Many Requests",
+                        "details": "The request cannot be handled at the moment, please retry later",
+                        "data": [
+                          {
+                            "error": "TOO_MANY_REQUESTS",
+                            "message": "The request cannot be handled at the moment, please retry later"
+                          }
+                        ]
+                      }
+                      """
+              )
+          }
+      )
+  )
   @OpenApiStandardErrors
   @RequestBody(
       description = "Telemetry data to be saved", required = true,
@@ -206,4 +755,275 @@ public interface DeviceTelemetryAPI {
           required = true
       ) DeviceTelemetryDTO deviceTelemetryDTO
   );
+
+  /**
+   * Saves the provided batch of telemetry data, using the authenticated user as the owner account.
+   * <p>
+   * Each record is validated individually, the records already saved are reported as duplicated
+   * and the remaining valid ones are saved in a single transaction.
+   *
+   * @param deviceTelemetryDTOs the batch of device telemetry data to be saved
+   * @return the {@link TelemetryBatchResultDTO} with the result of each record wrapped in an
+   * {@link EnduranceTrioResponse}
+   */
+  @Operation(
+      summary = "Save a batch of telemetry data",
+      description = """
+          Saves a batch of device telemetry data, using the authenticated user as the owner account.
+          Each record is validated individually: invalid records are reported as rejected, records
+          already saved for the same device and time are reported as duplicated and the remaining
+          valid ones are saved in a single transaction
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "201", description = "At least one telemetry data record successfully saved",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Telemetry data batch with a duplicated and a rejected record",
+                  value = """
+                      {
+                        "status": 201,
+                        "message": "Created",
+                        "details": "Request handled successfully",
+                        "data": {
+                          "received": 3,
+                          "accepted": 1,
+                          "duplicated": 1,
+                          "rejected": 1,
+                          "items": [
+                            {
+                              "index": 0,
+                              "status": "CREATED"
+                            },
+                            {
+                              "index": 1,
+                              "status": "DUPLICATE"
+                            },
+                            {
+                              "index": 2,
+                              "status": "REJECTED",
+                              "errors": [
+                                "Latitude must be between -90 and 90"
+                              ]
+                            }
+                          ]
+                        }
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "No telemetry data record saved, all records duplicated or rejected",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class)
+      )
+  )
+  @OpenApiStandardErrors
+  @RequestBody(
+      description = "Batch of telemetry data to be saved", required = true,
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = DeviceTelemetryDTO[].class),
+          examples = {
+              @ExampleObject(
+                  name = "Telemetry Data Batch Example",
+                  summary = "A typical telemetry data batch payload",
+                  value = """
+                      [
+                        {
+                          "device": "SDABC",
+                          "time": "2026-09-19T06:00:00Z",
+                          "lat": 39.510058,
+                          "lon": -9.136079,
+                          "active": true
+                        },
+                        {
+                          "device": "SDABC",
+                          "time": "2026-09-19T06:06:00Z",
+                          "lat": 39.510071,
+                          "lon": -9.136071,
+                          "active": true
+                        }
+                      ]
+                      """
+              )
+          }
+      )
+  )
+  ResponseEntity<@NonNull EnduranceTrioResponse<TelemetryBatchResultDTO>> saveAll(
+      @Parameter(
+          description = "List of tracking data transfer objects with device location information",
+          required = true
+      ) List<DeviceTelemetryDTO> deviceTelemetryDTOs
+  );
+
+  /**
+   * Saves the telemetry data records of the provided NDJSON stream, using the authenticated user as
+   * the owner account.
+   * <p>
+   * The stream is read incrementally and the valid records are saved in chunks while the stream is
+   * still being received.
+   *
+   * @param inputStream the NDJSON stream with one telemetry data record per line
+   * @return the {@link TelemetryStreamResultDTO} with the accepted and rejected records counts
+   * wrapped in an {@link EnduranceTrioResponse}
+   */
+  @Operation(
+      summary = "Save a stream of telemetry data",
+      description = """
+          Saves a NDJSON stream of device telemetry data (one record per line), using the
+          authenticated user as the owner account. The stream is read incrementally and the valid
+          records are saved in chunks while the stream is still being received. The invalid records
+          are reported as rejected with their line number and the records already saved are counted
+          as duplicated
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "201", description = "At least one telemetry data record successfully saved",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Telemetry data stream processed with a rejected record",
+                  value = """
+                      {
+                        "status": 201,
+                        "message": "Created",
+                        "details": "Request handled successfully",
+                        "data": {
+                          "received": 3,
+                          "accepted": 2,
+                          "duplicated": 0,
+                          "rejected": 1,
+                          "rejections": [
+                            {
+                              "line": 2,
+                              "errors": [
+                                "Telemetry data record is not valid JSON"
+                              ]
+                            }
+                          ]
+                        }
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "No telemetry data record saved, all records duplicated or rejected",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class)
+      )
+  )
+  @OpenApiStandardErrors
+  @RequestBody(
+      description = "Stream of telemetry data to be saved, one JSON record per line",
+      required = true,
+      content = @Content(
+          mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+          examples = {
+              @ExampleObject(
+                  name = "Telemetry Data Stream Example",
+                  summary = "A typical telemetry data stream payload",
+                  value = """
+                      {"device": "SDABC", "time": "2026-09-19T06:00:00Z", "lat": 39.510058, "lon": -9.136079, "active": true}
+                      {"device": "SDABC", "time": "2026-09-19T06:06:00Z", "lat": 39.510071, "lon": -9.136071, "active": true}
+                      """
+              )
+          }
+      )
+  )
+  ResponseEntity<@NonNull EnduranceTrioResponse<TelemetryStreamResultDTO>> saveStream(
+      @Parameter(hidden = true) InputStream inputStream
+  );
+
+  @Operation(
+      summary = "Import historical telemetry data",
+      description = """
+          Imports a CSV file of historical device telemetry data, using the authenticated user as
+          the owner account. The file must start with the header line
+          `device,record_time,latitude,longitude,active` and the record time must be an ISO-8601
+          instant. The file is streamed straight into the database and imported in a single
+          transaction: a file that cannot be parsed saves no records, while records with missing
+          values or coordinates out of range, and records already saved, are skipped
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "201", description = "At least one telemetry data record imported",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Telemetry data file imported with a skipped record",
+                  value = """
+                      {
+                        "status": 201,
+                        "message": "Created",
+                        "details": "Request handled successfully",
+                        "data": {
+                          "received": 3,
+                          "imported": 2,
+                          "skipped": 1
+                        }
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @ApiResponse(
+      responseCode = "200", description = "No telemetry data record imported, all records skipped",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class)
+      )
+  )
+  @OpenApiStandardErrors
+  @RequestBody(
+      description = "CSV file of telemetry data to be imported", required = true,
+      content = @Content(
+          mediaType = TEXT_CSV_VALUE,
+          examples = {
+              @ExampleObject(
+                  name = "Telemetry Data File Example",
+                  summary = "A typical telemetry data import file",
+                  value = """
+                      device,record_time,latitude,longitude,active
+                      SDABC,2026-09-19T06:00:00Z,39.510058,-9.136079,true
+                      SDABC,2026-09-19T06:06:00Z,39.510071,-9.136071,true
+                      """
+              )
+          }
+      )
+  )
+  ResponseEntity<@NonNull EnduranceTrioResponse<TelemetryImportResultDTO>> importCsv(
+      @Parameter(hidden = true) InputStream inputStream
+  );
 }
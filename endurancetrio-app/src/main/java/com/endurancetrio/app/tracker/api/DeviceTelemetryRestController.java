@@ -21,7 +21,9 @@
 package com.endurancetrio.app.tracker.api;
 
 import static com.endurancetrio.app.common.constants.ControllerConstants.API_PATH;
+import static com.endurancetrio.app.common.constants.ControllerConstants.DETAILS_DUPLICATE;
 import static com.endurancetrio.app.common.constants.ControllerConstants.DETAILS_SUCCESS;
+import static com.endurancetrio.app.common.constants.ControllerConstants.TEXT_CSV_VALUE;
 import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_DOMAIN;
 import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_RESOURCE_DEVICES;
 import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_V1;
@@ -30,25 +32,59 @@
 import com.endurancetrio.app.common.response.EnduranceTrioResponse;
 import com.endurancetrio.business.common.exception.BadRequestException;
 import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
 import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryBucketDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryChangesDTO;
 import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryPageDTO;
+import com.endurancetrio.business.tracker.dto.NearestDeviceDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBatchResultDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBucketPoint;
+import com.endurancetrio.business.tracker.dto.TelemetryExportDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryExportFormat;
+import com.endurancetrio.business.tracker.dto.TelemetryImportResultDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryItemStatus;
+import com.endurancetrio.business.tracker.dto.TelemetryStreamResultDTO;
+import com.endurancetrio.business.tracker.dto.geojson.Feature;
 import com.endurancetrio.business.tracker.service.DeviceTelemetryService;
+import com.endurancetrio.business.tracker.service.DeviceTrackService;
+import com.endurancetrio.business.tracker.service.LivePositionService;
+import com.endurancetrio.business.tracker.service.TelemetryExportService;
+import com.endurancetrio.business.tracker.service.TelemetryImportService;
+import com.endurancetrio.business.tracker.service.TelemetryIngestionService;
+import com.endurancetrio.business.tracker.service.TelemetryStreamService;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import org.jspecify.annotations.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @EnduranceTrioRestController
 @RequestMapping(API_PATH + TRACKER_DOMAIN + TRACKER_V1)
@@ -57,10 +93,28 @@ public class DeviceTelemetryRestController implements DeviceTelemetryAPI {
   private static final Logger LOG = LoggerFactory.getLogger(DeviceTelemetryRestController.class);
 
   private final DeviceTelemetryService deviceTelemetryService;
+  private final TelemetryIngestionService telemetryIngestionService;
+  private final TelemetryStreamService telemetryStreamService;
+  private final TelemetryImportService telemetryImportService;
+  private final LivePositionService livePositionService;
+  private final TelemetryExportService telemetryExportService;
+  private final DeviceTrackService deviceTrackService;
 
   @Autowired
-  public DeviceTelemetryRestController(DeviceTelemetryService deviceTelemetryService) {
+  public DeviceTelemetryRestController(
+      DeviceTelemetryService deviceTelemetryService,
+      TelemetryIngestionService telemetryIngestionService,
+      TelemetryStreamService telemetryStreamService,
+      TelemetryImportService telemetryImportService, LivePositionService livePositionService,
+      TelemetryExportService telemetryExportService, DeviceTrackService deviceTrackService
+  ) {
     this.deviceTelemetryService = deviceTelemetryService;
+    this.telemetryIngestionService = telemetryIngestionService;
+    this.telemetryStreamService = telemetryStreamService;
+    this.telemetryImportService = telemetryImportService;
+    this.livePositionService = livePositionService;
+    this.telemetryExportService = telemetryExportService;
+    this.deviceTrackService = deviceTrackService;
   }
 
   @Override
@@ -68,17 +122,209 @@ public DeviceTelemetryRestController(DeviceTelemetryService deviceTelemetryServi
   @GetMapping(
       value = TRACKER_RESOURCE_DEVICES, produces = MediaType.APPLICATION_JSON_VALUE
   )
-  public ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryDTO>>> getMostRecentRecordForEachDevice() {
+  public ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryDTO>>> getMostRecentRecordForEachDevice(
+      @RequestParam(value = "since", required = false) String since,
+      @RequestParam(value = "bbox", required = false) String bbox, WebRequest request
+  ) {
+
+    if (since != null && bbox != null) {
+      String errorMessage = "The since and bbox parameters cannot be used together";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    // The version is read before the data, so a stale version can never match newer data
+    Optional<String> version = deviceTelemetryService.findMostRecentRecordVersion();
+    if (version.isPresent() && request.checkNotModified(version.get())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    HttpStatus status = HttpStatus.OK;
+    if (bbox != null) {
+      List<DeviceTelemetryDTO> within = deviceTelemetryService.findMostRecentRecordWithin(bbox);
+      return ResponseEntity.status(status).body(new EnduranceTrioResponse<>(status.value(),
+          status.getReasonPhrase(), DETAILS_SUCCESS, within
+      ));
+    }
+
+    DeviceTelemetryChangesDTO changes = deviceTelemetryService.findMostRecentRecordChangedSince(
+        since);
+
+    EnduranceTrioResponse<List<DeviceTelemetryDTO>> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, changes.telemetry(),
+        changes.cursor()
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @GetMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE
+  )
+  public ResponseEntity<@NonNull SseEmitter> getLivePositions() {
+
+    // No timeout: the heartbeats detect the disconnected clients
+    SseEmitter emitter = new SseEmitter(0L);
+    SseLivePositionSink sink = new SseLivePositionSink(emitter);
+
+    emitter.onCompletion(() -> livePositionService.unsubscribe(sink));
+    emitter.onTimeout(() -> livePositionService.unsubscribe(sink));
+    emitter.onError(exception -> livePositionService.unsubscribe(sink));
+
+    try {
+      livePositionService.subscribe(sink);
+    } catch (TooManyRequestsException exception) {
+      // Answered without a body, since the event stream clients do not accept JSON
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+    }
+
+    return ResponseEntity.ok(emitter);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.OK)
+  @GetMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/{device}/telemetry",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryDTO>>> getHistory(
+      @PathVariable String device, @RequestParam(value = "from", required = false) Instant from,
+      @RequestParam(value = "to", required = false) Instant to,
+      @RequestParam(value = "size", required = false) Integer size,
+      @RequestParam(value = "cursor", required = false) String cursor
+  ) {
+
+    DeviceTelemetryPageDTO page = deviceTelemetryService.findHistory(device, from, to, size,
+        cursor
+    );
 
     HttpStatus status = HttpStatus.OK;
-    List<DeviceTelemetryDTO> data = deviceTelemetryService.findMostRecentRecordForEachDevice();
 
     EnduranceTrioResponse<List<DeviceTelemetryDTO>> response = new EnduranceTrioResponse<>(
-        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, data);
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, page.telemetry(), page.cursor()
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.OK)
+  @GetMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/history",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<List<DeviceTelemetryBucketDTO>>> getBuckets(
+      @RequestParam(value = "devices") Set<String> devices,
+      @RequestParam(value = "from") Instant from, @RequestParam(value = "to") Instant to,
+      @RequestParam(value = "bucket") String bucket,
+      @RequestParam(value = "point", defaultValue = "LAST") TelemetryBucketPoint point
+  ) {
+
+    List<DeviceTelemetryBucketDTO> data = deviceTelemetryService.findBuckets(devices, from, to,
+        bucket, point
+    );
+
+    HttpStatus status = HttpStatus.OK;
+
+    EnduranceTrioResponse<List<DeviceTelemetryBucketDTO>> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.OK)
+  @GetMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/nearest",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<List<NearestDeviceDTO>>> getNearest(
+      @RequestParam(value = "lat") Double latitude, @RequestParam(value = "lon") Double longitude,
+      @RequestParam(value = "k", required = false) Integer k
+  ) {
+
+    List<NearestDeviceDTO> data = deviceTelemetryService.findNearest(latitude, longitude, k);
+
+    HttpStatus status = HttpStatus.OK;
+
+    EnduranceTrioResponse<List<NearestDeviceDTO>> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
 
     return ResponseEntity.status(status).body(response);
   }
 
+  @Override
+  @ResponseStatus(HttpStatus.OK)
+  @GetMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/{device}/track",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<Feature>> getTrack(
+      @PathVariable String device, @RequestParam(value = "from", required = false) Instant from,
+      @RequestParam(value = "to", required = false) Instant to,
+      @RequestParam(value = "tolerance", required = false) Double tolerance
+  ) {
+
+    Feature data = deviceTrackService.findTrack(device, from, to, tolerance);
+
+    HttpStatus status = HttpStatus.OK;
+
+    EnduranceTrioResponse<Feature> response = new EnduranceTrioResponse<>(status.value(),
+        status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @GetMapping(value = TRACKER_RESOURCE_DEVICES + "/export")
+  public ResponseEntity<@NonNull StreamingResponseBody> export(
+      @RequestParam(value = "devices") Set<String> devices,
+      @RequestParam(value = "from", required = false) Instant from,
+      @RequestParam(value = "to", required = false) Instant to,
+      @RequestParam(value = "format", defaultValue = "NDJSON") TelemetryExportFormat format,
+      WebRequest request
+  ) {
+
+    // Validated before the response starts, so that the errors still get their status code
+    TelemetryExportDTO export = telemetryExportService.reserve(devices, from, to);
+
+    // The slot is also freed when the response ends without the export being written, on a
+    // timeout, an error or a disconnection before the body runs
+    WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(export,
+        new CallableProcessingInterceptor() {
+          @Override
+          public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+            telemetryExportService.release(export);
+          }
+        }
+    );
+
+    MediaType contentType;
+    String fileName;
+    if (format == TelemetryExportFormat.CSV) {
+      contentType = MediaType.parseMediaType(TEXT_CSV_VALUE);
+      fileName = "telemetry.csv";
+    } else {
+      contentType = MediaType.APPLICATION_NDJSON;
+      fileName = "telemetry.ndjson";
+    }
+
+    StreamingResponseBody body = outputStream -> telemetryExportService.export(export, format,
+        outputStream
+    );
+
+    return ResponseEntity.ok()
+        .contentType(contentType)
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(fileName).build().toString()
+        )
+        .body(body);
+  }
+
   @Override
   @ResponseStatus(HttpStatus.CREATED)
   @PostMapping(
@@ -94,6 +340,114 @@ public DeviceTelemetryRestController(DeviceTelemetryService deviceTelemetryServi
       throw new BadRequestException(EnduranceTrioError.BAD_REQUEST);
     }
 
+    String owner = getAuthenticatedOwner();
+
+    HttpStatus status;
+    String details = DETAILS_SUCCESS;
+    if (telemetryIngestionService.isAsynchronous()) {
+      telemetryIngestionService.enqueue(owner, deviceTelemetryDTO);
+      status = HttpStatus.ACCEPTED;
+    } else if (deviceTelemetryService.save(owner, deviceTelemetryDTO)
+        == TelemetryItemStatus.DUPLICATE) {
+      status = HttpStatus.OK;
+      details = DETAILS_DUPLICATE;
+    } else {
+      status = HttpStatus.CREATED;
+    }
+
+    EnduranceTrioResponse<DeviceTelemetryDTO> response = new EnduranceTrioResponse<>(status.value(),
+        status.getReasonPhrase(), details, deviceTelemetryDTO
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.CREATED)
+  @PostMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<TelemetryBatchResultDTO>> saveAll(
+      @RequestBody List<DeviceTelemetryDTO> deviceTelemetryDTOs
+  ) {
+
+    String owner = getAuthenticatedOwner();
+
+    TelemetryBatchResultDTO data = deviceTelemetryService.saveAll(owner, deviceTelemetryDTOs);
+
+    HttpStatus status;
+    if (data.accepted() > 0) {
+      status = HttpStatus.CREATED;
+    } else {
+      status = HttpStatus.OK;
+    }
+
+    EnduranceTrioResponse<TelemetryBatchResultDTO> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.CREATED)
+  @PostMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<TelemetryStreamResultDTO>> saveStream(
+      InputStream inputStream
+  ) {
+
+    String owner = getAuthenticatedOwner();
+
+    TelemetryStreamResultDTO data = telemetryStreamService.save(owner, inputStream);
+
+    HttpStatus status;
+    if (data.accepted() > 0) {
+      status = HttpStatus.CREATED;
+    } else {
+      status = HttpStatus.OK;
+    }
+
+    EnduranceTrioResponse<TelemetryStreamResultDTO> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.CREATED)
+  @PostMapping(
+      value = TRACKER_RESOURCE_DEVICES + "/import", consumes = TEXT_CSV_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<TelemetryImportResultDTO>> importCsv(
+      InputStream inputStream
+  ) {
+
+    String owner = getAuthenticatedOwner();
+
+    TelemetryImportResultDTO data = telemetryImportService.importCsv(owner, inputStream);
+
+    HttpStatus status;
+    if (data.imported() > 0) {
+      status = HttpStatus.CREATED;
+    } else {
+      status = HttpStatus.OK;
+    }
+
+    EnduranceTrioResponse<TelemetryImportResultDTO> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  private String getAuthenticatedOwner() {
+
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
     if (authentication == null || !authentication.isAuthenticated()) {
       throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
@@ -105,13 +459,6 @@ public DeviceTelemetryRestController(DeviceTelemetryService deviceTelemetryServi
       throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
     }
 
-    HttpStatus status = HttpStatus.CREATED;
-    DeviceTelemetryDTO data = deviceTelemetryService.save(owner, deviceTelemetryDTO);
-
-    EnduranceTrioResponse<DeviceTelemetryDTO> response = new EnduranceTrioResponse<>(status.value(),
-        status.getReasonPhrase(), DETAILS_SUCCESS, data
-    );
-
-    return ResponseEntity.status(status).body(response);
+    return owner;
   }
 }
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.app.tracker.api;
+
+import com.endurancetrio.app.common.annotation.OpenApiStandardErrors;
+import com.endurancetrio.app.common.response.EnduranceTrioResponse;
+import com.endurancetrio.business.tracker.dto.GeofenceDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
+import java.util.List;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+@Tag(
+    name = "Geofence",
+    description = """
+        Manages the circular and polygon geofences of the account and reports the devices entering
+        and leaving them, as their telemetry data is saved
+        """
+)
+public interface GeofenceAPI {
+
+  /**
+   * Creates a geofence for the authenticated account.
+   *
+   * @param geofenceDTO the geofence to be created
+   * @return a {@link ResponseEntity} containing an {@link EnduranceTrioResponse} with the created
+   * {@link GeofenceDTO}
+   */
+  @Operation(
+      summary = "Creates a geofence",
+      description = """
+          Creates a geofence for the account. A `CIRCLE` is given by the `lat` and `lon` of its
+          center and its `radius` in meters; a `POLYGON` by its `coordinates`, a list of
+          `[lon, lat]` vertices that must not cross the antimeridian (the closing vertex is
+          optional). From then on, the telemetry data records saved for the account report an
+          `ENTER` event when a device moves into the geofence and an `EXIT` event when it leaves
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "201",
+      description = "Geofence successfully created",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Polygon geofence created successfully",
+                  value = """
+                      {
+                        "status": 201,
+                        "message": "Created",
+                        "details": "Request handled successfully",
+                        "data": {
+                          "id": 1,
+                          "name": "Transition Area",
+                          "shape": "POLYGON",
+                          "lat": null,
+                          "lon": null,
+                          "radius": null,
+                          "coordinates": [
+                            [-9.1365, 39.5098],
+                            [-9.1355, 39.5098],
+                            [-9.1355, 39.5104],
+                            [-9.1365, 39.5104]
+                          ]
+                        }
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @OpenApiStandardErrors
+  @RequestBody(
+      description = "The geofence to be created",
+      required = true,
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = GeofenceDTO.class),
+          examples = {
+              @ExampleObject(
+                  name = "Circle",
+                  value = """
+                      {
+                        "name": "Finish Line",
+                        "shape": "CIRCLE",
+                        "lat": 39.510058,
+                        "lon": -9.136079,
+                        "radius": 50
+                      }
+                      """
+              ),
+              @ExampleObject(
+                  name = "Polygon",
+                  value = """
+                      {
+                        "name": "Transition Area",
+                        "shape": "POLYGON",
+                        "coordinates": [
+                          [-9.1365, 39.5098],
+                          [-9.1355, 39.5098],
+                          [-9.1355, 39.5104],
+                          [-9.1365, 39.5104]
+                        ]
+                      }
+                      """
+              )
+          }
+      )
+  )
+  ResponseEntity<@NonNull EnduranceTrioResponse<GeofenceDTO>> save(
+      @Parameter(description = "Geofence to be created", required = true) GeofenceDTO geofenceDTO
+  );
+
+  /**
+   * Retrieves the geofences of the authenticated account.
+   *
+   * @return a {@link ResponseEntity} containing an {@link EnduranceTrioResponse} with the list of
+   * {@link GeofenceDTO} of the account, ordered by name
+   */
+  @Operation(
+      summary = "Retrieves the geofences",
+      description = "Gets the geofences of the account, ordered by name",
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "List of the geofences of the account successfully obtained",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "List of geofences successfully obtained",
+                  value = """
+                      {
+                        "status": 200,
+                        "message": "OK",
+                        "details": "Request handled successfully",
+                        "data": [
+                          {
+                            "id": 6,
+                            "name": "Finish Line",
+                            "shape": "CIRCLE",
+                            "lat": 39.510058,
+                            "lon": -9.136079,
+                            "radius": 50.0,
+                            "coordinates": null
+                          }
+                        ]
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull EnduranceTrioResponse<List<GeofenceDTO>>> findAll();
+
+  /**
+   * Deletes a geofence of the authenticated account, along with its events.
+   *
+   * @param id the unique identifier of the geofence
+   * @return an empty {@link ResponseEntity}
+   */
+  @Operation(
+      summary = "Deletes a geofence",
+      description = """
+          Deletes a geofence of the account along with its events. The devices inside the geofence
+          do not report an `EXIT` event
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(responseCode = "204", description = "Geofence successfully deleted")
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull Void> delete(
+      @Parameter(description = "The unique identifier of the geofence", example = "1") Long id
+  );
+
+  /**
+   * Gets a page of the geofence events of the authenticated account, ordered by time.
+   *
+   * @param device the device identifier
+   * @param from   the start of the time range, inclusive
+   * @param to     the end of the time range, exclusive
+   * @param size   the maximum number of events of the page
+   * @param cursor the cursor returned with the previous page
+   * @return the geofence events of the page and the cursor of the next page
+   */
+  @Operation(
+      summary = "Gets the geofence events",
+      description = """
+          Gets a page of the `ENTER` and `EXIT` events of the geofences of the account, ordered by
+          the time of the telemetry data record that crossed the boundary, optionally limited to a
+          device and a time range. The response includes a `cursor` while there are more events: it
+          must be sent back as the `cursor` parameter, with the same filters, to get the next page
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "Page of the geofence events successfully obtained",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Page with a cursor to the next page",
+                  value = """
+                      {
+                        "status": 200,
+                        "message": "OK",
+                        "details": "Request handled successfully",
+                        "data": [
+                          {
+                            "id": 1,
+                            "geofenceId": 6,
+                            "device": "SDABC",
+                            "type": "ENTER",
+                            "time": "2026-09-19T06:00:00Z",
+                            "lat": 39.510058,
+                            "lon": -9.136079
+                          },
+                          {
+                            "id": 51,
+                            "geofenceId": 6,
+                            "device": "SDABC",
+                            "type": "EXIT",
+                            "time": "2026-09-19T06:06:00Z",
+                            "lat": 39.511071,
+                            "lon": -9.136071
+                          }
+                        ],
+                        "cursor": "MjAyNi0wOS0xOVQwNjowNjowMFosNTE"
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull EnduranceTrioResponse<List<GeofenceEventDTO>>> getEvents(
+      @Parameter(
+          description = "The device identifier, to get only the events of that device",
+          example = "SDABC"
+      ) String device,
+      @Parameter(
+          description = "Start of the time range, inclusive", example = "2026-09-19T06:00:00Z"
+      ) Instant from,
+      @Parameter(
+          description = "End of the time range, exclusive", example = "2026-09-19T07:00:00Z"
+      ) Instant to,
+      @Parameter(
+          description = "Maximum number of events of the page", example = "100"
+      ) Integer size,
+      @Parameter(
+          description = "Cursor returned with the previous page, to get the next page",
+          example = "MjAyNi0wOS0xOVQwNjowNjowMFosNTE"
+      ) String cursor
+  );
+}
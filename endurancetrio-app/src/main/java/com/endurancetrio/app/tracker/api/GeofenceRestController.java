@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.app.tracker.api;
+
+import static com.endurancetrio.app.common.constants.ControllerConstants.API_PATH;
+import static com.endurancetrio.app.common.constants.ControllerConstants.DETAILS_SUCCESS;
+import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_DOMAIN;
+import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_RESOURCE_GEOFENCES;
+import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_V1;
+
+import com.endurancetrio.app.common.annotation.EnduranceTrioRestController;
+import com.endurancetrio.app.common.response.EnduranceTrioResponse;
+import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.GeofenceDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventPageDTO;
+import com.endurancetrio.business.tracker.service.GeofenceService;
+import jakarta.validation.Valid;
+import java.time.Instant;
+import java.util.List;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@EnduranceTrioRestController
+@RequestMapping(API_PATH + TRACKER_DOMAIN + TRACKER_V1)
+public class GeofenceRestController implements GeofenceAPI {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GeofenceRestController.class);
+
+  private final GeofenceService geofenceService;
+
+  public GeofenceRestController(GeofenceService geofenceService) {
+    this.geofenceService = geofenceService;
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.CREATED)
+  @PostMapping(
+      value = TRACKER_RESOURCE_GEOFENCES,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<GeofenceDTO>> save(
+      @Valid @RequestBody GeofenceDTO geofenceDTO
+  ) {
+
+    GeofenceDTO data = geofenceService.save(getAuthenticatedOwner(), geofenceDTO);
+
+    HttpStatus status = HttpStatus.CREATED;
+
+    EnduranceTrioResponse<GeofenceDTO> response = new EnduranceTrioResponse<>(status.value(),
+        status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.OK)
+  @GetMapping(value = TRACKER_RESOURCE_GEOFENCES, produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<@NonNull EnduranceTrioResponse<List<GeofenceDTO>>> findAll() {
+
+    List<GeofenceDTO> data = geofenceService.findAll(getAuthenticatedOwner());
+
+    HttpStatus status = HttpStatus.OK;
+
+    EnduranceTrioResponse<List<GeofenceDTO>> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  @DeleteMapping(value = TRACKER_RESOURCE_GEOFENCES + "/{id}")
+  public ResponseEntity<@NonNull Void> delete(@NonNull @PathVariable Long id) {
+
+    geofenceService.delete(getAuthenticatedOwner(), id);
+
+    return ResponseEntity.noContent().build();
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.OK)
+  @GetMapping(
+      value = TRACKER_RESOURCE_GEOFENCES + "/events",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<@NonNull EnduranceTrioResponse<List<GeofenceEventDTO>>> getEvents(
+      @RequestParam(value = "device", required = false) String device,
+      @RequestParam(value = "from", required = false) Instant from,
+      @RequestParam(value = "to", required = false) Instant to,
+      @RequestParam(value = "size", required = false) Integer size,
+      @RequestParam(value = "cursor", required = false) String cursor
+  ) {
+
+    GeofenceEventPageDTO page = geofenceService.findEvents(getAuthenticatedOwner(), device, from,
+        to, size, cursor
+    );
+
+    HttpStatus status = HttpStatus.OK;
+
+    EnduranceTrioResponse<List<GeofenceEventDTO>> response = new EnduranceTrioResponse<>(
+        status.value(), status.getReasonPhrase(), DETAILS_SUCCESS, page.events(), page.cursor()
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  private String getAuthenticatedOwner() {
+
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !authentication.isAuthenticated()) {
+      throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
+    }
+    String owner = authentication.getName();
+
+    if (owner == null || owner.isBlank()) {
+      LOG.error("There is no authenticated owner for the geofences");
+      throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
+    }
+
+    return owner;
+  }
+}
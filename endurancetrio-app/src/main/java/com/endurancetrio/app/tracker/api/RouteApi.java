@@ -38,6 +38,7 @@
 import org.jspecify.annotations.NonNull;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(
     name = "Route",
@@ -49,8 +50,10 @@
 public interface RouteApi {
 
   /**
-   * Retrieves all route configurations.
+   * Retrieves all route configurations, or answers {@code 304 Not Modified} when none changed since
+   * the read identified by the {@code If-None-Match} header.
    *
+   * @param request the current request, used to evaluate the {@code If-None-Match} header
    * @return a {@link ResponseEntity} containing an {@link EnduranceTrioResponse} with a list of
    * {@link RouteDTO} representing all route configurations
    */
@@ -122,8 +125,14 @@ public interface RouteApi {
           }
       )
   )
+  @ApiResponse(
+      responseCode = "304",
+      description = "No route changed since the read that returned the `If-None-Match` ETag"
+  )
   @OpenApiStandardErrors
-  ResponseEntity<@NonNull EnduranceTrioResponse<List<RouteDTO>>> findAll();
+  ResponseEntity<@NonNull EnduranceTrioResponse<List<RouteDTO>>> findAll(
+      @Parameter(hidden = true) WebRequest request
+  );
 
   /**
    * Saves the provided route configuration.
@@ -241,9 +250,10 @@ public interface RouteApi {
   /**
    * Finds a route configuration by its unique identifier.
    *
-   * @param id the unique identifier of the route configuration
+   * @param id      the unique identifier of the route configuration
+   * @param request the current request, used to evaluate the {@code If-None-Match} header
    * @return a {@link ResponseEntity} containing an {@link EnduranceTrioResponse} with the
-   * corresponding {@link RouteDTO}
+   * corresponding {@link RouteDTO}, or {@code 304 Not Modified} when it did not change
    */
   @Operation(
       summary = "Find route configuration by it s id",
@@ -297,9 +307,15 @@ public interface RouteApi {
           }
       )
   )
+  @ApiResponse(
+      responseCode = "304",
+      description = "Route unchanged since the read that returned the `If-None-Match` ETag"
+  )
   @OpenApiStandardErrors
   ResponseEntity<EnduranceTrioResponse<RouteDTO>> findById(
-      @Parameter(description = "The unique identifier of the route", example = "1") @NonNull Long id
+      @Parameter(description = "The unique identifier of the route", example = "1")
+      @NonNull Long id,
+      @Parameter(hidden = true) WebRequest request
   );
 
   /**
@@ -33,6 +33,7 @@
 import com.endurancetrio.business.tracker.service.RouteService;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 import org.jspecify.annotations.NonNull;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -43,6 +44,7 @@
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
 
 @EnduranceTrioRestController
 @RequestMapping(API_PATH + TRACKER_DOMAIN + TRACKER_V1)
@@ -57,7 +59,14 @@ public RouteRestController(RouteService routeService) {
   @Override
   @ResponseStatus(HttpStatus.OK)
   @GetMapping(value = TRACKER_RESOURCE_ROUTES, produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<@NonNull EnduranceTrioResponse<List<RouteDTO>>> findAll() {
+  public ResponseEntity<@NonNull EnduranceTrioResponse<List<RouteDTO>>> findAll(
+      WebRequest request
+  ) {
+
+    // The version is read before the data, so a stale version can never match newer data
+    if (request.checkNotModified(routeService.findAllVersion())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
 
     List<RouteDTO> data = routeService.findAll();
 
@@ -103,7 +112,15 @@ public RouteRestController(RouteService routeService) {
       value = TRACKER_RESOURCE_ROUTES + "/{id}",
       produces = MediaType.APPLICATION_JSON_VALUE
   )
-  public ResponseEntity<EnduranceTrioResponse<RouteDTO>> findById(@NonNull @PathVariable Long id) {
+  public ResponseEntity<EnduranceTrioResponse<RouteDTO>> findById(
+      @NonNull @PathVariable Long id, WebRequest request
+  ) {
+
+    // The version is read before the data, so a stale version can never match newer data
+    Optional<String> version = routeService.findVersionById(id);
+    if (version.isPresent() && request.checkNotModified(version.get())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
 
     RouteDTO data = routeService.findById(id);
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.app.tracker.api;
+
+import com.endurancetrio.app.common.annotation.OpenApiStandardErrors;
+import com.endurancetrio.app.common.response.EnduranceTrioResponse;
+import com.endurancetrio.business.tracker.dto.SessionTokenDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+@Tag(
+    name = "Session",
+    description = """
+        Issues short-lived session tokens, verified without any database access, to be sent instead
+        of the API key
+        """
+)
+public interface SessionAPI {
+
+  /**
+   * Issues a session token to the account authenticated with its API key.
+   *
+   * @return a {@link ResponseEntity} containing an {@link EnduranceTrioResponse} with the issued
+   * {@link SessionTokenDTO}
+   */
+  @Operation(
+      summary = "Issues a session token",
+      description = """
+          Issues a session token to the account authenticated with its API key. Until it expires,
+          the token is sent as `Authorization: Bearer <token>` instead of the API key, and the
+          `ET-Owner` header becomes optional. The tokens of an account are revoked when its key
+          changes or it is disabled. A session token cannot be used to issue another one
+          """,
+      security = {
+          @SecurityRequirement(name = "Account Name"),
+          @SecurityRequirement(name = "API Key")
+      }
+  )
+  @ApiResponse(
+      responseCode = "201",
+      description = "Session token successfully issued",
+      content = @Content(
+          mediaType = MediaType.APPLICATION_JSON_VALUE,
+          schema = @Schema(implementation = EnduranceTrioResponse.class),
+          examples = {
+              @ExampleObject(
+                  name = "Success Response",
+                  summary = "Session token issued successfully",
+                  value = """
+                      {
+                        "status": 201,
+                        "message": "Created",
+                        "details": "Request handled successfully",
+                        "data": {
+                          "token": "ets.Xq3vR0aB.MTc2MDY4MjQwMDAwMDoxNzYw....4tW9...",
+                          "expiresAt": "2026-10-17T07:15:00Z"
+                        }
+                      }
+                      """
+              )
+          }
+      )
+  )
+  @OpenApiStandardErrors
+  ResponseEntity<@NonNull EnduranceTrioResponse<SessionTokenDTO>> issue();
+}
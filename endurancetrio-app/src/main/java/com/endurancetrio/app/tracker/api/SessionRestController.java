@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.app.tracker.api;
+
+import static com.endurancetrio.app.common.constants.ControllerConstants.API_PATH;
+import static com.endurancetrio.app.common.constants.ControllerConstants.DETAILS_SUCCESS;
+import static com.endurancetrio.app.common.security.provider.EnduranceTrioAuthProvider.KEY_AUTH_ROLE;
+import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_DOMAIN;
+import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_RESOURCE_SESSIONS;
+import static com.endurancetrio.app.tracker.constants.TrackerPathsAPI.TRACKER_V1;
+
+import com.endurancetrio.app.common.annotation.EnduranceTrioRestController;
+import com.endurancetrio.app.common.response.EnduranceTrioResponse;
+import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.SessionTokenDTO;
+import com.endurancetrio.business.tracker.service.SessionTokenService;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@EnduranceTrioRestController
+@RequestMapping(API_PATH + TRACKER_DOMAIN + TRACKER_V1)
+public class SessionRestController implements SessionAPI {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SessionRestController.class);
+
+  private final SessionTokenService sessionTokenService;
+
+  public SessionRestController(SessionTokenService sessionTokenService) {
+    this.sessionTokenService = sessionTokenService;
+  }
+
+  @Override
+  @ResponseStatus(HttpStatus.CREATED)
+  @PostMapping(value = TRACKER_RESOURCE_SESSIONS, produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<@NonNull EnduranceTrioResponse<SessionTokenDTO>> issue() {
+
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !authentication.isAuthenticated()) {
+      throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
+    }
+
+    String owner = authentication.getName();
+    if (owner == null || owner.isBlank()) {
+      LOG.error("There is no authenticated owner for the session token");
+      throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
+    }
+
+    if (!AuthorityUtils.authorityListToSet(authentication.getAuthorities())
+        .contains(KEY_AUTH_ROLE)) {
+      throw new AccessDeniedException("A session token is only issued to a key authentication");
+    }
+
+    SessionTokenDTO data = sessionTokenService.issue(owner);
+    LOG.info("Session token issued to account '{}' until {}", owner, data.expiresAt());
+
+    HttpStatus status = HttpStatus.CREATED;
+
+    EnduranceTrioResponse<SessionTokenDTO> response = new EnduranceTrioResponse<>(status.value(),
+        status.getReasonPhrase(), DETAILS_SUCCESS, data
+    );
+
+    return ResponseEntity.status(status).body(response);
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.app.tracker.api;
+
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.service.LivePositionSink;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * {@link LivePositionSink} that writes the live positions to a Server-Sent Events stream.
+ * <p>
+ * Each position is written as a {@code position} event whose data is the JSON
+ * {@link DeviceTelemetryDTO}, and the positions delivered together are flushed in a single write.
+ * Heartbeats are written as SSE comments, which are ignored by the clients.
+ */
+class SseLivePositionSink implements LivePositionSink {
+
+  static final String POSITION_EVENT = "position";
+  static final String HEARTBEAT_COMMENT = "heartbeat";
+
+  private final SseEmitter emitter;
+
+  SseLivePositionSink(SseEmitter emitter) {
+    this.emitter = emitter;
+  }
+
+  @Override
+  public void send(List<DeviceTelemetryDTO> positions) throws IOException {
+
+    Set<DataWithMediaType> events = new LinkedHashSet<>();
+    for (DeviceTelemetryDTO position : positions) {
+      events.addAll(SseEmitter.event()
+          .name(POSITION_EVENT)
+          .data(position, MediaType.APPLICATION_JSON)
+          .build());
+    }
+    emitter.send(events);
+  }
+
+  @Override
+  public void heartbeat() throws IOException {
+    emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+  }
+
+  @Override
+  public void complete() {
+    emitter.complete();
+  }
+}
@@ -31,6 +31,8 @@ public class TrackerPathsAPI {
 
   public static final String TRACKER_RESOURCE_DEVICES = "/devices";
   public static final String TRACKER_RESOURCE_ROUTES = "/routes";
+  public static final String TRACKER_RESOURCE_GEOFENCES = "/geofences";
+  public static final String TRACKER_RESOURCE_SESSIONS = "/sessions";
 
   @SuppressWarnings("java:S1118")
   public TrackerPathsAPI() {
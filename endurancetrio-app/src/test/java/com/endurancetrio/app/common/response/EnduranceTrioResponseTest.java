@@ -24,6 +24,7 @@
 import static com.endurancetrio.app.common.constants.ControllerConstants.MSG_200;
 import static com.endurancetrio.app.common.constants.ControllerConstants.STATUS_200;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import com.endurancetrio.app.common.constants.ControllerConstants;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,6 +43,7 @@ class EnduranceTrioResponseTest {
   private static final String TEST_MESSAGE = MSG_200;
   private static final String TEST_DETAILS = DETAILS_SUCCESS;
   private static final String MSG_DATA = "Success Data";
+  private static final String TEST_CURSOR = "MTc2MDAwMDAwMDAwMDo0Mg";
 
   private EnduranceTrioResponse<String> underTest;
 
@@ -57,5 +59,17 @@ void entityShouldRetainValues() {
     assertEquals(TEST_MESSAGE, underTest.message());
     assertEquals(TEST_DETAILS, underTest.details());
     assertEquals(MSG_DATA, underTest.data());
+    assertNull(underTest.cursor());
+  }
+
+  @Test
+  void entityWithCursorShouldRetainValues() {
+
+    EnduranceTrioResponse<String> response = new EnduranceTrioResponse<>(TEST_STATUS,
+        TEST_MESSAGE, TEST_DETAILS, MSG_DATA, TEST_CURSOR
+    );
+
+    assertEquals(MSG_DATA, response.data());
+    assertEquals(TEST_CURSOR, response.cursor());
   }
 }
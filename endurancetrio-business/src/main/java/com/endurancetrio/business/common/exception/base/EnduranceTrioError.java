@@ -33,7 +33,8 @@ public enum EnduranceTrioError {
 
   BAD_REQUEST(400, "The request was made with invalid or incomplete data"),
   NOT_FOUND(404, "The requested resource was not found"),
-  CONCURRENT_UPDATE(409, "The data was concurrently modified by another transaction");
+  CONCURRENT_UPDATE(409, "The data was concurrently modified by another transaction"),
+  TOO_MANY_REQUESTS(429, "The request cannot be handled at the moment, please retry later");
 
   private final int code;
   private final String message;
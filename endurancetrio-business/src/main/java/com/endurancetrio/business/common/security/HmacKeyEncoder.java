@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.security.crypto.password.AbstractValidatingPasswordEncoder;
+
+/**
+ * {@link org.springframework.security.crypto.password.PasswordEncoder} of the API keys as an
+ * HMAC-SHA-256 of the key under a server secret, encoded in Base64.
+ * <p>
+ * Unlike BCrypt, it is not meant for passwords chosen by people: it relies on the key being a
+ * random secret of at least {@value #MIN_KEY_LENGTH} characters, which cannot be guessed even
+ * though the hash is fast to compute, so a key is verified in well under a microsecond. The hashes
+ * are compared in constant time.
+ * <p>
+ * The hashes are stored with the {@value #ID_PREFIX} prefix of the
+ * {@link org.springframework.security.crypto.password.DelegatingPasswordEncoder}. Changing the
+ * server secret invalidates all of them.
+ */
+public class HmacKeyEncoder extends AbstractValidatingPasswordEncoder {
+
+  public static final String ID = "hmac-sha256";
+  public static final String ID_PREFIX = "{" + ID + "}";
+
+  /**
+   * The minimum length of the keys hashed by this encoder; shorter keys are kept in BCrypt.
+   */
+  public static final int MIN_KEY_LENGTH = 32;
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private final SecretKeySpec secretKey;
+  private final ThreadLocal<Mac> mac;
+
+  public HmacKeyEncoder(String secret) {
+    if (secret == null || secret.isBlank()) {
+      throw new IllegalArgumentException("The HMAC secret of the API keys must not be blank");
+    }
+    this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    this.mac = ThreadLocal.withInitial(this::newMac);
+  }
+
+  @Override
+  protected String encodeNonNullPassword(String rawPassword) {
+    return Base64.getEncoder().encodeToString(hmac(rawPassword));
+  }
+
+  @Override
+  protected boolean matchesNonNull(String rawPassword, String encodedPassword) {
+
+    byte[] expected;
+    try {
+      expected = Base64.getDecoder().decode(encodedPassword);
+    } catch (IllegalArgumentException exception) {
+      return false;
+    }
+    return MessageDigest.isEqual(expected, hmac(rawPassword));
+  }
+
+  private byte[] hmac(String rawPassword) {
+    return mac.get().doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Mac newMac() {
+    try {
+      Mac instance = Mac.getInstance(ALGORITHM);
+      instance.init(secretKey);
+      return instance;
+    } catch (GeneralSecurityException exception) {
+      throw new IllegalStateException("HMAC-SHA-256 is not available", exception);
+    }
+  }
+}
@@ -20,16 +20,47 @@
 
 package com.endurancetrio.business.config;
 
+import com.endurancetrio.business.common.security.HmacKeyEncoder;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class BusinessSecurityConfig {
 
+  private static final Logger LOG = LoggerFactory.getLogger(BusinessSecurityConfig.class);
+
+  private static final String BCRYPT_ID = "bcrypt";
+
+  /**
+   * The encoder of the API keys.
+   * <p>
+   * Without {@code app.auth.key-hmac-secret}, the keys are BCrypt hashes. With it, the keys are
+   * encoded as {@link HmacKeyEncoder HMAC-SHA-256} hashes prefixed with {@code {hmac-sha256}},
+   * while the BCrypt hashes, with or without the {@code {bcrypt}} prefix, are still accepted and
+   * report that they need an upgrade.
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${app.auth.key-hmac-secret:}") String keyHmacSecret
+  ) {
+
+    BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+    if (keyHmacSecret == null || keyHmacSecret.isBlank()) {
+      LOG.info("API keys are verified with BCrypt only: app.auth.key-hmac-secret is not set");
+      return bcrypt;
+    }
+
+    DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(HmacKeyEncoder.ID,
+        Map.of(HmacKeyEncoder.ID, new HmacKeyEncoder(keyHmacSecret), BCRYPT_ID, bcrypt)
+    );
+    delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+    return delegating;
   }
 }
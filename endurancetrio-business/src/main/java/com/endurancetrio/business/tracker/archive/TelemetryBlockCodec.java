@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.archive;
+
+import java.util.Arrays;
+
+/**
+ * Encodes the telemetry records of a device into the compressed columnar blocks of the
+ * {@code telemetry_block} table, and decodes them.
+ * <p>
+ * A block starts with a format version byte and the number of records, followed by one column
+ * per field, each written as variable-length integers of 7 bits per byte:
+ * <ul>
+ *   <li>the record times, in microseconds: the first time, the first delta and then the
+ *   difference between consecutive deltas (delta-of-delta), which is {@code 0} for records sent
+ *   at a regular interval;</li>
+ *   <li>the latitudes and then the longitudes, scaled to integers of 1e-7 degrees (about 1 cm):
+ *   the first value and then the delta from the previous one;</li>
+ *   <li>the active flags, packed 8 per byte.</li>
+ * </ul>
+ * The signed values are zigzag encoded, so that small negative deltas also take a single byte. A
+ * record sent every second by a moving device takes about 5 bytes. The positions are rounded to
+ * 1e-7 degrees, which is below the precision of any GPS receiver.
+ */
+public final class TelemetryBlockCodec {
+
+  private static final byte VERSION = 1;
+  private static final double SCALE = 1e7;
+
+  private TelemetryBlockCodec() {
+    throw new IllegalStateException("Utility Class");
+  }
+
+  /**
+   * Encodes telemetry records into a block.
+   *
+   * @param points the records, ordered by record time
+   * @return the encoded block
+   */
+  public static byte[] encode(TelemetryPoints points) {
+    int size = points.size;
+    Output output = new Output(16 + size * 6);
+    output.write(VERSION);
+    output.writeVarLong(size);
+
+    long previousTime = 0;
+    long previousDelta = 0;
+    for (int i = 0; i < size; i++) {
+      long time = points.times[i];
+      long delta = time - previousTime;
+      output.writeZigzag(i < 2 ? delta : delta - previousDelta);
+      previousDelta = i == 0 ? 0 : delta;
+      previousTime = time;
+    }
+
+    writeCoordinates(output, points.latitudes, size);
+    writeCoordinates(output, points.longitudes, size);
+
+    for (int i = 0; i < size; i += 8) {
+      int bits = 0;
+      for (int bit = 0; bit < 8 && i + bit < size; bit++) {
+        if (points.actives[i + bit]) {
+          bits |= 1 << bit;
+        }
+      }
+      output.write((byte) bits);
+    }
+
+    return output.toByteArray();
+  }
+
+  /**
+   * Decodes a block, appending its records to the given instance.
+   *
+   * @param data   the encoded block
+   * @param points the instance the records are appended to
+   * @throws IllegalArgumentException if the block has an unknown format version
+   */
+  public static void decode(byte[] data, TelemetryPoints points) {
+    Input input = new Input(data);
+    if (input.read() != VERSION) {
+      throw new IllegalArgumentException("Unsupported telemetry block version: " + data[0]);
+    }
+
+    int count = (int) input.readVarLong();
+    int offset = points.size;
+    points.ensureCapacity(offset + count);
+
+    long[] times = points.times;
+    long time = 0;
+    long delta = 0;
+    for (int i = 0; i < count; i++) {
+      long value = input.readZigzag();
+      delta = i < 2 ? value : delta + value;
+      time += i == 0 ? value : delta;
+      times[offset + i] = time;
+    }
+
+    readCoordinates(input, points.latitudes, offset, count);
+    readCoordinates(input, points.longitudes, offset, count);
+
+    boolean[] actives = points.actives;
+    for (int i = 0; i < count; i += 8) {
+      int bits = input.read();
+      for (int bit = 0; bit < 8 && i + bit < count; bit++) {
+        actives[offset + i + bit] = (bits & (1 << bit)) != 0;
+      }
+    }
+
+    points.size = offset + count;
+  }
+
+  private static void writeCoordinates(Output output, double[] values, int size) {
+    long previous = 0;
+    for (int i = 0; i < size; i++) {
+      long scaled = Math.round(values[i] * SCALE);
+      output.writeZigzag(scaled - previous);
+      previous = scaled;
+    }
+  }
+
+  private static void readCoordinates(Input input, double[] values, int offset, int count) {
+    long scaled = 0;
+    for (int i = 0; i < count; i++) {
+      scaled += input.readZigzag();
+      values[offset + i] = scaled / SCALE;
+    }
+  }
+
+  /**
+   * Growable byte buffer, without the synchronization of {@link java.io.ByteArrayOutputStream}.
+   */
+  private static final class Output {
+
+    private byte[] buffer;
+    private int position;
+
+    private Output(int capacity) {
+      buffer = new byte[capacity];
+    }
+
+    private void write(byte value) {
+      if (position == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      buffer[position++] = value;
+    }
+
+    private void writeVarLong(long value) {
+      while ((value & ~0x7FL) != 0) {
+        write((byte) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      write((byte) value);
+    }
+
+    private void writeZigzag(long value) {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+  }
+
+  private static final class Input {
+
+    private final byte[] buffer;
+    private int position;
+
+    private Input(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    private int read() {
+      return buffer[position++] & 0xFF;
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      int shift = 0;
+      int current;
+      do {
+        current = read();
+        value |= (long) (current & 0x7F) << shift;
+        shift += 7;
+      } while ((current & 0x80) != 0);
+      return value;
+    }
+
+    private long readZigzag() {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.archive;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * The {@link TelemetryPoints} holds the telemetry records of a device, ordered by record time, in
+ * one primitive array per field, so that archived blocks can be decoded and merged without
+ * creating an object per record. The record times are held in microseconds since the epoch, the
+ * precision of the database timestamps.
+ */
+public final class TelemetryPoints {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  long[] times = new long[INITIAL_CAPACITY];
+  double[] latitudes = new double[INITIAL_CAPACITY];
+  double[] longitudes = new double[INITIAL_CAPACITY];
+  boolean[] actives = new boolean[INITIAL_CAPACITY];
+  int size;
+
+  /**
+   * Appends a record, which must not be older than the last record.
+   *
+   * @param time      the record time, in microseconds since the epoch
+   * @param latitude  the latitude, in degrees
+   * @param longitude the longitude, in degrees
+   * @param active    the active flag
+   */
+  public void add(long time, double latitude, double longitude, boolean active) {
+    ensureCapacity(size + 1);
+    times[size] = time;
+    latitudes[size] = latitude;
+    longitudes[size] = longitude;
+    actives[size] = active;
+    size++;
+  }
+
+  /**
+   * Appends the record of another instance at the given index.
+   *
+   * @param other the instance holding the record
+   * @param index the index of the record
+   */
+  public void add(TelemetryPoints other, int index) {
+    add(other.times[index], other.latitudes[index], other.longitudes[index],
+        other.actives[index]
+    );
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes all the records, keeping the allocated arrays.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  public long time(int index) {
+    return times[index];
+  }
+
+  public double latitude(int index) {
+    return latitudes[index];
+  }
+
+  public double longitude(int index) {
+    return longitudes[index];
+  }
+
+  public boolean active(int index) {
+    return actives[index];
+  }
+
+  /**
+   * Merges two instances ordered by record time into a new one. When both hold a record with the
+   * same time, only the record of the first instance is kept.
+   *
+   * @param first  the first instance, whose records win on equal times
+   * @param second the second instance
+   * @return the merged records, ordered by record time
+   */
+  public static TelemetryPoints merge(TelemetryPoints first, TelemetryPoints second) {
+    TelemetryPoints merged = new TelemetryPoints();
+    merged.ensureCapacity(first.size + second.size);
+
+    int i = 0;
+    int j = 0;
+    while (i < first.size || j < second.size) {
+      if (j == second.size || (i < first.size && first.times[i] <= second.times[j])) {
+        if (j < second.size && first.times[i] == second.times[j]) {
+          j++;
+        }
+        merged.add(first, i++);
+      } else {
+        merged.add(second, j++);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Converts an instant to microseconds since the epoch, dropping the nanoseconds.
+   *
+   * @param instant the instant
+   * @return the microseconds since the epoch
+   */
+  public static long toMicros(Instant instant) {
+    return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L),
+        instant.getNano() / 1_000
+    );
+  }
+
+  /**
+   * Converts microseconds since the epoch to an instant.
+   *
+   * @param micros the microseconds since the epoch
+   * @return the instant
+   */
+  public static Instant ofMicros(long micros) {
+    return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+        Math.floorMod(micros, 1_000_000L) * 1_000L
+    );
+  }
+
+  void ensureCapacity(int capacity) {
+    if (capacity > times.length) {
+      int length = Math.max(capacity, times.length * 2);
+      times = Arrays.copyOf(times, length);
+      latitudes = Arrays.copyOf(latitudes, length);
+      longitudes = Arrays.copyOf(longitudes, length);
+      actives = Arrays.copyOf(actives, length);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The {@link DeviceTelemetryBucketDTO} represents the telemetry data records of a device in a time
+ * bucket, downsampled to a single point.
+ *
+ * @param device    the device identifier
+ * @param bucket    the start of the time bucket
+ * @param time      the time of the point, which is the start of the bucket for a centroid
+ * @param latitude  the latitude of the point
+ * @param longitude the longitude of the point
+ * @param active    the active flag of the point, which for a centroid is set when any record of
+ *                  the bucket is active
+ * @param points    the number of telemetry data records in the bucket
+ */
+public record DeviceTelemetryBucketDTO(
+    String device, Instant bucket, Instant time, @JsonProperty("lat") Double latitude,
+    @JsonProperty("lon") Double longitude, boolean active, long points
+) implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+}
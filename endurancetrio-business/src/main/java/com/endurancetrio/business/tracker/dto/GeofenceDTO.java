@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The {@link GeofenceDTO} represents a geofence of a tracker account.
+ * <p>
+ * A {@link GeofenceShape#CIRCLE} is described by the {@code latitude}, {@code longitude} and
+ * {@code radius} of its center, a {@link GeofenceShape#POLYGON} by its {@code coordinates}.
+ *
+ * @param id          The unique identifier of the geofence.
+ * @param name        The name of the geofence, unique within the account.
+ * @param shape       The shape of the geofence.
+ * @param latitude    The latitude of the center of a circle, in degrees.
+ * @param longitude   The longitude of the center of a circle, in degrees.
+ * @param radius      The radius of a circle, in meters.
+ * @param coordinates The vertices of a polygon, as {@code [longitude, latitude]} pairs in degrees.
+ */
+public record GeofenceDTO(
+
+    Long id,
+
+    @NotBlank(message = "Geofence name is required")
+    @Size(min = 1, max = 50, message = "Geofence name must be between 1 and 50 characters")
+    String name,
+
+    @NotNull(message = "Geofence shape is required")
+    GeofenceShape shape,
+
+    @JsonProperty("lat")
+    Double latitude,
+
+    @JsonProperty("lon")
+    Double longitude,
+
+    Double radius,
+
+    List<List<Double>> coordinates
+
+) implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The {@link GeofenceEventDTO} represents a device entering or leaving a geofence.
+ *
+ * @param id         The unique identifier of the event.
+ * @param geofenceId The unique identifier of the geofence crossed.
+ * @param device     The identifier of the device that crossed the boundary.
+ * @param type       Whether the device entered or left the geofence.
+ * @param time       The timestamp of the telemetry data record that crossed the boundary.
+ * @param latitude   The latitude of the telemetry data record.
+ * @param longitude  The longitude of the telemetry data record.
+ */
+public record GeofenceEventDTO(
+    Long id,
+    Long geofenceId,
+    String device,
+    GeofenceEventType type,
+    Instant time,
+    @JsonProperty("lat") Double latitude,
+    @JsonProperty("lon") Double longitude
+) implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The {@link NearestDeviceDTO} represents the most recent telemetry data record of a device near
+ * a point, with its distance to that point.
+ *
+ * @param device    the device identifier
+ * @param time      the time of the record
+ * @param latitude  the latitude of the record
+ * @param longitude the longitude of the record
+ * @param active    the active flag of the record
+ * @param distance  the great-circle distance from the point to the record, in meters
+ */
+public record NearestDeviceDTO(
+    String device, Instant time, @JsonProperty("lat") Double latitude,
+    @JsonProperty("lon") Double longitude, boolean active, long distance
+) implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+}
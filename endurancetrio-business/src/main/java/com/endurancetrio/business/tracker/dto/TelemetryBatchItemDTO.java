@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The {@link TelemetryBatchItemDTO} represents the processing result of a single telemetry data
+ * record submitted as part of a batch.
+ *
+ * @param index  the zero-based position of the record in the submitted batch
+ * @param status the processing outcome of the record
+ * @param errors the validation errors that caused the record to be rejected, if any
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record TelemetryBatchItemDTO(int index, TelemetryItemStatus status, List<String> errors)
+    implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  public TelemetryBatchItemDTO(int index, TelemetryItemStatus status) {
+    this(index, status, List.of());
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.dto;
+
+/**
+ * The {@link TelemetryItemStatus} enum defines the outcome of processing a single telemetry data
+ * record.
+ */
+public enum TelemetryItemStatus {
+
+  /**
+   * The telemetry data record was valid and has been saved.
+   */
+  CREATED,
+
+  /**
+   * The telemetry data record was valid but a record of the same device and time was already
+   * saved, so it has been ignored.
+   */
+  DUPLICATE,
+
+  /**
+   * The telemetry data record was invalid and has not been saved.
+   */
+  REJECTED
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The {@link TelemetryStreamResultDTO} represents the processing result of a stream of telemetry
+ * data records.
+ *
+ * @param received   the number of records read from the stream
+ * @param accepted   the number of records that were saved
+ * @param duplicated the number of records that were ignored because they were already saved
+ * @param rejected   the number of records that were rejected
+ * @param rejections the rejected records, limited to the first ones to keep the response bounded
+ */
+public record TelemetryStreamResultDTO(
+    long received, long accepted, long duplicated, long rejected,
+    List<TelemetryRejectionDTO> rejections
+) implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+}
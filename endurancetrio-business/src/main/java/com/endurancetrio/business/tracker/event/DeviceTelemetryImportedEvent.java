@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.event;
+
+/**
+ * The {@link DeviceTelemetryImportedEvent} is published whenever telemetry data records are bulk
+ * imported, within the transaction that imports them.
+ * <p>
+ * Unlike the {@link DeviceTelemetrySavedEvent}, it does not carry the imported records, which are
+ * streamed straight into the database, so listeners that keep state derived from the records must
+ * reload it from the database.
+ *
+ * @param owner    the owner of the imported telemetry data
+ * @param imported the number of telemetry data records imported
+ */
+public record DeviceTelemetryImportedEvent(String owner, long imported) {
+
+}
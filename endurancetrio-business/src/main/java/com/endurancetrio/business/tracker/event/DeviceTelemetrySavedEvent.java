@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.event;
+
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import java.util.List;
+
+/**
+ * The {@link DeviceTelemetrySavedEvent} is published whenever new telemetry data records are
+ * saved, within the transaction that saves them.
+ * <p>
+ * Listeners that keep state derived from the saved records must use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}, so that the records of a rolled back
+ * transaction are never seen.
+ *
+ * @param telemetry the telemetry data records that were saved, excluding the duplicated ones
+ */
+public record DeviceTelemetrySavedEvent(List<DeviceTelemetryDTO> telemetry) {
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.event;
+
+import java.time.Instant;
+
+/**
+ * The {@link TrackerAccountChangedEvent} is published whenever a tracker account is created, its
+ * key or its enabled flag is changed or it is deleted, within the transaction that changes it, or
+ * when the {@code TrackerAccountRegistry} finds an account changed directly in the database.
+ *
+ * @param owner        the owner of the changed tracker account
+ * @param change       what changed in the account
+ * @param changedAt    an instant taken before the change was made, so that everything issued
+ *                     after the change is issued after it
+ * @param fromDatabase whether the change was made directly in the database and found by the
+ *                     account registry, rather than made by the application
+ */
+public record TrackerAccountChangedEvent(
+    String owner, Change change, Instant changedAt, boolean fromDatabase
+) {
+
+  public TrackerAccountChangedEvent(String owner, Change change, Instant changedAt) {
+    this(owner, change, changedAt, false);
+  }
+
+  /**
+   * The change made to a tracker account.
+   */
+  public enum Change {
+
+    /**
+     * The account was created.
+     */
+    CREATED,
+
+    /**
+     * The key of the account was replaced by another key.
+     */
+    KEY_REPLACED,
+
+    /**
+     * The hash of the key was replaced by a hash of the same key in the current encoding.
+     */
+    KEY_REHASHED,
+
+    /**
+     * The account was enabled.
+     */
+    ENABLED,
+
+    /**
+     * The account was disabled.
+     */
+    DISABLED,
+
+    /**
+     * The account was deleted.
+     */
+    DELETED;
+
+    /**
+     * @return whether the credentials issued before the change must no longer be accepted
+     */
+    public boolean revokesCredentials() {
+      return this == KEY_REPLACED || this == DISABLED || this == DELETED;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import java.util.Arrays;
+
+/**
+ * The {@link Fence} is the immutable geometry of a geofence, either a circle or a polygon, with
+ * the bounding box used to discard most points before the exact containment test.
+ * <p>
+ * A circle is a spherical cap: its center and radius, in meters, measured along the great circle.
+ * Its bounding box crosses the antimeridian when the circle does ({@link #crossesAntimeridian()}),
+ * and spans every longitude when the circle reaches a pole.
+ * <p>
+ * A polygon is a simple ring of vertices in longitude and latitude degrees, tested with the
+ * even-odd rule as a planar shape, so its edges are rhumb-like straight lines on the
+ * equirectangular projection rather than great circle arcs. It must not cross the antimeridian.
+ * The points on its boundary may be reported either inside or outside.
+ */
+public final class Fence {
+
+  private final long id;
+  private final double minLongitude;
+  private final double minLatitude;
+  private final double maxLongitude;
+  private final double maxLatitude;
+
+  // Circle
+  private final double centerLongitude;
+  private final double centerLatitude;
+  private final double radius;
+
+  // Polygon
+  private final double[] longitudes;
+  private final double[] latitudes;
+
+  private Fence(
+      long id, double minLongitude, double minLatitude, double maxLongitude, double maxLatitude,
+      double centerLongitude, double centerLatitude, double radius, double[] longitudes,
+      double[] latitudes
+  ) {
+    this.id = id;
+    this.minLongitude = minLongitude;
+    this.minLatitude = minLatitude;
+    this.maxLongitude = maxLongitude;
+    this.maxLatitude = maxLatitude;
+    this.centerLongitude = centerLongitude;
+    this.centerLatitude = centerLatitude;
+    this.radius = radius;
+    this.longitudes = longitudes;
+    this.latitudes = latitudes;
+  }
+
+  /**
+   * Creates a circular fence.
+   *
+   * @param id        the unique identifier of the geofence
+   * @param longitude the longitude of the center, in degrees
+   * @param latitude  the latitude of the center, in degrees
+   * @param radius    the radius, in meters
+   * @return the circular fence
+   * @throws IllegalArgumentException if the radius is not positive
+   */
+  public static Fence circle(long id, double longitude, double latitude, double radius) {
+
+    if (!(radius > 0)) {
+      throw new IllegalArgumentException("The radius must be positive");
+    }
+
+    double angularRadius = radius / Haversine.MEAN_EARTH_RADIUS;
+    double latitudeDelta = Math.toDegrees(angularRadius);
+    double minLatitude = latitude - latitudeDelta;
+    double maxLatitude = latitude + latitudeDelta;
+
+    // The longitudes spanned by a spherical cap are widest at the latitude of its tangent points
+    double sinLongitudeDelta = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+    if (minLatitude <= -90 || maxLatitude >= 90 || sinLongitudeDelta >= 1) {
+      return new Fence(id, -180, Math.max(minLatitude, -90), 180, Math.min(maxLatitude, 90),
+          longitude, latitude, radius, null, null
+      );
+    }
+
+    double longitudeDelta = Math.toDegrees(Math.asin(sinLongitudeDelta));
+    double minLongitude = longitude - longitudeDelta;
+    double maxLongitude = longitude + longitudeDelta;
+    if (minLongitude < -180) {
+      minLongitude += 360;
+    }
+    if (maxLongitude > 180) {
+      maxLongitude -= 360;
+    }
+
+    return new Fence(id, minLongitude, minLatitude, maxLongitude, maxLatitude, longitude,
+        latitude, radius, null, null
+    );
+  }
+
+  /**
+   * Creates a polygon fence.
+   *
+   * @param id         the unique identifier of the geofence
+   * @param longitudes the longitudes of the vertices, in degrees
+   * @param latitudes  the latitudes of the vertices, in degrees, in the same order
+   * @return the polygon fence
+   * @throws IllegalArgumentException if there are less than 3 vertices or the arrays differ in
+   *                                  length
+   */
+  public static Fence polygon(long id, double[] longitudes, double[] latitudes) {
+
+    if (longitudes.length != latitudes.length || longitudes.length < 3) {
+      throw new IllegalArgumentException("A polygon must have at least 3 vertices");
+    }
+
+    double minLongitude = Arrays.stream(longitudes).min().orElseThrow();
+    double maxLongitude = Arrays.stream(longitudes).max().orElseThrow();
+    double minLatitude = Arrays.stream(latitudes).min().orElseThrow();
+    double maxLatitude = Arrays.stream(latitudes).max().orElseThrow();
+
+    return new Fence(id, minLongitude, minLatitude, maxLongitude, maxLatitude, 0, 0, 0,
+        longitudes.clone(), latitudes.clone()
+    );
+  }
+
+  /**
+   * Checks whether the point lies within the fence.
+   *
+   * @param longitude the longitude of the point, in degrees
+   * @param latitude  the latitude of the point, in degrees
+   * @return {@code true} if the point is inside the fence
+   */
+  public boolean contains(double longitude, double latitude) {
+
+    if (!boundsContain(longitude, latitude)) {
+      return false;
+    }
+
+    if (longitudes == null) {
+      return Haversine.distance(centerLongitude, centerLatitude, longitude, latitude) <= radius;
+    }
+
+    // Even-odd rule: a ray cast eastwards from the point crosses the boundary an odd number of
+    // times when the point is inside
+    boolean inside = false;
+    for (int current = 0, previous = longitudes.length - 1; current < longitudes.length;
+        previous = current++) {
+      if ((latitudes[current] > latitude) != (latitudes[previous] > latitude)) {
+        double crossing = longitudes[current] + (latitude - latitudes[current])
+            * (longitudes[previous] - longitudes[current])
+            / (latitudes[previous] - latitudes[current]);
+        if (longitude < crossing) {
+          inside = !inside;
+        }
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Checks whether the point lies within the bounding box of the fence.
+   *
+   * @param longitude the longitude of the point, in degrees
+   * @param latitude  the latitude of the point, in degrees
+   * @return {@code true} if the point is inside the bounding box
+   */
+  public boolean boundsContain(double longitude, double latitude) {
+
+    if (latitude < minLatitude || latitude > maxLatitude) {
+      return false;
+    }
+    if (crossesAntimeridian()) {
+      return longitude >= minLongitude || longitude <= maxLongitude;
+    }
+    return longitude >= minLongitude && longitude <= maxLongitude;
+  }
+
+  /**
+   * Checks whether the bounding box crosses the antimeridian, in which case its western longitude
+   * is greater than its eastern longitude.
+   *
+   * @return {@code true} if the bounding box crosses the antimeridian
+   */
+  public boolean crossesAntimeridian() {
+    return minLongitude > maxLongitude;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public double getMinLongitude() {
+    return minLongitude;
+  }
+
+  public double getMinLatitude() {
+    return minLatitude;
+  }
+
+  public double getMaxLongitude() {
+    return maxLongitude;
+  }
+
+  public double getMaxLatitude() {
+    return maxLatitude;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link FenceIndex} is an immutable spatial index of the {@link Fence fences} of an account,
+ * over a hierarchy of uniform grids of cells in degrees.
+ * <p>
+ * The finest grid has cells of the configured size, and each further level has cells
+ * {@value #LEVEL_FACTOR} times as large. Each fence is registered, at the finest level where its
+ * bounding box overlaps at most {@value #MAX_CELLS_PER_FENCE} cells, in each of those cells.
+ * Finding the fences that contain a point only tests the fences of the point's cell at each level,
+ * first against their bounding box and then exactly, so the cost of a lookup depends on the number
+ * of fences around the point, not on the number of fences of the account, and the memory of the
+ * index stays in proportion to the number of fences, whatever their size.
+ * <p>
+ * The index is never modified: {@link #with} and {@link #without} build a new index, so it is
+ * safe to share between threads and the fences, which change rarely, are swapped atomically.
+ */
+public final class FenceIndex {
+
+  static final int MAX_CELLS_PER_FENCE = 16;
+  static final int LEVEL_FACTOR = 4;
+
+  private static final int CELL_KEY_SHIFT = 32;
+  private static final long CELL_KEY_MASK = 0xFFFFFFFFL;
+  private static final long[] NONE = new long[0];
+
+  private final double cellSize;
+  private final Map<Long, Fence> fences;
+  private final List<Level> levels;
+
+  /**
+   * Creates the index of the provided fences.
+   *
+   * @param fences   the fences to index
+   * @param cellSize the size of the cells of the finest grid, in degrees
+   * @throws IllegalArgumentException if the cell size is not between 0 (exclusive) and 180
+   */
+  public FenceIndex(Collection<Fence> fences, double cellSize) {
+    if (!(cellSize > 0 && cellSize <= 180)) {
+      throw new IllegalArgumentException("The cell size must be between 0 and 180 degrees");
+    }
+    this.cellSize = cellSize;
+    this.fences = new LinkedHashMap<>();
+
+    List<Map<Long, List<Fence>>> levelFences = new ArrayList<>();
+    List<Double> levelSizes = new ArrayList<>();
+
+    for (Fence fence : fences) {
+      this.fences.put(fence.getId(), fence);
+
+      // The coarsest level, with cells of at least 360 degrees, has a single cell
+      int depth = 0;
+      double size = cellSize;
+      while (spannedCells(fence, size) > MAX_CELLS_PER_FENCE && size < 360) {
+        depth++;
+        size *= LEVEL_FACTOR;
+      }
+      while (levelFences.size() <= depth) {
+        levelSizes.add(levelFences.isEmpty() ? cellSize : levelSizes.getLast() * LEVEL_FACTOR);
+        levelFences.add(new HashMap<>());
+      }
+
+      Level grid = new Level(levelSizes.get(depth), Map.of());
+      Map<Long, List<Fence>> cells = levelFences.get(depth);
+      int minRow = grid.row(fence.getMinLatitude());
+      int maxRow = grid.row(fence.getMaxLatitude());
+      int minColumn = grid.column(fence.getMinLongitude());
+      int spannedColumns = grid.spannedColumns(fence);
+      for (int offset = 0; offset < spannedColumns; offset++) {
+        int column = (minColumn + offset) % grid.columns;
+        for (int row = minRow; row <= maxRow; row++) {
+          cells.computeIfAbsent(cellKey(column, row), key -> new ArrayList<>()).add(fence);
+        }
+      }
+    }
+
+    List<Level> built = new ArrayList<>();
+    for (int depth = 0; depth < levelFences.size(); depth++) {
+      Map<Long, Fence[]> cells = new HashMap<>(levelFences.get(depth).size() * 2);
+      levelFences.get(depth).forEach((cell, list) -> cells.put(cell, list.toArray(Fence[]::new)));
+      if (!cells.isEmpty()) {
+        built.add(new Level(levelSizes.get(depth), cells));
+      }
+    }
+    this.levels = List.copyOf(built);
+  }
+
+  /**
+   * Finds the fences that contain the point.
+   *
+   * @param longitude the longitude of the point, in degrees
+   * @param latitude  the latitude of the point, in degrees
+   * @return the identifiers of the fences containing the point, in ascending order
+   */
+  public long[] findContaining(double longitude, double latitude) {
+
+    long[] found = NONE;
+    int size = 0;
+    for (Level level : levels) {
+      Fence[] candidates = level.cells.get(cellKey(level.column(longitude), level.row(latitude)));
+      if (candidates == null) {
+        continue;
+      }
+      for (Fence fence : candidates) {
+        if (fence.contains(longitude, latitude)) {
+          if (size == found.length) {
+            found = Arrays.copyOf(found, Math.max(4, size * 2));
+          }
+          found[size++] = fence.getId();
+        }
+      }
+    }
+
+    if (size == 0) {
+      return NONE;
+    }
+    long[] containing = Arrays.copyOf(found, size);
+    Arrays.sort(containing);
+    return containing;
+  }
+
+  /**
+   * Checks whether the index has a fence with the provided identifier.
+   *
+   * @param id the unique identifier of the geofence
+   * @return {@code true} if the fence is indexed
+   */
+  public boolean has(long id) {
+    return fences.containsKey(id);
+  }
+
+  /**
+   * Builds a new index with the provided fence added, replacing the fence with the same
+   * identifier, if any.
+   *
+   * @param fence the fence to add
+   * @return the new index
+   */
+  public FenceIndex with(Fence fence) {
+    Map<Long, Fence> updated = new LinkedHashMap<>(fences);
+    updated.put(fence.getId(), fence);
+    return new FenceIndex(updated.values(), cellSize);
+  }
+
+  /**
+   * Builds a new index without the fence with the provided identifier.
+   *
+   * @param id the unique identifier of the geofence to remove
+   * @return the new index
+   */
+  public FenceIndex without(long id) {
+    Map<Long, Fence> updated = new LinkedHashMap<>(fences);
+    updated.remove(id);
+    return new FenceIndex(updated.values(), cellSize);
+  }
+
+  public int size() {
+    return fences.size();
+  }
+
+  int levels() {
+    return levels.size();
+  }
+
+  private static long spannedCells(Fence fence, double size) {
+    Level grid = new Level(size, Map.of());
+    return (long) grid.spannedColumns(fence)
+        * (grid.row(fence.getMaxLatitude()) - grid.row(fence.getMinLatitude()) + 1);
+  }
+
+  private static long cellKey(int column, int row) {
+    return ((long) column << CELL_KEY_SHIFT) | (row & CELL_KEY_MASK);
+  }
+
+  /**
+   * A grid of the hierarchy, with the fences of each of its cells.
+   */
+  private record Level(double size, int columns, int rows, Map<Long, Fence[]> cells) {
+
+    private Level(double size, Map<Long, Fence[]> cells) {
+      this(size, (int) Math.ceil(360 / size), (int) Math.ceil(180 / size), cells);
+    }
+
+    private int column(double longitude) {
+      return Math.clamp((long) Math.floor((longitude + 180) / size), 0, columns - 1);
+    }
+
+    private int row(double latitude) {
+      return Math.clamp((long) Math.floor((latitude + 90) / size), 0, rows - 1);
+    }
+
+    private int spannedColumns(Fence fence) {
+      int minColumn = column(fence.getMinLongitude());
+      int maxColumn = column(fence.getMaxLongitude());
+      return fence.crossesAntimeridian()
+          ? Math.min(columns, columns - minColumn + maxColumn + 1)
+          : maxColumn - minColumn + 1;
+    }
+  }
+}
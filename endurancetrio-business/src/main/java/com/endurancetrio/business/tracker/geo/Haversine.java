@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+/**
+ * Calculates great-circle distances with the Haversine formula, on a sphere approximation of the
+ * Earth with the IUGG (https://iugg.org/) standard mean radius.
+ */
+public final class Haversine {
+
+  // IUGG standard mean radius of Earth in meters
+  public static final double MEAN_EARTH_RADIUS = 6371008.7714;
+
+  private Haversine() {
+    throw new IllegalStateException("Utility Class");
+  }
+
+  /**
+   * Calculates the great-circle distance between two points.
+   *
+   * @param startLongitude the longitude of the starting point, in degrees
+   * @param startLatitude  the latitude of the starting point, in degrees
+   * @param endLongitude   the longitude of the ending point, in degrees
+   * @param endLatitude    the latitude of the ending point, in degrees
+   * @return the distance, in meters
+   */
+  public static double distance(
+      double startLongitude, double startLatitude, double endLongitude, double endLatitude
+  ) {
+
+    double halfChordLength = halfChordLength(startLongitude, startLatitude, endLongitude,
+        endLatitude
+    );
+    double angularDistance = 2 * Math.asin(halfChordLength);
+
+    return angularDistance * MEAN_EARTH_RADIUS;
+  }
+
+  /**
+   * Calculates the half-chord length between two points on a unit sphere.
+   * <p>
+   * This value corresponds to {@code Math.sqrt(a)} in the standard Haversine formula notation,
+   * representing the straight-line distance between the two points through the sphere, normalized
+   * to a unit sphere radius.
+   *
+   * @return the half-chord length (value between 0.0 and 1.0)
+   */
+  private static double halfChordLength(
+      double startLongitude, double startLatitude, double endLongitude, double endLatitude
+  ) {
+
+    double startLatitudeRadians = Math.toRadians(startLatitude);
+    double endLatitudeRadians = Math.toRadians(endLatitude);
+    double latitudeDelta = endLatitudeRadians - startLatitudeRadians;
+    double longitudeDelta = Math.toRadians(endLongitude - startLongitude);
+
+    // Rounding may take the result slightly above 1 for antipodal points
+    return Math.min(1.0, Math.sqrt(
+        Math.pow(Math.sin(latitudeDelta / 2), 2) +
+            Math.pow(Math.sin(longitudeDelta / 2), 2) *
+                Math.cos(startLatitudeRadians) * Math.cos(endLatitudeRadians)
+    ));
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The {@link PositionGrid} is a spatial index of the current position of each device, over a
+ * uniform grid of cells of a fixed size in degrees.
+ * <p>
+ * Only the cells holding at least one device are kept, each with the set of its devices, so the
+ * index takes memory in proportion to the number of devices. A bounding box query visits either
+ * the cells the box covers or, when the box covers more cells than the occupied ones, the
+ * occupied cells, so it never scans the whole fleet nor the whole world. The candidates it reports
+ * lie in the cells overlapping the box, and must be filtered by their exact position.
+ * <p>
+ * A nearest neighbours query visits the rings of cells around the point, nearest ring first, and
+ * stops as soon as no device beyond the visited rings can be nearer than the k-th nearest device
+ * found, so it only visits the devices around the point.
+ * <p>
+ * The index is safe for concurrent use. A device moving to another cell is added to the new cell
+ * before being removed from the old one, so a concurrent query may report it twice, but never
+ * misses it.
+ */
+public final class PositionGrid {
+
+  private static final int CELL_KEY_SHIFT = 32;
+  private static final long CELL_KEY_MASK = 0xFFFFFFFFL;
+
+  private final double cellSize;
+  private final int columns;
+  private final int rows;
+  private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an empty grid.
+   *
+   * @param cellSize the size of the cells, in degrees
+   * @throws IllegalArgumentException if the cell size is not between 0 (exclusive) and 180
+   */
+  public PositionGrid(double cellSize) {
+    if (!(cellSize > 0 && cellSize <= 180)) {
+      throw new IllegalArgumentException("The cell size must be between 0 and 180 degrees");
+    }
+    this.cellSize = cellSize;
+    this.columns = (int) Math.ceil(360 / cellSize);
+    this.rows = (int) Math.ceil(180 / cellSize);
+  }
+
+  /**
+   * Moves a device to its new position, adding it to the grid when it has no previous position.
+   *
+   * @param device            the device identifier
+   * @param previousLongitude the longitude of the previous position, or {@code null} if none
+   * @param previousLatitude  the latitude of the previous position, or {@code null} if none
+   * @param longitude         the longitude of the new position, in degrees
+   * @param latitude          the latitude of the new position, in degrees
+   */
+  public void move(
+      String device, Double previousLongitude, Double previousLatitude, double longitude,
+      double latitude
+  ) {
+
+    long cell = cellKey(column(longitude), row(latitude));
+    if (previousLongitude != null && previousLatitude != null) {
+      long previousCell = cellKey(column(previousLongitude), row(previousLatitude));
+      if (previousCell == cell) {
+        return;
+      }
+      add(cell, device);
+      remove(previousCell, device);
+    } else {
+      add(cell, device);
+    }
+  }
+
+  /**
+   * Reports the devices of the cells overlapping the bounding box. The box must not cross the
+   * antimeridian.
+   *
+   * @param minLongitude the western longitude of the box, in degrees
+   * @param minLatitude  the southern latitude of the box, in degrees
+   * @param maxLongitude the eastern longitude of the box, in degrees
+   * @param maxLatitude  the northern latitude of the box, in degrees
+   * @param action       the action performed for each candidate device
+   */
+  public void forEachCandidate(
+      double minLongitude, double minLatitude, double maxLongitude, double maxLatitude,
+      Consumer<String> action
+  ) {
+
+    int minColumn = column(minLongitude);
+    int maxColumn = column(maxLongitude);
+    int minRow = row(minLatitude);
+    int maxRow = row(maxLatitude);
+
+    long covered = (long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1);
+    if (covered <= cells.size()) {
+      for (int column = minColumn; column <= maxColumn; column++) {
+        for (int row = minRow; row <= maxRow; row++) {
+          Set<String> devices = cells.get(cellKey(column, row));
+          if (devices != null) {
+            devices.forEach(action);
+          }
+        }
+      }
+      return;
+    }
+
+    cells.forEach((cell, devices) -> {
+      int column = (int) (cell >>> CELL_KEY_SHIFT);
+      int row = (int) (cell & CELL_KEY_MASK);
+      if (column >= minColumn && column <= maxColumn && row >= minRow && row <= maxRow) {
+        devices.forEach(action);
+      }
+    });
+  }
+
+  /**
+   * Finds the k devices nearest to a point, by the distance provided for each candidate device.
+   * <p>
+   * The distance of a device must not be shorter than the great-circle distance from the point to
+   * the cell the device is indexed in, which holds for the {@link Haversine} distance to its
+   * indexed position. A device without a distance ({@code NaN}) is skipped.
+   *
+   * @param longitude the longitude of the point, in degrees
+   * @param latitude  the latitude of the point, in degrees
+   * @param k         the maximum number of devices to find
+   * @param distance  the distance from the point to a device, in meters
+   * @return the nearest devices, ordered by distance and then by device
+   */
+  public List<String> findNearest(
+      double longitude, double latitude, int k, ToDoubleFunction<String> distance
+  ) {
+
+    Comparator<Neighbour> nearestFirst = Comparator.comparingDouble(Neighbour::distance)
+        .thenComparing(Neighbour::device);
+    PriorityQueue<Neighbour> nearest = new PriorityQueue<>(nearestFirst.reversed());
+    Set<String> visited = new HashSet<>();
+    Consumer<String> visit = device -> {
+      if (visited.add(device)) {
+        double deviceDistance = distance.applyAsDouble(device);
+        if (!Double.isNaN(deviceDistance)) {
+          nearest.add(new Neighbour(device, deviceDistance));
+          if (nearest.size() > k) {
+            nearest.poll();
+          }
+        }
+      }
+    };
+
+    int column = column(longitude);
+    int row = row(latitude);
+    for (int ring = 0; ; ring++) {
+      long square = (long) (2 * ring + 1) * (2 * ring + 1);
+      if (square > cells.size()) {
+        // Fewer occupied cells than cells in the square: visit all of them instead
+        cells.values().forEach(devices -> devices.forEach(visit));
+        break;
+      }
+
+      visitRing(column, row, ring, visit);
+      boolean coversGrid = 2 * ring + 1 >= columns && row - ring <= 0 && row + ring >= rows - 1;
+      if (coversGrid || (nearest.size() == k
+          && nearest.peek().distance() <= distanceBeyondRing(longitude, latitude, column, row,
+          ring
+      ))) {
+        break;
+      }
+    }
+
+    List<Neighbour> result = new ArrayList<>(nearest);
+    result.sort(nearestFirst);
+    return result.stream().map(Neighbour::device).toList();
+  }
+
+  /**
+   * Returns the number of cells holding at least one device.
+   *
+   * @return the number of occupied cells
+   */
+  public int occupiedCells() {
+    return cells.size();
+  }
+
+  private void add(long cell, String device) {
+    cells.compute(cell, (key, devices) -> {
+      Set<String> result = devices == null ? ConcurrentHashMap.newKeySet() : devices;
+      result.add(device);
+      return result;
+    });
+  }
+
+  private void remove(long cell, String device) {
+    cells.computeIfPresent(cell, (key, devices) -> {
+      devices.remove(device);
+      return devices.isEmpty() ? null : devices;
+    });
+  }
+
+  /**
+   * Visits the devices of the cells at the given ring around a cell, the cells whose column or
+   * row is {@code ring} cells away. The columns wrap around the antimeridian.
+   */
+  private void visitRing(int column, int row, int ring, Consumer<String> visit) {
+    for (int rowOffset = -ring; rowOffset <= ring; rowOffset++) {
+      int ringRow = row + rowOffset;
+      if (ringRow < 0 || ringRow >= rows) {
+        continue;
+      }
+      int step = Math.abs(rowOffset) == ring ? 1 : Math.max(1, 2 * ring);
+      for (int columnOffset = -ring; columnOffset <= ring; columnOffset += step) {
+        Set<String> devices = cells.get(cellKey(Math.floorMod(column + columnOffset, columns),
+            ringRow
+        ));
+        if (devices != null) {
+          devices.forEach(visit);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a lower bound of the great-circle distance from a point to any position outside the
+   * rings up to {@code ring} around its cell: the distance to the nearest parallel or meridian
+   * bounding those rings.
+   */
+  private double distanceBeyondRing(
+      double longitude, double latitude, int column, int row, int ring
+  ) {
+
+    double degrees = Double.POSITIVE_INFINITY;
+    if (row - ring > 0) {
+      degrees = latitude - ((row - ring) * cellSize - 90);
+    }
+    if (row + ring < rows - 1) {
+      degrees = Math.min(degrees, (row + ring + 1) * cellSize - 90 - latitude);
+    }
+    double meters = Math.toRadians(degrees) * Haversine.MEAN_EARTH_RADIUS;
+
+    if (2 * ring + 1 < columns) {
+      double west = longitude - columnEdge(column - ring);
+      double east = columnEdge(column + ring + 1) - longitude;
+      double longitudeDelta = Math.toRadians(Math.min(90, Math.min(west, east)));
+      // Distance to the great circle of the nearest bounding meridian
+      double crossTrack = Math.asin(Math.sin(longitudeDelta) * Math.cos(Math.toRadians(latitude)));
+      meters = Math.min(meters, crossTrack * Haversine.MEAN_EARTH_RADIUS);
+    }
+    return Math.max(0, meters);
+  }
+
+  /**
+   * Returns the western longitude of a column, unwrapped: the columns beyond the antimeridian
+   * continue past 180 degrees, and the last column ends at 180 degrees even when it is narrower.
+   */
+  private double columnEdge(int column) {
+    double edge = Math.min(Math.floorMod(column, columns) * cellSize, 360);
+    return Math.floorDiv(column, columns) * 360 + edge - 180;
+  }
+
+  private int column(double longitude) {
+    return Math.clamp((long) Math.floor((longitude + 180) / cellSize), 0, columns - 1);
+  }
+
+  private int row(double latitude) {
+    return Math.clamp((long) Math.floor((latitude + 90) / cellSize), 0, rows - 1);
+  }
+
+  private static long cellKey(int column, int row) {
+    return ((long) column << CELL_KEY_SHIFT) | (row & CELL_KEY_MASK);
+  }
+
+  private record Neighbour(String device, double distance) {
+
+  }
+}
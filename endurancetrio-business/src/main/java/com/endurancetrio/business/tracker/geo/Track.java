@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@link Track} holds the positions of a device, in the order they were recorded, in
+ * primitive arrays, so that tracks of millions of positions can be built and simplified without
+ * creating an object per position.
+ */
+public final class Track {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  // Meters per degree of latitude on the IUGG mean radius of Earth
+  private static final double METERS_PER_DEGREE = 6371008.7714 * Math.PI / 180;
+
+  private double[] longitudes = new double[INITIAL_CAPACITY];
+  private double[] latitudes = new double[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Appends a position to the end of the track.
+   *
+   * @param longitude the longitude of the position, in degrees
+   * @param latitude  the latitude of the position, in degrees
+   */
+  public void add(double longitude, double latitude) {
+    if (size == longitudes.length) {
+      longitudes = Arrays.copyOf(longitudes, size * 2);
+      latitudes = Arrays.copyOf(latitudes, size * 2);
+    }
+    longitudes[size] = longitude;
+    latitudes[size] = latitude;
+    size++;
+  }
+
+  /**
+   * Returns the number of positions of the track.
+   *
+   * @return the number of positions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Simplifies the track with the Visvalingam-Whyatt algorithm, removing the positions that
+   * contribute less than the tolerance to its shape. The first and the last positions are always
+   * kept.
+   * <p>
+   * The algorithm repeatedly removes the position that forms the triangle of smallest area with
+   * its two neighbours, while that area is smaller than the square of the tolerance, updating the
+   * areas of the neighbours after each removal. The areas are kept in an indexed binary heap and
+   * the neighbours in a linked list over arrays, so the simplification runs in O(n log n).
+   *
+   * @param tolerance the tolerance, in meters; 0 only removes the positions lying on a straight
+   *                  line between their neighbours
+   */
+  public void simplify(double tolerance) {
+    if (size < 3) {
+      return;
+    }
+
+    double threshold = tolerance * tolerance;
+    int[] previous = new int[size];
+    int[] next = new int[size];
+    for (int i = 0; i < size; i++) {
+      previous[i] = i - 1;
+      next[i] = i + 1;
+    }
+
+    // The heap holds the inner positions only: the first and the last ones are never removed
+    AreaHeap heap = new AreaHeap(size);
+    for (int i = 1; i < size - 1; i++) {
+      heap.append(i, area(i - 1, i, i + 1));
+    }
+    heap.heapify();
+
+    boolean[] removed = new boolean[size];
+    while (!heap.isEmpty() && heap.minArea() <= threshold) {
+      int position = heap.poll();
+      removed[position] = true;
+
+      int before = previous[position];
+      int after = next[position];
+      next[before] = after;
+      previous[after] = before;
+
+      if (previous[before] >= 0) {
+        heap.update(before, area(previous[before], before, after));
+      }
+      if (next[after] < size) {
+        heap.update(after, area(before, after, next[after]));
+      }
+    }
+
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      if (!removed[i]) {
+        longitudes[kept] = longitudes[i];
+        latitudes[kept] = latitudes[i];
+        kept++;
+      }
+    }
+    size = kept;
+  }
+
+  /**
+   * Returns the positions of the track as GeoJSON coordinates.
+   *
+   * @return the list of [longitude, latitude] coordinates
+   */
+  public List<List<Double>> toCoordinates() {
+    List<List<Double>> coordinates = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      coordinates.add(List.of(longitudes[i], latitudes[i]));
+    }
+    return coordinates;
+  }
+
+  /**
+   * Calculates the area, in square meters, of the triangle formed by three positions, projecting
+   * them on a plane tangent to the Earth at the middle position. The projection error is
+   * negligible at the distance between consecutive positions of a track.
+   */
+  private double area(int first, int middle, int last) {
+    double longitudeScale = Math.cos(Math.toRadians(latitudes[middle]));
+
+    double x1 = (longitudes[first] - longitudes[middle]) * longitudeScale;
+    double y1 = latitudes[first] - latitudes[middle];
+    double x2 = (longitudes[last] - longitudes[middle]) * longitudeScale;
+    double y2 = latitudes[last] - latitudes[middle];
+
+    return Math.abs(x1 * y2 - x2 * y1) / 2 * METERS_PER_DEGREE * METERS_PER_DEGREE;
+  }
+
+  /**
+   * Binary min-heap of the positions of a track ordered by area, which also tracks the location of
+   * each position in the heap so that its area can be updated in O(log n).
+   */
+  private static final class AreaHeap {
+
+    private final int[] heap;
+    private final int[] locations;
+    private final double[] areas;
+    private int size;
+
+    private AreaHeap(int capacity) {
+      this.heap = new int[capacity];
+      this.locations = new int[capacity];
+      this.areas = new double[capacity];
+    }
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+
+    private double minArea() {
+      return areas[heap[0]];
+    }
+
+    /**
+     * Appends a position without restoring the heap order, which {@link #heapify} restores for
+     * all the appended positions at once in O(n).
+     */
+    private void append(int position, double area) {
+      areas[position] = area;
+      move(position, size++);
+    }
+
+    private void heapify() {
+      for (int location = size / 2 - 1; location >= 0; location--) {
+        siftDown(location);
+      }
+    }
+
+    private int poll() {
+      int position = heap[0];
+      heap[0] = heap[--size];
+      locations[heap[0]] = 0;
+      siftDown(0);
+      return position;
+    }
+
+    private void update(int position, double area) {
+      double previousArea = areas[position];
+      areas[position] = area;
+      if (area < previousArea) {
+        siftUp(locations[position]);
+      } else {
+        siftDown(locations[position]);
+      }
+    }
+
+    private void siftUp(int location) {
+      int position = heap[location];
+      while (location > 0) {
+        int parent = (location - 1) / 2;
+        if (areas[heap[parent]] <= areas[position]) {
+          break;
+        }
+        move(heap[parent], location);
+        location = parent;
+      }
+      move(position, location);
+    }
+
+    private void siftDown(int location) {
+      int position = heap[location];
+      while (true) {
+        int child = 2 * location + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && areas[heap[child + 1]] < areas[heap[child]]) {
+          child++;
+        }
+        if (areas[position] <= areas[heap[child]]) {
+          break;
+        }
+        move(heap[child], location);
+        location = child;
+      }
+      move(position, location);
+    }
+
+    private void move(int position, int location) {
+      heap[location] = position;
+      locations[position] = location;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.mapper;
+
+import com.endurancetrio.business.tracker.dto.GeofenceDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventType;
+import com.endurancetrio.business.tracker.dto.GeofenceShape;
+import com.endurancetrio.business.tracker.geo.Fence;
+import com.endurancetrio.data.tracker.model.entity.Geofence;
+import com.endurancetrio.data.tracker.model.entity.Geofence.Shape;
+import com.endurancetrio.data.tracker.model.entity.GeofenceEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link GeofenceMapper} is a utility class for converting between {@link GeofenceDTO} and
+ * {@link Geofence} objects, {@link GeofenceEvent} entities and {@link GeofenceEventDTO} objects,
+ * and {@link Geofence} entities and their {@link Fence} geometry.
+ * <p>
+ * The vertices of a polygon are stored as {@code longitude latitude} pairs separated by commas.
+ */
+@Component
+public class GeofenceMapper {
+
+  private static final String VERTEX_SEPARATOR = ",";
+  private static final String COORDINATE_SEPARATOR = " ";
+
+  /**
+   * Converts a {@link GeofenceDTO} to a {@link Geofence} entity, without its account.
+   *
+   * @param dto the {@link GeofenceDTO} to be mapped
+   * @return the corresponding {@link Geofence} entity
+   */
+  public Geofence map(GeofenceDTO dto) {
+
+    if (dto == null) {
+      return null;
+    }
+
+    Geofence entity = new Geofence();
+    entity.setId(dto.id());
+    entity.setName(dto.name());
+    entity.setShape(Shape.valueOf(dto.shape().name()));
+    if (dto.shape() == GeofenceShape.CIRCLE) {
+      entity.setLatitude(dto.latitude());
+      entity.setLongitude(dto.longitude());
+      entity.setRadius(dto.radius());
+    } else {
+      StringJoiner coordinates = new StringJoiner(VERTEX_SEPARATOR);
+      for (List<Double> vertex : dto.coordinates()) {
+        coordinates.add(vertex.get(0) + COORDINATE_SEPARATOR + vertex.get(1));
+      }
+      entity.setCoordinates(coordinates.toString());
+    }
+
+    return entity;
+  }
+
+  /**
+   * Converts a {@link Geofence} entity to a {@link GeofenceDTO}.
+   *
+   * @param entity the {@link Geofence} entity to be mapped
+   * @return the corresponding {@link GeofenceDTO}
+   */
+  public GeofenceDTO map(Geofence entity) {
+
+    if (entity == null) {
+      return null;
+    }
+
+    List<List<Double>> coordinates = null;
+    if (entity.getCoordinates() != null) {
+      coordinates = new ArrayList<>();
+      for (String vertex : entity.getCoordinates().split(VERTEX_SEPARATOR)) {
+        String[] values = vertex.split(COORDINATE_SEPARATOR);
+        coordinates.add(List.of(Double.parseDouble(values[0]), Double.parseDouble(values[1])));
+      }
+    }
+
+    return new GeofenceDTO(entity.getId(), entity.getName(),
+        GeofenceShape.valueOf(entity.getShape().name()), entity.getLatitude(),
+        entity.getLongitude(), entity.getRadius(), coordinates
+    );
+  }
+
+  /**
+   * Converts a {@link GeofenceEvent} entity to a {@link GeofenceEventDTO}.
+   *
+   * @param entity the {@link GeofenceEvent} entity to be mapped
+   * @return the corresponding {@link GeofenceEventDTO}
+   */
+  public GeofenceEventDTO map(GeofenceEvent entity) {
+
+    if (entity == null) {
+      return null;
+    }
+
+    return new GeofenceEventDTO(entity.getId(), entity.getGeofenceId(), entity.getDevice(),
+        GeofenceEventType.valueOf(entity.getType().name()), entity.getTime(),
+        entity.getLatitude(), entity.getLongitude()
+    );
+  }
+
+  /**
+   * Converts a {@link Geofence} entity to the {@link Fence} geometry evaluated on ingestion.
+   *
+   * @param entity the {@link Geofence} entity to be mapped
+   * @return the corresponding {@link Fence}
+   */
+  public Fence toFence(Geofence entity) {
+
+    if (entity.getShape() == Shape.CIRCLE) {
+      return Fence.circle(entity.getId(), entity.getLongitude(), entity.getLatitude(),
+          entity.getRadius()
+      );
+    }
+
+    String[] vertices = entity.getCoordinates().split(VERTEX_SEPARATOR);
+    double[] longitudes = new double[vertices.length];
+    double[] latitudes = new double[vertices.length];
+    for (int index = 0; index < vertices.length; index++) {
+      String[] values = vertices[index].split(COORDINATE_SEPARATOR);
+      longitudes[index] = Double.parseDouble(values[0]);
+      latitudes[index] = Double.parseDouble(values[1]);
+    }
+    return Fence.polygon(entity.getId(), longitudes, latitudes);
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sheds the authentication requests of the client addresses that failed too often, before their
+ * key is looked up or verified, and the key verifications of the owners that failed too often that
+ * would need BCrypt.
+ * <p>
+ * The failures are counted, per owner and per client address, in a sliding window of
+ * {@code app.auth.failures.window}, split in {@value #BUCKETS} buckets. The counters are striped:
+ * each owner or address is hashed to one of {@code app.auth.failures.stripes} slots of lock-free
+ * atomic arrays, so their memory is fixed whatever the number of owners and addresses, at the cost
+ * of approximate counts when two of them share a slot. Once an address reaches
+ * {@code app.auth.failures.max-per-address} failures, its requests are rejected until the window
+ * slides past its failures. Once an owner reaches {@code app.auth.failures.max-per-owner} failures,
+ * its keys are still accepted when they verify cheaply, against an HMAC-SHA-256 hash or the
+ * {@link VerifiedKeyCache}, so that its legitimate devices keep working while another client keeps
+ * failing, and only the requests that would need BCrypt are rejected. The rejected requests are
+ * not counted as failures, so that a client is rejected for no longer than its own failures.
+ * <p>
+ * The owners without an account are remembered for {@code app.auth.unknown-owners.ttl}, up to
+ * {@code app.auth.unknown-owners.max-entries} owners, and their requests rejected without a
+ * database lookup. Their failures are only counted per address, so that requests for random owners
+ * do not fill the slots of the existing owners.
+ * <p>
+ * The rejected requests are exported as the {@code tracker.auth.rejected.early} counter, tagged
+ * with the {@code reason} of the rejection.
+ */
+@Component
+public class AuthFailureGuard {
+
+  private static final int BUCKETS = 6;
+
+  /**
+   * The reasons to reject an authentication request early.
+   */
+  public enum Rejection {
+    UNKNOWN_OWNER,
+    OWNER_THROTTLED,
+    ADDRESS_THROTTLED
+  }
+
+  private final Duration window;
+  private final int maxOwnerFailures;
+  private final int maxAddressFailures;
+  private final long unknownOwnerTtlNanos;
+  private final int maxUnknownOwners;
+
+  private final FailureCounters ownerFailures;
+  private final FailureCounters addressFailures;
+  private final Map<String, Long> unknownOwners = new ConcurrentHashMap<>();
+  private final Map<Rejection, Counter> rejectedCounters = new EnumMap<>(Rejection.class);
+
+  public AuthFailureGuard(
+      MeterRegistry meterRegistry,
+      @Value("${app.auth.failures.window:1m}") Duration window,
+      @Value("${app.auth.failures.stripes:4096}") int stripes,
+      @Value("${app.auth.failures.max-per-owner:50}") int maxOwnerFailures,
+      @Value("${app.auth.failures.max-per-address:20}") int maxAddressFailures,
+      @Value("${app.auth.unknown-owners.ttl:1m}") Duration unknownOwnerTtl,
+      @Value("${app.auth.unknown-owners.max-entries:10000}") int maxUnknownOwners
+  ) {
+    this.window = window;
+    this.maxOwnerFailures = maxOwnerFailures;
+    this.maxAddressFailures = maxAddressFailures;
+    this.unknownOwnerTtlNanos = unknownOwnerTtl.toNanos();
+    this.maxUnknownOwners = maxUnknownOwners;
+
+    this.ownerFailures = new FailureCounters(stripes, window);
+    this.addressFailures = new FailureCounters(stripes, window);
+
+    for (Rejection rejection : Rejection.values()) {
+      rejectedCounters.put(rejection, Counter.builder("tracker.auth.rejected.early")
+          .description("Authentication requests rejected before their key was verified")
+          .tag("reason", rejection.name().toLowerCase(Locale.ROOT))
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Checks whether an authentication request is to be rejected before its account is looked up.
+   * The failures of the owner are checked later, by {@link #isOwnerThrottled}, only when its key
+   * cannot be verified cheaply.
+   *
+   * @param owner   the owner of the account
+   * @param address the address of the client
+   * @return the reason to reject the request, or empty if the request is to be verified
+   */
+  public Optional<Rejection> check(String owner, String address) {
+
+    long now = System.nanoTime();
+    Rejection rejection = null;
+
+    if (addressFailures.count(address, now) >= maxAddressFailures) {
+      rejection = Rejection.ADDRESS_THROTTLED;
+    } else if (isUnknownOwner(owner, now)) {
+      rejection = Rejection.UNKNOWN_OWNER;
+    }
+
+    if (rejection != null) {
+      rejectedCounters.get(rejection).increment();
+    }
+    return Optional.ofNullable(rejection);
+  }
+
+  /**
+   * Checks whether the key verifications of an owner that need BCrypt are to be rejected, because
+   * the owner failed too often.
+   *
+   * @param owner the owner of the account
+   * @return {@code true} if the verification is to be rejected
+   */
+  public boolean isOwnerThrottled(String owner) {
+
+    if (ownerFailures.count(owner, System.nanoTime()) < maxOwnerFailures) {
+      return false;
+    }
+    rejectedCounters.get(Rejection.OWNER_THROTTLED).increment();
+    return true;
+  }
+
+  /**
+   * Counts a failed key verification. The requests rejected by this guard are not counted.
+   *
+   * @param owner   the owner of the account
+   * @param address the address of the client
+   */
+  public void recordFailure(String owner, String address) {
+
+    long now = System.nanoTime();
+    addressFailures.increment(address, now);
+    if (!isUnknownOwner(owner, now)) {
+      ownerFailures.increment(owner, now);
+    }
+  }
+
+  /**
+   * Remembers an owner without an account, until {@code app.auth.unknown-owners.ttl} elapses or an
+   * account is created for the owner.
+   *
+   * @param owner the owner without an account
+   */
+  public void rememberUnknownOwner(String owner) {
+
+    long now = System.nanoTime();
+    if (unknownOwners.size() >= maxUnknownOwners) {
+      unknownOwners.values().removeIf(expiresAt -> expiresAt - now <= 0);
+      if (unknownOwners.size() >= maxUnknownOwners) {
+        return;
+      }
+    }
+    unknownOwners.put(owner, now + unknownOwnerTtlNanos);
+  }
+
+  /**
+   * @return the time the failures are counted for, which the rejected clients should wait
+   */
+  public Duration getWindow() {
+    return window;
+  }
+
+  /**
+   * Forgets an owner that was remembered without an account, in case the account was created.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTrackerAccountChanged(TrackerAccountChangedEvent event) {
+    unknownOwners.remove(event.owner());
+  }
+
+  private boolean isUnknownOwner(String owner, long now) {
+
+    Long expiresAt = unknownOwners.get(owner);
+    if (expiresAt == null) {
+      return false;
+    }
+    if (expiresAt - now <= 0) {
+      unknownOwners.remove(owner, expiresAt);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Striped sliding window counters. Each key is hashed to a stripe of {@value #BUCKETS} buckets,
+   * each bucket counting the failures of one sixth of the window and tagged with the epoch it
+   * counts. A bucket of a past epoch is reset, without locks, by the first failure of its new
+   * epoch; a failure counted by another thread during the reset may be lost.
+   */
+  private static final class FailureCounters {
+
+    private final int mask;
+    private final long bucketNanos;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray epochs;
+
+    private FailureCounters(int stripes, Duration window) {
+      int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+      this.mask = size - 1;
+      this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+      this.counts = new AtomicLongArray(size * BUCKETS);
+      this.epochs = new AtomicLongArray(size * BUCKETS);
+    }
+
+    private void increment(String key, long now) {
+
+      long epoch = now / bucketNanos;
+      int index = stripe(key) * BUCKETS + (int) Math.floorMod(epoch, BUCKETS);
+
+      long bucketEpoch = epochs.get(index);
+      if (bucketEpoch != epoch && epochs.compareAndSet(index, bucketEpoch, epoch)) {
+        counts.set(index, 0);
+      }
+      counts.incrementAndGet(index);
+    }
+
+    private long count(String key, long now) {
+
+      long epoch = now / bucketNanos;
+      int base = stripe(key) * BUCKETS;
+
+      long count = 0;
+      for (int index = base; index < base + BUCKETS; index++) {
+        long age = epoch - epochs.get(index);
+        if (age >= 0 && age < BUCKETS) {
+          count += counts.get(index);
+        }
+      }
+      return count;
+    }
+
+    private int stripe(String key) {
+      int hash = key == null ? 0 : key.hashCode();
+      return (hash ^ (hash >>> 16)) & mask;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.data.tracker.repository.DeviceLatestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service responsible for rebuilding the {@code device_latest} table upon application startup.
+ * <p>
+ * The table is filled by its migration and then kept up to date with each telemetry insert, so a
+ * rebuild is only needed when the telemetry records were changed directly in the database. The
+ * rebuild runs when the environment variable {@code REBUILD_DEVICE_LATEST} is {@code true}, before
+ * the latest telemetry cache is loaded.
+ */
+@Service
+public class DeviceLatestInitializer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DeviceLatestInitializer.class);
+
+  @Value("${app.initialization.rebuild-device-latest:false}")
+  private boolean rebuildDeviceLatest;
+
+  private final DeviceLatestRepository deviceLatestRepository;
+
+  @Autowired
+  public DeviceLatestInitializer(DeviceLatestRepository deviceLatestRepository) {
+    this.deviceLatestRepository = deviceLatestRepository;
+  }
+
+  /**
+   * Rebuilds the {@code device_latest} table from the telemetry history upon application startup
+   * if requested by the configuration.
+   */
+  @Transactional
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @EventListener(ApplicationReadyEvent.class)
+  public void deviceLatestInitializer() {
+
+    if (!rebuildDeviceLatest) {
+      return;
+    }
+
+    try {
+      int devices = deviceLatestRepository.rebuild();
+      LOG.info("Device latest table rebuilt with {} devices", devices);
+    } catch (DataAccessException exception) {
+      LOG.error("Device latest table rebuild failed:", exception);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryPartitionRepository;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service responsible for managing the monthly partitions of the {@code device_telemetry} table.
+ * <p>
+ * Upon application startup and then on the configured schedule, the partitions of the current
+ * month and of the following {@code app.telemetry.partitions.months-ahead} months are created, so
+ * that inserts never fall into the default partition. When
+ * {@code app.telemetry.partitions.retention-months} is positive, the partitions of the months
+ * before the retention window are detached from the table and kept as standalone tables, except
+ * the ones holding the latest record of a device, which are kept until it records a later one.
+ * <p>
+ * Each partition is created or detached in its own transaction, so a failure only rolls back the
+ * partition at fault and the following months are still managed.
+ * <p>
+ * Nothing is done when the table is not partitioned, as on H2.
+ */
+@Service
+public class DeviceTelemetryPartitionManager {
+
+  private static final Logger LOG = LoggerFactory.getLogger(
+      DeviceTelemetryPartitionManager.class);
+
+  @Value("${app.telemetry.partitions.months-ahead:3}")
+  private int monthsAhead;
+
+  @Value("${app.telemetry.partitions.retention-months:0}")
+  private int retentionMonths;
+
+  private final DeviceTelemetryPartitionRepository partitionRepository;
+  private final TransactionTemplate transaction;
+
+  @Autowired
+  public DeviceTelemetryPartitionManager(
+      DeviceTelemetryPartitionRepository partitionRepository,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.partitionRepository = partitionRepository;
+    this.transaction = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Creates the upcoming partitions and detaches the expired ones, upon application startup and
+   * on the configured schedule.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${app.telemetry.partitions.cron:0 0 3 * * *}", zone = "UTC")
+  public void managePartitions() {
+    managePartitions(YearMonth.now(ZoneOffset.UTC));
+  }
+
+  void managePartitions(YearMonth currentMonth) {
+
+    Optional<List<YearMonth>> partitions;
+    try {
+      partitions = transaction.execute(status -> partitionRepository.findMonthlyPartitions());
+    } catch (DataAccessException exception) {
+      LOG.error("Telemetry partitions lookup failed:", exception);
+      return;
+    }
+    if (partitions.isEmpty()) {
+      return;
+    }
+
+    List<YearMonth> existing = partitions.get();
+    for (int i = 0; i <= monthsAhead; i++) {
+      YearMonth month = currentMonth.plusMonths(i);
+      if (!existing.contains(month)) {
+        createPartition(month);
+      }
+    }
+
+    if (retentionMonths <= 0) {
+      return;
+    }
+
+    YearMonth oldestRetained = currentMonth.minusMonths(retentionMonths - 1L);
+    for (YearMonth month : existing) {
+      if (month.isBefore(oldestRetained)) {
+        detachPartition(month);
+      }
+    }
+  }
+
+  private void createPartition(YearMonth month) {
+    try {
+      Integer moved = transaction.execute(
+          status -> partitionRepository.createMonthlyPartition(month));
+      LOG.info("Telemetry partition {} created with {} records", month, moved);
+    } catch (DataAccessException exception) {
+      LOG.error("Telemetry partition {} creation failed:", month, exception);
+    }
+  }
+
+  private void detachPartition(YearMonth month) {
+    try {
+      Boolean detached = transaction.execute(
+          status -> partitionRepository.detachMonthlyPartition(month));
+      if (Boolean.TRUE.equals(detached)) {
+        LOG.info("Telemetry partition {} detached", month);
+      } else {
+        LOG.warn("Telemetry partition {} kept, it holds the latest record of some devices", month);
+      }
+    } catch (DataAccessException exception) {
+      LOG.error("Telemetry partition {} detachment failed:", month, exception);
+    }
+  }
+}
@@ -20,19 +20,56 @@
 
 package com.endurancetrio.business.tracker.service;
 
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryBucketDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryChangesDTO;
 import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryPageDTO;
+import com.endurancetrio.business.tracker.dto.NearestDeviceDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBatchResultDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBucketPoint;
+import com.endurancetrio.business.tracker.dto.TelemetryItemStatus;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public interface DeviceTelemetryService {
 
   /**
-   * Saves the provided telemetry data for the specified owner.
+   * Saves the provided telemetry data for the specified owner, unless a record of the same device
+   * and time is already saved.
    *
    * @param owner              the owner of the telemetry data
    * @param deviceTelemetryDTO the telemetry data to be saved
-   * @return the saved {@link DeviceTelemetryDTO}
+   * @return {@link TelemetryItemStatus#CREATED} if the telemetry data was saved, or
+   * {@link TelemetryItemStatus#DUPLICATE} if it was already saved
    */
-  DeviceTelemetryDTO save(String owner, DeviceTelemetryDTO deviceTelemetryDTO);
+  TelemetryItemStatus save(String owner, DeviceTelemetryDTO deviceTelemetryDTO);
+
+  /**
+   * Saves the provided batch of telemetry data for the specified owner.
+   * <p>
+   * Each record is validated individually: invalid records are reported as rejected, records that
+   * are already saved are reported as duplicated and the remaining ones are saved together in a
+   * single transaction.
+   *
+   * @param owner               the owner of the telemetry data
+   * @param deviceTelemetryDTOs the batch of telemetry data to be saved
+   * @return the {@link TelemetryBatchResultDTO} with the processing result of each record
+   */
+  TelemetryBatchResultDTO saveAll(String owner, List<DeviceTelemetryDTO> deviceTelemetryDTOs);
+
+  /**
+   * Saves the provided telemetry data, grouped by owner, in a single transaction.
+   * <p>
+   * The telemetry data is expected to be already validated, so it is saved as provided, except
+   * for the records that are already saved.
+   *
+   * @param telemetryByOwner the telemetry data to be saved, grouped by owner
+   * @return the number of telemetry data records saved, which excludes the duplicated records
+   */
+  int saveAllByOwner(Map<String, List<DeviceTelemetryDTO>> telemetryByOwner);
 
   /**
    * Finds the most recent telemetry data record for each device present in the database.
@@ -40,4 +77,92 @@ public interface DeviceTelemetryService {
    * @return list of telemetry data records containing the latest record for each device
    */
   List<DeviceTelemetryDTO> findMostRecentRecordForEachDevice();
+
+  /**
+   * Finds the most recent telemetry data record of each device within a bounding box.
+   *
+   * @param bbox the bounding box, as {@code minLon,minLat,maxLon,maxLat} in degrees; it crosses
+   *             the antimeridian when {@code minLon} is greater than {@code maxLon}
+   * @return list of telemetry data records containing the latest record of each device within
+   * the bounding box, ordered by device
+   * @throws com.endurancetrio.business.common.exception.BadRequestException if the bounding box is
+   *                                                                         malformed
+   */
+  List<DeviceTelemetryDTO> findMostRecentRecordWithin(String bbox);
+
+  /**
+   * Finds the most recent telemetry data record of the devices nearest to a point.
+   *
+   * @param latitude  the latitude of the point, in degrees
+   * @param longitude the longitude of the point, in degrees
+   * @param k         the maximum number of devices to find, or {@code null} for the default
+   * @return the latest record of the nearest devices with their distance to the point, ordered by
+   * distance
+   * @throws com.endurancetrio.business.common.exception.BadRequestException if the point is out of
+   *                                                                         range or {@code k} is
+   *                                                                         not between 1 and the
+   *                                                                         maximum
+   */
+  List<NearestDeviceDTO> findNearest(Double latitude, Double longitude, Integer k);
+
+  /**
+   * Finds the most recent telemetry data record of each device whose record changed after the
+   * provided cursor.
+   *
+   * @param cursor the cursor returned by a previous call, or {@code null} to find the most recent
+   *               record of every device
+   * @return the changed records and the cursor to be used on the next call
+   * @throws com.endurancetrio.business.common.exception.BadRequestException if the cursor is
+   *                                                                         malformed
+   */
+  DeviceTelemetryChangesDTO findMostRecentRecordChangedSince(String cursor);
+
+  /**
+   * Finds a page of the telemetry data history of the specified device, ordered by time.
+   *
+   * @param device the device identifier
+   * @param from   the start of the time range, inclusive, or {@code null} for no start
+   * @param to     the end of the time range, exclusive, or {@code null} for no end
+   * @param size   the maximum number of records of the page, or {@code null} for the default size
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @return the records of the page and the cursor of the next page
+   * @throws com.endurancetrio.business.common.exception.BadRequestException if the time range, the
+   *                                                                         size or the cursor are
+   *                                                                         invalid
+   */
+  DeviceTelemetryPageDTO findHistory(
+      String device, Instant from, Instant to, Integer size, String cursor
+  );
+
+  /**
+   * Finds the telemetry data history of the specified devices downsampled to one point per device
+   * and time bucket. The buckets are computed by the database, so the cost depends on the number
+   * of buckets returned rather than on the number of records.
+   *
+   * @param devices the device identifiers
+   * @param from    the start of the time range, inclusive, and of the first bucket
+   * @param to      the end of the time range, exclusive
+   * @param bucket  the size of the buckets, a whole number of seconds written as a simple
+   *                ({@code 5m}) or ISO-8601 ({@code PT5M}) duration
+   * @param point   how the records of a bucket are downsampled, or {@code null} for
+   *                {@link TelemetryBucketPoint#LAST}
+   * @return the point of each non-empty bucket, ordered by device and bucket
+   * @throws com.endurancetrio.business.common.exception.BadRequestException if the devices, the
+   *                                                                         time range or the
+   *                                                                         bucket size are
+   *                                                                         invalid, or if too
+   *                                                                         many buckets are
+   *                                                                         requested
+   */
+  List<DeviceTelemetryBucketDTO> findBuckets(
+      Set<String> devices, Instant from, Instant to, String bucket, TelemetryBucketPoint point
+  );
+
+  /**
+   * Returns the version of the most recent telemetry data records, without reading the database.
+   *
+   * @return the version, which changes whenever the most recent record of a device changes, or an
+   * empty {@link Optional} when it is not known yet
+   */
+  Optional<String> findMostRecentRecordVersion();
 }
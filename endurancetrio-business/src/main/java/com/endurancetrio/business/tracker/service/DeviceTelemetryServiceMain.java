@@ -20,57 +20,832 @@
 
 package com.endurancetrio.business.tracker.service;
 
+import com.endurancetrio.business.common.exception.BadRequestException;
 import com.endurancetrio.business.common.exception.NotFoundException;
 import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryBucketDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryChangesDTO;
 import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryPageDTO;
+import com.endurancetrio.business.tracker.dto.NearestDeviceDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBatchItemDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBatchResultDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBucketPoint;
+import com.endurancetrio.business.tracker.dto.TelemetryItemStatus;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
 import com.endurancetrio.business.tracker.mapper.DeviceTelemetryMapper;
 import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
 import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.DeviceLatestRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBucketRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBucketRepository.Bucket;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryInsertRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryInsertRepository.TelemetryKey;
 import com.endurancetrio.data.tracker.repository.DeviceTelemetryRepository;
 import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Service responsible for saving and querying telemetry data.
+ * <p>
+ * Saving is idempotent: a record with the same device and time as an already saved record is
+ * reported as {@link TelemetryItemStatus#DUPLICATE} and ignored. The duplicates are detected first
+ * by the {@link RecentTelemetryFilter}, then by a lookup of the incoming records in the database,
+ * and finally by the {@link DeviceTelemetryInsertRepository}, which skips the records saved by a
+ * concurrent request since the lookup. Only the records actually inserted are reported as
+ * {@link TelemetryItemStatus#CREATED}, evaluated against the geofences and published.
+ * <p>
+ * The most recent record of each device is kept in the {@code device_latest} table, updated by the
+ * {@link DeviceLatestRepository} in the same transaction as each insert, and served from the
+ * {@link LatestTelemetryCache}. The reads served from the cache do not take a database connection:
+ * only a reload of the cache, when it was invalidated, runs a read-only transaction.
+ * <p>
+ * Each saved record is evaluated against the geofences of its account by the
+ * {@link GeofenceService}, which saves the enter and exit events in the same transaction.
+ */
 @Service
 public class DeviceTelemetryServiceMain implements DeviceTelemetryService {
 
+  private static final Logger LOG = LoggerFactory.getLogger(DeviceTelemetryServiceMain.class);
+
+  private static final String NULL_RECORD_ERROR = "Telemetry data record cannot be null";
+  private static final String DUPLICATES_METRIC = "telemetry.ingestion.duplicates";
+  private static final String DUPLICATES_METRIC_DESCRIPTION =
+      "Number of telemetry data records ignored because they were already saved";
+
+  // Bounds of the history time range when the request does not set them
+  private static final Instant HISTORY_START = Instant.EPOCH;
+  private static final Instant HISTORY_END = Instant.parse("9999-12-31T00:00:00Z");
+
+  @Value("${app.telemetry.batch.max-size:500}")
+  private int batchMaxSize;
+
+  @Value("${app.telemetry.history.default-page-size:100}")
+  private int historyDefaultPageSize;
+
+  @Value("${app.telemetry.history.max-page-size:1000}")
+  private int historyMaxPageSize;
+
+  @Value("${app.telemetry.history.max-buckets:10000}")
+  private int historyMaxBuckets;
+
+  @Value("${app.telemetry.nearest.default-k:10}")
+  private int nearestDefaultK;
+
+  @Value("${app.telemetry.nearest.max-k:100}")
+  private int nearestMaxK;
+
   private final TrackerAccountRepository trackerAccountRepository;
   private final DeviceTelemetryRepository deviceTelemetryRepository;
+  private final DeviceTelemetryInsertRepository deviceTelemetryInsertRepository;
+  private final DeviceLatestRepository deviceLatestRepository;
+  private final DeviceTelemetryBucketRepository deviceTelemetryBucketRepository;
+  private final TelemetryArchiveService telemetryArchiveService;
+  private final GeofenceService geofenceService;
   private final DeviceTelemetryMapper deviceTelemetryMapper;
+  private final Validator validator;
+  private final RecentTelemetryFilter recentTelemetryFilter;
+  private final LatestTelemetryCache latestTelemetryCache;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Counter recentDuplicatesCounter;
+  private final Counter savedDuplicatesCounter;
 
   public DeviceTelemetryServiceMain(
       TrackerAccountRepository trackerAccountRepository,
-      DeviceTelemetryRepository deviceTelemetryRepository, DeviceTelemetryMapper deviceTelemetryMapper
+      DeviceTelemetryRepository deviceTelemetryRepository,
+      DeviceTelemetryInsertRepository deviceTelemetryInsertRepository,
+      DeviceLatestRepository deviceLatestRepository,
+      DeviceTelemetryBucketRepository deviceTelemetryBucketRepository,
+      TelemetryArchiveService telemetryArchiveService, GeofenceService geofenceService,
+      DeviceTelemetryMapper deviceTelemetryMapper, Validator validator,
+      RecentTelemetryFilter recentTelemetryFilter,
+      LatestTelemetryCache latestTelemetryCache, ApplicationEventPublisher eventPublisher,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry
   ) {
     this.trackerAccountRepository = trackerAccountRepository;
     this.deviceTelemetryRepository = deviceTelemetryRepository;
+    this.deviceTelemetryInsertRepository = deviceTelemetryInsertRepository;
+    this.deviceLatestRepository = deviceLatestRepository;
+    this.deviceTelemetryBucketRepository = deviceTelemetryBucketRepository;
+    this.telemetryArchiveService = telemetryArchiveService;
+    this.geofenceService = geofenceService;
     this.deviceTelemetryMapper = deviceTelemetryMapper;
+    this.validator = validator;
+    this.recentTelemetryFilter = recentTelemetryFilter;
+    this.latestTelemetryCache = latestTelemetryCache;
+    this.eventPublisher = eventPublisher;
+
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+
+    this.recentDuplicatesCounter = Counter.builder(DUPLICATES_METRIC)
+        .description(DUPLICATES_METRIC_DESCRIPTION)
+        .tag("filter", "memory")
+        .register(meterRegistry);
+    this.savedDuplicatesCounter = Counter.builder(DUPLICATES_METRIC)
+        .description(DUPLICATES_METRIC_DESCRIPTION)
+        .tag("filter", "database")
+        .register(meterRegistry);
   }
 
   @Override
   @Transactional
-  public DeviceTelemetryDTO save(String owner, DeviceTelemetryDTO deviceTelemetryDTO) {
+  public TelemetryItemStatus save(String owner, DeviceTelemetryDTO deviceTelemetryDTO) {
+
+    if (findDuplicates(List.of(deviceTelemetryDTO))[0]) {
+      return TelemetryItemStatus.DUPLICATE;
+    }
 
     TrackerAccount accountReference = trackerAccountRepository.getReferenceById(owner);
 
     DeviceTelemetry deviceTelemetry = deviceTelemetryMapper.map(deviceTelemetryDTO, null);
     deviceTelemetry.setAccount(accountReference);
 
+    boolean[] inserted = saveNew(List.of(deviceTelemetry), List.of(deviceTelemetryDTO));
+
+    return inserted[0] ? TelemetryItemStatus.CREATED : TelemetryItemStatus.DUPLICATE;
+  }
+
+  @Override
+  @Transactional
+  public TelemetryBatchResultDTO saveAll(
+      String owner, List<DeviceTelemetryDTO> deviceTelemetryDTOs
+  ) {
+
+    validateBatchSize(deviceTelemetryDTOs);
+
+    TrackerAccount accountReference = trackerAccountRepository.getReferenceById(owner);
+
+    int received = deviceTelemetryDTOs.size();
+    List<TelemetryBatchItemDTO> items = new ArrayList<>(received);
+    List<DeviceTelemetryDTO> valid = new ArrayList<>(received);
+    List<Integer> validIndexes = new ArrayList<>(received);
+
+    for (int index = 0; index < received; index++) {
+      DeviceTelemetryDTO deviceTelemetryDTO = deviceTelemetryDTOs.get(index);
+      List<String> errors = validate(deviceTelemetryDTO);
+
+      if (errors.isEmpty()) {
+        valid.add(deviceTelemetryDTO);
+        validIndexes.add(index);
+        items.add(null);
+      } else {
+        items.add(new TelemetryBatchItemDTO(index, TelemetryItemStatus.REJECTED, errors));
+      }
+    }
+
+    boolean[] duplicates = findDuplicates(valid);
+    List<DeviceTelemetry> entities = new ArrayList<>(valid.size());
+    List<DeviceTelemetryDTO> created = new ArrayList<>(valid.size());
+
+    for (int position = 0; position < valid.size(); position++) {
+      if (!duplicates[position]) {
+        DeviceTelemetry deviceTelemetry = deviceTelemetryMapper.map(valid.get(position), null);
+        deviceTelemetry.setAccount(accountReference);
+        entities.add(deviceTelemetry);
+        created.add(valid.get(position));
+      }
+    }
+    boolean[] inserted = saveNew(entities, created);
+
+    int accepted = 0;
+    for (int position = 0, next = 0; position < valid.size(); position++) {
+      int index = validIndexes.get(position);
+      if (!duplicates[position] && inserted[next++]) {
+        accepted++;
+        items.set(index, new TelemetryBatchItemDTO(index, TelemetryItemStatus.CREATED));
+      } else {
+        items.set(index, new TelemetryBatchItemDTO(index, TelemetryItemStatus.DUPLICATE));
+      }
+    }
+
+    int duplicated = valid.size() - accepted;
+    LOG.debug("Telemetry batch for owner {}: {} received, {} accepted, {} duplicated", owner,
+        received, accepted, duplicated
+    );
+
+    return new TelemetryBatchResultDTO(received, accepted, duplicated, received - valid.size(),
+        items
+    );
+  }
+
+  @Override
+  @Transactional
+  public int saveAllByOwner(Map<String, List<DeviceTelemetryDTO>> telemetryByOwner) {
+
+    List<String> owners = new ArrayList<>();
+    List<DeviceTelemetryDTO> records = new ArrayList<>();
+    for (Map.Entry<String, List<DeviceTelemetryDTO>> entry : telemetryByOwner.entrySet()) {
+      for (DeviceTelemetryDTO deviceTelemetryDTO : entry.getValue()) {
+        owners.add(entry.getKey());
+        records.add(deviceTelemetryDTO);
+      }
+    }
+
+    boolean[] duplicates = findDuplicates(records);
+    Map<String, TrackerAccount> accountReferences = new HashMap<>();
+    List<DeviceTelemetry> entities = new ArrayList<>(records.size());
+    List<DeviceTelemetryDTO> created = new ArrayList<>(records.size());
+
+    for (int position = 0; position < records.size(); position++) {
+      if (duplicates[position]) {
+        continue;
+      }
+      DeviceTelemetryDTO deviceTelemetryDTO = records.get(position);
+      DeviceTelemetry deviceTelemetry = deviceTelemetryMapper.map(deviceTelemetryDTO, null);
+      deviceTelemetry.setAccount(accountReferences.computeIfAbsent(owners.get(position),
+          trackerAccountRepository::getReferenceById
+      ));
+      entities.add(deviceTelemetry);
+      created.add(deviceTelemetryDTO);
+    }
+
+    int accepted = 0;
+    for (boolean insertedRecord : saveNew(entities, created)) {
+      accepted += insertedRecord ? 1 : 0;
+    }
+    return accepted;
+  }
+
+  @Override
+  public List<DeviceTelemetryDTO> findMostRecentRecordForEachDevice() {
+
+    return latestTelemetryCache.findAll().orElseGet(() -> {
+      List<DeviceTelemetryDTO> latestLocations = findMostRecentRecordForEachDeviceInDatabase();
+      latestTelemetryCache.load(latestLocations);
+      return latestLocations;
+    });
+  }
+
+  @Override
+  public List<DeviceTelemetryDTO> findMostRecentRecordWithin(String bbox) {
+
+    double[] box = parseBoundingBox(bbox);
+    return latestTelemetryCache.findWithin(box[0], box[1], box[2], box[3]).orElseGet(() -> {
+      latestTelemetryCache.load(findMostRecentRecordForEachDeviceInDatabase());
+      return latestTelemetryCache.findWithin(box[0], box[1], box[2], box[3]).orElseThrow();
+    });
+  }
+
+  @Override
+  public List<NearestDeviceDTO> findNearest(Double latitude, Double longitude, Integer k) {
+
+    if (latitude == null || longitude == null || !(Math.abs(latitude) <= 90)
+        || !(Math.abs(longitude) <= 180)) {
+      String errorMessage = "The point must have a latitude and a longitude in degrees";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    int count = k == null ? nearestDefaultK : k;
+    if (count < 1 || count > nearestMaxK) {
+      String errorMessage = String.format("The number of devices must be between 1 and %d",
+          nearestMaxK
+      );
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    return latestTelemetryCache.findNearest(longitude, latitude, count).orElseGet(() -> {
+      latestTelemetryCache.load(findMostRecentRecordForEachDeviceInDatabase());
+      return latestTelemetryCache.findNearest(longitude, latitude, count).orElseThrow();
+    });
+  }
+
+  @Override
+  public DeviceTelemetryChangesDTO findMostRecentRecordChangedSince(String cursor) {
+
     try {
-      return deviceTelemetryMapper.map(deviceTelemetryRepository.save(deviceTelemetry));
-    } catch (EntityNotFoundException exception) {
-      throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
+      return latestTelemetryCache.findChangedSince(cursor).orElseGet(() -> {
+        latestTelemetryCache.load(findMostRecentRecordForEachDeviceInDatabase());
+        return latestTelemetryCache.findChangedSince(cursor).orElseThrow();
+      });
+    } catch (IllegalArgumentException exception) {
+      String errorMessage = "The cursor is invalid, it must be returned by a previous read";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
     }
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<DeviceTelemetryDTO> findMostRecentRecordForEachDevice() {
+  public DeviceTelemetryPageDTO findHistory(
+      String device, Instant from, Instant to, Integer size, String cursor
+  ) {
+
+    int pageSize = size == null ? historyDefaultPageSize : size;
+    if (pageSize < 1 || pageSize > historyMaxPageSize) {
+      String errorMessage = String.format("The page size must be between 1 and %d",
+          historyMaxPageSize
+      );
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    Instant start = from == null ? HISTORY_START : from;
+    Instant end = to == null ? HISTORY_END : to;
+    if (!start.isBefore(end)) {
+      String errorMessage = "The start of the time range must be before its end";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    // One record more than the page size tells whether there is a next page
+    Instant after = decodeHistoryCursor(cursor);
+    List<DeviceTelemetry> records = deviceTelemetryRepository.findHistory(device, start, after,
+        end, Limit.of(pageSize + 1)
+    );
+
+    // The archived records are merged with the live ones, the cursor times having microseconds
+    TelemetryPoints archived = new TelemetryPoints();
+    telemetryArchiveService.findArchived(device,
+        after.isBefore(start) ? start : after.plusNanos(1_000), end, pageSize + 1, archived
+    );
+    List<DeviceTelemetryDTO> page = mergeHistory(device, records, archived, pageSize + 1);
+
+    String nextCursor = null;
+    if (page.size() > pageSize) {
+      page = page.subList(0, pageSize);
+      nextCursor = encodeHistoryCursor(page.getLast().time());
+    }
+
+    return new DeviceTelemetryPageDTO(page, nextCursor);
+  }
+
+  @Override
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public List<DeviceTelemetryBucketDTO> findBuckets(
+      Set<String> devices, Instant from, Instant to, String bucket, TelemetryBucketPoint point
+  ) {
+
+    Set<String> bucketDevices = devices == null ? Set.of() : devices.stream()
+        .filter(device -> device != null && !device.isBlank())
+        .map(String::trim)
+        .collect(Collectors.toUnmodifiableSet());
+    if (bucketDevices.isEmpty()) {
+      String errorMessage = "At least one device is required";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    if (from == null || to == null || !from.isBefore(to)) {
+      String errorMessage = "The start of the time range must be before its end";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    Duration bucketSize = parseBucketSize(bucket);
+
+    // Bounds the response size before the query runs, whatever the number of records
+    long bucketsPerDevice = Math.ceilDiv(Duration.between(from, to).toSeconds(),
+        bucketSize.toSeconds()
+    );
+    if (bucketsPerDevice > historyMaxBuckets / bucketDevices.size()) {
+      String errorMessage = String.format(
+          "Too many buckets requested, at most %d buckets can be read for all the devices",
+          historyMaxBuckets
+      );
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    TelemetryBucketPoint bucketPoint = point == null ? TelemetryBucketPoint.LAST : point;
+    List<Bucket> buckets = switch (bucketPoint) {
+      case FIRST -> deviceTelemetryBucketRepository.findFirst(bucketDevices, from, to,
+          bucketSize
+      );
+      case LAST -> deviceTelemetryBucketRepository.findLast(bucketDevices, from, to, bucketSize);
+      case CENTROID -> deviceTelemetryBucketRepository.findCentroid(bucketDevices, from, to,
+          bucketSize
+      );
+    };
+    buckets = mergeArchivedBuckets(buckets, bucketDevices, from, to, bucketSize, bucketPoint);
+
+    return buckets.stream()
+        .map(record -> new DeviceTelemetryBucketDTO(record.device(), record.start(),
+            record.time(), record.latitude(), record.longitude(), record.active(),
+            record.points()
+        ))
+        .toList();
+  }
 
-    List<DeviceTelemetry> latestLocations = deviceTelemetryRepository.findMostRecentRecordForEachDevice();
+  @Override
+  public Optional<String> findMostRecentRecordVersion() {
+    return latestTelemetryCache.version();
+  }
+
+  /**
+   * Loads the {@link LatestTelemetryCache} as soon as the application is ready, so that the first
+   * request is already served from memory. If the database cannot be read, the cache is loaded on
+   * the first request instead.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadLatestTelemetryCache() {
+
+    try {
+      latestTelemetryCache.load(findMostRecentRecordForEachDeviceInDatabase());
+    } catch (DataAccessException | TransactionException exception) {
+      LOG.warn("The latest telemetry cache could not be loaded on startup: {}",
+          exception.getMessage()
+      );
+    }
+  }
+
+  /**
+   * Parses a bucket size written as a simple duration ({@code 10s}, {@code 1m}, {@code 5m}) or as
+   * an ISO-8601 duration ({@code PT10S}).
+   *
+   * @throws BadRequestException if the bucket size is malformed or not a whole number of seconds
+   */
+  private static Duration parseBucketSize(String bucket) {
+
+    Duration bucketSize = null;
+    try {
+      bucketSize = bucket == null ? null : DurationStyle.detectAndParse(bucket.trim());
+    } catch (IllegalArgumentException exception) {
+      // Reported below as any other invalid bucket size
+    }
+
+    if (bucketSize == null || bucketSize.toSeconds() < 1 || bucketSize.toNanosPart() != 0) {
+      String errorMessage = "The bucket size must be a whole number of seconds, e.g. 10s or 5m";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+    return bucketSize;
+  }
+
+  /**
+   * Parses a bounding box written as {@code minLon,minLat,maxLon,maxLat}, in degrees.
+   *
+   * @throws BadRequestException if the bounding box is malformed, out of range or has its southern
+   *                             latitude above its northern latitude
+   */
+  private static double[] parseBoundingBox(String bbox) {
+
+    String[] parts = bbox == null ? new String[0] : bbox.split(",", -1);
+    double[] box = new double[4];
+    boolean valid = parts.length == box.length;
+    for (int i = 0; valid && i < box.length; i++) {
+      try {
+        box[i] = Double.parseDouble(parts[i].trim());
+      } catch (NumberFormatException exception) {
+        valid = false;
+      }
+    }
+
+    valid = valid && Math.abs(box[0]) <= 180 && Math.abs(box[2]) <= 180 && Math.abs(box[1]) <= 90
+        && Math.abs(box[3]) <= 90 && box[1] <= box[3];
+    if (!valid) {
+      String errorMessage = "The bounding box must be minLon,minLat,maxLon,maxLat in degrees";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+    return box;
+  }
+
+  /**
+   * Merges the live and the archived records of a device, both ordered by record time, up to the
+   * given number of records. A live record with the same time as an archived one is dropped.
+   */
+  private List<DeviceTelemetryDTO> mergeHistory(
+      String device, List<DeviceTelemetry> records, TelemetryPoints archived, int limit
+  ) {
+    List<DeviceTelemetryDTO> merged = new ArrayList<>(limit);
+    int i = 0;
+    int j = 0;
+    while (merged.size() < limit && (i < records.size() || j < archived.size())) {
+      long liveTime = i < records.size()
+          ? TelemetryPoints.toMicros(records.get(i).getTime())
+          : Long.MAX_VALUE;
+      if (j == archived.size() || liveTime < archived.time(j)) {
+        merged.add(deviceTelemetryMapper.map(records.get(i++)));
+      } else {
+        if (liveTime == archived.time(j)) {
+          i++;
+        }
+        merged.add(new DeviceTelemetryDTO(device, TelemetryPoints.ofMicros(archived.time(j)),
+            archived.latitude(j), archived.longitude(j), archived.active(j)
+        ));
+        j++;
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Merges the archived records of the devices into the buckets of their live records. The
+   * archived records are decoded one day at a time and reduced to one point per bucket, which is
+   * then combined with the live bucket the same way the database computes it.
+   *
+   * @return the buckets, ordered by device and bucket
+   */
+  private List<Bucket> mergeArchivedBuckets(
+      List<Bucket> buckets, Set<String> devices, Instant from, Instant to, Duration bucketSize,
+      TelemetryBucketPoint point
+  ) {
+
+    long origin = TelemetryPoints.toMicros(from);
+    long size = bucketSize.toSeconds() * 1_000_000L;
+    TelemetryPoints archived = new TelemetryPoints();
+    Map<String, NavigableMap<Instant, Bucket>> merged = new TreeMap<>();
+
+    for (String device : devices) {
+      for (LocalDate day : telemetryArchiveService.findArchivedDays(device, from, to)) {
+        Instant dayStart = day.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant dayEnd = dayStart.plus(Duration.ofDays(1));
+        archived.clear();
+        telemetryArchiveService.findArchived(device, dayStart.isBefore(from) ? from : dayStart,
+            dayEnd.isAfter(to) ? to : dayEnd, Integer.MAX_VALUE, archived
+        );
+
+        NavigableMap<Instant, Bucket> deviceBuckets = merged.computeIfAbsent(device,
+            key -> new TreeMap<>()
+        );
+        int first = 0;
+        while (first < archived.size()) {
+          long start = origin + Math.floorDiv(archived.time(first) - origin, size) * size;
+          double latitude = 0;
+          double longitude = 0;
+          boolean active = false;
+          int last = first;
+          while (last < archived.size() && archived.time(last) < start + size) {
+            latitude += archived.latitude(last);
+            longitude += archived.longitude(last);
+            active |= archived.active(last);
+            last++;
+          }
+
+          int points = last - first;
+          Instant bucketStart = TelemetryPoints.ofMicros(start);
+          Bucket bucket;
+          if (point == TelemetryBucketPoint.CENTROID) {
+            bucket = new Bucket(device, bucketStart, bucketStart, latitude / points,
+                longitude / points, active, points
+            );
+          } else {
+            int selected = point == TelemetryBucketPoint.FIRST ? first : last - 1;
+            bucket = new Bucket(device, bucketStart,
+                TelemetryPoints.ofMicros(archived.time(selected)), archived.latitude(selected),
+                archived.longitude(selected), archived.active(selected), points
+            );
+          }
+          deviceBuckets.merge(bucket.start(), bucket, (a, b) -> combineBuckets(a, b, point));
+          first = last;
+        }
+      }
+    }
+
+    if (merged.isEmpty()) {
+      return buckets;
+    }
+
+    for (Bucket bucket : buckets) {
+      merged.computeIfAbsent(bucket.device(), key -> new TreeMap<>())
+          .merge(bucket.start(), bucket, (a, b) -> combineBuckets(a, b, point));
+    }
+    return merged.values().stream().flatMap(deviceBuckets -> deviceBuckets.values().stream())
+        .toList();
+  }
+
+  /**
+   * Combines two buckets of the same device and start: the earliest or the latest point is kept,
+   * or the centroids are averaged weighting each one by its number of records.
+   */
+  private static Bucket combineBuckets(Bucket first, Bucket second, TelemetryBucketPoint point) {
+
+    long points = first.points() + second.points();
+    Bucket kept = switch (point) {
+      case FIRST -> second.time().isBefore(first.time()) ? second : first;
+      case LAST -> second.time().isAfter(first.time()) ? second : first;
+      case CENTROID -> new Bucket(first.device(), first.start(), first.time(),
+          (first.latitude() * first.points() + second.latitude() * second.points()) / points,
+          (first.longitude() * first.points() + second.longitude() * second.points()) / points,
+          first.active() || second.active(), points
+      );
+    };
+    return new Bucket(kept.device(), kept.start(), kept.time(), kept.latitude(),
+        kept.longitude(), kept.active(), points
+    );
+  }
+
+  /**
+   * Encodes the time of the last record of a history page as the opaque cursor of the next page.
+   */
+  private static String encodeHistoryCursor(Instant time) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(time.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Decodes the cursor of a history page into the time after which the page starts.
+   *
+   * @return the time after which the page starts, which is before any record for the first page
+   * @throws BadRequestException if the cursor is malformed
+   */
+  private static Instant decodeHistoryCursor(String cursor) {
+
+    if (cursor == null || cursor.isBlank()) {
+      return HISTORY_START.minusSeconds(1);
+    }
+
+    try {
+      return Instant.parse(new String(Base64.getUrlDecoder().decode(cursor.trim()),
+          StandardCharsets.US_ASCII
+      ));
+    } catch (IllegalArgumentException | DateTimeParseException exception) {
+      String errorMessage = "The cursor is invalid, it must be returned with a previous page";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+  }
+
+  private List<DeviceTelemetryDTO> findMostRecentRecordForEachDeviceInDatabase() {
+
+    return readOnlyTransaction.execute(status -> {
+      List<DeviceTelemetry> latestLocations =
+          deviceTelemetryRepository.findMostRecentRecordForEachDevice();
+
+      return latestLocations.stream().map(deviceTelemetryMapper::map).toList();
+    });
+  }
+
+  /**
+   * Saves the provided telemetry data records, already known not to be duplicates, evaluates the
+   * inserted ones against the geofences and publishes them in a {@link DeviceTelemetrySavedEvent}.
+   * <p>
+   * A record saved by a concurrent request since the duplicates were looked up is not inserted,
+   * and is counted as a duplicate.
+   *
+   * @param entities the telemetry data records to be saved
+   * @param records  the telemetry data records to be published, in the same order
+   * @return an array with {@code true} at the position of each inserted record
+   */
+  private boolean[] saveNew(List<DeviceTelemetry> entities, List<DeviceTelemetryDTO> records) {
+
+    boolean[] inserted = new boolean[entities.size()];
+    if (entities.isEmpty()) {
+      return inserted;
+    }
+
+    List<DeviceTelemetry> saved;
+    try {
+      saved = deviceTelemetryInsertRepository.insert(entities);
+    } catch (DuplicateKeyException exception) {
+      throw exception;
+    } catch (EntityNotFoundException | DataIntegrityViolationException exception) {
+      // The account is the only reference of a new record that may not exist
+      throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
+    }
+
+    List<DeviceTelemetryDTO> created = new ArrayList<>(saved.size());
+    for (int position = 0, next = 0; position < entities.size(); position++) {
+      DeviceTelemetryDTO deviceTelemetryDTO = records.get(position);
+      if (next < saved.size() && saved.get(next) == entities.get(position)) {
+        inserted[position] = true;
+        created.add(deviceTelemetryDTO);
+        next++;
+      } else {
+        recentTelemetryFilter.remember(deviceTelemetryDTO.device(), deviceTelemetryDTO.time());
+      }
+    }
+    savedDuplicatesCounter.increment(entities.size() - saved.size());
+
+    if (saved.isEmpty()) {
+      return inserted;
+    }
+
+    deviceLatestRepository.upsert(saved.stream().map(DeviceTelemetry::getId).toList());
+
+    geofenceService.evaluate(saved);
+
+    eventPublisher.publishEvent(new DeviceTelemetrySavedEvent(List.copyOf(created)));
+
+    return inserted;
+  }
+
+  /**
+   * Finds which of the provided telemetry data records are duplicates, either of an already saved
+   * record or of a previous record of the same list.
+   *
+   * @param deviceTelemetryDTOs the valid telemetry data records to check
+   * @return an array with {@code true} at the position of each duplicated record
+   */
+  private boolean[] findDuplicates(List<DeviceTelemetryDTO> deviceTelemetryDTOs) {
+
+    boolean[] duplicates = new boolean[deviceTelemetryDTOs.size()];
+    Set<TelemetryKey> seen = new HashSet<>();
+    List<TelemetryKey> lookups = new ArrayList<>(deviceTelemetryDTOs.size());
+    int recentDuplicates = 0;
+
+    for (int position = 0; position < deviceTelemetryDTOs.size(); position++) {
+      DeviceTelemetryDTO deviceTelemetryDTO = deviceTelemetryDTOs.get(position);
+
+      boolean recent = recentTelemetryFilter.isRecent(deviceTelemetryDTO.device(),
+          deviceTelemetryDTO.time()
+      );
+      TelemetryKey key = keyOf(deviceTelemetryDTO);
+      if (!seen.add(key) || recent) {
+        duplicates[position] = true;
+        recentDuplicates++;
+      } else {
+        lookups.add(key);
+      }
+    }
+    recentDuplicatesCounter.increment(recentDuplicates);
+
+    if (lookups.isEmpty()) {
+      return duplicates;
+    }
+
+    Set<TelemetryKey> saved = deviceTelemetryInsertRepository.findSaved(lookups);
+
+    int savedDuplicates = 0;
+    for (int position = 0; position < deviceTelemetryDTOs.size(); position++) {
+      DeviceTelemetryDTO deviceTelemetryDTO = deviceTelemetryDTOs.get(position);
+      if (!duplicates[position] && saved.contains(keyOf(deviceTelemetryDTO))) {
+        duplicates[position] = true;
+        savedDuplicates++;
+        recentTelemetryFilter.remember(deviceTelemetryDTO.device(), deviceTelemetryDTO.time());
+      }
+    }
+    savedDuplicatesCounter.increment(savedDuplicates);
+
+    return duplicates;
+  }
+
+  private void validateBatchSize(List<DeviceTelemetryDTO> deviceTelemetryDTOs) {
+
+    if (deviceTelemetryDTOs == null || deviceTelemetryDTOs.isEmpty()) {
+      String errorMessage = "The telemetry batch must contain at least one record";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    if (deviceTelemetryDTOs.size() > batchMaxSize) {
+      String errorMessage = String.format(
+          "The telemetry batch has %d records, exceeding the maximum of %d records",
+          deviceTelemetryDTOs.size(), batchMaxSize
+      );
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+  }
+
+  private List<String> validate(DeviceTelemetryDTO deviceTelemetryDTO) {
+
+    if (deviceTelemetryDTO == null) {
+      return List.of(NULL_RECORD_ERROR);
+    }
+
+    return validator.validate(deviceTelemetryDTO)
+        .stream()
+        .map(ConstraintViolation::getMessage)
+        .sorted()
+        .toList();
+  }
 
-    return latestLocations.stream().map(deviceTelemetryMapper::map).toList();
+  private static TelemetryKey keyOf(DeviceTelemetryDTO deviceTelemetryDTO) {
+    return new TelemetryKey(deviceTelemetryDTO.device(), deviceTelemetryDTO.time());
   }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.tracker.dto.geojson.Feature;
+import java.time.Instant;
+
+public interface DeviceTrackService {
+
+  /**
+   * Builds the track of the specified device as a GeoJSON Feature with a LineString geometry of
+   * its positions, ordered by time, optionally simplified.
+   *
+   * @param device    the device identifier
+   * @param from      the start of the time range, inclusive, or {@code null} for no start
+   * @param to        the end of the time range, exclusive, or {@code null} for no end
+   * @param tolerance the simplification tolerance, in meters, or {@code null} to keep every
+   *                  position
+   * @return the track of the device
+   * @throws BadRequestException if the time range or the tolerance are invalid
+   * @throws NotFoundException   if the device has less than two positions in the time range
+   */
+  Feature findTrack(String device, Instant from, Instant to, Double tolerance);
+}
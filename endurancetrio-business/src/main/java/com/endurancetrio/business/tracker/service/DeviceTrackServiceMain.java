@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.business.tracker.dto.geojson.Feature;
+import com.endurancetrio.business.tracker.dto.geojson.LineStringGeometry;
+import com.endurancetrio.business.tracker.geo.Track;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryExportRepository;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service responsible for building the tracks of the devices.
+ * <p>
+ * The positions are streamed from the database through the forward-only cursor of the
+ * {@link DeviceTelemetryExportRepository} straight into the primitive arrays of a {@link Track},
+ * which is then simplified in place, so no entity or DTO is created per position. The archived
+ * positions are decoded beforehand into {@link TelemetryPoints} and merged by record time with the
+ * streamed ones.
+ */
+@Service
+public class DeviceTrackServiceMain implements DeviceTrackService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DeviceTrackServiceMain.class);
+
+  // Bounds of the track time range when the request does not set them
+  private static final Instant TRACK_START = Instant.EPOCH;
+  private static final Instant TRACK_END = Instant.parse("9999-12-31T00:00:00Z");
+
+  private final DeviceTelemetryExportRepository telemetryRepository;
+  private final TelemetryArchiveService telemetryArchiveService;
+
+  @Autowired
+  public DeviceTrackServiceMain(
+      DeviceTelemetryExportRepository telemetryRepository,
+      TelemetryArchiveService telemetryArchiveService
+  ) {
+    this.telemetryRepository = telemetryRepository;
+    this.telemetryArchiveService = telemetryArchiveService;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Feature findTrack(String device, Instant from, Instant to, Double tolerance) {
+
+    Instant start = from == null ? TRACK_START : from;
+    Instant end = to == null ? TRACK_END : to;
+    if (!start.isBefore(end)) {
+      String errorMessage = "The start of the time range must be before its end";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    if (tolerance != null && !(tolerance >= 0)) {
+      String errorMessage = "The tolerance must be a non-negative number of meters";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    TelemetryPoints archived = new TelemetryPoints();
+    telemetryArchiveService.findArchived(device, start, end, Integer.MAX_VALUE, archived);
+
+    Track track = new Track();
+    long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+    int[] next = {0};
+    telemetryRepository.export(Set.of(device), start, end,
+        (recordDevice, time, latitude, longitude, active) -> {
+          long micros = TelemetryPoints.toMicros(time);
+          int index = next[0];
+          while (index < archived.size() && archived.time(index) <= micros) {
+            track.add(archived.longitude(index), archived.latitude(index));
+            index++;
+          }
+          boolean archivedTime = index > 0 && archived.time(index - 1) == micros;
+          next[0] = index;
+          if (!archivedTime) {
+            track.add(longitude, latitude);
+          }
+          bounds[0] = Math.min(bounds[0], micros);
+          bounds[1] = Math.max(bounds[1], micros);
+        }
+    );
+    for (int index = next[0]; index < archived.size(); index++) {
+      track.add(archived.longitude(index), archived.latitude(index));
+    }
+    if (archived.size() > 0) {
+      bounds[0] = Math.min(bounds[0], archived.time(0));
+      bounds[1] = Math.max(bounds[1], archived.time(archived.size() - 1));
+    }
+
+    int positions = track.size();
+    if (positions < 2) {
+      String errorMessage = String.format("Not enough telemetry data to build the track of %s",
+          device
+      );
+      LOG.warn(errorMessage);
+      throw new NotFoundException(errorMessage, EnduranceTrioError.NOT_FOUND);
+    }
+
+    if (tolerance != null) {
+      track.simplify(tolerance);
+      LOG.debug("Track of {} simplified from {} to {} positions", device, positions, track.size());
+    }
+
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("device", device);
+    properties.put("from", TelemetryPoints.ofMicros(bounds[0]));
+    properties.put("to", TelemetryPoints.ofMicros(bounds[1]));
+    properties.put("positions", positions);
+    properties.put("simplifiedPositions", track.size());
+
+    return Feature.of(new LineStringGeometry(track.toCoordinates()), properties);
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.GeofenceEventType;
+import com.endurancetrio.business.tracker.event.GeofenceChangedEvent;
+import com.endurancetrio.business.tracker.geo.Fence;
+import com.endurancetrio.business.tracker.geo.FenceIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory evaluation of the geofences of each account against the telemetry data records being
+ * saved.
+ * <p>
+ * The geofences of each account are kept in a {@link FenceIndex} of
+ * {@code app.geofence.grid-cell-size} degrees, so a position is only tested against the fences
+ * around it, first by their bounding box and then exactly, and the cost of an evaluation does not
+ * grow with the number of fences of the account. The indexes are immutable and replaced as a whole
+ * when a geofence is created or deleted ({@link GeofenceChangedEvent}, once committed), so the
+ * evaluations never wait for those changes.
+ * <p>
+ * The state of each device of each account, the time of its last evaluated position and the fences
+ * it was inside, is kept in memory. A position is evaluated against the previous state of its
+ * device: the fences it is now inside but was not report an {@link GeofenceEventType#ENTER}, and
+ * the fences it was inside but is not anymore an {@link GeofenceEventType#EXIT}. A position older
+ * than the state of its device is ignored, so records arriving out of order never produce events,
+ * and the first position of a device reports an {@link GeofenceEventType#ENTER} for each fence it
+ * is inside. The state is seeded on startup from the latest position of each device
+ * ({@link #seed}), so a restart does not report the devices already inside a fence again. The
+ * devices inside a fence when it is created enter it on their next position, and a deleted fence
+ * is forgotten without an {@link GeofenceEventType#EXIT}.
+ * <p>
+ * The transitions are computed against the committed state of the device, updated by the positions
+ * already evaluated in the same transaction, and the new state is only applied once the transaction
+ * commits, so a rolled back record neither moves the device forward nor hides the events of its
+ * retry. Concurrent transactions for the same device evaluate against the same committed state, and
+ * the most recent position wins when they commit. Like the {@link LatestTelemetryCache}, the
+ * evaluator only sees the saves of this application instance.
+ * <p>
+ * The time of each evaluation is exported as the {@code geofence.evaluation} timer, with a
+ * percentile histogram, and the number of indexed fences as the {@code geofence.fences} gauge.
+ */
+@Component
+public class GeofenceEvaluator {
+
+  private static final long[] NONE = new long[0];
+
+  private final double cellSize;
+  private final FenceIndex emptyIndex;
+  private final Map<DeviceKey, DeviceState> states = new ConcurrentHashMap<>();
+  private final Timer evaluationTimer;
+
+  // Replaced as a whole, copy on write, under the lock of this evaluator
+  private volatile Map<String, FenceIndex> indexes = Map.of();
+
+  public GeofenceEvaluator(
+      MeterRegistry meterRegistry,
+      @Value("${app.geofence.grid-cell-size:0.1}") double cellSize
+  ) {
+    this.cellSize = cellSize;
+    this.emptyIndex = new FenceIndex(List.of(), cellSize);
+
+    this.evaluationTimer = Timer.builder("geofence.evaluation")
+        .description("Time to evaluate the geofences of an account against a device position")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    Gauge.builder("geofence.fences", this, GeofenceEvaluator::size)
+        .description("Number of geofences evaluated on ingestion")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Replaces all the indexed fences.
+   *
+   * @param fencesByOwner the fences of each account
+   */
+  public synchronized void load(Map<String, List<Fence>> fencesByOwner) {
+
+    Map<String, FenceIndex> loaded = new HashMap<>();
+    fencesByOwner.forEach((owner, fences) -> loaded.put(owner, new FenceIndex(fences, cellSize)));
+    indexes = Map.copyOf(loaded);
+  }
+
+  /**
+   * Adds a fence to the account, replacing the fence with the same identifier, if any.
+   *
+   * @param owner the owner of the account
+   * @param fence the fence to add
+   */
+  public synchronized void put(String owner, Fence fence) {
+
+    Map<String, FenceIndex> updated = new HashMap<>(indexes);
+    updated.put(owner, updated.getOrDefault(owner, emptyIndex).with(fence));
+    indexes = Map.copyOf(updated);
+  }
+
+  /**
+   * Removes a fence from the account.
+   *
+   * @param owner the owner of the account
+   * @param id    the unique identifier of the geofence
+   */
+  public synchronized void remove(String owner, long id) {
+
+    FenceIndex index = indexes.get(owner);
+    if (index == null || !index.has(id)) {
+      return;
+    }
+    Map<String, FenceIndex> updated = new HashMap<>(indexes);
+    updated.put(owner, index.without(id));
+    indexes = Map.copyOf(updated);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onGeofenceChanged(GeofenceChangedEvent event) {
+    if (event.fence() != null) {
+      put(event.owner(), event.fence());
+    } else {
+      remove(event.owner(), event.id());
+    }
+  }
+
+  /**
+   * Sets the state of a device from its known position, without reporting any event. The state is
+   * left unchanged if the device was already evaluated.
+   *
+   * @param owner     the owner of the account of the device
+   * @param device    the device identifier
+   * @param time      the time of the position
+   * @param longitude the longitude of the position, in degrees
+   * @param latitude  the latitude of the position, in degrees
+   */
+  public void seed(String owner, String device, Instant time, double longitude, double latitude) {
+
+    long[] inside = indexes.getOrDefault(owner, emptyIndex).findContaining(longitude, latitude);
+    states.putIfAbsent(new DeviceKey(owner, device), new DeviceState(time, inside));
+  }
+
+  /**
+   * Evaluates a new position of a device against the geofences of its account.
+   *
+   * @param owner     the owner of the account of the device
+   * @param device    the device identifier
+   * @param time      the time of the position
+   * @param longitude the longitude of the position, in degrees
+   * @param latitude  the latitude of the position, in degrees
+   * @return the boundaries crossed since the previous position of the device, which is empty when
+   * none was crossed or the position is older than the previous one
+   */
+  public List<Transition> evaluate(
+      String owner, String device, Instant time, double longitude, double latitude
+  ) {
+
+    long start = System.nanoTime();
+
+    DeviceKey key = new DeviceKey(owner, device);
+    Map<DeviceKey, DeviceState> pending = pendingStates();
+    DeviceState state = pending != null && pending.containsKey(key)
+        ? pending.get(key)
+        : states.get(key);
+    if (state != null && !time.isAfter(state.time())) {
+      evaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return List.of();
+    }
+
+    FenceIndex index = indexes.getOrDefault(owner, emptyIndex);
+    long[] inside = index.findContaining(longitude, latitude);
+    List<Transition> transitions = new ArrayList<>(0);
+
+    long[] previous = state != null ? state.inside() : NONE;
+    for (long id : previous) {
+      if (Arrays.binarySearch(inside, id) < 0 && index.has(id)) {
+        transitions.add(new Transition(id, GeofenceEventType.EXIT));
+      }
+    }
+    for (long id : inside) {
+      if (Arrays.binarySearch(previous, id) < 0) {
+        transitions.add(new Transition(id, GeofenceEventType.ENTER));
+      }
+    }
+
+    DeviceState evaluated = new DeviceState(time, inside);
+    if (pending != null) {
+      pending.put(key, evaluated);
+    } else {
+      apply(key, evaluated);
+    }
+
+    evaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+    return transitions;
+  }
+
+  /**
+   * Returns the number of indexed fences, over all the accounts.
+   *
+   * @return the number of fences
+   */
+  public int size() {
+    return indexes.values().stream().mapToInt(FenceIndex::size).sum();
+  }
+
+  /**
+   * Returns the states evaluated in the current transaction, which are applied once it commits,
+   * registering the synchronization that applies them on the first evaluation of the transaction.
+   *
+   * @return the pending states, or {@code null} when there is no transaction
+   */
+  @SuppressWarnings("unchecked")
+  private Map<DeviceKey, DeviceState> pendingStates() {
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+
+    Map<DeviceKey, DeviceState> pending =
+        (Map<DeviceKey, DeviceState>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      Map<DeviceKey, DeviceState> created = new HashMap<>();
+      TransactionSynchronizationManager.bindResource(this, created);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          created.forEach(GeofenceEvaluator.this::apply);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(GeofenceEvaluator.this);
+        }
+      });
+      pending = created;
+    }
+    return pending;
+  }
+
+  // The most recent position wins, whatever the order the transactions commit in
+  private void apply(DeviceKey key, DeviceState evaluated) {
+    states.merge(key, evaluated,
+        (current, next) -> next.time().isAfter(current.time()) ? next : current
+    );
+  }
+
+  /**
+   * A boundary crossed by a device.
+   *
+   * @param geofenceId the unique identifier of the geofence
+   * @param type       whether the device entered or left the geofence
+   */
+  public record Transition(long geofenceId, GeofenceEventType type) {
+
+  }
+
+  private record DeviceKey(String owner, String device) {
+
+  }
+
+  private record DeviceState(Instant time, long[] inside) {
+
+  }
+}
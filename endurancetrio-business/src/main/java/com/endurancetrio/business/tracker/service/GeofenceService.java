@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.GeofenceDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventPageDTO;
+import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
+import java.time.Instant;
+import java.util.List;
+
+public interface GeofenceService {
+
+  /**
+   * Creates a geofence for the specified owner.
+   *
+   * @param owner       the owner of the account
+   * @param geofenceDTO the geofence to be created, whose identifier is ignored
+   * @return the created {@link GeofenceDTO}
+   * @throws com.endurancetrio.business.common.exception.BadRequestException if the geometry is
+   *                                                                         invalid or the name is
+   *                                                                         already used
+   */
+  GeofenceDTO save(String owner, GeofenceDTO geofenceDTO);
+
+  /**
+   * Retrieves the geofences of the specified owner, ordered by name.
+   *
+   * @param owner the owner of the account
+   * @return a list of {@link GeofenceDTO} representing the geofences of the account
+   */
+  List<GeofenceDTO> findAll(String owner);
+
+  /**
+   * Deletes a geofence of the specified owner, along with its events.
+   *
+   * @param owner the owner of the account
+   * @param id    the unique identifier of the geofence
+   * @throws com.endurancetrio.business.common.exception.NotFoundException if the account has no
+   *                                                                       such geofence
+   */
+  void delete(String owner, Long id);
+
+  /**
+   * Evaluates the geofences against the telemetry data records being saved, and saves the enter
+   * and exit events of the boundaries they cross, in the current transaction.
+   *
+   * @param records the telemetry data records being saved, with their account
+   */
+  void evaluate(List<DeviceTelemetry> records);
+
+  /**
+   * Finds a page of the geofence events of the specified owner, ordered by time.
+   *
+   * @param owner  the owner of the account
+   * @param device the device identifier, or {@code null} for the events of every device
+   * @param from   the start of the time range, inclusive, or {@code null} for no start
+   * @param to     the end of the time range, exclusive, or {@code null} for no end
+   * @param size   the maximum number of events of the page, or {@code null} for the default size
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @return the events of the page and the cursor of the next page
+   * @throws com.endurancetrio.business.common.exception.BadRequestException if the time range, the
+   *                                                                         size or the cursor are
+   *                                                                         invalid
+   */
+  GeofenceEventPageDTO findEvents(
+      String owner, String device, Instant from, Instant to, Integer size, String cursor
+  );
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.GeofenceDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventPageDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceShape;
+import com.endurancetrio.business.tracker.event.GeofenceChangedEvent;
+import com.endurancetrio.business.tracker.geo.Fence;
+import com.endurancetrio.business.tracker.mapper.GeofenceMapper;
+import com.endurancetrio.business.tracker.service.GeofenceEvaluator.Transition;
+import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
+import com.endurancetrio.data.tracker.model.entity.Geofence;
+import com.endurancetrio.data.tracker.model.entity.GeofenceEvent;
+import com.endurancetrio.data.tracker.model.entity.GeofenceEvent.Type;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRepository;
+import com.endurancetrio.data.tracker.repository.GeofenceEventRepository;
+import com.endurancetrio.data.tracker.repository.GeofenceRepository;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import jakarta.persistence.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service responsible for managing the geofences of each account and the events of the devices
+ * crossing their boundaries.
+ * <p>
+ * The geofences are evaluated in memory by the {@link GeofenceEvaluator}, loaded on startup and
+ * updated once each creation or deletion is committed. The telemetry data records are evaluated as
+ * they are saved ({@link #evaluate}), and the events are saved in the same transaction as the
+ * records that raised them. The bulk imports of telemetry data are not evaluated.
+ */
+@Service
+public class GeofenceServiceMain implements GeofenceService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GeofenceServiceMain.class);
+
+  private static final String CURSOR_SEPARATOR = ",";
+
+  // Bounds of the events time range when the request does not set them
+  private static final Instant EVENTS_START = Instant.EPOCH;
+  private static final Instant EVENTS_END = Instant.parse("9999-12-31T00:00:00Z");
+
+  @Value("${app.geofence.max-radius:100000}")
+  private double maxRadius;
+
+  @Value("${app.geofence.max-vertices:1000}")
+  private int maxVertices;
+
+  @Value("${app.geofence.events.default-page-size:100}")
+  private int eventsDefaultPageSize;
+
+  @Value("${app.geofence.events.max-page-size:1000}")
+  private int eventsMaxPageSize;
+
+  private final TrackerAccountRepository trackerAccountRepository;
+  private final GeofenceRepository geofenceRepository;
+  private final GeofenceEventRepository geofenceEventRepository;
+  private final DeviceTelemetryRepository deviceTelemetryRepository;
+  private final GeofenceMapper geofenceMapper;
+  private final GeofenceEvaluator geofenceEvaluator;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public GeofenceServiceMain(
+      TrackerAccountRepository trackerAccountRepository, GeofenceRepository geofenceRepository,
+      GeofenceEventRepository geofenceEventRepository,
+      DeviceTelemetryRepository deviceTelemetryRepository, GeofenceMapper geofenceMapper,
+      GeofenceEvaluator geofenceEvaluator, ApplicationEventPublisher eventPublisher
+  ) {
+    this.trackerAccountRepository = trackerAccountRepository;
+    this.geofenceRepository = geofenceRepository;
+    this.geofenceEventRepository = geofenceEventRepository;
+    this.deviceTelemetryRepository = deviceTelemetryRepository;
+    this.geofenceMapper = geofenceMapper;
+    this.geofenceEvaluator = geofenceEvaluator;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  @Transactional
+  public GeofenceDTO save(String owner, GeofenceDTO geofenceDTO) {
+
+    GeofenceDTO normalized = validate(geofenceDTO);
+
+    if (geofenceRepository.existsByOwnerAndName(owner, normalized.name())) {
+      String errorMessage = String.format("A geofence named '%s' already exists",
+          normalized.name()
+      );
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    Geofence entity = geofenceMapper.map(normalized);
+    entity.setId(null);
+    entity.setAccount(trackerAccountRepository.getReferenceById(owner));
+
+    Geofence saved;
+    try {
+      saved = geofenceRepository.save(entity);
+    } catch (EntityNotFoundException exception) {
+      throw new NotFoundException(EnduranceTrioError.NOT_FOUND);
+    }
+
+    eventPublisher.publishEvent(
+        new GeofenceChangedEvent(owner, saved.getId(), geofenceMapper.toFence(saved)));
+
+    return geofenceMapper.map(saved);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<GeofenceDTO> findAll(String owner) {
+    return geofenceRepository.findAllByOwner(owner).stream().map(geofenceMapper::map).toList();
+  }
+
+  @Override
+  @Transactional
+  public void delete(String owner, Long id) {
+
+    Geofence entity = geofenceRepository.findByIdAndOwner(id, owner).orElseThrow(() -> {
+      String errorMessage = String.format("Geofence deletion failed: No geofence found with ID %d",
+          id
+      );
+      LOG.warn(errorMessage);
+      return new NotFoundException(errorMessage, EnduranceTrioError.NOT_FOUND);
+    });
+
+    geofenceEventRepository.deleteByGeofenceId(id);
+    geofenceRepository.delete(entity);
+
+    eventPublisher.publishEvent(new GeofenceChangedEvent(owner, id, null));
+  }
+
+  @Override
+  public void evaluate(List<DeviceTelemetry> records) {
+
+    // The records of a device are evaluated in time order, whatever their order in the batch
+    List<DeviceTelemetry> ordered = new ArrayList<>(records);
+    ordered.sort(Comparator.comparing(DeviceTelemetry::getTime));
+
+    List<GeofenceEvent> events = new ArrayList<>();
+    for (DeviceTelemetry record : ordered) {
+      List<Transition> transitions = geofenceEvaluator.evaluate(record.getAccount().getOwner(),
+          record.getDevice(), record.getTime(), record.getLongitude(), record.getLatitude()
+      );
+      for (Transition transition : transitions) {
+        events.add(new GeofenceEvent(transition.geofenceId(), record.getAccount(),
+            record.getDevice(), Type.valueOf(transition.type().name()), record.getTime(),
+            record.getLatitude(), record.getLongitude()
+        ));
+      }
+    }
+
+    if (!events.isEmpty()) {
+      geofenceEventRepository.saveAll(events);
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public GeofenceEventPageDTO findEvents(
+      String owner, String device, Instant from, Instant to, Integer size, String cursor
+  ) {
+
+    int pageSize = size == null ? eventsDefaultPageSize : size;
+    if (pageSize < 1 || pageSize > eventsMaxPageSize) {
+      String errorMessage = String.format("The page size must be between 1 and %d",
+          eventsMaxPageSize
+      );
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    Instant start = from == null ? EVENTS_START : from;
+    Instant end = to == null ? EVENTS_END : to;
+    if (!start.isBefore(end)) {
+      String errorMessage = "The start of the time range must be before its end";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    // The first page starts at the start of the range, before the first event identifier
+    EventKey after = decodeEventsCursor(cursor);
+    if (after == null || after.time().isBefore(start)) {
+      after = new EventKey(start, 0L);
+    }
+
+    // One event more than the page size tells whether there is a next page
+    Limit limit = Limit.of(pageSize + 1);
+    List<GeofenceEvent> events = device == null || device.isBlank()
+        ? geofenceEventRepository.findPage(owner, after.time(), after.id(), end, limit)
+        : geofenceEventRepository.findPageByDevice(owner, device, after.time(), after.id(), end,
+            limit
+        );
+
+    List<GeofenceEventDTO> page = events.stream().map(geofenceMapper::map).toList();
+    String nextCursor = null;
+    if (page.size() > pageSize) {
+      page = page.subList(0, pageSize);
+      GeofenceEventDTO last = page.getLast();
+      nextCursor = encodeEventsCursor(new EventKey(last.time(), last.id()));
+    }
+
+    return new GeofenceEventPageDTO(page, nextCursor);
+  }
+
+  /**
+   * Loads the geofences into the {@link GeofenceEvaluator} as soon as the application is ready,
+   * and seeds the state of each device from its most recent record, so that the devices already
+   * inside a geofence do not enter it again after a restart. It runs outside a transaction, so
+   * that a database that cannot be read is only logged and does not fail the startup; the owner
+   * read from each account reference is its identifier and does not need a session.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadGeofences() {
+
+    try {
+      Map<String, List<Fence>> fencesByOwner = new HashMap<>();
+      for (Geofence geofence : geofenceRepository.findAll()) {
+        fencesByOwner.computeIfAbsent(geofence.getAccount().getOwner(), key -> new ArrayList<>())
+            .add(geofenceMapper.toFence(geofence));
+      }
+      geofenceEvaluator.load(fencesByOwner);
+
+      for (DeviceTelemetry record : deviceTelemetryRepository.findMostRecentRecordForEachDevice()) {
+        geofenceEvaluator.seed(record.getAccount().getOwner(), record.getDevice(),
+            record.getTime(), record.getLongitude(), record.getLatitude()
+        );
+      }
+    } catch (DataAccessException exception) {
+      LOG.error("The geofences could not be loaded on startup: {}", exception.getMessage());
+    }
+  }
+
+  /**
+   * Validates the geometry of a geofence.
+   *
+   * @return the geofence, with the closing vertex of a polygon removed when it repeats the first
+   * @throws BadRequestException if the geometry is invalid
+   */
+  private GeofenceDTO validate(GeofenceDTO geofenceDTO) {
+
+    if (geofenceDTO.shape() == GeofenceShape.CIRCLE) {
+      if (!isLongitude(geofenceDTO.longitude()) || !isLatitude(geofenceDTO.latitude())) {
+        throw badGeometry(
+            "A circle must have a lat between -90 and 90 and a lon between -180 and 180");
+      }
+      if (geofenceDTO.radius() == null || !(geofenceDTO.radius() > 0)
+          || geofenceDTO.radius() > maxRadius) {
+        throw badGeometry(String.format(
+            "The radius of a circle must be greater than 0 and at most %.0f meters", maxRadius));
+      }
+      return new GeofenceDTO(null, geofenceDTO.name(), geofenceDTO.shape(),
+          geofenceDTO.latitude(), geofenceDTO.longitude(), geofenceDTO.radius(), null
+      );
+    }
+
+    List<List<Double>> coordinates = geofenceDTO.coordinates() == null
+        ? List.of()
+        : new ArrayList<>(geofenceDTO.coordinates());
+    for (List<Double> vertex : coordinates) {
+      if (vertex == null || vertex.size() != 2 || !isLongitude(vertex.get(0))
+          || !isLatitude(vertex.get(1))) {
+        throw badGeometry(
+            "Each polygon vertex must be a [lon, lat] pair in degrees");
+      }
+    }
+    if (coordinates.size() > 1 && coordinates.getFirst().equals(coordinates.getLast())) {
+      coordinates.removeLast();
+    }
+    if (coordinates.size() < 3 || coordinates.size() > maxVertices) {
+      throw badGeometry(String.format("A polygon must have between 3 and %d vertices",
+          maxVertices
+      ));
+    }
+
+    double minLongitude = coordinates.stream().mapToDouble(List::getFirst).min().orElseThrow();
+    double maxLongitude = coordinates.stream().mapToDouble(List::getFirst).max().orElseThrow();
+    if (maxLongitude - minLongitude > 180) {
+      throw badGeometry("A polygon must not cross the antimeridian");
+    }
+
+    return new GeofenceDTO(null, geofenceDTO.name(), geofenceDTO.shape(), null, null, null,
+        List.copyOf(coordinates)
+    );
+  }
+
+  private static boolean isLongitude(Double longitude) {
+    return longitude != null && longitude >= -180 && longitude <= 180;
+  }
+
+  private static boolean isLatitude(Double latitude) {
+    return latitude != null && latitude >= -90 && latitude <= 90;
+  }
+
+  private static BadRequestException badGeometry(String errorMessage) {
+    LOG.warn(errorMessage);
+    return new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+  }
+
+  /**
+   * Encodes the time and identifier of the last event of a page as the opaque cursor of the next
+   * page.
+   */
+  private static String encodeEventsCursor(EventKey key) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((key.time() + CURSOR_SEPARATOR + key.id())
+            .getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Decodes the cursor of an events page into the event after which the page starts.
+   *
+   * @return the event after which the page starts, or {@code null} for the first page
+   * @throws BadRequestException if the cursor is malformed
+   */
+  private static EventKey decodeEventsCursor(String cursor) {
+
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+
+    try {
+      String[] values = new String(Base64.getUrlDecoder().decode(cursor.trim()),
+          StandardCharsets.US_ASCII
+      ).split(CURSOR_SEPARATOR, 2);
+      if (values.length != 2) {
+        throw new IllegalArgumentException("Missing event identifier");
+      }
+      return new EventKey(Instant.parse(values[0]), Long.parseLong(values[1]));
+    } catch (IllegalArgumentException | DateTimeParseException exception) {
+      String errorMessage = "The cursor is invalid, it must be returned with a previous page";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+  }
+
+  private record EventKey(Instant time, Long id) {
+
+  }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryChangesDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.NearestDeviceDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetryImportedEvent;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
+import com.endurancetrio.business.tracker.geo.Haversine;
+import com.endurancetrio.business.tracker.geo.PositionGrid;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory read model of the most recent active telemetry data record of each device.
+ * <p>
+ * The cache is loaded from the database once (see
+ * {@link DeviceTelemetryService#findMostRecentRecordForEachDevice()}) and then kept up to date by
+ * the {@link DeviceTelemetrySavedEvent} of every committed save. Each device entry only moves
+ * forward in time: an update is applied only when it is newer than the cached record, so
+ * concurrent and out of order saves always leave the newest record in place. Inactive records are
+ * ignored, matching the database query.
+ * <p>
+ * Every applied update is stamped with the next value of a change sequence, which lets the clients
+ * read only the devices that changed since their previous read (see {@link #findChangedSince}).
+ * The updates are serialized by a lock, and the sequence is published after the entry is stored,
+ * so a reader that sees a sequence value also sees every entry stamped up to that value. The
+ * cursors handed to the clients combine the sequence with the time the cache was created, so the
+ * cursors issued before a restart are recognized and answered with all the devices. The same pair
+ * is the {@link #version()} of the cached records.
+ * <p>
+ * The cached positions are also indexed by a {@link PositionGrid} of
+ * {@code app.telemetry.latest.grid-cell-size} degrees, updated along with each applied update, so
+ * the devices within a bounding box and the devices nearest to a point are found by visiting only
+ * the cells around them (see {@link #findWithin} and {@link #findNearest}).
+ * <p>
+ * A bulk import ({@link DeviceTelemetryImportedEvent}) marks the cache as not loaded, so it is
+ * reloaded from the database on the next read. The cache only sees the saves of this application
+ * instance, so it assumes a single instance writes to the database.
+ * <p>
+ * The {@code cache.gets} (tagged with {@code result} hit or miss) and {@code cache.size} metrics
+ * are exported with the tag {@code cache=latest-telemetry}.
+ */
+@Component
+public class LatestTelemetryCache {
+
+  private static final String CACHE_NAME = "latest-telemetry";
+  private static final String CURSOR_SEPARATOR = ":";
+  private static final Comparator<DeviceTelemetryDTO> BY_DEVICE = Comparator.comparing(
+      DeviceTelemetryDTO::device);
+
+  private final Map<String, CachedTelemetry> latestByDevice = new ConcurrentHashMap<>();
+  private final PositionGrid positionGrid;
+  private final ReentrantLock updateLock = new ReentrantLock();
+  private final long epoch = System.currentTimeMillis();
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private volatile long publishedSequence;
+  private volatile boolean loaded;
+
+  public LatestTelemetryCache(
+      MeterRegistry meterRegistry,
+      @Value("${app.telemetry.latest.grid-cell-size:0.1}") double gridCellSize
+  ) {
+    this.positionGrid = new PositionGrid(gridCellSize);
+    this.hitCounter = Counter.builder("cache.gets")
+        .description("Number of reads of the most recent telemetry served from memory")
+        .tag("cache", CACHE_NAME)
+        .tag("result", "hit")
+        .register(meterRegistry);
+    this.missCounter = Counter.builder("cache.gets")
+        .description("Number of reads of the most recent telemetry served from the database")
+        .tag("cache", CACHE_NAME)
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("cache.size", latestByDevice, Map::size)
+        .description("Number of devices with a cached most recent telemetry record")
+        .tag("cache", CACHE_NAME)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the most recent active telemetry data record of each device, ordered by device.
+   *
+   * @return the cached records, or an empty {@link Optional} when the cache is not loaded
+   */
+  public Optional<List<DeviceTelemetryDTO>> findAll() {
+
+    if (!loaded) {
+      missCounter.increment();
+      return Optional.empty();
+    }
+
+    hitCounter.increment();
+    return Optional.of(latestByDevice.values()
+        .stream()
+        .map(CachedTelemetry::telemetry)
+        .sorted(BY_DEVICE)
+        .toList());
+  }
+
+  /**
+   * Returns the most recent active telemetry data record of the devices within the bounding box,
+   * ordered by device. The box includes its edges, and crosses the antimeridian when its western
+   * longitude is greater than its eastern longitude.
+   *
+   * @param minLongitude the western longitude of the box, in degrees
+   * @param minLatitude  the southern latitude of the box, in degrees
+   * @param maxLongitude the eastern longitude of the box, in degrees
+   * @param maxLatitude  the northern latitude of the box, in degrees
+   * @return the cached records within the box, or an empty {@link Optional} when the cache is not
+   * loaded
+   */
+  public Optional<List<DeviceTelemetryDTO>> findWithin(
+      double minLongitude, double minLatitude, double maxLongitude, double maxLatitude
+  ) {
+
+    if (!loaded) {
+      missCounter.increment();
+      return Optional.empty();
+    }
+
+    hitCounter.increment();
+    Map<String, DeviceTelemetryDTO> within = new TreeMap<>();
+    if (minLongitude <= maxLongitude) {
+      collectWithin(minLongitude, minLatitude, maxLongitude, maxLatitude, within);
+    } else {
+      collectWithin(minLongitude, minLatitude, 180, maxLatitude, within);
+      collectWithin(-180, minLatitude, maxLongitude, maxLatitude, within);
+    }
+
+    return Optional.of(List.copyOf(within.values()));
+  }
+
+  /**
+   * Returns the most recent active telemetry data record of the k devices nearest to a point,
+   * ordered by their {@link Haversine} distance to the point and then by device.
+   *
+   * @param longitude the longitude of the point, in degrees
+   * @param latitude  the latitude of the point, in degrees
+   * @param k         the maximum number of devices to return
+   * @return the cached records of the nearest devices, or an empty {@link Optional} when the cache
+   * is not loaded
+   */
+  public Optional<List<NearestDeviceDTO>> findNearest(double longitude, double latitude, int k) {
+
+    if (!loaded) {
+      missCounter.increment();
+      return Optional.empty();
+    }
+
+    hitCounter.increment();
+    Map<String, NearestDeviceDTO> candidates = new HashMap<>();
+    List<String> nearest = positionGrid.findNearest(longitude, latitude, k, device -> {
+      CachedTelemetry cached = latestByDevice.get(device);
+      if (cached == null) {
+        return Double.NaN;
+      }
+      DeviceTelemetryDTO telemetry = cached.telemetry();
+      double distance = Haversine.distance(longitude, latitude, telemetry.longitude(),
+          telemetry.latitude()
+      );
+      candidates.put(device, new NearestDeviceDTO(device, telemetry.time(), telemetry.latitude(),
+          telemetry.longitude(), telemetry.active(), Math.round(distance)
+      ));
+      return distance;
+    });
+
+    return Optional.of(nearest.stream().map(candidates::get).toList());
+  }
+
+  /**
+   * Returns the most recent active telemetry data record of the devices that changed after the
+   * provided cursor, ordered by device, together with the cursor of this read.
+   * <p>
+   * Without a cursor, or with a cursor issued before the application was restarted, all the
+   * devices are returned.
+   *
+   * @param cursor the cursor returned by a previous read, or {@code null} to read all the devices
+   * @return the changed records and the new cursor, or an empty {@link Optional} when the cache is
+   * not loaded
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public Optional<DeviceTelemetryChangesDTO> findChangedSince(String cursor) {
+
+    long since = decodeCursor(cursor);
+
+    if (!loaded) {
+      missCounter.increment();
+      return Optional.empty();
+    }
+
+    hitCounter.increment();
+    long current = publishedSequence;
+    List<DeviceTelemetryDTO> changed = latestByDevice.values()
+        .stream()
+        .filter(cached -> cached.sequence() > since)
+        .map(CachedTelemetry::telemetry)
+        .sorted(BY_DEVICE)
+        .toList();
+
+    return Optional.of(new DeviceTelemetryChangesDTO(changed, encodeCursor(current)));
+  }
+
+  /**
+   * Returns the version of the cached records, which changes whenever an update is applied.
+   *
+   * @return the version, or an empty {@link Optional} when the cache is not loaded
+   */
+  public Optional<String> version() {
+
+    if (!loaded) {
+      return Optional.empty();
+    }
+
+    return Optional.of(epoch + CURSOR_SEPARATOR + publishedSequence);
+  }
+
+  /**
+   * Loads the most recent telemetry data records read from the database, keeping any newer record
+   * cached meanwhile.
+   *
+   * @param records the most recent active telemetry data record of each device
+   */
+  public void load(List<DeviceTelemetryDTO> records) {
+    records.forEach(this::update);
+    loaded = true;
+  }
+
+  /**
+   * Caches the telemetry data record if it is active and newer than the cached record of its
+   * device.
+   *
+   * @param deviceTelemetryDTO the telemetry data record
+   */
+  public void update(DeviceTelemetryDTO deviceTelemetryDTO) {
+
+    if (!deviceTelemetryDTO.active()) {
+      return;
+    }
+
+    updateLock.lock();
+    try {
+      CachedTelemetry cached = latestByDevice.get(deviceTelemetryDTO.device());
+      if (cached == null || deviceTelemetryDTO.time().isAfter(cached.telemetry().time())) {
+        long next = publishedSequence + 1;
+        latestByDevice.put(deviceTelemetryDTO.device(),
+            new CachedTelemetry(deviceTelemetryDTO, next)
+        );
+        positionGrid.move(deviceTelemetryDTO.device(),
+            cached == null ? null : cached.telemetry().longitude(),
+            cached == null ? null : cached.telemetry().latitude(), deviceTelemetryDTO.longitude(),
+            deviceTelemetryDTO.latitude()
+        );
+        publishedSequence = next;
+      }
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  /**
+   * Collects the cached records within a bounding box that does not cross the antimeridian. The
+   * candidates of the grid are checked against the cached position, which may have moved since
+   * the candidate was indexed.
+   */
+  private void collectWithin(
+      double minLongitude, double minLatitude, double maxLongitude, double maxLatitude,
+      Map<String, DeviceTelemetryDTO> within
+  ) {
+    positionGrid.forEachCandidate(minLongitude, minLatitude, maxLongitude, maxLatitude,
+        device -> {
+          CachedTelemetry cached = latestByDevice.get(device);
+          if (cached != null) {
+            DeviceTelemetryDTO telemetry = cached.telemetry();
+            if (telemetry.longitude() >= minLongitude && telemetry.longitude() <= maxLongitude
+                && telemetry.latitude() >= minLatitude && telemetry.latitude() <= maxLatitude) {
+              within.put(device, telemetry);
+            }
+          }
+        }
+    );
+  }
+
+  private String encodeCursor(long value) {
+    String cursor = epoch + CURSOR_SEPARATOR + value;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(cursor.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Decodes the provided cursor into the sequence value it was issued at.
+   *
+   * @return the sequence value, or {@code 0} (all the devices) for a missing cursor or a cursor
+   * issued by another instance of the cache
+   */
+  private long decodeCursor(String cursor) {
+
+    if (cursor == null || cursor.isBlank()) {
+      return 0;
+    }
+
+    String[] parts = new String(Base64.getUrlDecoder().decode(cursor.trim()),
+        StandardCharsets.US_ASCII
+    ).split(CURSOR_SEPARATOR, -1);
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Malformed cursor: " + cursor);
+    }
+
+    long cursorEpoch = Long.parseLong(parts[0]);
+    long value = Long.parseLong(parts[1]);
+    if (cursorEpoch != epoch || value < 0 || value > publishedSequence) {
+      return 0;
+    }
+    return value;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTelemetrySaved(DeviceTelemetrySavedEvent event) {
+    event.telemetry().forEach(this::update);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTelemetryImported(DeviceTelemetryImportedEvent event) {
+    if (event.imported() > 0) {
+      loaded = false;
+    }
+  }
+
+  private record CachedTelemetry(DeviceTelemetryDTO telemetry, long sequence) {}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+
+public interface LivePositionService {
+
+  /**
+   * Subscribes the provided sink to the position changes of all devices.
+   * <p>
+   * The sink first receives the most recent position of each device and then the positions saved
+   * afterward. When the sink falls behind, only the newest pending position of each device is
+   * kept.
+   *
+   * @param sink the sink that delivers the positions to the client
+   * @throws TooManyRequestsException if the maximum number of subscribers has been reached
+   */
+  void subscribe(LivePositionSink sink);
+
+  /**
+   * Ends the subscription of the provided sink, e.g. when the client disconnects. Does nothing if
+   * the sink is not subscribed.
+   *
+   * @param sink the subscribed sink
+   */
+  void unsubscribe(LivePositionSink sink);
+}
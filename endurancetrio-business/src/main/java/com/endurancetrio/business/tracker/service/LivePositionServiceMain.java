@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service responsible for pushing the position changes of the devices to live subscribers.
+ * <p>
+ * The positions are taken from the {@link DeviceTelemetrySavedEvent} of every committed save. The
+ * event listener only records the positions in a map keyed by device and wakes up a dispatcher
+ * thread, so the ingestion path never waits for the subscribers. The dispatcher fans the newest
+ * position of each device out to the subscribers, ignoring inactive records and records older than
+ * the position already pushed for the same device.
+ * <p>
+ * Each subscriber has its own virtual thread and a buffer keyed by device, holding at most
+ * {@code app.telemetry.live.buffer-size} devices. A subscriber that falls behind receives only the
+ * newest pending position of each device; one whose buffer overflows is disconnected, and the
+ * client is expected to reconnect and start again from the most recent positions. When no
+ * position changes during {@code app.telemetry.live.heartbeat-interval}, a heartbeat is sent
+ * instead.
+ * <p>
+ * The threads only block on {@link ReentrantLock}s and on the sink writes, so they never pin the
+ * carrier threads and thousands of subscribers can be served concurrently.
+ */
+@Service
+public class LivePositionServiceMain implements LivePositionService, SmartLifecycle {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LivePositionServiceMain.class);
+
+  private static final String DISPATCHER_THREAD_NAME = "live-position-dispatcher";
+  private static final String SUBSCRIBER_THREAD_PREFIX = "live-position-";
+  private static final Comparator<DeviceTelemetryDTO> BY_DEVICE = Comparator.comparing(
+      DeviceTelemetryDTO::device);
+
+  private final DeviceTelemetryService deviceTelemetryService;
+  private final int bufferSize;
+  private final long heartbeatNanos;
+  private final int maxSubscribers;
+  private final ThreadFactory subscriberThreads;
+  private final Map<LivePositionSink, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+  private final ReentrantLock pendingLock = new ReentrantLock();
+  private final Condition pendingChanged = pendingLock.newCondition();
+  private Map<String, DeviceTelemetryDTO> pending = new HashMap<>();
+
+  /**
+   * The time of the last position pushed for each device, only accessed by the dispatcher thread.
+   */
+  private final Map<String, Instant> pushed = new HashMap<>();
+
+  private final Counter disconnectedCounter;
+
+  private volatile boolean running;
+  private Thread dispatcher;
+
+  @Autowired
+  public LivePositionServiceMain(
+      DeviceTelemetryService deviceTelemetryService, MeterRegistry meterRegistry,
+      @Value("${app.telemetry.live.buffer-size:10000}") int bufferSize,
+      @Value("${app.telemetry.live.heartbeat-interval:15s}") Duration heartbeatInterval,
+      @Value("${app.telemetry.live.max-subscribers:5000}") int maxSubscribers
+  ) {
+    this.deviceTelemetryService = deviceTelemetryService;
+    this.bufferSize = bufferSize;
+    this.heartbeatNanos = heartbeatInterval.toNanos();
+    this.maxSubscribers = maxSubscribers;
+    this.subscriberThreads = Thread.ofVirtual().name(SUBSCRIBER_THREAD_PREFIX, 1).factory();
+
+    Gauge.builder("telemetry.live.subscribers", subscribers, Map::size)
+        .description("Number of clients subscribed to the live positions")
+        .register(meterRegistry);
+    this.disconnectedCounter = Counter.builder("telemetry.live.disconnected")
+        .description("Number of live position subscribers disconnected for falling behind")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void subscribe(LivePositionSink sink) {
+
+    if (!running || subscribers.size() >= maxSubscribers) {
+      LOG.warn("Live position subscription refused: the service is at capacity or stopped");
+      throw new TooManyRequestsException(EnduranceTrioError.TOO_MANY_REQUESTS);
+    }
+
+    Subscriber subscriber = new Subscriber(sink);
+    subscribers.put(sink, subscriber);
+    subscriberThreads.newThread(subscriber::deliver).start();
+  }
+
+  @Override
+  public void unsubscribe(LivePositionSink sink) {
+
+    Subscriber subscriber = subscribers.get(sink);
+    if (subscriber != null) {
+      subscriber.end(false);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTelemetrySaved(DeviceTelemetrySavedEvent event) {
+
+    if (subscribers.isEmpty()) {
+      return;
+    }
+
+    pendingLock.lock();
+    try {
+      for (DeviceTelemetryDTO position : event.telemetry()) {
+        if (position.active()) {
+          pending.merge(position.device(), position, LivePositionServiceMain::newest);
+        }
+      }
+      pendingChanged.signal();
+    } finally {
+      pendingLock.unlock();
+    }
+  }
+
+  @Override
+  public void start() {
+
+    running = true;
+    dispatcher = Thread.ofVirtual().name(DISPATCHER_THREAD_NAME).start(this::dispatch);
+    LOG.info("Live position service started (buffer size {}, heartbeat {} s)", bufferSize,
+        Duration.ofNanos(heartbeatNanos).toSeconds()
+    );
+  }
+
+  /**
+   * Ends all subscriptions. Runs in the default phase, before the web server graceful shutdown,
+   * which would otherwise wait for the open subscriptions until its timeout.
+   */
+  @Override
+  public void stop() {
+
+    running = false;
+    if (dispatcher != null) {
+      dispatcher.interrupt();
+    }
+    subscribers.values().forEach(subscriber -> subscriber.end(true));
+
+    LOG.info("Live position service stopped");
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void dispatch() {
+
+    while (running) {
+      Map<String, DeviceTelemetryDTO> changed;
+
+      pendingLock.lock();
+      try {
+        while (pending.isEmpty()) {
+          pendingChanged.await();
+        }
+        changed = pending;
+        pending = new HashMap<>();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        pendingLock.unlock();
+      }
+
+      List<DeviceTelemetryDTO> positions = new ArrayList<>(changed.size());
+      for (DeviceTelemetryDTO position : changed.values()) {
+        Instant last = pushed.get(position.device());
+        if (last == null || position.time().isAfter(last)) {
+          pushed.put(position.device(), position.time());
+          positions.add(position);
+        }
+      }
+
+      if (!positions.isEmpty()) {
+        subscribers.values().forEach(subscriber -> subscriber.offer(positions));
+      }
+    }
+  }
+
+  private static DeviceTelemetryDTO newest(DeviceTelemetryDTO current, DeviceTelemetryDTO other) {
+    return other.time().isAfter(current.time()) ? other : current;
+  }
+
+  /**
+   * A live position subscription, with its buffer of pending positions and its delivery thread.
+   */
+  private final class Subscriber {
+
+    private final LivePositionSink sink;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, DeviceTelemetryDTO> buffer = new HashMap<>();
+    private boolean ended;
+
+    private Subscriber(LivePositionSink sink) {
+      this.sink = sink;
+    }
+
+    /**
+     * Adds the provided positions to the buffer, replacing the pending positions of the same
+     * devices. Ends the subscription if the buffer overflows.
+     */
+    private void offer(List<DeviceTelemetryDTO> positions) {
+
+      boolean overflow = false;
+
+      lock.lock();
+      try {
+        if (ended) {
+          return;
+        }
+        for (DeviceTelemetryDTO position : positions) {
+          if (buffer.size() >= bufferSize && !buffer.containsKey(position.device())) {
+            overflow = true;
+            break;
+          }
+          buffer.merge(position.device(), position, LivePositionServiceMain::newest);
+        }
+        changed.signal();
+      } finally {
+        lock.unlock();
+      }
+
+      if (overflow) {
+        disconnectedCounter.increment();
+        LOG.warn("Live position subscriber disconnected: more than {} devices pending",
+            bufferSize
+        );
+        end(true);
+      }
+    }
+
+    /**
+     * Delivers the most recent positions and then the buffered positions, or a heartbeat when the
+     * buffer stays empty for the heartbeat interval, until the subscription ends.
+     */
+    private void deliver() {
+
+      try {
+        List<DeviceTelemetryDTO> latest =
+            deviceTelemetryService.findMostRecentRecordForEachDevice();
+        if (!latest.isEmpty()) {
+          sink.send(latest);
+        }
+
+        while (true) {
+          List<DeviceTelemetryDTO> positions = take();
+          if (positions == null) {
+            return;
+          }
+          if (positions.isEmpty()) {
+            sink.heartbeat();
+          } else {
+            sink.send(positions);
+          }
+        }
+      } catch (IOException | RuntimeException exception) {
+        LOG.debug("Live position delivery failed: {}", exception.getMessage());
+        end(true);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        end(true);
+      }
+    }
+
+    /**
+     * Waits up to the heartbeat interval for buffered positions and takes them.
+     *
+     * @return the buffered positions ordered by device, an empty list if the heartbeat interval
+     * elapsed or {@code null} if the subscription ended
+     */
+    private List<DeviceTelemetryDTO> take() throws InterruptedException {
+
+      lock.lock();
+      try {
+        long remaining = heartbeatNanos;
+        while (!ended && buffer.isEmpty() && remaining > 0) {
+          remaining = changed.awaitNanos(remaining);
+        }
+        if (ended) {
+          return null;
+        }
+        List<DeviceTelemetryDTO> positions = new ArrayList<>(buffer.values());
+        buffer.clear();
+        positions.sort(BY_DEVICE);
+        return positions;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Ends the subscription, completing the sink unless the client has already gone.
+     */
+    private void end(boolean completeSink) {
+
+      lock.lock();
+      try {
+        if (ended) {
+          return;
+        }
+        ended = true;
+        buffer.clear();
+        changed.signal();
+      } finally {
+        lock.unlock();
+      }
+
+      subscribers.remove(sink, this);
+      if (completeSink) {
+        sink.complete();
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The receiving end of a live position subscription (see {@link LivePositionService}), implemented
+ * by the transport that delivers the positions to the client.
+ * <p>
+ * The methods are called from the subscription's own thread, never concurrently, so they may
+ * block while writing to the client.
+ */
+public interface LivePositionSink {
+
+  /**
+   * Delivers the provided positions, at most one per device, ordered by device.
+   *
+   * @param positions the most recent positions of the devices that changed
+   * @throws IOException if the positions cannot be delivered, which ends the subscription
+   */
+  void send(List<DeviceTelemetryDTO> positions) throws IOException;
+
+  /**
+   * Delivers a heartbeat, sent when no position changed during the heartbeat interval, so that
+   * idle connections are kept open and disconnected clients are detected.
+   *
+   * @throws IOException if the heartbeat cannot be delivered, which ends the subscription
+   */
+  void heartbeat() throws IOException;
+
+  /**
+   * Called once when the subscription is ended by the service, either because the client could
+   * not keep up, a delivery failed or the application is stopping.
+   */
+  void complete();
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory filter of the most recent record times saved for each device.
+ * <p>
+ * Devices that do not get an acknowledgement resend the same telemetry data record, so a duplicate
+ * is almost always one of the last few records of its device. Checking them here drops the obvious
+ * duplicates without a database round trip; the unique constraint on {@code device_telemetry}
+ * remains the authority for everything else.
+ * <p>
+ * The filter only learns the record times of committed transactions, so a record is never dropped
+ * because of a save that was rolled back. It keeps the last
+ * {@code app.telemetry.dedup.times-per-device} record times of the
+ * {@code app.telemetry.dedup.max-devices} most recently seen devices.
+ */
+@Component
+public class RecentTelemetryFilter {
+
+  private final int timesPerDevice;
+  private final Map<String, Deque<Instant>> recentTimes;
+
+  public RecentTelemetryFilter(
+      @Value("${app.telemetry.dedup.max-devices:10000}") int maxDevices,
+      @Value("${app.telemetry.dedup.times-per-device:16}") int timesPerDevice
+  ) {
+    this.timesPerDevice = timesPerDevice;
+    this.recentTimes = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Deque<Instant>> eldest) {
+        return size() > maxDevices;
+      }
+    };
+  }
+
+  /**
+   * Checks whether a telemetry data record of the device with the given time was recently saved.
+   *
+   * @param device the device identifier
+   * @param time   the record time
+   * @return {@code true} if the record is known to be saved, {@code false} if it is unknown
+   */
+  public boolean isRecent(String device, Instant time) {
+    synchronized (recentTimes) {
+      Deque<Instant> times = recentTimes.get(device);
+      return times != null && times.contains(time);
+    }
+  }
+
+  /**
+   * Remembers that a telemetry data record of the device with the given time is saved.
+   *
+   * @param device the device identifier
+   * @param time   the record time
+   */
+  public void remember(String device, Instant time) {
+    synchronized (recentTimes) {
+      Deque<Instant> times = recentTimes.computeIfAbsent(device, key -> new ArrayDeque<>());
+      if (times.contains(time)) {
+        return;
+      }
+      if (times.size() >= timesPerDevice) {
+        times.removeFirst();
+      }
+      times.addLast(time);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTelemetrySaved(DeviceTelemetrySavedEvent event) {
+    for (DeviceTelemetryDTO deviceTelemetryDTO : event.telemetry()) {
+      remember(deviceTelemetryDTO.device(), deviceTelemetryDTO.time());
+    }
+  }
+}
@@ -23,6 +23,7 @@
 import com.endurancetrio.business.tracker.dto.RouteDTO;
 import com.endurancetrio.business.tracker.dto.RouteMetricsDTO;
 import java.util.List;
+import java.util.Optional;
 
 public interface RouteService {
 
@@ -49,5 +50,22 @@ public interface RouteService {
    */
   RouteDTO findById(Long id);
 
+  /**
+   * Returns the version of the list of all route configurations, without reading the database.
+   *
+   * @return the version, which changes whenever a route configuration is saved
+   */
+  String findAllVersion();
+
+  /**
+   * Returns the version of the route configuration with the provided identifier, reading only the
+   * version from the database when it is not known yet.
+   *
+   * @param id the unique identifier of the route configuration
+   * @return the version, or an empty {@link Optional} when no route configuration exists with the
+   * provided identifier
+   */
+  Optional<String> findVersionById(Long id);
+
   RouteMetricsDTO getRouteMetrics(Long routeId);
 }
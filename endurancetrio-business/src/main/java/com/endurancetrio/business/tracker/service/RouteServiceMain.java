@@ -30,6 +30,8 @@
 import com.endurancetrio.business.tracker.dto.geojson.LineStringGeometry;
 import com.endurancetrio.business.tracker.dto.geojson.PointGeometry;
 import com.endurancetrio.business.tracker.dto.geojson.RouteSegmentProperty;
+import com.endurancetrio.business.tracker.event.RouteSavedEvent;
+import com.endurancetrio.business.tracker.geo.Haversine;
 import com.endurancetrio.business.tracker.mapper.RouteMapper;
 import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
 import com.endurancetrio.data.tracker.model.entity.Route;
@@ -50,6 +52,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -61,15 +64,20 @@ public class RouteServiceMain implements RouteService {
   private final DeviceTelemetryRepository deviceTelemetryRepository;
   private final RouteRepository routeRepository;
   private final RouteMapper routeMapper;
+  private final RouteVersionCache routeVersionCache;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Autowired
   public RouteServiceMain(
       DeviceTelemetryRepository deviceTelemetryRepository, RouteRepository routeRepository,
-      RouteMapper routeMapper
+      RouteMapper routeMapper, RouteVersionCache routeVersionCache,
+      ApplicationEventPublisher eventPublisher
   ) {
     this.deviceTelemetryRepository = deviceTelemetryRepository;
     this.routeRepository = routeRepository;
     this.routeMapper = routeMapper;
+    this.routeVersionCache = routeVersionCache;
+    this.eventPublisher = eventPublisher;
   }
 
   @Override
@@ -81,7 +89,8 @@ public RouteDTO save(RouteDTO routeDTO) {
     Route entity;
     if (routeDTO.id() != null) {
 
-      entity = routeRepository.findById(routeDTO.id()).orElseThrow(() -> {
+      // Locking with a forced increment changes the version even when only the segments change
+      entity = routeRepository.findForUpdateById(routeDTO.id()).orElseThrow(() -> {
         String errorMessage = String.format("Route update failed: No route found with ID %d",
             routeDTO.id()
         );
@@ -96,7 +105,13 @@ public RouteDTO save(RouteDTO routeDTO) {
       entity = routeMapper.map(routeDTO);
     }
 
-    return routeMapper.map(routeRepository.save(entity));
+    Route saved = routeRepository.save(entity);
+
+    // Flushing increments the version, so the event carries the version that is committed
+    routeRepository.flush();
+    eventPublisher.publishEvent(new RouteSavedEvent(saved.getId(), saved.getVersion()));
+
+    return routeMapper.map(saved);
   }
 
   @Override
@@ -104,6 +119,7 @@ public RouteDTO save(RouteDTO routeDTO) {
   public List<RouteDTO> findAll() {
 
     List<@NonNull Route> routes = routeRepository.findAll();
+    routes.forEach(route -> routeVersionCache.register(route.getId(), route.getVersion()));
 
     return routes.stream().map(routeMapper::map).toList();
   }
@@ -115,6 +131,23 @@ public RouteDTO findById(Long id) {
     return getRouteDTO(id);
   }
 
+  @Override
+  public String findAllVersion() {
+    return routeVersionCache.findAllVersion();
+  }
+
+  @Override
+  public Optional<String> findVersionById(Long id) {
+
+    Optional<String> version = routeVersionCache.findVersion(id);
+    if (version.isPresent()) {
+      return version;
+    }
+
+    routeRepository.findVersionById(id).ifPresent(read -> routeVersionCache.register(id, read));
+    return routeVersionCache.findVersion(id);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public RouteMetricsDTO getRouteMetrics(Long id) {
@@ -185,47 +218,16 @@ public RouteMetricsDTO getRouteMetrics(Long id) {
    */
   private double calculateDistance(List<Double> startCoordinates, List<Double> endCoordinates) {
 
-    // IUGG (https://iugg.org/) standard mean radius of Earth in meters
-    double meanEarthRadius = 6371008.7714;
-
-    double halfChordLength = calculateHalfChordLength(startCoordinates, endCoordinates);
-    double angularDistance = 2 * Math.asin(halfChordLength);
-
-    return angularDistance * meanEarthRadius;
-  }
-
-  /**
-   * Calculates the half-chord length between two points on a unit sphere.
-   * <p>
-   * This value corresponds to {@code Math.sqrt(a)} in the standard Haversine formula notation,
-   * representing the straight-line distance between the two points through the sphere, normalized
-   * to a unit sphere radius.
-   *
-   * @param start The starting coordinates [longitude, latitude].
-   * @param end   The ending coordinates [longitude, latitude].
-   * @return The half-chord length (value between 0.0 and 1.0).
-   * @throws BadRequestException if coordinates are null or strictly not a pair of values.
-   */
-  private static double calculateHalfChordLength(List<Double> start, List<Double> end) {
-
-    if (start == null || end == null || start.size() != 2 || end.size() != 2) {
+    if (startCoordinates == null || endCoordinates == null || startCoordinates.size() != 2
+        || endCoordinates.size() != 2) {
       String errorMessage = "Coordinates must be non-null and contain exactly [longitude, latitude]";
       LOG.error(errorMessage);
       throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
     }
 
-    // GeoJSON index 1 is Latitude
-    double startLatitude = Math.toRadians(start.get(1));
-    double endLatitude = Math.toRadians(end.get(1));
-    double latitudeDelta = endLatitude - startLatitude;
-
-    // GeoJSON index 0 is Longitude
-    double longitudeDelta = Math.toRadians(end.getFirst() - start.getFirst());
-
-    return Math.sqrt(
-        Math.pow(Math.sin(latitudeDelta / 2), 2) +
-            Math.pow(Math.sin(longitudeDelta / 2), 2) *
-                Math.cos(startLatitude) * Math.cos(endLatitude)
+    // GeoJSON index 0 is Longitude and index 1 is Latitude
+    return Haversine.distance(startCoordinates.getFirst(), startCoordinates.get(1),
+        endCoordinates.getFirst(), endCoordinates.get(1)
     );
   }
 
@@ -305,6 +307,7 @@ private RouteDTO getRouteDTO(Long id) {
       LOG.warn(errorMessage);
       return new NotFoundException(errorMessage, EnduranceTrioError.NOT_FOUND);
     });
+    routeVersionCache.register(route.getId(), route.getVersion());
 
     return routeMapper.map(route);
   }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.event.RouteSavedEvent;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory record of the versions of the route configurations, used to answer conditional reads
+ * without reading the routes from the database.
+ * <p>
+ * The version of each route configuration ({@code Route.version}) is learnt from every read and
+ * from the {@link RouteSavedEvent} of every committed save, keeping the highest version seen, so a
+ * read that raced with a save never moves a route back to its previous version. The list of all
+ * the route configurations is versioned by a counter of the committed saves, combined with the
+ * time the cache was created so that the versions issued before a restart never match.
+ * <p>
+ * The cache only sees the saves of this application instance, so it assumes a single instance
+ * writes to the database, like the {@link LatestTelemetryCache}.
+ */
+@Component
+public class RouteVersionCache {
+
+  private static final String VERSION_SEPARATOR = "-";
+
+  private final Map<Long, Integer> versionById = new ConcurrentHashMap<>();
+  private final AtomicLong savedCount = new AtomicLong();
+  private final long epoch = System.currentTimeMillis();
+
+  /**
+   * Returns the version of the list of all the route configurations.
+   *
+   * @return the version, which changes whenever a route configuration is saved
+   */
+  public String findAllVersion() {
+    return epoch + VERSION_SEPARATOR + savedCount.get();
+  }
+
+  /**
+   * Returns the version of the route configuration with the provided identifier.
+   *
+   * @param id the unique identifier of the route configuration
+   * @return the version, or an empty {@link Optional} when the route configuration was neither read
+   * nor saved by this application instance
+   */
+  public Optional<String> findVersion(Long id) {
+    return Optional.ofNullable(versionById.get(id))
+        .map(version -> id + VERSION_SEPARATOR + version);
+  }
+
+  /**
+   * Records the version of a route configuration read from the database.
+   *
+   * @param id      the unique identifier of the route configuration
+   * @param version the version of the route configuration
+   */
+  public void register(Long id, Integer version) {
+    if (id != null && version != null) {
+      versionById.merge(id, version, Math::max);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onRouteSaved(RouteSavedEvent event) {
+    register(event.id(), event.version());
+    savedCount.incrementAndGet();
+  }
+}
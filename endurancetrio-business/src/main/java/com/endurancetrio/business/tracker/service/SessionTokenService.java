@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.SessionTokenDTO;
+import java.util.Optional;
+
+public interface SessionTokenService {
+
+  /**
+   * Checks whether the bearer credentials of a request have the format of a session token, as
+   * opposed to an API key.
+   *
+   * @param credentials the bearer credentials
+   * @return {@code true} if the credentials must be verified as a session token
+   */
+  boolean isSessionToken(String credentials);
+
+  /**
+   * Issues a session token to the specified owner, who must already be authenticated by its key.
+   *
+   * @param owner the owner of the tracker account
+   * @return the {@link SessionTokenDTO} with the signed token and its expiry
+   */
+  SessionTokenDTO issue(String owner);
+
+  /**
+   * Verifies a session token in memory, without any database access.
+   *
+   * @param token the session token
+   * @return the owner the token was issued to, or an empty {@link Optional} if the token is
+   * malformed, its signature is invalid, it expired or it was revoked
+   */
+  Optional<String> verify(String token);
+}
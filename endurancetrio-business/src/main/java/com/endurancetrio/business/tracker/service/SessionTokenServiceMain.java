@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.SessionTokenDTO;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Issues and verifies the session tokens of the tracker accounts.
+ * <p>
+ * A session token is {@code ets.<key id>.<payload>.<signature>}, where the payload carries the
+ * owner, the issue time and the expiry of the token, and the signature is an HMAC-SHA-256 of the
+ * token under the signing secret identified by the key id, all encoded in Base64 URL. A token is
+ * verified in memory, without any database access, and is valid for {@code app.auth.session.ttl}.
+ * <p>
+ * The signing secrets are set, separated by commas, in {@code app.auth.session.signing-secrets}:
+ * the first one signs the new tokens, and all of them verify the tokens they signed, so a secret is
+ * rotated by adding the new secret first and removing the old one once its tokens expired. Without
+ * signing secrets, a random secret is generated on startup, so the tokens are only valid for this
+ * application instance until it restarts.
+ * <p>
+ * The tokens of an account issued before a committed {@link TrackerAccountChangedEvent} that
+ * revokes credentials (its key replaced, or the account disabled or deleted) are revoked, while a
+ * key hash rewritten in the current encoding keeps them. The revocation instant is taken before the
+ * change is made, so a token issued once the change is made, even within the same millisecond, is
+ * never revoked. The revocations are kept for the lifetime of the tokens.
+ * <p>
+ * The issued and the rejected tokens are exported as the {@code tracker.auth.session.issued} and
+ * {@code tracker.auth.session.rejected} counters.
+ */
+@Service
+public class SessionTokenServiceMain implements SessionTokenService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SessionTokenServiceMain.class);
+
+  private static final String TOKEN_PREFIX = "ets.";
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int KEY_ID_LENGTH = 8;
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final Duration ttl;
+  private final SigningKey signingKey;
+  private final Map<String, SigningKey> verificationKeys;
+  private final Map<String, Long> revocations = new ConcurrentHashMap<>();
+  private final Counter issuedCounter;
+  private final Counter rejectedCounter;
+
+  public SessionTokenServiceMain(
+      MeterRegistry meterRegistry,
+      @Value("${app.auth.session.ttl:15m}") Duration ttl,
+      @Value("${app.auth.session.signing-secrets:}") String signingSecrets
+  ) {
+    this.ttl = ttl;
+
+    List<String> secrets = Arrays.stream(signingSecrets.split(","))
+        .map(String::trim)
+        .filter(secret -> !secret.isEmpty())
+        .toList();
+
+    Map<String, SigningKey> keys = new LinkedHashMap<>();
+    if (secrets.isEmpty()) {
+      LOG.warn("No session token signing secret is set: the session tokens are only valid for "
+          + "this application instance until it restarts");
+      byte[] secret = new byte[32];
+      new SecureRandom().nextBytes(secret);
+      SigningKey key = new SigningKey(secret);
+      keys.put(key.id(), key);
+    } else {
+      for (String secret : secrets) {
+        SigningKey key = new SigningKey(secret.getBytes(StandardCharsets.UTF_8));
+        keys.putIfAbsent(key.id(), key);
+      }
+    }
+    this.signingKey = keys.values().iterator().next();
+    this.verificationKeys = Map.copyOf(keys);
+
+    this.issuedCounter = Counter.builder("tracker.auth.session.issued")
+        .description("Session tokens issued")
+        .register(meterRegistry);
+    this.rejectedCounter = Counter.builder("tracker.auth.session.rejected")
+        .description("Session tokens rejected as malformed, forged, expired or revoked")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public boolean isSessionToken(String credentials) {
+    return credentials != null && credentials.startsWith(TOKEN_PREFIX);
+  }
+
+  @Override
+  public SessionTokenDTO issue(String owner) {
+
+    long issuedAt = System.currentTimeMillis();
+    long expiresAt = issuedAt + ttl.toMillis();
+
+    String payload = issuedAt + ":" + expiresAt + ":" + owner;
+    String unsigned = TOKEN_PREFIX + signingKey.id() + "."
+        + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    String token = unsigned + "." + ENCODER.encodeToString(signingKey.sign(unsigned));
+
+    issuedCounter.increment();
+    return new SessionTokenDTO(token, Instant.ofEpochMilli(expiresAt));
+  }
+
+  @Override
+  public Optional<String> verify(String token) {
+
+    String owner = verifiedOwner(token);
+    if (owner == null) {
+      rejectedCounter.increment();
+    }
+    return Optional.ofNullable(owner);
+  }
+
+  /**
+   * Revokes the tokens issued to the account before its key was replaced or it was disabled or
+   * deleted.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTrackerAccountChanged(TrackerAccountChangedEvent event) {
+
+    if (!event.change().revokesCredentials()) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    revocations.values().removeIf(revokedAt -> revokedAt < now - ttl.toMillis());
+    revocations.merge(event.owner(), event.changedAt().toEpochMilli(), Math::max);
+    LOG.info("Session tokens of account '{}' revoked: {}", event.owner(), event.change());
+  }
+
+  /**
+   * @return the owner of a valid token, or {@code null} if the token is not valid
+   */
+  private String verifiedOwner(String token) {
+
+    if (!isSessionToken(token)) {
+      return null;
+    }
+
+    String[] parts = token.split("\\.", -1);
+    if (parts.length != 4) {
+      return null;
+    }
+
+    SigningKey key = verificationKeys.get(parts[1]);
+    if (key == null) {
+      return null;
+    }
+
+    String[] payload;
+    long issuedAt;
+    long expiresAt;
+    try {
+      byte[] signature = DECODER.decode(parts[3]);
+      if (!MessageDigest.isEqual(signature, key.sign(token.substring(0, token.lastIndexOf('.'))))) {
+        return null;
+      }
+      payload = new String(DECODER.decode(parts[2]), StandardCharsets.UTF_8).split(":", 3);
+      issuedAt = Long.parseLong(payload[0]);
+      expiresAt = Long.parseLong(payload[1]);
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+      return null;
+    }
+
+    if (payload.length != 3 || System.currentTimeMillis() >= expiresAt) {
+      return null;
+    }
+
+    Long revokedAt = revocations.get(payload[2]);
+    if (revokedAt != null && issuedAt < revokedAt) {
+      return null;
+    }
+    return payload[2];
+  }
+
+  /**
+   * A signing secret and its identifier, the beginning of the Base64 URL SHA-256 of the secret.
+   */
+  private static final class SigningKey {
+
+    private final String id;
+    private final ThreadLocal<Mac> mac;
+
+    private SigningKey(byte[] secret) {
+      try {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret);
+        this.id = ENCODER.encodeToString(digest).substring(0, KEY_ID_LENGTH);
+      } catch (GeneralSecurityException exception) {
+        throw new IllegalStateException("SHA-256 is not available", exception);
+      }
+
+      SecretKeySpec secretKey = new SecretKeySpec(secret, ALGORITHM);
+      this.mac = ThreadLocal.withInitial(() -> {
+        try {
+          Mac instance = Mac.getInstance(ALGORITHM);
+          instance.init(secretKey);
+          return instance;
+        } catch (GeneralSecurityException exception) {
+          throw new IllegalStateException("HMAC-SHA-256 is not available", exception);
+        }
+      });
+    }
+
+    private String id() {
+      return id;
+    }
+
+    private byte[] sign(String unsigned) {
+      return mac.get().doFinal(unsigned.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service responsible for moving the telemetry data records of past days into the archive.
+ * <p>
+ * On the configured schedule, the records of each device older than
+ * {@code app.telemetry.archive.after-days} days are moved, one device and UTC day per
+ * transaction, into the compressed blocks of the {@code telemetry_block} table. The archive is
+ * disabled when {@code after-days} is {@code 0}. The records archived, the blocks written and the
+ * duration of each run are published as metrics.
+ */
+@Service
+public class TelemetryArchiveJob {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TelemetryArchiveJob.class);
+
+  private final TrackerAccountRepository trackerAccountRepository;
+  private final TelemetryRetentionService telemetryRetentionService;
+  private final TelemetryArchiveService telemetryArchiveService;
+  private final int afterDays;
+
+  private final Counter recordsCounter;
+  private final Counter blocksCounter;
+  private final Timer duration;
+
+  @Autowired
+  public TelemetryArchiveJob(
+      TrackerAccountRepository trackerAccountRepository,
+      TelemetryRetentionService telemetryRetentionService,
+      TelemetryArchiveService telemetryArchiveService, MeterRegistry meterRegistry,
+      @Value("${app.telemetry.archive.after-days:0}") int afterDays
+  ) {
+    this.trackerAccountRepository = trackerAccountRepository;
+    this.telemetryRetentionService = telemetryRetentionService;
+    this.telemetryArchiveService = telemetryArchiveService;
+    this.afterDays = afterDays;
+
+    this.recordsCounter = Counter.builder("telemetry.archive.records")
+        .description("Number of telemetry data records moved into the archive")
+        .register(meterRegistry);
+    this.blocksCounter = Counter.builder("telemetry.archive.blocks")
+        .description("Number of archive blocks written")
+        .register(meterRegistry);
+    this.duration = Timer.builder("telemetry.archive.duration")
+        .description("Duration of the runs of the archive job")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Archives the telemetry data records of past days on the configured schedule.
+   */
+  @Scheduled(cron = "${app.telemetry.archive.cron:0 0 4 * * *}", zone = "UTC")
+  public void archive() {
+    if (afterDays > 0) {
+      duration.record(() -> archive(Instant.now()));
+    }
+  }
+
+  void archive(Instant now) {
+
+    Instant before = LocalDate.ofInstant(now, ZoneOffset.UTC).minusDays(afterDays)
+        .atStartOfDay()
+        .toInstant(ZoneOffset.UTC);
+
+    for (TrackerAccount account : trackerAccountRepository.findAll()) {
+      String owner = account.getOwner();
+      try {
+        long records = 0;
+        for (String device : telemetryRetentionService.findDevices(owner)) {
+          int archived = telemetryArchiveService.archiveDay(owner, device, before);
+          while (archived > 0) {
+            recordsCounter.increment(archived);
+            blocksCounter.increment();
+            records += archived;
+            archived = telemetryArchiveService.archiveDay(owner, device, before);
+          }
+        }
+
+        if (records > 0) {
+          LOG.info("Telemetry archive of account {}: {} records archived", owner, records);
+        }
+      } catch (DataAccessException exception) {
+        LOG.error("Telemetry archive of account {} failed:", owner, exception);
+      }
+    }
+  }
+}
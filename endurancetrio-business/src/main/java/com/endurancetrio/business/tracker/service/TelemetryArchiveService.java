@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TelemetryArchiveService {
+
+  /**
+   * Archives the oldest day of telemetry data records of a device recorded before the given time,
+   * in its own transaction: the records of the day are encoded into its block, merged with the
+   * records already archived for the day, and deleted. The latest active record of the device is
+   * never archived.
+   *
+   * @param account the owner of the account of the device
+   * @param device  the device identifier
+   * @param before  the archiving limit, exclusive, at the start of a UTC day
+   * @return the number of records archived, {@code 0} when the device has no more records to
+   * archive
+   */
+  int archiveDay(String account, String device, Instant before);
+
+  /**
+   * Finds the UTC days of a device with archived telemetry data records within a time range.
+   *
+   * @param device the device identifier
+   * @param from   the start of the time range, inclusive
+   * @param to     the end of the time range, exclusive
+   * @return the UTC days with archived records, ordered by day
+   */
+  List<LocalDate> findArchivedDays(String device, Instant from, Instant to);
+
+  /**
+   * Decodes the archived telemetry data records of a device within a time range, appending them
+   * to the given instance in record time order.
+   *
+   * @param device the device identifier
+   * @param from   the start of the time range, inclusive
+   * @param to     the end of the time range, exclusive
+   * @param limit  the maximum number of records to append
+   * @param points the instance the records are appended to
+   */
+  void findArchived(String device, Instant from, Instant to, int limit, TelemetryPoints points);
+}
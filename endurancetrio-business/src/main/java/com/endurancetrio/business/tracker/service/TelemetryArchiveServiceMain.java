@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.archive.TelemetryBlockCodec;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRetentionRepository;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository.Block;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service responsible for the archive of the telemetry data records.
+ * <p>
+ * The archived records of each account, device and UTC day are kept in one block of the
+ * {@code telemetry_block} table, encoded by the {@link TelemetryBlockCodec}. The blocks are
+ * decoded straight into the primitive arrays of {@link TelemetryPoints}, one block at a time.
+ */
+@Service
+public class TelemetryArchiveServiceMain implements TelemetryArchiveService {
+
+  private final TelemetryBlockRepository blockRepository;
+  private final DeviceTelemetryRetentionRepository retentionRepository;
+
+  @Autowired
+  public TelemetryArchiveServiceMain(
+      TelemetryBlockRepository blockRepository,
+      DeviceTelemetryRetentionRepository retentionRepository
+  ) {
+    this.blockRepository = blockRepository;
+    this.retentionRepository = retentionRepository;
+  }
+
+  @Override
+  @Transactional
+  public int archiveDay(String account, String device, Instant before) {
+
+    Optional<Instant> oldest = retentionRepository.findExpiredRecordTime(account, device,
+        before, 0
+    );
+    if (oldest.isEmpty()) {
+      return 0;
+    }
+
+    LocalDate day = LocalDate.ofInstant(oldest.get(), ZoneOffset.UTC);
+    Instant dayEnd = day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    if (dayEnd.isAfter(before)) {
+      dayEnd = before;
+    }
+
+    TelemetryPoints records = new TelemetryPoints();
+    List<Long> ids = new ArrayList<>();
+    blockRepository.findArchivableRecords(account, device, dayEnd,
+        (id, time, latitude, longitude, active) -> {
+          ids.add(id);
+          records.add(TelemetryPoints.toMicros(time), latitude, longitude, active);
+        }
+    );
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    TelemetryPoints points = records;
+    Optional<Block> existing = blockRepository.findBlock(account, device, day);
+    if (existing.isPresent()) {
+      TelemetryPoints archived = new TelemetryPoints();
+      TelemetryBlockCodec.decode(existing.get().data(), archived);
+      points = TelemetryPoints.merge(archived, records);
+    }
+
+    int size = points.size();
+    blockRepository.save(new Block(device, day, account,
+        TelemetryPoints.ofMicros(points.time(0)), TelemetryPoints.ofMicros(points.time(size - 1)),
+        size, TelemetryBlockCodec.encode(points)
+    ));
+    return blockRepository.deleteRecords(account, device, dayEnd, ids.toArray(Long[]::new));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<LocalDate> findArchivedDays(String device, Instant from, Instant to) {
+    return blockRepository.findBlockDays(device, LocalDate.ofInstant(from, ZoneOffset.UTC),
+        LocalDate.ofInstant(to, ZoneOffset.UTC)
+    );
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void findArchived(
+      String device, Instant from, Instant to, int limit, TelemetryPoints points
+  ) {
+
+    long start = TelemetryPoints.toMicros(from);
+    long end = TelemetryPoints.toMicros(to);
+    int target = points.size() + limit;
+
+    // The blocks of the same day from different accounts are merged before being read, so that
+    // the records are appended in record time order
+    TelemetryPoints[] day = {new TelemetryPoints()};
+    LocalDate[] dayOf = new LocalDate[1];
+    blockRepository.findBlocks(device, LocalDate.ofInstant(from, ZoneOffset.UTC),
+        LocalDate.ofInstant(to, ZoneOffset.UTC), found -> {
+          TelemetryPoints block = new TelemetryPoints();
+          TelemetryBlockCodec.decode(found.data(), block);
+          if (found.day().equals(dayOf[0])) {
+            day[0] = TelemetryPoints.merge(day[0], block);
+          } else {
+            appendArchived(day[0], start, end, target, points);
+            day[0] = block;
+            dayOf[0] = found.day();
+          }
+          return points.size() < target;
+        }
+    );
+    appendArchived(day[0], start, end, target, points);
+  }
+
+  private static void appendArchived(
+      TelemetryPoints day, long start, long end, int target, TelemetryPoints points
+  ) {
+    for (int i = 0; i < day.size() && points.size() < target; i++) {
+      long time = day.time(i);
+      if (time >= start && time < end) {
+        points.add(day, i);
+      }
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.tracker.dto.TelemetryExportDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryExportFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Set;
+
+public interface TelemetryExportService {
+
+  /**
+   * Validates an export of the telemetry data records of the provided devices and reserves one of
+   * the export slots for it. The export must then be written with {@link #export}, which frees the
+   * slot, or freed with {@link #release} when it cannot be written.
+   *
+   * @param devices the identifiers of the devices to export
+   * @param from    the start of the time range, inclusive, or {@code null} for no start
+   * @param to      the end of the time range, exclusive, or {@code null} for no end
+   * @return the validated export
+   * @throws BadRequestException      if the devices or the time range are invalid
+   * @throws TooManyRequestsException if the maximum number of concurrent exports has been reached
+   */
+  TelemetryExportDTO reserve(Set<String> devices, Instant from, Instant to);
+
+  /**
+   * Writes the telemetry data records of the provided export, ordered by device and time, and
+   * frees its export slot. The records are streamed from the database, so the memory use does not
+   * depend on the number of records.
+   *
+   * @param export       the export returned by {@link #reserve}
+   * @param format       the format of the records
+   * @param outputStream the stream the records are written to, which is flushed but not closed
+   * @return the number of records written
+   * @throws IOException if the records cannot be written, e.g. when the client disconnects
+   */
+  long export(TelemetryExportDTO export, TelemetryExportFormat format, OutputStream outputStream)
+      throws IOException;
+
+  /**
+   * Frees the export slot of the provided export, unless it is already freed, so that it can be
+   * called whatever the outcome of the export, and more than once.
+   *
+   * @param export the export returned by {@link #reserve}
+   */
+  void release(TelemetryExportDTO export);
+}
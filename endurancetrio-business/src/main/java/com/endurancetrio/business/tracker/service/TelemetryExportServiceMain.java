@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryExportDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryExportFormat;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryExportRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryExportRepository.RowHandler;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * Service responsible for exporting the telemetry data history of a set of devices.
+ * <p>
+ * The records are read by the {@link DeviceTelemetryExportRepository} through a forward-only JDBC
+ * cursor and written to the output one at a time through a buffer, so neither the records nor
+ * their entities are ever held in memory. An export keeps a database connection for as long as
+ * the client takes to download it, so at most {@code app.telemetry.export.max-concurrent} exports
+ * run at the same time and each one is limited to {@code app.telemetry.export.max-devices}
+ * devices. The slot of an export is freed once, either when it is written or by {@link #release}
+ * when the response ends before it is written.
+ * <p>
+ * The devices are exported one after the other, and the archived records of each device are
+ * merged with its live records one day at a time, so that at most one day of archived records is
+ * held in memory. The export reads a single snapshot of the database, so that a record archived
+ * meanwhile is neither exported twice nor missed.
+ */
+@Service
+public class TelemetryExportServiceMain implements TelemetryExportService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TelemetryExportServiceMain.class);
+
+  // Bounds of the export time range when the request does not set them
+  private static final Instant EXPORT_START = Instant.EPOCH;
+  private static final Instant EXPORT_END = Instant.parse("9999-12-31T00:00:00Z");
+
+  private static final String CSV_HEADER = "device,record_time,latitude,longitude,active";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final DeviceTelemetryExportRepository exportRepository;
+  private final TelemetryArchiveService telemetryArchiveService;
+  private final ObjectWriter telemetryWriter;
+  private final int maxDevices;
+  private final Semaphore exportSlots;
+
+  // The exports holding a slot, by identity, so that each slot is freed exactly once
+  private final Set<TelemetryExportDTO> reserved =
+      Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+  @Autowired
+  public TelemetryExportServiceMain(
+      DeviceTelemetryExportRepository exportRepository,
+      TelemetryArchiveService telemetryArchiveService, ObjectMapper objectMapper,
+      @Value("${app.telemetry.export.max-devices:100}") int maxDevices,
+      @Value("${app.telemetry.export.max-concurrent:1}") int maxConcurrent
+  ) {
+    this.exportRepository = exportRepository;
+    this.telemetryArchiveService = telemetryArchiveService;
+    this.telemetryWriter = objectMapper.writerFor(DeviceTelemetryDTO.class);
+    this.maxDevices = maxDevices;
+    this.exportSlots = new Semaphore(maxConcurrent);
+  }
+
+  @Override
+  public TelemetryExportDTO reserve(Set<String> devices, Instant from, Instant to) {
+
+    Set<String> exported = devices == null ? Set.of() : devices.stream()
+        .filter(device -> device != null && !device.isBlank())
+        .map(String::trim)
+        .collect(Collectors.toUnmodifiableSet());
+
+    if (exported.isEmpty() || exported.size() > maxDevices) {
+      String errorMessage = String.format("Between 1 and %d devices must be exported", maxDevices);
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    Instant start = from == null ? EXPORT_START : from;
+    Instant end = to == null ? EXPORT_END : to;
+    if (!start.isBefore(end)) {
+      String errorMessage = "The start of the time range must be before its end";
+      LOG.warn(errorMessage);
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    if (!exportSlots.tryAcquire()) {
+      LOG.warn("Telemetry export refused: the maximum number of concurrent exports is running");
+      throw new TooManyRequestsException(EnduranceTrioError.TOO_MANY_REQUESTS);
+    }
+
+    TelemetryExportDTO export = new TelemetryExportDTO(exported, start, end);
+    reserved.add(export);
+    return export;
+  }
+
+  @Override
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public long export(
+      TelemetryExportDTO export, TelemetryExportFormat format, OutputStream outputStream
+  ) throws IOException {
+
+    try {
+      Writer writer = new BufferedWriter(
+          new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+      RowHandler rowHandler;
+      if (format == TelemetryExportFormat.CSV) {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        rowHandler = csvRowHandler(writer);
+      } else {
+        rowHandler = ndjsonRowHandler(writer);
+      }
+
+      long exported = 0;
+      try {
+        for (String device : new TreeSet<>(export.devices())) {
+          exported += exportDevice(device, export.from(), export.to(), rowHandler);
+        }
+      } catch (UncheckedIOException exception) {
+        throw exception.getCause();
+      }
+      writer.flush();
+
+      LOG.info("Exported {} telemetry data records of {} devices as {}", exported,
+          export.devices().size(), format
+      );
+      return exported;
+    } finally {
+      release(export);
+    }
+  }
+
+  @Override
+  public void release(TelemetryExportDTO export) {
+    if (reserved.remove(export)) {
+      exportSlots.release();
+    }
+  }
+
+  /**
+   * Exports the live and the archived records of a device, merged by record time. The archived
+   * records are decoded one day at a time, as the live records reach that day.
+   */
+  private long exportDevice(String device, Instant from, Instant to, RowHandler rowHandler)
+      throws IOException {
+
+    ArchivedRecords archived = new ArchivedRecords(device, from, to);
+    long exported = exportRepository.export(List.of(device), from, to,
+        (liveDevice, time, latitude, longitude, active) -> {
+          archived.writeBefore(TelemetryPoints.toMicros(time), rowHandler);
+          rowHandler.handle(liveDevice, time, latitude, longitude, active);
+        }
+    );
+    archived.writeBefore(Long.MAX_VALUE, rowHandler);
+    return exported + archived.written;
+  }
+
+  private RowHandler ndjsonRowHandler(Writer writer) {
+    return (device, time, latitude, longitude, active) -> {
+      writer.write(telemetryWriter.writeValueAsString(
+          new DeviceTelemetryDTO(device, time, latitude, longitude, active)));
+      writer.write('\n');
+    };
+  }
+
+  private static RowHandler csvRowHandler(Writer writer) {
+    return (device, time, latitude, longitude, active) -> {
+      writer.write(csvValue(device));
+      writer.write(',');
+      writer.write(time.toString());
+      writer.write(',');
+      writer.write(Double.toString(latitude));
+      writer.write(',');
+      writer.write(Double.toString(longitude));
+      writer.write(',');
+      writer.write(Boolean.toString(active));
+      writer.write('\n');
+    };
+  }
+
+  /**
+   * Quotes the provided value as defined by RFC 4180 when it contains a separator, a quote or a
+   * line break.
+   */
+  private static String csvValue(String value) {
+    if (value.chars().noneMatch(character -> ",\"\r\n".indexOf(character) >= 0)) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  /**
+   * Reads the archived records of a device in record time order, one day at a time.
+   */
+  private final class ArchivedRecords {
+
+    private final String device;
+    private final Instant from;
+    private final Instant to;
+    private final Iterator<LocalDate> days;
+    private final TelemetryPoints points = new TelemetryPoints();
+    private int next;
+    private long written;
+
+    private ArchivedRecords(String device, Instant from, Instant to) {
+      this.device = device;
+      this.from = from;
+      this.to = to;
+      this.days = telemetryArchiveService.findArchivedDays(device, from, to).iterator();
+    }
+
+    /**
+     * Writes the archived records recorded before the given time, in microseconds.
+     */
+    private void writeBefore(long time, RowHandler rowHandler) throws IOException {
+      while (hasNext() && points.time(next) < time) {
+        rowHandler.handle(device, TelemetryPoints.ofMicros(points.time(next)),
+            points.latitude(next), points.longitude(next), points.active(next)
+        );
+        next++;
+        written++;
+      }
+    }
+
+    private boolean hasNext() {
+      while (next == points.size() && days.hasNext()) {
+        Instant dayStart = days.next().atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant dayEnd = dayStart.plus(Duration.ofDays(1));
+        points.clear();
+        next = 0;
+        telemetryArchiveService.findArchived(device, dayStart.isBefore(from) ? from : dayStart,
+            dayEnd.isAfter(to) ? to : dayEnd, Integer.MAX_VALUE, points
+        );
+      }
+      return next < points.size();
+    }
+  }
+}
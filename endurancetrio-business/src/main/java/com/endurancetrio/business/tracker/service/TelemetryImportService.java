@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.TelemetryImportResultDTO;
+import java.io.InputStream;
+
+public interface TelemetryImportService {
+
+  /**
+   * Imports the historical telemetry data records of the provided CSV file for the specified
+   * owner.
+   * <p>
+   * The file must start with a header line and have the columns
+   * {@code device,record_time,latitude,longitude,active}, with {@code record_time} as an ISO-8601
+   * instant. The file is streamed straight into the database and the import is all or nothing: a
+   * file that cannot be parsed saves no records, while records with missing values or coordinates
+   * out of range, and records that are already saved, are skipped.
+   *
+   * @param owner       the owner of the telemetry data
+   * @param inputStream the UTF-8 encoded CSV file
+   * @return the {@link TelemetryImportResultDTO} with the result of the import
+   */
+  TelemetryImportResultDTO importCsv(String owner, InputStream inputStream);
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.TelemetryImportResultDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetryImportedEvent;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBulkRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBulkRepository.ImportSummary;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service responsible for the bulk import of historical telemetry data.
+ * <p>
+ * The import bypasses the JPA entities (and therefore the auditing callbacks) and hands the
+ * uploaded file to the {@link DeviceTelemetryBulkRepository}, which streams it into the database
+ * with the PostgreSQL {@code COPY} protocol. The whole import runs in a single transaction.
+ */
+@Service
+public class TelemetryImportServiceMain implements TelemetryImportService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TelemetryImportServiceMain.class);
+
+  private static final String INVALID_FILE_ERROR = "The telemetry import file is not valid CSV: %s";
+  private static final String UNREADABLE_FILE_ERROR = "The telemetry import file could not be read";
+
+  private final DeviceTelemetryBulkRepository bulkRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  public TelemetryImportServiceMain(
+      DeviceTelemetryBulkRepository bulkRepository, ApplicationEventPublisher eventPublisher
+  ) {
+    this.bulkRepository = bulkRepository;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  @Transactional
+  public TelemetryImportResultDTO importCsv(String owner, InputStream inputStream) {
+
+    ImportSummary summary;
+    try {
+      summary = bulkRepository.importCsv(
+          owner, new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    } catch (DataIntegrityViolationException exception) {
+      String cause = exception.getMostSpecificCause().getMessage();
+      LOG.warn("Telemetry import for owner {} rejected: {}", owner, cause);
+      throw new BadRequestException(
+          String.format(INVALID_FILE_ERROR, cause), EnduranceTrioError.BAD_REQUEST);
+    } catch (UncheckedIOException exception) {
+      LOG.warn("Telemetry import for owner {} aborted: {}", owner, exception.getMessage());
+      throw new BadRequestException(UNREADABLE_FILE_ERROR, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    LOG.info("Telemetry import for owner {}: {} received, {} imported", owner, summary.received(),
+        summary.imported()
+    );
+    eventPublisher.publishEvent(new DeviceTelemetryImportedEvent(owner, summary.imported()));
+
+    return new TelemetryImportResultDTO(
+        summary.received(), summary.imported(), summary.received() - summary.imported());
+  }
+}
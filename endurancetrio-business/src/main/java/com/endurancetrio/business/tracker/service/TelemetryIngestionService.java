@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+
+public interface TelemetryIngestionService {
+
+  /**
+   * Checks whether the telemetry data ingestion is asynchronous ("accepted" mode), meaning that
+   * the telemetry data must be enqueued with {@link #enqueue(String, DeviceTelemetryDTO)} instead
+   * of being saved directly.
+   *
+   * @return {@code true} if the telemetry data ingestion is asynchronous, {@code false} otherwise
+   */
+  boolean isAsynchronous();
+
+  /**
+   * Enqueues the provided, already validated, telemetry data for the specified owner to be saved
+   * asynchronously.
+   *
+   * @param owner              the owner of the telemetry data
+   * @param deviceTelemetryDTO the telemetry data to be saved
+   * @throws TooManyRequestsException if the ingestion queue is full or no longer accepting data
+   */
+  void enqueue(String owner, DeviceTelemetryDTO deviceTelemetryDTO);
+}
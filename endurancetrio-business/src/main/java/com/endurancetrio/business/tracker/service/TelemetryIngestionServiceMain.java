@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service responsible for the asynchronous ("accepted" mode) ingestion of telemetry data.
+ * <p>
+ * When the {@code app.telemetry.ingestion.mode} property is set to {@code accepted}, the
+ * telemetry data is enqueued into a bounded in-memory queue and a dedicated writer thread drains
+ * it, committing the queued records in groups. A group is committed when it reaches
+ * {@code app.telemetry.ingestion.max-batch-size} records or when
+ * {@code app.telemetry.ingestion.max-delay} has elapsed since its first record was taken from the
+ * queue, whichever comes first.
+ * <p>
+ * The records of a group are committed in a single transaction, whatever their owners. Since they
+ * were already accepted, when it fails the records of each owner are committed again in their own
+ * transaction, and the records of an owner whose transaction fails again are committed one by
+ * one, so that a record that cannot be saved does not lose the others; only the records that still
+ * fail are dropped, logged and counted.
+ * <p>
+ * When the queue is full the telemetry data is refused with a {@link TooManyRequestsException}, so
+ * that the clients back off. On shutdown the queue stops accepting telemetry data and the records
+ * still queued are committed before the application context is closed.
+ * <p>
+ * The queued records are kept in memory only, meaning that the records not yet committed are lost
+ * if the application terminates abruptly.
+ */
+@Service
+public class TelemetryIngestionServiceMain implements TelemetryIngestionService, SmartLifecycle {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TelemetryIngestionServiceMain.class);
+
+  private static final String MODE_ACCEPTED = "accepted";
+  private static final String WRITER_THREAD_NAME = "telemetry-writer";
+  private static final long POLL_TIMEOUT_MILLIS = 100L;
+  private static final long STOP_TIMEOUT_MILLIS = 30_000L;
+
+  /**
+   * Stops after the web server (and its graceful shutdown), so no new telemetry data is received
+   * while the queue is being drained.
+   */
+  private static final int LIFECYCLE_PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+  private final DeviceTelemetryService deviceTelemetryService;
+  private final boolean asynchronous;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final BlockingQueue<QueuedTelemetry> queue;
+
+  private final DistributionSummary commitBatchSize;
+  private final Timer ingestionLag;
+  private final Counter rejectedCounter;
+  private final Counter failedCounter;
+
+  private volatile boolean running;
+  private Thread writer;
+
+  @Autowired
+  public TelemetryIngestionServiceMain(
+      DeviceTelemetryService deviceTelemetryService, MeterRegistry meterRegistry,
+      @Value("${app.telemetry.ingestion.mode:sync}") String mode,
+      @Value("${app.telemetry.ingestion.queue-capacity:10000}") int queueCapacity,
+      @Value("${app.telemetry.ingestion.max-batch-size:500}") int maxBatchSize,
+      @Value("${app.telemetry.ingestion.max-delay:5ms}") Duration maxDelay
+  ) {
+    this.deviceTelemetryService = deviceTelemetryService;
+    this.asynchronous = MODE_ACCEPTED.equalsIgnoreCase(mode);
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    Gauge.builder("telemetry.ingestion.queue.depth", queue, Collection::size)
+        .description("Number of telemetry data records waiting to be committed")
+        .register(meterRegistry);
+    this.commitBatchSize = DistributionSummary.builder("telemetry.ingestion.commit.size")
+        .description("Number of telemetry data records committed per transaction")
+        .register(meterRegistry);
+    this.ingestionLag = Timer.builder("telemetry.ingestion.lag")
+        .description("Time between the enqueueing and the commit of telemetry data records")
+        .register(meterRegistry);
+    this.rejectedCounter = Counter.builder("telemetry.ingestion.rejected")
+        .description("Number of telemetry data records refused because the queue was full")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("telemetry.ingestion.failed")
+        .description("Number of queued telemetry data records that failed to be committed")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public boolean isAsynchronous() {
+    return asynchronous;
+  }
+
+  @Override
+  public void enqueue(String owner, DeviceTelemetryDTO deviceTelemetryDTO) {
+
+    QueuedTelemetry queuedTelemetry = new QueuedTelemetry(owner, deviceTelemetryDTO,
+        System.nanoTime()
+    );
+
+    if (!running || !queue.offer(queuedTelemetry)) {
+      rejectedCounter.increment();
+      LOG.warn("Telemetry data from owner {} refused: the ingestion queue is full or stopped",
+          owner
+      );
+      throw new TooManyRequestsException(EnduranceTrioError.TOO_MANY_REQUESTS);
+    }
+  }
+
+  @Override
+  public void start() {
+
+    if (!asynchronous) {
+      return;
+    }
+
+    running = true;
+    writer = Thread.ofPlatform().name(WRITER_THREAD_NAME).start(this::writeQueuedTelemetry);
+    LOG.info("Asynchronous telemetry ingestion started (batch size {}, max delay {} ms)",
+        maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxDelayNanos)
+    );
+  }
+
+  @Override
+  public void stop() {
+
+    running = false;
+
+    if (writer != null) {
+      try {
+        writer.join(STOP_TIMEOUT_MILLIS);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    // Commits any record enqueued while the writer thread was finishing
+    List<QueuedTelemetry> batch = new ArrayList<>(maxBatchSize);
+    while (queue.drainTo(batch, maxBatchSize) > 0) {
+      commit(batch);
+      batch.clear();
+    }
+
+    LOG.info("Asynchronous telemetry ingestion stopped");
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return LIFECYCLE_PHASE;
+  }
+
+  private void writeQueuedTelemetry() {
+
+    List<QueuedTelemetry> batch = new ArrayList<>(maxBatchSize);
+
+    while (running || !queue.isEmpty()) {
+      try {
+        collectBatch(batch);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        commit(batch);
+        return;
+      }
+
+      commit(batch);
+      batch.clear();
+    }
+  }
+
+  /**
+   * Collects queued records into the provided batch, waiting for the first record up to
+   * {@link #POLL_TIMEOUT_MILLIS} and then for more records until the batch is full or the maximum
+   * delay has elapsed.
+   */
+  private void collectBatch(List<QueuedTelemetry> batch) throws InterruptedException {
+
+    QueuedTelemetry first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return;
+    }
+    batch.add(first);
+
+    long deadline = System.nanoTime() + maxDelayNanos;
+    while (batch.size() < maxBatchSize) {
+      queue.drainTo(batch, maxBatchSize - batch.size());
+
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= maxBatchSize || remaining <= 0) {
+        return;
+      }
+
+      QueuedTelemetry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+    }
+  }
+
+  /**
+   * Commits the queued records in one transaction or, if it fails, owner by owner.
+   */
+  private void commit(List<QueuedTelemetry> batch) {
+
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    Map<String, List<QueuedTelemetry>> recordsByOwner = new LinkedHashMap<>();
+    Map<String, List<DeviceTelemetryDTO>> telemetryByOwner = new LinkedHashMap<>();
+    for (QueuedTelemetry queuedTelemetry : batch) {
+      recordsByOwner.computeIfAbsent(queuedTelemetry.owner(), owner -> new ArrayList<>())
+          .add(queuedTelemetry);
+      telemetryByOwner.computeIfAbsent(queuedTelemetry.owner(), owner -> new ArrayList<>())
+          .add(queuedTelemetry.telemetry());
+    }
+
+    try {
+      deviceTelemetryService.saveAllByOwner(telemetryByOwner);
+      recordCommitted(batch);
+      return;
+    } catch (RuntimeException exception) {
+      LOG.warn("Failed to commit {} queued telemetry data records from {} owners, retrying them "
+          + "owner by owner: {}", batch.size(), recordsByOwner.size(), exception.getMessage()
+      );
+    }
+
+    if (recordsByOwner.size() == 1) {
+      // The transaction of the only owner already failed
+      recordsByOwner.forEach(this::commitOneByOne);
+    } else {
+      recordsByOwner.forEach(this::commitOwner);
+    }
+  }
+
+  /**
+   * Commits the queued records of an owner in one transaction, or one by one if it fails.
+   */
+  private void commitOwner(String owner, List<QueuedTelemetry> records) {
+
+    List<DeviceTelemetryDTO> telemetry = records.stream().map(QueuedTelemetry::telemetry).toList();
+
+    try {
+      deviceTelemetryService.saveAllByOwner(Map.of(owner, telemetry));
+      recordCommitted(records);
+      return;
+    } catch (RuntimeException exception) {
+      LOG.warn("Failed to commit {} queued telemetry data records from owner {}, retrying them one "
+          + "by one: {}", records.size(), owner, exception.getMessage()
+      );
+    }
+
+    commitOneByOne(owner, records);
+  }
+
+  private void commitOneByOne(String owner, List<QueuedTelemetry> records) {
+
+    for (QueuedTelemetry queuedTelemetry : records) {
+      try {
+        deviceTelemetryService.save(owner, queuedTelemetry.telemetry());
+        recordCommitted(List.of(queuedTelemetry));
+      } catch (RuntimeException exception) {
+        failedCounter.increment();
+        LOG.error("Failed to commit the queued telemetry data record {} from owner {}: {}",
+            queuedTelemetry.telemetry(), owner, exception.getMessage()
+        );
+      }
+    }
+  }
+
+  private void recordCommitted(List<QueuedTelemetry> records) {
+
+    long committedAt = System.nanoTime();
+    commitBatchSize.record(records.size());
+    for (QueuedTelemetry queuedTelemetry : records) {
+      ingestionLag.record(committedAt - queuedTelemetry.enqueuedAt(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private record QueuedTelemetry(String owner, DeviceTelemetryDTO telemetry, long enqueuedAt) {}
+}
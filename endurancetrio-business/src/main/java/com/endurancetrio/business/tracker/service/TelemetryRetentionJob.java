@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.service.TelemetryRetentionService.Chunk;
+import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service responsible for applying the telemetry retention policy of each tracker account.
+ * <p>
+ * On the configured schedule, the raw telemetry data records older than the
+ * {@link TrackerAccount#getRawRetentionDays() raw retention} of their account are rolled up into
+ * {@code app.telemetry.retention.rollup-interval} buckets and deleted, and the rollups older than
+ * the {@link TrackerAccount#getRollupRetentionDays() rollup retention} are deleted. The records
+ * are deleted without being rolled up when the rollup retention is not longer than the raw
+ * retention. The archived records are handled the same way, one block at a time.
+ * <p>
+ * The work is done in chunks of about {@code app.telemetry.retention.chunk-size} rows, each in its
+ * own transaction and followed by a pause of {@code app.telemetry.retention.chunk-pause}, so that
+ * the job never holds long locks nor produces bursts of write-ahead log. The records deleted, the
+ * rollups written and deleted and the duration of each run are published as metrics.
+ */
+@Service
+public class TelemetryRetentionJob {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TelemetryRetentionJob.class);
+
+  private final TrackerAccountRepository trackerAccountRepository;
+  private final TelemetryRetentionService telemetryRetentionService;
+  private final long chunkPauseMillis;
+
+  private final Counter recordsCounter;
+  private final Counter rollupsWrittenCounter;
+  private final Counter rollupsDeletedCounter;
+  private final Timer duration;
+
+  @Autowired
+  public TelemetryRetentionJob(
+      TrackerAccountRepository trackerAccountRepository,
+      TelemetryRetentionService telemetryRetentionService, MeterRegistry meterRegistry,
+      @Value("${app.telemetry.retention.chunk-pause:50ms}") Duration chunkPause
+  ) {
+    this.trackerAccountRepository = trackerAccountRepository;
+    this.telemetryRetentionService = telemetryRetentionService;
+    this.chunkPauseMillis = chunkPause.toMillis();
+
+    this.recordsCounter = Counter.builder("telemetry.retention.records")
+        .description("Number of raw telemetry data records deleted by the retention job")
+        .register(meterRegistry);
+    this.rollupsWrittenCounter = Counter.builder("telemetry.retention.rollups.written")
+        .description("Number of telemetry rollups written by the retention job")
+        .register(meterRegistry);
+    this.rollupsDeletedCounter = Counter.builder("telemetry.retention.rollups.deleted")
+        .description("Number of expired telemetry rollups deleted by the retention job")
+        .register(meterRegistry);
+    this.duration = Timer.builder("telemetry.retention.duration")
+        .description("Duration of the runs of the retention job")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Applies the retention policy of every tracker account on the configured schedule.
+   */
+  @Scheduled(cron = "${app.telemetry.retention.cron:0 30 3 * * *}", zone = "UTC")
+  public void applyRetention() {
+    duration.record(() -> applyRetention(Instant.now()));
+  }
+
+  void applyRetention(Instant now) {
+
+    for (TrackerAccount account : trackerAccountRepository.findAll()) {
+      try {
+        applyRetention(account, now);
+      } catch (DataAccessException exception) {
+        LOG.error("Telemetry retention of account {} failed:", account.getOwner(), exception);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        LOG.warn("Telemetry retention interrupted");
+        return;
+      }
+    }
+  }
+
+  private void applyRetention(TrackerAccount account, Instant now) throws InterruptedException {
+
+    String owner = account.getOwner();
+    Integer rawRetentionDays = account.getRawRetentionDays();
+    Integer rollupRetentionDays = account.getRollupRetentionDays();
+
+    if (rawRetentionDays != null) {
+      Instant before = now.minus(Duration.ofDays(rawRetentionDays));
+      boolean rollUp = rollupRetentionDays == null || rollupRetentionDays > rawRetentionDays;
+      long records = 0;
+      long rollups = 0;
+
+      for (String device : telemetryRetentionService.findDevices(owner)) {
+        Chunk chunk = telemetryRetentionService.purgeExpiredRecords(owner, device, before, rollUp);
+        while (chunk.records() > 0) {
+          recordsCounter.increment(chunk.records());
+          rollupsWrittenCounter.increment(chunk.rollups());
+          records += chunk.records();
+          rollups += chunk.rollups();
+          pause();
+          chunk = telemetryRetentionService.purgeExpiredRecords(owner, device, before, rollUp);
+        }
+
+        chunk = telemetryRetentionService.purgeExpiredBlock(owner, device, before, rollUp);
+        while (chunk.records() > 0) {
+          recordsCounter.increment(chunk.records());
+          rollupsWrittenCounter.increment(chunk.rollups());
+          records += chunk.records();
+          rollups += chunk.rollups();
+          pause();
+          chunk = telemetryRetentionService.purgeExpiredBlock(owner, device, before, rollUp);
+        }
+      }
+
+      if (records > 0) {
+        LOG.info("Telemetry retention of account {}: {} records deleted, {} rollups written",
+            account.getOwner(), records, rollups
+        );
+      }
+    }
+
+    if (rollupRetentionDays != null) {
+      Instant before = now.minus(Duration.ofDays(rollupRetentionDays));
+      long rollups = 0;
+
+      int deleted = telemetryRetentionService.purgeExpiredRollups(account.getOwner(), before);
+      while (deleted > 0) {
+        rollupsDeletedCounter.increment(deleted);
+        rollups += deleted;
+        pause();
+        deleted = telemetryRetentionService.purgeExpiredRollups(account.getOwner(), before);
+      }
+
+      if (rollups > 0) {
+        LOG.info("Telemetry retention of account {}: {} rollups deleted", account.getOwner(),
+            rollups
+        );
+      }
+    }
+  }
+
+  private void pause() throws InterruptedException {
+    if (chunkPauseMillis > 0) {
+      Thread.sleep(chunkPauseMillis);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TelemetryRetentionService {
+
+  /**
+   * Finds the devices with telemetry data records, live or archived, of an account.
+   *
+   * @param account the account owner
+   * @return the device identifiers, ordered by identifier
+   */
+  List<String> findDevices(String account);
+
+  /**
+   * Rolls up and deletes one chunk of the oldest expired telemetry data records of a device of an
+   * account, in its own transaction. The chunk holds about
+   * {@code app.telemetry.retention.chunk-size} records and ends on a rollup bucket boundary, so
+   * that no bucket is split between two chunks. The latest active record of the device is always
+   * kept.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param before  the retention limit, exclusive, rounded down to a rollup bucket boundary
+   * @param rollUp  whether the records are rolled up before being deleted
+   * @return the numbers of records deleted and rollups written, both {@code 0} when the device has
+   * no more expired records
+   */
+  Chunk purgeExpiredRecords(String account, String device, Instant before, boolean rollUp);
+
+  /**
+   * Rolls up and deletes the expired telemetry data records of the oldest archived block of a
+   * device of an account holding any, in its own transaction. The block is deleted once all its
+   * records are expired, and otherwise saved with the records left.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param before  the retention limit, exclusive, rounded down to a rollup bucket boundary
+   * @param rollUp  whether the records are rolled up before being deleted
+   * @return the numbers of records deleted and rollups written, both {@code 0} when the device has
+   * no more expired archived records
+   */
+  Chunk purgeExpiredBlock(String account, String device, Instant before, boolean rollUp);
+
+  /**
+   * Deletes one chunk of the oldest expired rollups of an account, in its own transaction.
+   *
+   * @param account the account owner
+   * @param before  the retention limit, exclusive
+   * @return the number of rollups deleted, {@code 0} when the account has no more expired rollups
+   */
+  int purgeExpiredRollups(String account, Instant before);
+
+  /**
+   * The outcome of the purge of a chunk of telemetry data records.
+   *
+   * @param records the number of telemetry data records deleted
+   * @param rollups the number of rollups written
+   */
+  record Chunk(int records, int rollups) {
+
+  }
+}
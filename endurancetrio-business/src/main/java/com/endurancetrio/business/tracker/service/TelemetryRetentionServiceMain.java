@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.archive.TelemetryBlockCodec;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRetentionRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRetentionRepository.Rollup;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository.Block;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class TelemetryRetentionServiceMain implements TelemetryRetentionService {
+
+  private final DeviceTelemetryRetentionRepository retentionRepository;
+  private final TelemetryBlockRepository blockRepository;
+  private final int chunkSize;
+  private final Duration rollupInterval;
+
+  @Autowired
+  public TelemetryRetentionServiceMain(
+      DeviceTelemetryRetentionRepository retentionRepository,
+      TelemetryBlockRepository blockRepository,
+      @Value("${app.telemetry.retention.chunk-size:5000}") int chunkSize,
+      @Value("${app.telemetry.retention.rollup-interval:1m}") Duration rollupInterval
+  ) {
+    if (rollupInterval.toSeconds() <= 0 || rollupInterval.toNanosPart() != 0) {
+      throw new IllegalArgumentException("The telemetry rollup interval must be whole seconds");
+    }
+    this.retentionRepository = retentionRepository;
+    this.blockRepository = blockRepository;
+    this.chunkSize = chunkSize;
+    this.rollupInterval = rollupInterval;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<String> findDevices(String account) {
+    return retentionRepository.findDevices(account);
+  }
+
+  @Override
+  @Transactional
+  public Chunk purgeExpiredRecords(String account, String device, Instant before, boolean rollUp) {
+
+    Instant limit = toBucketStart(before);
+    Optional<Instant> oldest = retentionRepository.findExpiredRecordTime(account, device, limit, 0);
+    if (oldest.isEmpty()) {
+      return new Chunk(0, 0);
+    }
+
+    // The chunk ends at the bucket of the record following the chunk, or after the bucket of the
+    // oldest record when that bucket alone holds more records than a chunk
+    Instant end = retentionRepository.findExpiredRecordTime(account, device, limit, chunkSize)
+        .map(this::toBucketStart)
+        .orElse(limit);
+    Instant firstBucketEnd = toBucketStart(oldest.get()).plus(rollupInterval);
+    if (end.isBefore(firstBucketEnd)) {
+      end = firstBucketEnd;
+    }
+
+    int rollups = rollUp ? retentionRepository.rollUp(account, device, end, rollupInterval) : 0;
+    int records = retentionRepository.deleteExpiredRecords(account, device, end);
+    return new Chunk(records, rollups);
+  }
+
+  @Override
+  @Transactional
+  public Chunk purgeExpiredBlock(String account, String device, Instant before, boolean rollUp) {
+
+    Instant limit = toBucketStart(before);
+    Optional<Block> oldest = blockRepository.findOldestBlock(account, device, limit);
+    if (oldest.isEmpty()) {
+      return new Chunk(0, 0);
+    }
+
+    Block block = oldest.get();
+    TelemetryPoints points = new TelemetryPoints();
+    TelemetryBlockCodec.decode(block.data(), points);
+
+    // The records are ordered by time, so the expired ones come first
+    long end = TelemetryPoints.toMicros(limit);
+    int expired = 0;
+    while (expired < points.size() && points.time(expired) < end) {
+      expired++;
+    }
+
+    int rollups = rollUp ? retentionRepository.mergeRollups(
+        toRollups(account, device, points, expired)) : 0;
+
+    if (expired == points.size()) {
+      blockRepository.deleteBlock(account, device, block.day());
+    } else {
+      TelemetryPoints kept = new TelemetryPoints();
+      for (int i = expired; i < points.size(); i++) {
+        kept.add(points, i);
+      }
+      blockRepository.save(new Block(device, block.day(), account,
+          TelemetryPoints.ofMicros(kept.time(0)),
+          TelemetryPoints.ofMicros(kept.time(kept.size() - 1)), kept.size(),
+          TelemetryBlockCodec.encode(kept)
+      ));
+    }
+    return new Chunk(expired, rollups);
+  }
+
+  @Override
+  @Transactional
+  public int purgeExpiredRollups(String account, Instant before) {
+    return retentionRepository.deleteExpiredRollups(account, before, chunkSize);
+  }
+
+  /**
+   * Rolls up the first records of the given instance into buckets of the rollup interval, aligned
+   * on the epoch like the buckets of the raw records.
+   */
+  private List<Rollup> toRollups(String account, String device, TelemetryPoints points, int count) {
+
+    long bucketMicros = rollupInterval.toSeconds() * 1_000_000L;
+    List<Rollup> rollups = new ArrayList<>();
+
+    int first = 0;
+    while (first < count) {
+      long bucket = Math.floorDiv(points.time(first), bucketMicros) * bucketMicros;
+      double latitude = 0;
+      double longitude = 0;
+      boolean active = false;
+      int last = first;
+      while (last < count && points.time(last) < bucket + bucketMicros) {
+        latitude += points.latitude(last);
+        longitude += points.longitude(last);
+        active |= points.active(last);
+        last++;
+      }
+
+      int merged = last - first;
+      rollups.add(new Rollup(account, device, TelemetryPoints.ofMicros(bucket),
+          latitude / merged, longitude / merged, active, merged
+      ));
+      first = last;
+    }
+    return rollups;
+  }
+
+  private Instant toBucketStart(Instant time) {
+    long seconds = rollupInterval.toSeconds();
+    return Instant.ofEpochSecond(Math.floorDiv(time.getEpochSecond(), seconds) * seconds);
+  }
+}
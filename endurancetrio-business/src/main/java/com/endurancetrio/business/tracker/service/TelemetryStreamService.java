@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.TelemetryStreamResultDTO;
+import java.io.InputStream;
+
+public interface TelemetryStreamService {
+
+  /**
+   * Saves the telemetry data records read from the provided NDJSON (newline delimited JSON)
+   * stream for the specified owner.
+   * <p>
+   * The stream is read incrementally, one record per line, and the valid records are saved in
+   * chunks while the stream is still being read, each chunk in its own transaction. The invalid
+   * records are reported as rejected, together with their line number, and the records that are
+   * already saved are counted as duplicated.
+   *
+   * @param owner       the owner of the telemetry data
+   * @param inputStream the UTF-8 encoded NDJSON stream of telemetry data records
+   * @return the {@link TelemetryStreamResultDTO} with the processing result of the stream
+   */
+  TelemetryStreamResultDTO save(String owner, InputStream inputStream);
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryRejectionDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryStreamResultDTO;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+/**
+ * Service responsible for saving NDJSON (newline delimited JSON) streams of telemetry data.
+ * <p>
+ * The stream is read line by line, each line is parsed on its own and the valid records are saved
+ * in chunks of {@code app.telemetry.stream.chunk-size} records. Only the current line and the
+ * current chunk are kept in memory, so the memory use does not depend on the stream size.
+ * <p>
+ * Lines longer than {@code app.telemetry.stream.max-line-length} characters are rejected without
+ * being parsed, and only the first {@code app.telemetry.stream.max-reported-rejections} rejected
+ * records are detailed in the result.
+ */
+@Service
+public class TelemetryStreamServiceMain implements TelemetryStreamService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TelemetryStreamServiceMain.class);
+
+  private static final String MALFORMED_RECORD_ERROR = "Telemetry data record is not valid JSON";
+  private static final String NULL_RECORD_ERROR = "Telemetry data record cannot be null";
+  private static final String LONG_RECORD_ERROR = "Telemetry data record exceeds %d characters";
+
+  @Value("${app.telemetry.stream.chunk-size:500}")
+  private int chunkSize;
+
+  @Value("${app.telemetry.stream.max-line-length:4096}")
+  private int maxLineLength;
+
+  @Value("${app.telemetry.stream.max-reported-rejections:100}")
+  private int maxReportedRejections;
+
+  private final DeviceTelemetryService deviceTelemetryService;
+  private final ObjectReader telemetryReader;
+  private final Validator validator;
+
+  @Autowired
+  public TelemetryStreamServiceMain(
+      DeviceTelemetryService deviceTelemetryService, ObjectMapper objectMapper, Validator validator
+  ) {
+    this.deviceTelemetryService = deviceTelemetryService;
+    this.telemetryReader = objectMapper.readerFor(DeviceTelemetryDTO.class);
+    this.validator = validator;
+  }
+
+  @Override
+  public TelemetryStreamResultDTO save(String owner, InputStream inputStream) {
+
+    long received = 0;
+    long valid = 0;
+    long accepted = 0;
+    long lineNumber = 0;
+    List<TelemetryRejectionDTO> rejections = new ArrayList<>();
+    List<DeviceTelemetryDTO> chunk = new ArrayList<>(chunkSize);
+
+    LineReader lineReader = new LineReader(
+        new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)),
+        maxLineLength
+    );
+
+    try {
+      while (lineReader.next()) {
+        lineNumber++;
+        if (lineReader.isBlank()) {
+          continue;
+        }
+        received++;
+
+        List<String> errors = new ArrayList<>();
+        DeviceTelemetryDTO deviceTelemetryDTO = parse(lineReader, errors);
+
+        if (!errors.isEmpty()) {
+          if (rejections.size() < maxReportedRejections) {
+            rejections.add(new TelemetryRejectionDTO(lineNumber, errors));
+          }
+          continue;
+        }
+
+        valid++;
+        chunk.add(deviceTelemetryDTO);
+        if (chunk.size() >= chunkSize) {
+          accepted += flush(owner, chunk);
+        }
+      }
+    } catch (IOException exception) {
+      String errorMessage = String.format(
+          "The telemetry stream could not be read after line %d (%d records saved)", lineNumber,
+          accepted
+      );
+      LOG.warn("{}: {}", errorMessage, exception.getMessage());
+      throw new BadRequestException(errorMessage, EnduranceTrioError.BAD_REQUEST);
+    }
+
+    accepted += flush(owner, chunk);
+    long duplicated = valid - accepted;
+
+    LOG.debug("Telemetry stream for owner {}: {} received, {} accepted, {} duplicated", owner,
+        received, accepted, duplicated
+    );
+
+    return new TelemetryStreamResultDTO(received, accepted, duplicated, received - valid,
+        rejections
+    );
+  }
+
+  private DeviceTelemetryDTO parse(LineReader lineReader, List<String> errors) {
+
+    if (lineReader.isTruncated()) {
+      errors.add(String.format(LONG_RECORD_ERROR, maxLineLength));
+      return null;
+    }
+
+    DeviceTelemetryDTO deviceTelemetryDTO;
+    try {
+      deviceTelemetryDTO = telemetryReader.readValue(lineReader.line());
+    } catch (JacksonException exception) {
+      errors.add(MALFORMED_RECORD_ERROR);
+      return null;
+    }
+
+    if (deviceTelemetryDTO == null) {
+      errors.add(NULL_RECORD_ERROR);
+      return null;
+    }
+
+    validator.validate(deviceTelemetryDTO).forEach(violation -> errors.add(violation.getMessage()));
+    errors.sort(null);
+
+    return deviceTelemetryDTO;
+  }
+
+  private int flush(String owner, List<DeviceTelemetryDTO> chunk) {
+
+    if (chunk.isEmpty()) {
+      return 0;
+    }
+
+    int saved = deviceTelemetryService.saveAllByOwner(Map.of(owner, List.copyOf(chunk)));
+    chunk.clear();
+
+    return saved;
+  }
+
+  /**
+   * Reads a stream line by line, keeping at most {@code maxLength} characters of each line.
+   */
+  private static final class LineReader {
+
+    private final Reader reader;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+    private boolean truncated;
+
+    private LineReader(Reader reader, int maxLength) {
+      this.reader = reader;
+      this.maxLength = maxLength;
+    }
+
+    private boolean next() throws IOException {
+
+      line.setLength(0);
+      truncated = false;
+
+      int character = reader.read();
+      if (character == -1) {
+        return false;
+      }
+
+      while (character != -1 && character != '\n') {
+        if (character != '\r') {
+          if (line.length() < maxLength) {
+            line.append((char) character);
+          } else {
+            truncated = true;
+          }
+        }
+        character = reader.read();
+      }
+
+      return true;
+    }
+
+    private String line() {
+      return line.toString();
+    }
+
+    private boolean isBlank() {
+      return !truncated && line.toString().isBlank();
+    }
+
+    private boolean isTruncated() {
+      return truncated;
+    }
+  }
+}
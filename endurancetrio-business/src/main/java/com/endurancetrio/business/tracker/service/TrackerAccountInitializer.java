@@ -20,14 +20,19 @@
 
 package com.endurancetrio.business.tracker.service;
 
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
 import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
 import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,13 +43,23 @@
  * This service checks for the presence of environment variables {@code FIRST_OWNER} and
  * {@code FIRST_HASH} during application startup. If both variables are provided and valid, it
  * creates the initial tracker account in the database. If an account with the provided owner name
- * already exists in the database, its key hash will be overridden with the provided key hash.
+ * already exists in the database, its key hash will be overridden with the provided key hash and,
+ * when the hash differs, a {@link TrackerAccountChangedEvent} is published, so that the keys
+ * verified with the old hash and the session tokens issued before are no longer accepted.
+ * <p>
+ * The key hash may be a BCrypt hash, with or without the {@code {bcrypt}} prefix, or an
+ * HMAC-SHA-256 hash with the {@code {hmac-sha256}} prefix, which is only accepted when
+ * {@code app.auth.key-hmac-secret} is set to the secret it was computed with.
  */
 @Service
 public class TrackerAccountInitializer {
 
   private static final Logger LOG = LoggerFactory.getLogger(TrackerAccountInitializer.class);
 
+  private static final Pattern BCRYPT_HASH = Pattern.compile(
+      "(\\{bcrypt})?\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+  private static final Pattern HMAC_HASH = Pattern.compile("\\{hmac-sha256}[A-Za-z0-9+/]{43}=");
+
   @Value("${app.initialization.first-account-owner}")
   private String firstOwner;
 
@@ -53,9 +68,14 @@ public class TrackerAccountInitializer {
 
   private final TrackerAccountRepository trackerAccountRepository;
 
+  private final ApplicationEventPublisher eventPublisher;
+
   @Autowired
-  public TrackerAccountInitializer(TrackerAccountRepository trackerAccountRepository) {
+  public TrackerAccountInitializer(
+      TrackerAccountRepository trackerAccountRepository, ApplicationEventPublisher eventPublisher
+  ) {
     this.trackerAccountRepository = trackerAccountRepository;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -66,6 +86,7 @@ public TrackerAccountInitializer(TrackerAccountRepository trackerAccountReposito
    * <p>
    * <ol>
    *   <li>Validates that both owner and hash configuration are present</li>
+   *   <li>Validates that the hash is a BCrypt or an HMAC-SHA-256 hash</li>
    *   <li>Checks if an account with the same owner already exists</li>
    *   <li>Updates the key hash if an account with the same owner already exists</li>
    *   <li>Creates and persists the new tracker account if none exists with the provided owner</li>
@@ -85,19 +106,32 @@ public void accountInitializer() {
       return;
     }
 
+    if (!isFirstHashValid()) {
+      LOG.warn("Account initialization skipped: The first key hash is neither a BCrypt hash nor a "
+          + "{hmac-sha256} hash.");
+      return;
+    }
+
     Optional<TrackerAccount> accountOptional = trackerAccountRepository.findByOwner(firstOwner);
 
     TrackerAccount firstAccount;
+    boolean keyReplaced = false;
     if (accountOptional.isPresent()) {
       LOG.info("Account initialization will override existing key hash.");
       firstAccount = accountOptional.get();
+      keyReplaced = !firstHash.equals(firstAccount.getKey());
       firstAccount.setKey(firstHash);
     } else {
       firstAccount = new TrackerAccount(firstOwner, firstHash, true);
     }
 
     try {
+      Instant changedAt = Instant.now();
       trackerAccountRepository.save(firstAccount);
+      if (keyReplaced) {
+        eventPublisher.publishEvent(
+            new TrackerAccountChangedEvent(firstOwner, Change.KEY_REPLACED, changedAt));
+      }
     } catch (Exception exception) {
       LOG.error("Account initialization failed:", exception);
     }
@@ -112,4 +146,8 @@ private boolean isFirstOwnerConfigured() {
   private boolean isFirstHashConfigured() {
     return firstHash != null && !firstHash.trim().isEmpty();
   }
+
+  private boolean isFirstHashValid() {
+    return BCRYPT_HASH.matcher(firstHash).matches() || HMAC_HASH.matcher(firstHash).matches();
+  }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.dto.TrackerAccountDTO;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
+import com.endurancetrio.business.tracker.mapper.TrackerAccountMapper;
+import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory snapshot of the tracker accounts, so that the key of a request is validated without a
+ * database connection.
+ * <p>
+ * The accounts are loaded as soon as the application is ready, and refreshed:
+ * <ul>
+ *   <li>for an account changed by the application, on its committed
+ *   {@link TrackerAccountChangedEvent};</li>
+ *   <li>for the accounts created, changed or deleted directly in the database, every
+ *   {@code app.auth.accounts.refresh-interval}, by reading all the accounts again and comparing
+ *   them with the ones in memory, so that a change is found whatever columns it sets.</li>
+ * </ul>
+ * A {@link TrackerAccountChangedEvent} is published for each account found changed in the
+ * database, once the accounts in memory are updated, so that its cached keys are dropped and, for a
+ * new key, a disabled or a deleted account, its session tokens revoked, as if it was changed by the
+ * application. A key hash rewritten in the current encoding by another instance cannot be told
+ * from a new key, so it revokes the session tokens of the account on this instance.
+ * <p>
+ * Until the accounts are loaded, they are read from the database. The number of accounts in memory
+ * is exported as the {@code tracker.auth.accounts} gauge.
+ */
+@Component
+public class TrackerAccountRegistry {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TrackerAccountRegistry.class);
+
+  private final TrackerAccountRepository repository;
+  private final TrackerAccountMapper trackerAccountMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final Map<String, TrackerAccountDTO> accounts = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+
+  public TrackerAccountRegistry(
+      TrackerAccountRepository repository, TrackerAccountMapper trackerAccountMapper,
+      ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry
+  ) {
+    this.repository = repository;
+    this.trackerAccountMapper = trackerAccountMapper;
+    this.eventPublisher = eventPublisher;
+
+    Gauge.builder("tracker.auth.accounts", accounts, Map::size)
+        .description("Tracker accounts held in memory")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Finds an account, in memory once the accounts are loaded.
+   *
+   * @param owner the owner of the account
+   * @return the account, or empty if there is no account for the owner
+   */
+  public Optional<TrackerAccountDTO> find(String owner) {
+
+    if (!loaded) {
+      return repository.findByOwner(owner).map(trackerAccountMapper::map);
+    }
+    return Optional.ofNullable(accounts.get(owner));
+  }
+
+  /**
+   * Loads the accounts as soon as the application is ready. It runs outside a transaction, so that
+   * a database that cannot be read is only logged, and the accounts keep being read from the
+   * database until a refresh loads them.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadAccounts() {
+
+    try {
+      reload();
+    } catch (DataAccessException exception) {
+      LOG.error("The tracker accounts could not be loaded on startup: {}", exception.getMessage());
+    }
+  }
+
+  /**
+   * Refreshes the accounts changed directly in the database.
+   */
+  @Scheduled(
+      fixedDelayString = "${app.auth.accounts.refresh-interval:30s}",
+      initialDelayString = "${app.auth.accounts.refresh-interval:30s}"
+  )
+  public void refreshAccounts() {
+
+    try {
+      reload();
+    } catch (DataAccessException exception) {
+      LOG.error("The tracker accounts could not be refreshed: {}", exception.getMessage());
+    }
+  }
+
+  /**
+   * Refreshes an account changed by the application. The changes found in the database by this
+   * registry are already in memory and are not read again.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTrackerAccountChanged(TrackerAccountChangedEvent event) {
+
+    if (!loaded || event.fromDatabase()) {
+      return;
+    }
+
+    try {
+      Optional<TrackerAccount> account = repository.findByOwner(event.owner());
+      synchronized (this) {
+        update(event.owner(), account);
+      }
+    } catch (DataAccessException exception) {
+      LOG.error("The tracker account '{}' could not be refreshed: {}", event.owner(),
+          exception.getMessage()
+      );
+    }
+  }
+
+  /**
+   * Replaces the accounts in memory with all the accounts of the database, then publishes a
+   * {@link TrackerAccountChangedEvent} for each account created, changed or deleted since the
+   * previous load, outside the lock so that the listeners never run while holding it. The changes
+   * are dated before the accounts are read, so they cover everything issued with the accounts
+   * previously in memory.
+   */
+  private void reload() {
+
+    Map<String, Change> changes = new LinkedHashMap<>();
+    boolean publishChanges;
+    Instant changedAt = Instant.now();
+    synchronized (this) {
+      publishChanges = loaded;
+
+      Map<String, TrackerAccount> byOwner = new HashMap<>();
+      for (TrackerAccount account : repository.findAll()) {
+        byOwner.put(account.getOwner(), account);
+      }
+
+      Set<String> owners = new HashSet<>(accounts.keySet());
+      owners.addAll(byOwner.keySet());
+      for (String owner : owners) {
+        Change change = update(owner, Optional.ofNullable(byOwner.get(owner)));
+        if (change != null) {
+          changes.put(owner, change);
+        }
+      }
+
+      if (!loaded) {
+        loaded = true;
+        LOG.info("{} tracker accounts loaded", accounts.size());
+      }
+    }
+
+    if (publishChanges) {
+      changes.forEach((owner, change) -> {
+        LOG.info("Tracker account '{}' changed in the database: {}", owner, change);
+        eventPublisher.publishEvent(
+            new TrackerAccountChangedEvent(owner, change, changedAt, true));
+      });
+    }
+  }
+
+  /**
+   * Replaces an account in memory.
+   *
+   * @return the change made to the account, or {@code null} if it did not change
+   */
+  private Change update(String owner, Optional<TrackerAccount> account) {
+
+    TrackerAccountDTO current = account.map(trackerAccountMapper::map).orElse(null);
+    TrackerAccountDTO previous = current == null
+        ? accounts.remove(owner)
+        : accounts.put(owner, current);
+
+    if (Objects.equals(previous, current)) {
+      return null;
+    }
+    if (previous == null) {
+      return Change.CREATED;
+    }
+    if (current == null) {
+      return Change.DELETED;
+    }
+    // A hash rewritten by another instance cannot be told from a new key, so it counts as one
+    if (!previous.key().equals(current.key())) {
+      return Change.KEY_REPLACED;
+    }
+    return current.enabled() ? Change.ENABLED : Change.DISABLED;
+  }
+}
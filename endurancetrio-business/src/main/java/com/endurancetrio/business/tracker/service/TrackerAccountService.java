@@ -20,6 +20,7 @@
 
 package com.endurancetrio.business.tracker.service;
 
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
 import com.endurancetrio.business.tracker.dto.TrackerAccountDTO;
 
 public interface TrackerAccountService {
@@ -38,6 +39,8 @@ public interface TrackerAccountService {
    * @param owner the owner of the key
    * @param key   the key to validate
    * @return true if the provided key is valid and the account is enabled, false otherwise
+   * @throws TooManyRequestsException if the owner failed too often and the key could only be
+   *                                  verified against its BCrypt hash
    */
   boolean validateKey(String owner, String key);
 }
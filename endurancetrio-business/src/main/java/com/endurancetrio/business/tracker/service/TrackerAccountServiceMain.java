@@ -21,20 +21,45 @@
 package com.endurancetrio.business.tracker.service;
 
 import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
 import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.common.security.HmacKeyEncoder;
 import com.endurancetrio.business.tracker.dto.TrackerAccountDTO;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
 import com.endurancetrio.business.tracker.mapper.TrackerAccountMapper;
 import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
 import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Service of the tracker accounts.
+ * <p>
+ * The keys are validated against the accounts of the {@link TrackerAccountRegistry}, held in
+ * memory, so that validating a key does not take a database connection.
+ * <p>
+ * The keys hashed with the {@link HmacKeyEncoder} are verified directly, in well under a
+ * microsecond. The keys still hashed with BCrypt are verified against their hash only when they are
+ * not found in the {@link VerifiedKeyCache}, and once verified, their hash is upgraded to the
+ * encoding of the {@link PasswordEncoder} when it reports that an upgrade is needed and the key
+ * has at least {@value HmacKeyEncoder#MIN_KEY_LENGTH} characters. The time of each key
+ * verification is exported as the {@code tracker.auth.verification} timer, tagged with the
+ * {@code method} used: {@code hmac}, {@code cache} or {@code bcrypt}.
+ * <p>
+ * The owners without an account are reported to the {@link AuthFailureGuard}, which rejects their
+ * next requests without looking them up.
+ */
 @Service
 public class TrackerAccountServiceMain implements TrackerAccountService {
 
@@ -46,14 +71,38 @@ public class TrackerAccountServiceMain implements TrackerAccountService {
 
   private final PasswordEncoder passwordEncoder;
 
+  private final VerifiedKeyCache verifiedKeyCache;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final AuthFailureGuard authFailureGuard;
+
+  private final TrackerAccountRegistry trackerAccountRegistry;
+
+  private final Timer hmacVerificationTimer;
+
+  private final Timer cachedVerificationTimer;
+
+  private final Timer bcryptVerificationTimer;
+
   @Autowired
   public TrackerAccountServiceMain(
       TrackerAccountRepository repository, TrackerAccountMapper trackerAccountMapper,
-      PasswordEncoder passwordEncoder
+      PasswordEncoder passwordEncoder, VerifiedKeyCache verifiedKeyCache,
+      ApplicationEventPublisher eventPublisher, AuthFailureGuard authFailureGuard,
+      TrackerAccountRegistry trackerAccountRegistry, MeterRegistry meterRegistry
   ) {
     this.repository = repository;
     this.trackerAccountMapper = trackerAccountMapper;
     this.passwordEncoder = passwordEncoder;
+    this.verifiedKeyCache = verifiedKeyCache;
+    this.eventPublisher = eventPublisher;
+    this.authFailureGuard = authFailureGuard;
+    this.trackerAccountRegistry = trackerAccountRegistry;
+
+    this.hmacVerificationTimer = verificationTimer(meterRegistry, "hmac");
+    this.cachedVerificationTimer = verificationTimer(meterRegistry, "cache");
+    this.bcryptVerificationTimer = verificationTimer(meterRegistry, "bcrypt");
   }
 
   @Override
@@ -75,29 +124,88 @@ private Optional<TrackerAccount> findByOwner(String owner) {
   }
 
   @Override
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
   public boolean validateKey(String owner, String key) {
 
-    Optional<TrackerAccount> accountOptional = findByOwner(owner);
+    Optional<TrackerAccountDTO> accountOptional = trackerAccountRegistry.find(owner);
 
     if (accountOptional.isEmpty()) {
       LOG.warn("Authentication failed: No account found for owner '{}'", owner);
+      authFailureGuard.rememberUnknownOwner(owner);
       return false;
     }
 
-    TrackerAccount account = accountOptional.get();
+    TrackerAccountDTO account = accountOptional.get();
 
-    if (!account.isEnabled()) {
+    if (!account.enabled()) {
       LOG.warn("Authentication failed: Account '{}' is disabled", owner);
       return false;
     }
 
-    boolean isValidKey = passwordEncoder.matches(key, account.getKey());
+    String keyHash = account.key();
+    long start = System.nanoTime();
+
+    if (keyHash.startsWith(HmacKeyEncoder.ID_PREFIX)) {
+      boolean isValidKey = passwordEncoder.matches(key, keyHash);
+      hmacVerificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return reportInvalidKey(owner, isValidKey);
+    }
+
+    if (verifiedKeyCache.isVerified(owner, key, keyHash)) {
+      cachedVerificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return true;
+    }
+
+    // An owner that failed too often only gets the verifications that do not need bcrypt
+    if (authFailureGuard.isOwnerThrottled(owner)) {
+      String errorMessage = String.format(
+          "Authentication rejected: Too many failures for owner '%s'", owner
+      );
+      LOG.warn(errorMessage);
+      throw new TooManyRequestsException(errorMessage, EnduranceTrioError.TOO_MANY_REQUESTS);
+    }
+
+    boolean isValidKey = passwordEncoder.matches(key, keyHash);
+    bcryptVerificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
     if (!isValidKey) {
-      LOG.warn("Authentication failed: Invalid key for owner '{}'", owner);
+      return reportInvalidKey(owner, false);
     }
 
+    if (key.length() >= HmacKeyEncoder.MIN_KEY_LENGTH && passwordEncoder.upgradeEncoding(keyHash)) {
+      upgradeKeyHash(owner, key, keyHash);
+    } else {
+      verifiedKeyCache.remember(owner, key, keyHash);
+    }
+    return true;
+  }
+
+  private static boolean reportInvalidKey(String owner, boolean isValidKey) {
+    if (!isValidKey) {
+      LOG.warn("Authentication failed: Invalid key for owner '{}'", owner);
+    }
     return isValidKey;
   }
+
+  /**
+   * Replaces the key hash of the account with a hash of the verified key in the current encoding.
+   * The replacement only applies when the hash was not replaced meanwhile.
+   */
+  private void upgradeKeyHash(String owner, String key, String keyHash) {
+
+    String upgradedHash = passwordEncoder.encode(key);
+    Instant now = Instant.now();
+    if (repository.updateKey(owner, keyHash, upgradedHash, now) > 0) {
+      LOG.info("Key hash of account '{}' upgraded", owner);
+      eventPublisher.publishEvent(
+          new TrackerAccountChangedEvent(owner, Change.KEY_REHASHED, now));
+    }
+  }
+
+  private static Timer verificationTimer(MeterRegistry meterRegistry, String method) {
+    return Timer.builder("tracker.auth.verification")
+        .description("Time to verify the key presented by a request")
+        .tag("method", method)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory cache of the keys recently verified for each tracker account.
+ * <p>
+ * Verifying a key against its BCrypt hash takes tens of milliseconds of CPU, and devices present
+ * the same key on every request. Once a key is verified, its fingerprint, an HMAC-SHA-256 of the
+ * key under a secret generated on startup, is remembered along with the hash it was verified
+ * against, so the next requests with the same key skip the BCrypt evaluation. The keys themselves
+ * are never kept.
+ * <p>
+ * A verification is only reused while the hash of the account is unchanged, so a key changed in
+ * the database is verified again, and for at most {@code app.auth.verified-keys.ttl}. The
+ * verifications of an account are forgotten on every committed {@link TrackerAccountChangedEvent},
+ * and only the {@code app.auth.verified-keys.max-entries} most recently used are kept.
+ * <p>
+ * The lookups are exported as the {@code tracker.auth.cache.hits} and
+ * {@code tracker.auth.cache.misses} counters, and the cached verifications as the
+ * {@code tracker.auth.cache.size} gauge.
+ */
+@Component
+public class VerifiedKeyCache {
+
+  private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+  private final long ttlNanos;
+  private final SecretKeySpec fingerprintKey;
+  private final ThreadLocal<Mac> fingerprintMac;
+  private final Map<Credential, Verification> verifications;
+  private final Counter hitsCounter;
+  private final Counter missesCounter;
+
+  public VerifiedKeyCache(
+      MeterRegistry meterRegistry,
+      @Value("${app.auth.verified-keys.max-entries:10000}") int maxEntries,
+      @Value("${app.auth.verified-keys.ttl:5m}") Duration ttl
+  ) {
+    this.ttlNanos = ttl.toNanos();
+
+    byte[] secret = new byte[32];
+    new SecureRandom().nextBytes(secret);
+    this.fingerprintKey = new SecretKeySpec(secret, FINGERPRINT_ALGORITHM);
+    this.fingerprintMac = ThreadLocal.withInitial(this::newMac);
+
+    this.verifications = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Credential, Verification> eldest) {
+        return size() > maxEntries;
+      }
+    };
+
+    this.hitsCounter = Counter.builder("tracker.auth.cache.hits")
+        .description("Keys accepted from a cached verification")
+        .register(meterRegistry);
+    this.missesCounter = Counter.builder("tracker.auth.cache.misses")
+        .description("Keys not found in the verification cache")
+        .register(meterRegistry);
+    Gauge.builder("tracker.auth.cache.size", this, VerifiedKeyCache::size)
+        .description("Number of cached key verifications")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Checks whether the key was recently verified against the current hash of the account.
+   *
+   * @param owner   the owner of the account
+   * @param key     the key presented by the request
+   * @param keyHash the current key hash of the account
+   * @return {@code true} if the key is known to be valid, {@code false} if it must be verified
+   */
+  public boolean isVerified(String owner, String key, String keyHash) {
+
+    Credential credential = new Credential(owner, fingerprint(key));
+    Verification verification;
+    synchronized (verifications) {
+      verification = verifications.get(credential);
+    }
+
+    boolean hit = verification != null && verification.keyHash().equals(keyHash)
+        && System.nanoTime() - verification.expiresAt() < 0;
+
+    (hit ? hitsCounter : missesCounter).increment();
+    return hit;
+  }
+
+  /**
+   * Remembers that the key was successfully verified against the hash of the account.
+   *
+   * @param owner   the owner of the account
+   * @param key     the verified key
+   * @param keyHash the key hash the key was verified against
+   */
+  public void remember(String owner, String key, String keyHash) {
+
+    Credential credential = new Credential(owner, fingerprint(key));
+    Verification verification = new Verification(keyHash, System.nanoTime() + ttlNanos);
+    synchronized (verifications) {
+      verifications.put(credential, verification);
+    }
+  }
+
+  /**
+   * Forgets all the verifications of the account.
+   *
+   * @param owner the owner of the account
+   */
+  public void invalidate(String owner) {
+    synchronized (verifications) {
+      verifications.keySet().removeIf(credential -> credential.owner().equals(owner));
+    }
+  }
+
+  /**
+   * @return the number of cached verifications
+   */
+  public int size() {
+    synchronized (verifications) {
+      return verifications.size();
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTrackerAccountChanged(TrackerAccountChangedEvent event) {
+    invalidate(event.owner());
+  }
+
+  private String fingerprint(String key) {
+    byte[] digest = fingerprintMac.get().doFinal(key.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().withoutPadding().encodeToString(digest);
+  }
+
+  private Mac newMac() {
+    try {
+      Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+      mac.init(fingerprintKey);
+      return mac;
+    } catch (GeneralSecurityException exception) {
+      throw new IllegalStateException("HMAC-SHA-256 is not available", exception);
+    }
+  }
+
+  private record Credential(String owner, String fingerprint) {
+
+  }
+
+  private record Verification(String keyHash, long expiresAt) {
+
+  }
+}
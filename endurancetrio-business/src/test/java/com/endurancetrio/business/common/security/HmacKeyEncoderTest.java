@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.common.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.config.BusinessSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class HmacKeyEncoderTest {
+
+  private static final String SECRET = "TEST_HMAC_SECRET";
+  private static final String KEY = "et_1QGdBFNl6xH0sR0pUq8b4mWvVYtKZc3JhA9eTfLjXo2";
+  private static final String OTHER_KEY = "et_9ZyXwVuTsRqPoNmLkJiHgFeDcBa8765432109876543";
+
+  // printf '%s' "$KEY" | openssl dgst -sha256 -hmac "$SECRET" -binary | base64
+  private static final String KEY_HASH = "D2zubz58O1gdmN67ZWaXNVj5GdqU9BPrEwCjQERhJXY=";
+
+  private final HmacKeyEncoder underTest = new HmacKeyEncoder(SECRET);
+
+  @Test
+  void encode() {
+    assertEquals(KEY_HASH, underTest.encode(KEY));
+  }
+
+  @Test
+  void matches() {
+    assertTrue(underTest.matches(KEY, KEY_HASH));
+    assertFalse(underTest.matches(OTHER_KEY, KEY_HASH));
+    assertFalse(new HmacKeyEncoder("ANOTHER_SECRET").matches(KEY, KEY_HASH));
+    assertFalse(underTest.matches(KEY, "not base64!"));
+    assertFalse(underTest.matches(KEY, ""));
+  }
+
+  @Test
+  void constructorRejectsBlankSecret() {
+    assertThrows(IllegalArgumentException.class, () -> new HmacKeyEncoder(" "));
+    assertThrows(IllegalArgumentException.class, () -> new HmacKeyEncoder(null));
+  }
+
+  @Test
+  void passwordEncoderAcceptsBothFormats() {
+
+    PasswordEncoder passwordEncoder = new BusinessSecurityConfig().passwordEncoder(SECRET);
+    String bcryptHash = new BCryptPasswordEncoder(4).encode(KEY);
+
+    assertTrue(passwordEncoder.matches(KEY, bcryptHash));
+    assertTrue(passwordEncoder.matches(KEY, "{bcrypt}" + bcryptHash));
+    assertTrue(passwordEncoder.upgradeEncoding(bcryptHash));
+
+    String upgradedHash = passwordEncoder.encode(KEY);
+    assertEquals(HmacKeyEncoder.ID_PREFIX + KEY_HASH, upgradedHash);
+    assertTrue(passwordEncoder.matches(KEY, upgradedHash));
+    assertFalse(passwordEncoder.upgradeEncoding(upgradedHash));
+  }
+
+  @Test
+  void passwordEncoderWithoutSecret() {
+
+    PasswordEncoder passwordEncoder = new BusinessSecurityConfig().passwordEncoder("");
+    String bcryptHash = new BCryptPasswordEncoder(10).encode(KEY);
+
+    assertTrue(passwordEncoder.matches(KEY, bcryptHash));
+    assertFalse(passwordEncoder.upgradeEncoding(bcryptHash));
+    assertFalse(passwordEncoder.matches(KEY, HmacKeyEncoder.ID_PREFIX + KEY_HASH));
+    assertNotEquals(KEY_HASH, passwordEncoder.encode(KEY));
+  }
+}
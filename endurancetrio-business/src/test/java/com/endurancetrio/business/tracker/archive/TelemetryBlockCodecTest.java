@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TelemetryBlockCodecTest {
+
+  private static final long START = TelemetryPoints.toMicros(Instant.parse("2026-09-19T06:00:00Z"));
+
+  @Test
+  void decodeRestoresEncodedRecords() {
+    TelemetryPoints points = new TelemetryPoints();
+    points.add(START, 39.510058, -9.136079, true);
+    points.add(START + 1_000_000, 39.510071, -9.136071, false);
+    points.add(START + 2_000_000, 39.510071, -9.136071, true);
+    points.add(START + 7_500_123, -33.8688197, 151.2092955, true);
+    points.add(START + 7_500_124, 0.0, -180.0, false);
+
+    TelemetryPoints result = new TelemetryPoints();
+    TelemetryBlockCodec.decode(TelemetryBlockCodec.encode(points), result);
+
+    assertEquals(points.size(), result.size());
+    for (int i = 0; i < points.size(); i++) {
+      assertEquals(points.time(i), result.time(i));
+      assertEquals(points.latitude(i), result.latitude(i));
+      assertEquals(points.longitude(i), result.longitude(i));
+      assertEquals(points.active(i), result.active(i));
+    }
+  }
+
+  @Test
+  void decodeAppendsToExistingRecords() {
+    TelemetryPoints first = new TelemetryPoints();
+    first.add(START, 1.0, 2.0, true);
+    TelemetryPoints second = new TelemetryPoints();
+    second.add(START + 1, 3.0, 4.0, false);
+
+    TelemetryPoints result = new TelemetryPoints();
+    TelemetryBlockCodec.decode(TelemetryBlockCodec.encode(first), result);
+    TelemetryBlockCodec.decode(TelemetryBlockCodec.encode(second), result);
+
+    assertEquals(2, result.size());
+    assertEquals(START + 1, result.time(1));
+    assertEquals(3.0, result.latitude(1));
+    assertEquals(4.0, result.longitude(1));
+  }
+
+  @Test
+  void encodeTakesFewBytesPerRecordOfRegularTrack() {
+    Random random = new Random(42);
+    TelemetryPoints points = new TelemetryPoints();
+    double latitude = 39.5;
+    double longitude = -9.1;
+    for (int i = 0; i < 86_400; i++) {
+      latitude += (random.nextDouble() - 0.5) * 0.0001;
+      longitude += (random.nextDouble() - 0.5) * 0.0001;
+      points.add(START + i * 1_000_000L, Math.round(latitude * 1e6) / 1e6,
+          Math.round(longitude * 1e6) / 1e6, true
+      );
+    }
+
+    byte[] result = TelemetryBlockCodec.encode(points);
+
+    // A device_telemetry row takes more than 100 bytes with its index entries
+    assertTrue(result.length < 86_400 * 8, "Encoded size: " + result.length);
+  }
+
+  @Test
+  void decodeWithUnknownVersion() {
+    TelemetryPoints points = new TelemetryPoints();
+    byte[] data = {2, 0};
+
+    assertThrows(IllegalArgumentException.class, () -> TelemetryBlockCodec.decode(data, points));
+  }
+
+  @Test
+  void mergeOrdersByTimeAndKeepsFirstOnEqualTimes() {
+    TelemetryPoints first = new TelemetryPoints();
+    first.add(1, 1.0, 1.0, true);
+    first.add(3, 3.0, 3.0, true);
+    TelemetryPoints second = new TelemetryPoints();
+    second.add(2, 2.0, 2.0, false);
+    second.add(3, 9.0, 9.0, false);
+    second.add(4, 4.0, 4.0, false);
+
+    TelemetryPoints result = TelemetryPoints.merge(first, second);
+
+    assertEquals(4, result.size());
+    assertEquals(2, result.time(1));
+    assertEquals(3.0, result.latitude(2));
+    assertEquals(4, result.time(3));
+  }
+}
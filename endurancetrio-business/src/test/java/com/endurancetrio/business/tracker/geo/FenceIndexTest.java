@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FenceIndexTest {
+
+  @Test
+  void findContainingMatchesLinearScan() {
+    Random random = new Random(7);
+    List<Fence> fences = randomFences(random, 500, 2);
+    FenceIndex index = new FenceIndex(fences, 0.1);
+
+    for (int i = 0; i < 5000; i++) {
+      double longitude = -9.1 + (random.nextDouble() - 0.5) * 3;
+      double latitude = 39.5 + (random.nextDouble() - 0.5) * 3;
+
+      assertArrayEquals(linearScan(fences, longitude, latitude),
+          index.findContaining(longitude, latitude)
+      );
+    }
+  }
+
+  @Test
+  void findContainingFindsFencesOfEverySize() {
+    Fence large = Fence.polygon(1, new double[]{-10, -8, -8, -10}, new double[]{38, 38, 40, 40});
+    Fence small = Fence.circle(2, -9.136079, 39.510058, 150);
+    Fence world = Fence.polygon(3, new double[]{-180, 180, 180, -180},
+        new double[]{-90, -90, 90, 90}
+    );
+    FenceIndex index = new FenceIndex(List.of(large, small, world), 0.1);
+
+    assertEquals(3, index.levels());
+    assertArrayEquals(new long[]{1, 2, 3}, index.findContaining(-9.136079, 39.510058));
+    assertArrayEquals(new long[]{1, 3}, index.findContaining(-8.5, 38.5));
+    assertArrayEquals(new long[]{3}, index.findContaining(0, 0));
+  }
+
+  @Test
+  void findContainingFindsFencesAcrossTheAntimeridian() {
+    FenceIndex index = new FenceIndex(List.of(Fence.circle(1, 179.99, 0, 5000)), 0.1);
+
+    assertArrayEquals(new long[]{1}, index.findContaining(179.999, 0));
+    assertArrayEquals(new long[]{1}, index.findContaining(-179.99, 0));
+    assertArrayEquals(new long[]{}, index.findContaining(-179.9, 0));
+  }
+
+  @Test
+  void withAndWithoutBuildNewIndexes() {
+    FenceIndex empty = new FenceIndex(List.of(), 0.1);
+    FenceIndex one = empty.with(Fence.circle(1, -9.136079, 39.510058, 150));
+    FenceIndex moved = one.with(Fence.circle(1, -9.0, 39.0, 150));
+
+    assertEquals(0, empty.size());
+    assertTrue(one.has(1));
+    assertArrayEquals(new long[]{1}, one.findContaining(-9.136079, 39.510058));
+    assertEquals(1, moved.size());
+    assertArrayEquals(new long[]{}, moved.findContaining(-9.136079, 39.510058));
+    assertArrayEquals(new long[]{1}, moved.findContaining(-9.0, 39.0));
+    assertFalse(moved.without(1).has(1));
+  }
+
+  @Test
+  void constructorWithInvalidCellSize() {
+    assertThrows(IllegalArgumentException.class, () -> new FenceIndex(List.of(), 0));
+    assertThrows(IllegalArgumentException.class, () -> new FenceIndex(List.of(), Double.NaN));
+  }
+
+  /**
+   * Creates circles and squares of up to a few kilometers, with one in a hundred of up to a
+   * hundred kilometers, spread over a square region of the provided side in degrees.
+   */
+  private static List<Fence> randomFences(Random random, int count, double side) {
+    List<Fence> fences = new ArrayList<>(count);
+    for (int id = 1; id <= count; id++) {
+      double longitude = -9.1 + (random.nextDouble() - 0.5) * side;
+      double latitude = 39.5 + (random.nextDouble() - 0.5) * side;
+      double size = random.nextDouble() * (id % 100 == 0 ? 1 : 0.02);
+      if (id % 2 == 0) {
+        fences.add(Fence.circle(id, longitude, latitude, size * 111_000));
+      } else {
+        fences.add(Fence.polygon(id,
+            new double[]{longitude, longitude + size, longitude + size, longitude},
+            new double[]{latitude, latitude, latitude + size, latitude + size}
+        ));
+      }
+    }
+    return fences;
+  }
+
+  private static long[] linearScan(List<Fence> fences, double longitude, double latitude) {
+    return fences.stream()
+        .filter(fence -> fence.contains(longitude, latitude))
+        .mapToLong(Fence::getId)
+        .sorted()
+        .toArray();
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FenceTest {
+
+  // Degrees of latitude per meter along a meridian
+  private static final double DEGREES_PER_METER = 1 / 111195.08;
+
+  @Test
+  void circleContainsPointsWithinRadius() {
+    Fence circle = Fence.circle(1, -9.136079, 39.510058, 150);
+
+    assertTrue(circle.contains(-9.136079, 39.510058));
+    assertTrue(circle.contains(-9.136079, 39.510058 + 140 * DEGREES_PER_METER));
+    assertFalse(circle.contains(-9.136079, 39.510058 + 160 * DEGREES_PER_METER));
+    assertFalse(circle.contains(-9.136079 + 0.00185, 39.510058));
+  }
+
+  @Test
+  void circleBoundsTheWholeCircle() {
+    Fence circle = Fence.circle(1, -9.136079, 39.510058, 5000);
+
+    for (int bearing = 0; bearing < 360; bearing += 5) {
+      // Point on the circle, slightly inside, by the spherical destination formula
+      double angular = 4999.0 / Haversine.MEAN_EARTH_RADIUS;
+      double latitude = Math.toRadians(39.510058);
+      double theta = Math.toRadians(bearing);
+      double pointLatitude = Math.asin(Math.sin(latitude) * Math.cos(angular)
+          + Math.cos(latitude) * Math.sin(angular) * Math.cos(theta));
+      double pointLongitude = Math.toRadians(-9.136079) + Math.atan2(
+          Math.sin(theta) * Math.sin(angular) * Math.cos(latitude),
+          Math.cos(angular) - Math.sin(latitude) * Math.sin(pointLatitude)
+      );
+
+      assertTrue(circle.contains(Math.toDegrees(pointLongitude), Math.toDegrees(pointLatitude)),
+          "bearing " + bearing
+      );
+    }
+  }
+
+  @Test
+  void circleCrossesTheAntimeridian() {
+    Fence circle = Fence.circle(1, 179.99, 0, 5000);
+
+    assertTrue(circle.crossesAntimeridian());
+    assertTrue(circle.contains(-179.99, 0));
+    assertTrue(circle.contains(179.99, 0.01));
+    assertFalse(circle.contains(0, 0));
+  }
+
+  @Test
+  void circleSpansEveryLongitudeAtThePoles() {
+    Fence circle = Fence.circle(1, 0, 89.99, 5000);
+
+    assertEquals(-180, circle.getMinLongitude());
+    assertEquals(180, circle.getMaxLongitude());
+    assertEquals(90, circle.getMaxLatitude());
+    assertTrue(circle.contains(135, 89.995));
+  }
+
+  @Test
+  void polygonAppliesTheEvenOddRule() {
+    // L shape, with the north-east quarter of the square cut out
+    Fence polygon = Fence.polygon(1,
+        new double[]{0, 2, 2, 1, 1, 0},
+        new double[]{0, 0, 1, 1, 2, 2}
+    );
+
+    assertTrue(polygon.contains(0.5, 0.5));
+    assertTrue(polygon.contains(1.5, 0.5));
+    assertTrue(polygon.contains(0.5, 1.5));
+    assertFalse(polygon.contains(1.5, 1.5));
+    assertFalse(polygon.contains(2.5, 0.5));
+    assertFalse(polygon.contains(-0.5, 0.5));
+  }
+
+  @Test
+  void polygonIsBoundedByItsVertices() {
+    Fence polygon = Fence.polygon(1,
+        new double[]{-9.2, -9.1, -9.15},
+        new double[]{39.5, 39.5, 39.6}
+    );
+
+    assertEquals(-9.2, polygon.getMinLongitude());
+    assertEquals(39.5, polygon.getMinLatitude());
+    assertEquals(-9.1, polygon.getMaxLongitude());
+    assertEquals(39.6, polygon.getMaxLatitude());
+    assertFalse(polygon.crossesAntimeridian());
+  }
+
+  @Test
+  void factoriesWithInvalidGeometry() {
+    assertThrows(IllegalArgumentException.class, () -> Fence.circle(1, 0, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> Fence.circle(1, 0, 0, Double.NaN));
+    assertThrows(IllegalArgumentException.class,
+        () -> Fence.polygon(1, new double[]{0, 1}, new double[]{0, 1})
+    );
+    assertThrows(IllegalArgumentException.class,
+        () -> Fence.polygon(1, new double[]{0, 1, 1}, new double[]{0, 1})
+    );
+  }
+}
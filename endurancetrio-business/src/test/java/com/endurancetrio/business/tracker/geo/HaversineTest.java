@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class HaversineTest {
+
+  @Test
+  void distanceFollowsTheGreatCircle() {
+    // One degree of latitude, and one degree of longitude at 60 degrees of latitude, which is
+    // slightly shorter than the 55597.54 meters along the parallel
+    assertEquals(111195.08, Haversine.distance(-9.0, 39.0, -9.0, 40.0), 0.01);
+    assertEquals(55597.01, Haversine.distance(0.0, 60.0, 1.0, 60.0), 0.01);
+    assertEquals(0.0, Haversine.distance(-9.136079, 39.510058, -9.136079, 39.510058));
+  }
+
+  @Test
+  void distanceCrossesTheAntimeridian() {
+    assertEquals(Haversine.distance(-0.5, 10.0, 0.5, 10.0),
+        Haversine.distance(179.5, 10.0, -179.5, 10.0), 1e-6
+    );
+  }
+
+  @Test
+  void distanceIsHalfTheCircumferenceForAntipodalPoints() {
+    assertEquals(Math.PI * Haversine.MEAN_EARTH_RADIUS,
+        Haversine.distance(-9.0, 39.0, 171.0, -39.0), 1e-3
+    );
+  }
+}
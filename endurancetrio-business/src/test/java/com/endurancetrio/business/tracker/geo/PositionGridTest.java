@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import org.junit.jupiter.api.Test;
+
+class PositionGridTest {
+
+  @Test
+  void forEachCandidateReportsDevicesOfOverlappingCells() {
+    PositionGrid grid = new PositionGrid(1);
+    grid.move("A", null, null, -9.1, 39.5);
+    grid.move("B", null, null, -8.9, 39.5);
+    grid.move("C", null, null, 10.0, 50.0);
+
+    assertEquals(List.of("A"), candidates(grid, -9.5, 39.0, -9.2, 39.9));
+    assertEquals(List.of("A", "B"), candidates(grid, -9.2, 39.0, -8.8, 39.9));
+    assertEquals(List.of("A", "B", "C"), candidates(grid, -180, -90, 180, 90));
+  }
+
+  @Test
+  void moveLeavesThePreviousCell() {
+    PositionGrid grid = new PositionGrid(1);
+    grid.move("A", null, null, -9.1, 39.5);
+    grid.move("A", -9.1, 39.5, -9.2, 39.6);
+    grid.move("A", -9.2, 39.6, 10.0, 50.0);
+
+    assertEquals(List.of(), candidates(grid, -10, 39, -9, 40));
+    assertEquals(List.of("A"), candidates(grid, 9.5, 49.5, 10.5, 50.5));
+    assertEquals(1, grid.occupiedCells());
+  }
+
+  @Test
+  void forEachCandidateVisitsOccupiedCellsOfLargeBoxes() {
+    PositionGrid grid = new PositionGrid(0.001);
+    grid.move("A", null, null, 179.9995, 89.9995);
+    grid.move("B", null, null, -179.9995, -89.9995);
+
+    assertEquals(List.of("A", "B"), candidates(grid, -180, -90, 180, 90));
+    assertEquals(List.of("B"), candidates(grid, -180, -90, 0, 0));
+  }
+
+  @Test
+  void findNearestMatchesLinearScan() {
+    Random random = new Random(42);
+    for (double cellSize : new double[]{0.1, 0.7, 1, 45}) {
+      Fleet fleet = new Fleet(cellSize);
+      for (int i = 0; i < 2000; i++) {
+        // Half of the fleet around a race venue, the rest anywhere
+        if (i % 2 == 0) {
+          fleet.add(-9.1 + random.nextGaussian() * 0.05, 39.5 + random.nextGaussian() * 0.05);
+        } else {
+          fleet.add(random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90);
+        }
+      }
+      fleet.add(180, 0);
+      fleet.add(-179.99, -89.99);
+
+      double[][] points = {{-9.1, 39.5}, {-9.1, 40.5}, {179.95, 0.05}, {-180, 0}, {0, 90},
+          {10, -89.9}, {120, 45}};
+      for (double[] point : points) {
+        for (int k : new int[]{1, 5, 50}) {
+          assertEquals(fleet.linearScan(point[0], point[1], k),
+              fleet.grid.findNearest(point[0], point[1], k, fleet.distanceTo(point[0], point[1])),
+              "Cell size " + cellSize + ", point " + point[0] + "," + point[1] + ", k " + k
+          );
+        }
+      }
+    }
+  }
+
+  @Test
+  void findNearestWithFewerDevicesThanK() {
+    Fleet fleet = new Fleet(0.1);
+    fleet.add(-9.1, 39.5);
+    fleet.add(10.0, 50.0);
+
+    assertEquals(List.of("0", "1"),
+        fleet.grid.findNearest(-9.0, 39.0, 10, fleet.distanceTo(-9.0, 39.0))
+    );
+    assertEquals(List.of(), new PositionGrid(0.1).findNearest(0, 0, 10, device -> 0));
+  }
+
+  @Test
+  void constructorWithInvalidCellSize() {
+    assertThrows(IllegalArgumentException.class, () -> new PositionGrid(0));
+    assertThrows(IllegalArgumentException.class, () -> new PositionGrid(Double.NaN));
+  }
+
+  private static List<String> candidates(
+      PositionGrid grid, double minLongitude, double minLatitude, double maxLongitude,
+      double maxLatitude
+  ) {
+    List<String> devices = new ArrayList<>();
+    grid.forEachCandidate(minLongitude, minLatitude, maxLongitude, maxLatitude, devices::add);
+    return devices.stream().sorted().toList();
+  }
+
+  /**
+   * Devices named by their index, indexed by a grid and kept in arrays for the linear scan.
+   */
+  private static final class Fleet {
+
+    private final PositionGrid grid;
+    private final List<double[]> positions = new ArrayList<>();
+
+    private Fleet(double cellSize) {
+      this.grid = new PositionGrid(cellSize);
+    }
+
+    private void add(double longitude, double latitude) {
+      grid.move(String.valueOf(positions.size()), null, null, longitude, latitude);
+      positions.add(new double[]{longitude, latitude});
+    }
+
+    private ToDoubleFunction<String> distanceTo(double longitude, double latitude) {
+      return device -> {
+        double[] position = positions.get(Integer.parseInt(device));
+        return Haversine.distance(longitude, latitude, position[0], position[1]);
+      };
+    }
+
+    private List<String> linearScan(double longitude, double latitude, int k) {
+      record Neighbour(String device, double distance) {}
+      Comparator<Neighbour> nearestFirst = Comparator.comparingDouble(Neighbour::distance)
+          .thenComparing(Neighbour::device);
+      PriorityQueue<Neighbour> nearest = new PriorityQueue<>(nearestFirst.reversed());
+      for (int i = 0; i < positions.size(); i++) {
+        double[] position = positions.get(i);
+        nearest.add(new Neighbour(String.valueOf(i),
+            Haversine.distance(longitude, latitude, position[0], position[1])
+        ));
+        if (nearest.size() > k) {
+          nearest.poll();
+        }
+      }
+      return nearest.stream().sorted(nearestFirst).map(Neighbour::device).toList();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TrackTest {
+
+  // About 1.1 meters of latitude
+  private static final double METER = 0.00001;
+
+  @Test
+  void simplifyRemovesPositionsOnStraightLine() {
+    Track track = trackOf(0, 0, 0, 10 * METER, 0, 20 * METER, 0, 30 * METER);
+
+    track.simplify(0);
+
+    assertEquals(List.of(List.of(0.0, 0.0), List.of(0.0, 30 * METER)), track.toCoordinates());
+  }
+
+  @Test
+  void simplifyKeepsCornersAndRemovesNoise() {
+    Track track = trackOf(0, 0, METER / 10, 100 * METER, 0, 200 * METER, 200 * METER,
+        200 * METER, 300 * METER, 200 * METER
+    );
+
+    track.simplify(5);
+
+    assertEquals(
+        List.of(List.of(0.0, 0.0), List.of(0.0, 200 * METER), List.of(300 * METER, 200 * METER)),
+        track.toCoordinates()
+    );
+  }
+
+  @Test
+  void simplifyWithToleranceSmallerThanDeviations() {
+    Track track = trackOf(0, 0, 50 * METER, 50 * METER, 100 * METER, 0, 150 * METER,
+        50 * METER
+    );
+
+    track.simplify(1);
+
+    assertEquals(4, track.size());
+  }
+
+  @Test
+  void simplifyKeepsFirstAndLastPositions() {
+    Track track = trackOf(1, 2, 1, 2, 1, 2);
+
+    track.simplify(1000);
+
+    assertEquals(List.of(List.of(1.0, 2.0), List.of(1.0, 2.0)), track.toCoordinates());
+  }
+
+  @Test
+  void addGrowsBeyondInitialCapacity() {
+    Track track = new Track();
+    for (int i = 0; i < 5000; i++) {
+      track.add(i * METER, 0);
+    }
+
+    assertEquals(5000, track.size());
+    assertEquals(List.of(4999 * METER, 0.0), track.toCoordinates().getLast());
+  }
+
+  private static Track trackOf(double... coordinates) {
+    Track track = new Track();
+    for (int i = 0; i < coordinates.length; i += 2) {
+      track.add(coordinates[i], coordinates[i + 1]);
+    }
+    return track;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
+import com.endurancetrio.business.tracker.service.AuthFailureGuard.Rejection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthFailureGuardTest {
+
+  private static final Duration WINDOW = Duration.ofMinutes(1);
+  private static final int STRIPES = 1024;
+  private static final int MAX_OWNER_FAILURES = 3;
+  private static final int MAX_ADDRESS_FAILURES = 5;
+  private static final int MAX_UNKNOWN_OWNERS = 2;
+
+  private static final String OWNER_1 = "system";
+  private static final String OWNER_2 = "doe";
+  private static final String ADDRESS_1 = "192.0.2.1";
+  private static final String ADDRESS_2 = "192.0.2.2";
+  private static final String ADDRESS_3 = "192.0.2.3";
+
+  private MeterRegistry meterRegistry;
+  private AuthFailureGuard underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new AuthFailureGuard(meterRegistry, WINDOW, STRIPES, MAX_OWNER_FAILURES,
+        MAX_ADDRESS_FAILURES, WINDOW, MAX_UNKNOWN_OWNERS
+    );
+  }
+
+  @Test
+  void isOwnerThrottled() {
+
+    underTest.recordFailure(OWNER_1, ADDRESS_1);
+    underTest.recordFailure(OWNER_1, ADDRESS_2);
+    assertFalse(underTest.isOwnerThrottled(OWNER_1));
+
+    underTest.recordFailure(OWNER_1, ADDRESS_2);
+
+    assertTrue(underTest.isOwnerThrottled(OWNER_1));
+    assertFalse(underTest.isOwnerThrottled(OWNER_2));
+    assertEquals(1, rejected("owner_throttled"));
+
+    // the owner is only throttled on the verifications that need bcrypt
+    assertTrue(underTest.check(OWNER_1, ADDRESS_3).isEmpty());
+  }
+
+  @Test
+  void checkAddressThrottled() {
+
+    for (int i = 0; i < MAX_ADDRESS_FAILURES; i++) {
+      underTest.recordFailure("owner" + i, ADDRESS_1);
+    }
+
+    assertEquals(Optional.of(Rejection.ADDRESS_THROTTLED), underTest.check(OWNER_2, ADDRESS_1));
+    assertTrue(underTest.check(OWNER_2, ADDRESS_2).isEmpty());
+    assertEquals(1, rejected("address_throttled"));
+  }
+
+  @Test
+  void checkAfterTheWindow() {
+
+    underTest = new AuthFailureGuard(meterRegistry, Duration.ofNanos(6), STRIPES, 1, 1, WINDOW,
+        MAX_UNKNOWN_OWNERS
+    );
+    underTest.recordFailure(OWNER_1, ADDRESS_1);
+
+    long start = System.nanoTime();
+    while (System.nanoTime() - start < 1_000) {
+      Thread.onSpinWait();
+    }
+
+    assertTrue(underTest.check(OWNER_1, ADDRESS_1).isEmpty());
+  }
+
+  @Test
+  void checkUnknownOwner() {
+
+    underTest.rememberUnknownOwner(OWNER_2);
+    underTest.recordFailure(OWNER_2, ADDRESS_1);
+    underTest.recordFailure(OWNER_2, ADDRESS_1);
+    underTest.recordFailure(OWNER_2, ADDRESS_1);
+
+    assertEquals(Optional.of(Rejection.UNKNOWN_OWNER), underTest.check(OWNER_2, ADDRESS_2));
+    assertEquals(1, rejected("unknown_owner"));
+
+    // the failures of an unknown owner are not counted for the owner once its account is created
+    underTest.onTrackerAccountChanged(
+        new TrackerAccountChangedEvent(OWNER_2, Change.CREATED, Instant.now()));
+
+    assertTrue(underTest.check(OWNER_2, ADDRESS_2).isEmpty());
+    assertFalse(underTest.isOwnerThrottled(OWNER_2));
+  }
+
+  @Test
+  void checkUnknownOwnerAfterTheTtl() {
+
+    underTest = new AuthFailureGuard(meterRegistry, WINDOW, STRIPES, MAX_OWNER_FAILURES,
+        MAX_ADDRESS_FAILURES, Duration.ZERO, MAX_UNKNOWN_OWNERS
+    );
+    underTest.rememberUnknownOwner(OWNER_2);
+
+    assertTrue(underTest.check(OWNER_2, ADDRESS_1).isEmpty());
+  }
+
+  @Test
+  void rememberUnknownOwnerBeyondTheMaxEntries() {
+
+    underTest.rememberUnknownOwner("owner1");
+    underTest.rememberUnknownOwner("owner2");
+    underTest.rememberUnknownOwner("owner3");
+
+    assertEquals(Optional.of(Rejection.UNKNOWN_OWNER), underTest.check("owner1", ADDRESS_1));
+    assertEquals(Optional.of(Rejection.UNKNOWN_OWNER), underTest.check("owner2", ADDRESS_1));
+    assertTrue(underTest.check("owner3", ADDRESS_1).isEmpty());
+  }
+
+  private double rejected(String reason) {
+    return meterRegistry.get("tracker.auth.rejected.early").tag("reason", reason).counter().count();
+  }
+}
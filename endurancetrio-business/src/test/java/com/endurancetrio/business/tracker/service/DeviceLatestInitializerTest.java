@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.data.tracker.repository.DeviceLatestRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceLatestInitializerTest {
+
+  @Mock
+  private DeviceLatestRepository deviceLatestRepository;
+
+  @InjectMocks
+  private DeviceLatestInitializer underTest;
+
+  @Test
+  void deviceLatestInitializer() {
+
+    ReflectionTestUtils.setField(underTest, "rebuildDeviceLatest", true);
+    when(deviceLatestRepository.rebuild()).thenReturn(2);
+
+    underTest.deviceLatestInitializer();
+
+    verify(deviceLatestRepository, times(1)).rebuild();
+  }
+
+  @Test
+  void deviceLatestInitializerWhenNotRequested() {
+
+    ReflectionTestUtils.setField(underTest, "rebuildDeviceLatest", false);
+
+    underTest.deviceLatestInitializer();
+
+    verify(deviceLatestRepository, never()).rebuild();
+  }
+
+  @Test
+  void deviceLatestInitializerWithDatabaseFailure() {
+
+    ReflectionTestUtils.setField(underTest, "rebuildDeviceLatest", true);
+    when(deviceLatestRepository.rebuild()).thenThrow(
+        new DataAccessResourceFailureException("Database unavailable"));
+
+    underTest.deviceLatestInitializer();
+
+    verify(deviceLatestRepository, times(1)).rebuild();
+  }
+}
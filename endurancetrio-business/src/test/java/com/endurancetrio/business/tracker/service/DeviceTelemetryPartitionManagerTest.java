@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryPartitionRepository;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceTelemetryPartitionManagerTest {
+
+  private static final YearMonth CURRENT_MONTH = YearMonth.of(2026, 3);
+
+  @Mock
+  private DeviceTelemetryPartitionRepository partitionRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @InjectMocks
+  private DeviceTelemetryPartitionManager underTest;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(underTest, "monthsAhead", 2);
+    ReflectionTestUtils.setField(underTest, "retentionMonths", 0);
+  }
+
+  @Test
+  void managePartitionsCreatesMissingPartitions() {
+
+    when(partitionRepository.findMonthlyPartitions()).thenReturn(
+        Optional.of(List.of(YearMonth.of(2026, 2), CURRENT_MONTH)));
+
+    underTest.managePartitions(CURRENT_MONTH);
+
+    verify(partitionRepository, never()).createMonthlyPartition(CURRENT_MONTH);
+    verify(partitionRepository, times(1)).createMonthlyPartition(YearMonth.of(2026, 4));
+    verify(partitionRepository, times(1)).createMonthlyPartition(YearMonth.of(2026, 5));
+    verify(partitionRepository, never()).detachMonthlyPartition(any());
+    verify(transactionManager, times(3)).getTransaction(any(TransactionDefinition.class));
+    verify(transactionManager, times(3)).commit(any());
+  }
+
+  @Test
+  void managePartitionsDetachesExpiredPartitions() {
+
+    ReflectionTestUtils.setField(underTest, "retentionMonths", 2);
+    when(partitionRepository.findMonthlyPartitions()).thenReturn(Optional.of(
+        List.of(YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2),
+            CURRENT_MONTH, YearMonth.of(2026, 4), YearMonth.of(2026, 5)
+        )));
+    when(partitionRepository.detachMonthlyPartition(YearMonth.of(2025, 12))).thenReturn(true);
+    when(partitionRepository.detachMonthlyPartition(YearMonth.of(2026, 1))).thenReturn(true);
+
+    underTest.managePartitions(CURRENT_MONTH);
+
+    verify(partitionRepository, never()).createMonthlyPartition(any());
+    verify(partitionRepository, times(1)).detachMonthlyPartition(YearMonth.of(2025, 12));
+    verify(partitionRepository, times(1)).detachMonthlyPartition(YearMonth.of(2026, 1));
+    verify(partitionRepository, never()).detachMonthlyPartition(YearMonth.of(2026, 2));
+    verify(transactionManager, times(3)).commit(any());
+  }
+
+  @Test
+  void managePartitionsKeepsPartitionsHoldingLatestRecords() {
+
+    ReflectionTestUtils.setField(underTest, "retentionMonths", 2);
+    when(partitionRepository.findMonthlyPartitions()).thenReturn(Optional.of(
+        List.of(YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2),
+            CURRENT_MONTH, YearMonth.of(2026, 4), YearMonth.of(2026, 5)
+        )));
+    when(partitionRepository.detachMonthlyPartition(YearMonth.of(2025, 12))).thenReturn(false);
+    when(partitionRepository.detachMonthlyPartition(YearMonth.of(2026, 1))).thenReturn(true);
+
+    underTest.managePartitions(CURRENT_MONTH);
+
+    verify(partitionRepository, times(1)).detachMonthlyPartition(YearMonth.of(2025, 12));
+    verify(partitionRepository, times(1)).detachMonthlyPartition(YearMonth.of(2026, 1));
+    verify(transactionManager, never()).rollback(any());
+  }
+
+  @Test
+  void managePartitionsWhenNotPartitioned() {
+
+    when(partitionRepository.findMonthlyPartitions()).thenReturn(Optional.empty());
+
+    underTest.managePartitions(CURRENT_MONTH);
+
+    verify(partitionRepository, never()).createMonthlyPartition(any());
+    verify(partitionRepository, never()).detachMonthlyPartition(any());
+  }
+
+  @Test
+  void managePartitionsWithDatabaseFailure() {
+
+    when(partitionRepository.findMonthlyPartitions()).thenReturn(Optional.of(List.of()));
+    when(partitionRepository.createMonthlyPartition(CURRENT_MONTH)).thenThrow(
+        new DataAccessResourceFailureException("Database unavailable"));
+
+    underTest.managePartitions(CURRENT_MONTH);
+
+    verify(partitionRepository, times(1)).createMonthlyPartition(CURRENT_MONTH);
+    verify(partitionRepository, times(1)).createMonthlyPartition(YearMonth.of(2026, 4));
+    verify(partitionRepository, times(1)).createMonthlyPartition(YearMonth.of(2026, 5));
+    verify(transactionManager, times(1)).rollback(any());
+    verify(transactionManager, times(3)).commit(any());
+  }
+
+  @Test
+  void managePartitionsWithLookupFailure() {
+
+    when(partitionRepository.findMonthlyPartitions()).thenThrow(
+        new DataAccessResourceFailureException("Database unavailable"));
+
+    underTest.managePartitions(CURRENT_MONTH);
+
+    verify(partitionRepository, never()).createMonthlyPartition(any());
+    verify(partitionRepository, never()).detachMonthlyPartition(any());
+    verify(transactionManager, times(1)).rollback(any());
+  }
+}
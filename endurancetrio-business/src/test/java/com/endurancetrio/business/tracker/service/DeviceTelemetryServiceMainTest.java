@@ -22,32 +22,70 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.endurancetrio.business.common.exception.BadRequestException;
 import com.endurancetrio.business.common.exception.NotFoundException;
 import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryBucketDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryChangesDTO;
 import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryPageDTO;
+import com.endurancetrio.business.tracker.dto.NearestDeviceDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBatchResultDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryBucketPoint;
+import com.endurancetrio.business.tracker.dto.TelemetryItemStatus;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
 import com.endurancetrio.business.tracker.mapper.DeviceTelemetryMapper;
 import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
 import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
+import com.endurancetrio.data.tracker.repository.DeviceLatestRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBucketRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBucketRepository.Bucket;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryInsertRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryInsertRepository.TelemetryKey;
 import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
 import com.endurancetrio.data.tracker.repository.DeviceTelemetryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 @ExtendWith(MockitoExtension.class)
 class DeviceTelemetryServiceMainTest {
@@ -67,6 +105,14 @@ class DeviceTelemetryServiceMainTest {
   private static final Double LATITUDE_2 = 39.509001;
   private static final Double LONGITUDE_2 = -9.139602;
   private static final Boolean IS_ACTIVE = true;
+  private static final Double INVALID_LATITUDE = 91.0;
+  private static final int BATCH_MAX_SIZE = 3;
+  private static final int HISTORY_DEFAULT_PAGE_SIZE = 1;
+  private static final int HISTORY_MAX_PAGE_SIZE = 2;
+  private static final int NEAREST_DEFAULT_K = 10;
+  private static final int NEAREST_MAX_K = 20;
+  private static final int HISTORY_MAX_BUCKETS = 10;
+  private static final String DUPLICATES_METRIC = "telemetry.ingestion.duplicates";
 
   private DeviceTelemetryDTO inputDTO;
   private DeviceTelemetryDTO firstExpectedDTO;
@@ -82,9 +128,43 @@ class DeviceTelemetryServiceMainTest {
   @Mock
   private DeviceTelemetryRepository deviceTelemetryRepository;
 
+  @Mock
+  private DeviceTelemetryInsertRepository deviceTelemetryInsertRepository;
+
+  @Mock
+  private DeviceLatestRepository deviceLatestRepository;
+
+  @Mock
+  private DeviceTelemetryBucketRepository deviceTelemetryBucketRepository;
+
+  @Mock
+  private TelemetryArchiveService telemetryArchiveService;
+
+  @Mock
+  private GeofenceService geofenceService;
+
   @Mock
   private DeviceTelemetryMapper deviceTelemetryMapper;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Spy
+  private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Spy
+  private RecentTelemetryFilter recentTelemetryFilter = new RecentTelemetryFilter(10, 4);
+
+  @Spy
+  private LatestTelemetryCache latestTelemetryCache = new LatestTelemetryCache(
+      new SimpleMeterRegistry(), 0.1);
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @InjectMocks
   private DeviceTelemetryServiceMain underTest;
 
@@ -109,6 +189,13 @@ void setUp() {
 
     firstExpectedDTO = new DeviceTelemetryDTO(DEVICE_1, TIME_1, LATITUDE_1, LONGITUDE_1, IS_ACTIVE);
     secondExpectedDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2, LONGITUDE_2, IS_ACTIVE);
+
+    ReflectionTestUtils.setField(underTest, "batchMaxSize", BATCH_MAX_SIZE);
+    ReflectionTestUtils.setField(underTest, "historyDefaultPageSize", HISTORY_DEFAULT_PAGE_SIZE);
+    ReflectionTestUtils.setField(underTest, "historyMaxPageSize", HISTORY_MAX_PAGE_SIZE);
+    ReflectionTestUtils.setField(underTest, "nearestDefaultK", NEAREST_DEFAULT_K);
+    ReflectionTestUtils.setField(underTest, "nearestMaxK", NEAREST_MAX_K);
+    ReflectionTestUtils.setField(underTest, "historyMaxBuckets", HISTORY_MAX_BUCKETS);
   }
 
   @Test
@@ -116,21 +203,82 @@ void save() {
 
     when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
     when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
-    when(deviceTelemetryRepository.save(mockDeviceTelemetry)).thenReturn(firstPersistedDeviceTelemetry);
-    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+    when(deviceTelemetryInsertRepository.insert(List.of(mockDeviceTelemetry))).thenAnswer(
+        invocation -> {
+          mockDeviceTelemetry.setId(ID_1);
+          return invocation.getArgument(0);
+        });
 
-    DeviceTelemetryDTO result = underTest.save(OWNER, inputDTO);
+    TelemetryItemStatus result = underTest.save(OWNER, inputDTO);
 
     verify(trackerAccountRepository, times(1)).getReferenceById(OWNER);
     verify(deviceTelemetryMapper, times(1)).map(inputDTO, null);
-    verify(deviceTelemetryRepository, times(1)).save(mockDeviceTelemetry);
-    verify(deviceTelemetryMapper, times(1)).map(firstPersistedDeviceTelemetry);
-
-    assertNotNull(result);
-    assertEquals(firstExpectedDTO, result);
+    verify(deviceTelemetryInsertRepository, times(1)).findSaved(
+        List.of(new TelemetryKey(DEVICE_1, TIME_1)));
+    verify(deviceTelemetryInsertRepository, times(1)).insert(List.of(mockDeviceTelemetry));
+    verify(deviceLatestRepository, times(1)).upsert(List.of(ID_1));
+    verify(geofenceService, times(1)).evaluate(List.of(mockDeviceTelemetry));
+    verify(eventPublisher, times(1)).publishEvent(
+        new DeviceTelemetrySavedEvent(List.of(inputDTO)));
+
+    assertEquals(TelemetryItemStatus.CREATED, result);
     assertEquals(mockTrackerAccount, mockDeviceTelemetry.getAccount());
   }
 
+  @Test
+  void saveAlreadySavedRecord() {
+
+    when(deviceTelemetryInsertRepository.findSaved(List.of(new TelemetryKey(DEVICE_1, TIME_1))))
+        .thenReturn(Set.of(new TelemetryKey(DEVICE_1, TIME_1)));
+
+    TelemetryItemStatus result = underTest.save(OWNER, inputDTO);
+
+    verify(deviceTelemetryInsertRepository, never()).insert(any());
+    verify(deviceLatestRepository, never()).upsert(any());
+    verify(geofenceService, never()).evaluate(any());
+    verify(eventPublisher, never()).publishEvent(any());
+
+    assertEquals(TelemetryItemStatus.DUPLICATE, result);
+    assertTrue(recentTelemetryFilter.isRecent(DEVICE_1, TIME_1));
+    assertEquals(1.0, meterRegistry.get(DUPLICATES_METRIC).tag("filter", "database").counter()
+        .count());
+  }
+
+  @Test
+  void saveRecentlySavedRecord() {
+
+    recentTelemetryFilter.remember(DEVICE_1, TIME_1);
+
+    TelemetryItemStatus result = underTest.save(OWNER, inputDTO);
+
+    verify(deviceTelemetryInsertRepository, never()).findSaved(any());
+    verify(deviceTelemetryInsertRepository, never()).insert(any());
+
+    assertEquals(TelemetryItemStatus.DUPLICATE, result);
+    assertEquals(1.0, meterRegistry.get(DUPLICATES_METRIC).tag("filter", "memory").counter()
+        .count());
+  }
+
+  @Test
+  void saveRecordSavedConcurrently() {
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryInsertRepository.insert(List.of(mockDeviceTelemetry))).thenReturn(
+        List.of());
+
+    TelemetryItemStatus result = underTest.save(OWNER, inputDTO);
+
+    verify(deviceLatestRepository, never()).upsert(any());
+    verify(geofenceService, never()).evaluate(any());
+    verify(eventPublisher, never()).publishEvent(any());
+
+    assertEquals(TelemetryItemStatus.DUPLICATE, result);
+    assertTrue(recentTelemetryFilter.isRecent(DEVICE_1, TIME_1));
+    assertEquals(1.0, meterRegistry.get(DUPLICATES_METRIC).tag("filter", "database").counter()
+        .count());
+  }
+
   @Test
   void saveWithNonExistingAccount() {
 
@@ -138,7 +286,8 @@ void saveWithNonExistingAccount() {
 
     when(trackerAccountRepository.getReferenceById(owner)).thenReturn(mock(TrackerAccount.class));
     when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
-    when(deviceTelemetryRepository.save(mockDeviceTelemetry)).thenThrow(new EntityNotFoundException());
+    when(deviceTelemetryInsertRepository.insert(List.of(mockDeviceTelemetry))).thenThrow(
+        new DataIntegrityViolationException("fk_device_telemetry_tracker_account_owner"));
 
     NotFoundException result = assertThrows(NotFoundException.class,
         () -> underTest.save(owner, inputDTO)
@@ -146,13 +295,280 @@ void saveWithNonExistingAccount() {
 
     verify(trackerAccountRepository, times(1)).getReferenceById(owner);
     verify(deviceTelemetryMapper, times(1)).map(inputDTO, null);
-    verify(deviceTelemetryRepository, times(1)).save(mockDeviceTelemetry);
+    verify(deviceTelemetryInsertRepository, times(1)).insert(List.of(mockDeviceTelemetry));
     verify(deviceTelemetryMapper, never()).map(firstPersistedDeviceTelemetry);
 
     assertEquals(EnduranceTrioError.NOT_FOUND.getCode(), result.getCode());
     assertEquals(EnduranceTrioError.NOT_FOUND.getMessage(), result.getMessage());
   }
 
+  @Test
+  void saveAll() {
+
+    DeviceTelemetryDTO secondInputDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2,
+        LONGITUDE_2, IS_ACTIVE
+    );
+    DeviceTelemetry secondMockDeviceTelemetry = new DeviceTelemetry();
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryMapper.map(secondInputDTO, null)).thenReturn(secondMockDeviceTelemetry);
+
+    when(deviceTelemetryInsertRepository.insert(
+        List.of(mockDeviceTelemetry, secondMockDeviceTelemetry))).thenAnswer(invocation -> {
+          mockDeviceTelemetry.setId(ID_1);
+          secondMockDeviceTelemetry.setId(ID_2);
+          return invocation.getArgument(0);
+        });
+
+    TelemetryBatchResultDTO result = underTest.saveAll(OWNER, List.of(inputDTO, secondInputDTO));
+
+    verify(trackerAccountRepository, times(1)).getReferenceById(OWNER);
+    verify(deviceTelemetryMapper, times(1)).map(inputDTO, null);
+    verify(deviceTelemetryMapper, times(1)).map(secondInputDTO, null);
+    verify(deviceTelemetryInsertRepository, times(1)).insert(
+        List.of(mockDeviceTelemetry, secondMockDeviceTelemetry));
+    verify(deviceLatestRepository, times(1)).upsert(List.of(ID_1, ID_2));
+
+    assertNotNull(result);
+    assertEquals(2, result.received());
+    assertEquals(2, result.accepted());
+    assertEquals(0, result.duplicated());
+    assertEquals(0, result.rejected());
+    assertEquals(TelemetryItemStatus.CREATED, result.items().get(0).status());
+    assertEquals(TelemetryItemStatus.CREATED, result.items().get(1).status());
+    assertEquals(mockTrackerAccount, mockDeviceTelemetry.getAccount());
+    assertEquals(mockTrackerAccount, secondMockDeviceTelemetry.getAccount());
+  }
+
+  @Test
+  void saveAllWithDuplicatedRecords() {
+
+    DeviceTelemetryDTO secondInputDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2,
+        LONGITUDE_2, IS_ACTIVE
+    );
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(deviceTelemetryInsertRepository.findSaved(
+        List.of(new TelemetryKey(DEVICE_1, TIME_1), new TelemetryKey(DEVICE_2, TIME_2))))
+        .thenReturn(Set.of(new TelemetryKey(DEVICE_2, TIME_2)));
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryInsertRepository.insert(List.of(mockDeviceTelemetry))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+
+    TelemetryBatchResultDTO result = underTest.saveAll(OWNER,
+        List.of(inputDTO, secondInputDTO, inputDTO)
+    );
+
+    verify(deviceTelemetryMapper, times(1)).map(inputDTO, null);
+    verify(deviceTelemetryMapper, never()).map(secondInputDTO, null);
+    verify(deviceTelemetryInsertRepository, times(1)).insert(List.of(mockDeviceTelemetry));
+    verify(eventPublisher, times(1)).publishEvent(
+        new DeviceTelemetrySavedEvent(List.of(inputDTO)));
+
+    assertEquals(3, result.received());
+    assertEquals(1, result.accepted());
+    assertEquals(2, result.duplicated());
+    assertEquals(0, result.rejected());
+    assertEquals(TelemetryItemStatus.CREATED, result.items().get(0).status());
+    assertEquals(TelemetryItemStatus.DUPLICATE, result.items().get(1).status());
+    assertEquals(TelemetryItemStatus.DUPLICATE, result.items().get(2).status());
+  }
+
+  @Test
+  void saveAllWithRecordSavedConcurrently() {
+
+    DeviceTelemetryDTO secondInputDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2,
+        LONGITUDE_2, IS_ACTIVE
+    );
+    DeviceTelemetry secondMockDeviceTelemetry = new DeviceTelemetry();
+    secondMockDeviceTelemetry.setDevice(DEVICE_2);
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryMapper.map(secondInputDTO, null)).thenReturn(secondMockDeviceTelemetry);
+    when(deviceTelemetryInsertRepository.insert(
+        List.of(mockDeviceTelemetry, secondMockDeviceTelemetry))).thenAnswer(invocation -> {
+          secondMockDeviceTelemetry.setId(ID_2);
+          return List.of(secondMockDeviceTelemetry);
+        });
+
+    TelemetryBatchResultDTO result = underTest.saveAll(OWNER, List.of(inputDTO, secondInputDTO));
+
+    verify(deviceLatestRepository, times(1)).upsert(List.of(ID_2));
+    verify(geofenceService, times(1)).evaluate(List.of(secondMockDeviceTelemetry));
+    verify(eventPublisher, times(1)).publishEvent(
+        new DeviceTelemetrySavedEvent(List.of(secondInputDTO)));
+
+    assertEquals(2, result.received());
+    assertEquals(1, result.accepted());
+    assertEquals(1, result.duplicated());
+    assertEquals(TelemetryItemStatus.DUPLICATE, result.items().get(0).status());
+    assertEquals(TelemetryItemStatus.CREATED, result.items().get(1).status());
+    assertTrue(recentTelemetryFilter.isRecent(DEVICE_1, TIME_1));
+  }
+
+  @Test
+  void saveAllWithInvalidRecords() {
+
+    DeviceTelemetryDTO invalidDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, INVALID_LATITUDE,
+        LONGITUDE_2, IS_ACTIVE
+    );
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryInsertRepository.insert(List.of(mockDeviceTelemetry))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+
+    TelemetryBatchResultDTO result = underTest.saveAll(OWNER,
+        Arrays.asList(invalidDTO, inputDTO, null)
+    );
+
+    verify(deviceTelemetryMapper, times(1)).map(inputDTO, null);
+    verify(deviceTelemetryMapper, never()).map(invalidDTO, null);
+    verify(deviceTelemetryInsertRepository, times(1)).insert(List.of(mockDeviceTelemetry));
+
+    assertNotNull(result);
+    assertEquals(3, result.received());
+    assertEquals(1, result.accepted());
+    assertEquals(2, result.rejected());
+    assertEquals(0, result.items().get(0).index());
+    assertEquals(TelemetryItemStatus.REJECTED, result.items().get(0).status());
+    assertEquals(List.of("Latitude must be between -90 and 90"), result.items().get(0).errors());
+    assertEquals(TelemetryItemStatus.CREATED, result.items().get(1).status());
+    assertEquals(TelemetryItemStatus.REJECTED, result.items().get(2).status());
+  }
+
+  @Test
+  void saveAllWithOnlyInvalidRecords() {
+
+    DeviceTelemetryDTO invalidDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, INVALID_LATITUDE,
+        LONGITUDE_2, IS_ACTIVE
+    );
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+
+    TelemetryBatchResultDTO result = underTest.saveAll(OWNER, List.of(invalidDTO));
+
+    verify(deviceTelemetryInsertRepository, never()).insert(anyList());
+
+    assertEquals(0, result.accepted());
+    assertEquals(1, result.rejected());
+  }
+
+  @Test
+  void saveAllWithEmptyBatch() {
+
+    List<DeviceTelemetryDTO> batch = List.of();
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.saveAll(OWNER, batch)
+    );
+
+    verify(trackerAccountRepository, never()).getReferenceById(any());
+    verify(deviceTelemetryInsertRepository, never()).insert(anyList());
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void saveAllExceedingMaximumSize() {
+
+    List<DeviceTelemetryDTO> batch = List.of(inputDTO, inputDTO, inputDTO, inputDTO);
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.saveAll(OWNER, batch)
+    );
+
+    verify(trackerAccountRepository, never()).getReferenceById(any());
+    verify(deviceTelemetryInsertRepository, never()).insert(anyList());
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void saveAllWithNonExistingAccount() {
+
+    String owner = "doe";
+
+    when(trackerAccountRepository.getReferenceById(owner)).thenReturn(mock(TrackerAccount.class));
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryInsertRepository.insert(List.of(mockDeviceTelemetry))).thenThrow(
+        new EntityNotFoundException());
+
+    List<DeviceTelemetryDTO> batch = List.of(inputDTO);
+
+    NotFoundException result = assertThrows(NotFoundException.class,
+        () -> underTest.saveAll(owner, batch)
+    );
+
+    assertEquals(EnduranceTrioError.NOT_FOUND.getCode(), result.getCode());
+  }
+
+  @Test
+  void saveAllWithDuplicateKeyViolation() {
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryInsertRepository.insert(List.of(mockDeviceTelemetry))).thenThrow(
+        new DuplicateKeyException("uk_device_telemetry_device_record_time"));
+
+    List<DeviceTelemetryDTO> batch = List.of(inputDTO);
+
+    assertThrows(DuplicateKeyException.class, () -> underTest.saveAll(OWNER, batch));
+
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void saveAllByOwner() {
+
+    String secondOwner = "doe";
+    TrackerAccount secondMockTrackerAccount = new TrackerAccount(secondOwner, KEY, IS_ENABLED);
+    DeviceTelemetryDTO secondInputDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2,
+        LONGITUDE_2, IS_ACTIVE
+    );
+    DeviceTelemetry secondMockDeviceTelemetry = new DeviceTelemetry();
+
+    Map<String, List<DeviceTelemetryDTO>> telemetryByOwner = new LinkedHashMap<>();
+    telemetryByOwner.put(OWNER, List.of(inputDTO));
+    telemetryByOwner.put(secondOwner, List.of(secondInputDTO));
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(trackerAccountRepository.getReferenceById(secondOwner)).thenReturn(
+        secondMockTrackerAccount);
+    when(deviceTelemetryMapper.map(inputDTO, null)).thenReturn(mockDeviceTelemetry);
+    when(deviceTelemetryMapper.map(secondInputDTO, null)).thenReturn(secondMockDeviceTelemetry);
+    when(deviceTelemetryInsertRepository.insert(
+        List.of(mockDeviceTelemetry, secondMockDeviceTelemetry))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+
+    int result = underTest.saveAllByOwner(telemetryByOwner);
+
+    verify(deviceTelemetryInsertRepository, times(1)).insert(
+        List.of(mockDeviceTelemetry, secondMockDeviceTelemetry));
+    verify(geofenceService, times(1)).evaluate(
+        List.of(mockDeviceTelemetry, secondMockDeviceTelemetry));
+
+    assertEquals(2, result);
+    assertEquals(mockTrackerAccount, mockDeviceTelemetry.getAccount());
+    assertEquals(secondMockTrackerAccount, secondMockDeviceTelemetry.getAccount());
+  }
+
+  @Test
+  void saveAllByOwnerWithOnlyDuplicatedRecords() {
+
+    recentTelemetryFilter.remember(DEVICE_1, TIME_1);
+
+    int result = underTest.saveAllByOwner(Map.of(OWNER, List.of(inputDTO)));
+
+    verify(trackerAccountRepository, never()).getReferenceById(any());
+    verify(deviceTelemetryInsertRepository, never()).insert(anyList());
+    verify(eventPublisher, never()).publishEvent(any());
+
+    assertEquals(0, result);
+  }
+
   @Test
   void findMostRecentRecordForEachDevice() {
 
@@ -174,6 +590,129 @@ void findMostRecentRecordForEachDevice() {
     assertEquals(expectedResultSize, result.size());
   }
 
+  @Test
+  void findMostRecentRecordForEachDeviceFromCache() {
+
+    when(deviceTelemetryRepository.findMostRecentRecordForEachDevice()).thenReturn(
+        List.of(firstPersistedDeviceTelemetry));
+    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+
+    underTest.findMostRecentRecordForEachDevice();
+    latestTelemetryCache.update(secondExpectedDTO);
+    List<DeviceTelemetryDTO> result = underTest.findMostRecentRecordForEachDevice();
+
+    verify(deviceTelemetryRepository, times(1)).findMostRecentRecordForEachDevice();
+    verify(transactionManager, times(1)).getTransaction(any(TransactionDefinition.class));
+
+    assertEquals(List.of(firstExpectedDTO, secondExpectedDTO), result);
+  }
+
+  @Test
+  void loadLatestTelemetryCache() {
+
+    when(deviceTelemetryRepository.findMostRecentRecordForEachDevice()).thenReturn(
+        List.of(firstPersistedDeviceTelemetry));
+    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+
+    underTest.loadLatestTelemetryCache();
+    List<DeviceTelemetryDTO> result = underTest.findMostRecentRecordForEachDevice();
+
+    verify(deviceTelemetryRepository, times(1)).findMostRecentRecordForEachDevice();
+
+    assertEquals(List.of(firstExpectedDTO), result);
+  }
+
+  @Test
+  void findMostRecentRecordChangedSince() {
+
+    when(deviceTelemetryRepository.findMostRecentRecordForEachDevice()).thenReturn(
+        List.of(firstPersistedDeviceTelemetry));
+    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+
+    DeviceTelemetryChangesDTO first = underTest.findMostRecentRecordChangedSince(null);
+    latestTelemetryCache.update(secondExpectedDTO);
+    DeviceTelemetryChangesDTO changes = underTest.findMostRecentRecordChangedSince(first.cursor());
+
+    verify(deviceTelemetryRepository, times(1)).findMostRecentRecordForEachDevice();
+
+    assertEquals(List.of(firstExpectedDTO), first.telemetry());
+    assertEquals(List.of(secondExpectedDTO), changes.telemetry());
+    assertNotNull(changes.cursor());
+  }
+
+  @Test
+  void findMostRecentRecordWithin() {
+
+    when(deviceTelemetryRepository.findMostRecentRecordForEachDevice()).thenReturn(
+        List.of(firstPersistedDeviceTelemetry, secondPersistedDeviceTelemetry));
+    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+    when(deviceTelemetryMapper.map(secondPersistedDeviceTelemetry)).thenReturn(secondExpectedDTO);
+
+    List<DeviceTelemetryDTO> result = underTest.findMostRecentRecordWithin(
+        "-9.138, 39.5, -9.13, 39.52");
+
+    verify(deviceTelemetryRepository, times(1)).findMostRecentRecordForEachDevice();
+
+    assertEquals(List.of(firstExpectedDTO), result);
+  }
+
+  @Test
+  void findMostRecentRecordWithinInvalidBoundingBox() {
+
+    for (String bbox : List.of("-9.2,39.4,-9.0", "-9.2,39.6,-9.0,39.4", "-9.2,39.4,-9.0,x",
+        "-181,39.4,-9.0,39.6", "-9.2,NaN,-9.0,39.6")) {
+      BadRequestException result = assertThrows(BadRequestException.class,
+          () -> underTest.findMostRecentRecordWithin(bbox)
+      );
+      assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+    }
+
+    verify(deviceTelemetryRepository, never()).findMostRecentRecordForEachDevice();
+  }
+
+  @Test
+  void findNearest() {
+
+    when(deviceTelemetryRepository.findMostRecentRecordForEachDevice()).thenReturn(
+        List.of(firstPersistedDeviceTelemetry, secondPersistedDeviceTelemetry));
+    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+    when(deviceTelemetryMapper.map(secondPersistedDeviceTelemetry)).thenReturn(secondExpectedDTO);
+
+    List<NearestDeviceDTO> result = underTest.findNearest(LATITUDE_2, LONGITUDE_2, null);
+
+    assertEquals(List.of(DEVICE_2, DEVICE_1), result.stream().map(NearestDeviceDTO::device)
+        .toList());
+    assertEquals(0, result.getFirst().distance());
+  }
+
+  @Test
+  void findNearestWithInvalidParameters() {
+
+    assertThrows(BadRequestException.class, () -> underTest.findNearest(null, LONGITUDE_1, 1));
+    assertThrows(BadRequestException.class, () -> underTest.findNearest(LATITUDE_1, 181.0, 1));
+    assertThrows(BadRequestException.class, () -> underTest.findNearest(Double.NaN, 0.0, 1));
+    assertThrows(BadRequestException.class, () -> underTest.findNearest(LATITUDE_1, LONGITUDE_1,
+        0
+    ));
+    assertThrows(BadRequestException.class, () -> underTest.findNearest(LATITUDE_1, LONGITUDE_1,
+        NEAREST_MAX_K + 1
+    ));
+
+    verify(deviceTelemetryRepository, never()).findMostRecentRecordForEachDevice();
+  }
+
+  @Test
+  void findMostRecentRecordChangedSinceWithInvalidCursor() {
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findMostRecentRecordChangedSince("not a cursor")
+    );
+
+    verify(deviceTelemetryRepository, never()).findMostRecentRecordForEachDevice();
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
   @Test
   void findMostRecentRecordForEachDeviceWithEmptyData() {
 
@@ -189,4 +728,234 @@ void findMostRecentRecordForEachDeviceWithEmptyData() {
     assertNotNull(result);
     assertEquals(expectedResultSize, result.size());
   }
+
+  @Test
+  void findHistory() {
+
+    DeviceTelemetry laterPersistedDeviceTelemetry = new DeviceTelemetry(mockTrackerAccount,
+        DEVICE_1, TIME_2, LATITUDE_2, LONGITUDE_2, IS_ACTIVE
+    );
+    Instant from = TIME_1.minusSeconds(60);
+    Instant to = TIME_1.plusSeconds(60);
+
+    when(deviceTelemetryRepository.findHistory(eq(DEVICE_1), eq(from), any(), eq(to),
+        eq(Limit.of(HISTORY_DEFAULT_PAGE_SIZE + 1))
+    )).thenReturn(List.of(firstPersistedDeviceTelemetry, laterPersistedDeviceTelemetry));
+    when(deviceTelemetryRepository.findHistory(DEVICE_1, from, TIME_1, to,
+        Limit.of(HISTORY_DEFAULT_PAGE_SIZE + 1)
+    )).thenReturn(List.of(laterPersistedDeviceTelemetry));
+    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+
+    DeviceTelemetryPageDTO firstPage = underTest.findHistory(DEVICE_1, from, to, null, null);
+    DeviceTelemetryPageDTO lastPage = underTest.findHistory(DEVICE_1, from, to, null,
+        firstPage.cursor()
+    );
+
+    verify(deviceTelemetryRepository, times(1)).findHistory(DEVICE_1, from, TIME_1, to,
+        Limit.of(HISTORY_DEFAULT_PAGE_SIZE + 1)
+    );
+
+    assertEquals(List.of(firstExpectedDTO), firstPage.telemetry());
+    assertNotNull(firstPage.cursor());
+    assertEquals(1, lastPage.telemetry().size());
+    assertNull(lastPage.cursor());
+  }
+
+  @Test
+  void findHistoryWithArchivedRecords() {
+
+    Instant from = TIME_1.minusSeconds(60);
+    Instant to = TIME_1.plusSeconds(60);
+    Instant archivedTime = TIME_1.minusSeconds(30);
+
+    when(deviceTelemetryRepository.findHistory(eq(DEVICE_1), eq(from), any(), eq(to),
+        eq(Limit.of(HISTORY_MAX_PAGE_SIZE + 1))
+    )).thenReturn(List.of(firstPersistedDeviceTelemetry));
+    when(deviceTelemetryMapper.map(firstPersistedDeviceTelemetry)).thenReturn(firstExpectedDTO);
+    doAnswer(invocation -> {
+      TelemetryPoints points = invocation.getArgument(4);
+      points.add(TelemetryPoints.toMicros(archivedTime), LATITUDE_2, LONGITUDE_2, false);
+      return null;
+    }).when(telemetryArchiveService).findArchived(eq(DEVICE_1), eq(from), eq(to),
+        eq(HISTORY_MAX_PAGE_SIZE + 1), any(TelemetryPoints.class)
+    );
+
+    DeviceTelemetryPageDTO result = underTest.findHistory(DEVICE_1, from, to,
+        HISTORY_MAX_PAGE_SIZE, null
+    );
+
+    assertEquals(List.of(
+        new DeviceTelemetryDTO(DEVICE_1, archivedTime, LATITUDE_2, LONGITUDE_2, false),
+        firstExpectedDTO
+    ), result.telemetry());
+    assertNull(result.cursor());
+  }
+
+  @Test
+  void findHistoryWithoutTimeRange() {
+
+    when(deviceTelemetryRepository.findHistory(eq(DEVICE_1), any(), any(), any(), any()))
+        .thenReturn(List.of());
+
+    DeviceTelemetryPageDTO result = underTest.findHistory(DEVICE_1, null, null,
+        HISTORY_MAX_PAGE_SIZE, null
+    );
+
+    verify(deviceTelemetryRepository, times(1)).findHistory(eq(DEVICE_1), any(), any(), any(),
+        eq(Limit.of(HISTORY_MAX_PAGE_SIZE + 1))
+    );
+
+    assertEquals(List.of(), result.telemetry());
+    assertNull(result.cursor());
+  }
+
+  @Test
+  void findHistoryWithInvalidPageSize() {
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findHistory(DEVICE_1, null, null, HISTORY_MAX_PAGE_SIZE + 1, null)
+    );
+
+    verify(deviceTelemetryRepository, never()).findHistory(any(), any(), any(), any(), any());
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void findHistoryWithInvalidTimeRange() {
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findHistory(DEVICE_1, TIME_2, TIME_1, null, null)
+    );
+
+    verify(deviceTelemetryRepository, never()).findHistory(any(), any(), any(), any(), any());
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void findHistoryWithInvalidCursor() {
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findHistory(DEVICE_1, null, null, null, "bm90IGEgdGltZQ")
+    );
+
+    verify(deviceTelemetryRepository, never()).findHistory(any(), any(), any(), any(), any());
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void findBuckets() {
+
+    Instant to = TIME_1.plusSeconds(1500);
+    Bucket bucket = new Bucket(DEVICE_1, TIME_1, TIME_2, LATITUDE_1, LONGITUDE_1, IS_ACTIVE, 42);
+
+    when(deviceTelemetryBucketRepository.findLast(Set.of(DEVICE_1, DEVICE_2), TIME_1, to,
+        Duration.ofMinutes(5)
+    )).thenReturn(List.of(bucket));
+
+    List<DeviceTelemetryBucketDTO> result = underTest.findBuckets(
+        Set.of(DEVICE_1, " " + DEVICE_2 + " ", " "), TIME_1, to, "5m", null
+    );
+
+    assertEquals(List.of(new DeviceTelemetryBucketDTO(DEVICE_1, TIME_1, TIME_2, LATITUDE_1,
+        LONGITUDE_1, IS_ACTIVE, 42
+    )), result);
+  }
+
+  @Test
+  void findBucketsWithArchivedRecords() {
+
+    Instant to = TIME_1.plusSeconds(600);
+    Instant secondBucket = TIME_1.plusSeconds(300);
+    Bucket bucket = new Bucket(DEVICE_1, TIME_1, TIME_1, 10.0, 20.0, false, 2);
+
+    when(deviceTelemetryBucketRepository.findCentroid(Set.of(DEVICE_1), TIME_1, to,
+        Duration.ofMinutes(5)
+    )).thenReturn(List.of(bucket));
+    when(telemetryArchiveService.findArchivedDays(DEVICE_1, TIME_1, to)).thenReturn(
+        List.of(LocalDate.parse("2026-09-19")));
+    doAnswer(invocation -> {
+      TelemetryPoints points = invocation.getArgument(4);
+      points.add(TelemetryPoints.toMicros(TIME_1.plusSeconds(30)), 40.0, 50.0, true);
+      points.add(TelemetryPoints.toMicros(secondBucket.plusSeconds(100)), 1.0, 2.0, false);
+      return null;
+    }).when(telemetryArchiveService).findArchived(eq(DEVICE_1), eq(TIME_1), eq(to),
+        eq(Integer.MAX_VALUE), any(TelemetryPoints.class)
+    );
+
+    List<DeviceTelemetryBucketDTO> result = underTest.findBuckets(Set.of(DEVICE_1), TIME_1, to,
+        "5m", TelemetryBucketPoint.CENTROID
+    );
+
+    assertEquals(List.of(
+        new DeviceTelemetryBucketDTO(DEVICE_1, TIME_1, TIME_1, 20.0, 30.0, true, 3),
+        new DeviceTelemetryBucketDTO(DEVICE_1, secondBucket, secondBucket, 1.0, 2.0, false, 1)
+    ), result);
+  }
+
+  @Test
+  void findBucketsWithFirstAndCentroidPoints() {
+
+    Instant to = TIME_1.plusSeconds(100);
+
+    underTest.findBuckets(Set.of(DEVICE_1), TIME_1, to, "PT10S", TelemetryBucketPoint.FIRST);
+    underTest.findBuckets(Set.of(DEVICE_1), TIME_1, to, "10s", TelemetryBucketPoint.CENTROID);
+
+    verify(deviceTelemetryBucketRepository, times(1)).findFirst(Set.of(DEVICE_1), TIME_1, to,
+        Duration.ofSeconds(10)
+    );
+    verify(deviceTelemetryBucketRepository, times(1)).findCentroid(Set.of(DEVICE_1), TIME_1, to,
+        Duration.ofSeconds(10)
+    );
+  }
+
+  @Test
+  void findBucketsWithInvalidBucketSize() {
+
+    for (String bucket : Arrays.asList(null, "soon", "0s", "1500ms")) {
+      BadRequestException result = assertThrows(BadRequestException.class,
+          () -> underTest.findBuckets(Set.of(DEVICE_1), TIME_1, TIME_2, bucket, null)
+      );
+
+      assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+    }
+  }
+
+  @Test
+  void findBucketsWithInvalidTimeRange() {
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findBuckets(Set.of(DEVICE_1), TIME_2, TIME_1, "1s", null)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void findBucketsWithoutDevices() {
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findBuckets(Set.of(" "), TIME_1, TIME_2, "1s", null)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void findBucketsWithTooManyBuckets() {
+
+    // 2 devices of 6 one second buckets exceed the 10 buckets allowed
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findBuckets(Set.of(DEVICE_1, DEVICE_2), TIME_1, TIME_1.plusSeconds(6),
+            "1s", null
+        )
+    );
+
+    verify(deviceTelemetryBucketRepository, never()).findLast(any(), any(), any(), any());
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.business.tracker.dto.geojson.Feature;
+import com.endurancetrio.business.tracker.dto.geojson.LineStringGeometry;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryExportRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryExportRepository.RowHandler;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceTrackServiceMainTest {
+
+  private static final String DEVICE = "SDABC";
+  private static final Instant FROM = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Instant TO = Instant.parse("2026-09-19T07:00:00Z");
+
+  @Mock
+  private DeviceTelemetryExportRepository telemetryRepository;
+
+  @Mock
+  private TelemetryArchiveService telemetryArchiveService;
+
+  private DeviceTrackServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new DeviceTrackServiceMain(telemetryRepository, telemetryArchiveService);
+  }
+
+  @Test
+  void findTrackWithoutTolerance() {
+    whenRead(FROM, TO, 3);
+
+    Feature result = underTest.findTrack(DEVICE, FROM, TO, null);
+
+    assertEquals("Feature", result.type());
+    assertEquals(List.of(List.of(-9.0, 39.0), List.of(-9.0, 39.0001), List.of(-9.0, 39.0002)),
+        ((LineStringGeometry) result.geometry()).coordinates()
+    );
+    assertEquals(DEVICE, result.properties().get("device"));
+    assertEquals(FROM, result.properties().get("from"));
+    assertEquals(FROM.plusSeconds(2), result.properties().get("to"));
+    assertEquals(3, result.properties().get("positions"));
+    assertEquals(3, result.properties().get("simplifiedPositions"));
+  }
+
+  @Test
+  void findTrackWithTolerance() {
+    whenRead(Instant.EPOCH, Instant.parse("9999-12-31T00:00:00Z"), 3);
+
+    Feature result = underTest.findTrack(DEVICE, null, null, 1.0);
+
+    assertEquals(List.of(List.of(-9.0, 39.0), List.of(-9.0, 39.0002)),
+        ((LineStringGeometry) result.geometry()).coordinates()
+    );
+    assertEquals(3, result.properties().get("positions"));
+    assertEquals(2, result.properties().get("simplifiedPositions"));
+  }
+
+  @Test
+  void findTrackMergesArchivedPositionsByTime() {
+    whenRead(FROM, TO, 2);
+    doAnswer(invocation -> {
+      TelemetryPoints points = invocation.getArgument(4);
+      points.add(TelemetryPoints.toMicros(FROM.minusSeconds(10)), 38.0, -8.0, true);
+      points.add(TelemetryPoints.toMicros(FROM.plusSeconds(1)), 38.5, -8.5, true);
+      points.add(TelemetryPoints.toMicros(FROM.plusSeconds(5)), 40.0, -10.0, false);
+      return null;
+    }).when(telemetryArchiveService).findArchived(eq(DEVICE), eq(FROM), eq(TO),
+        eq(Integer.MAX_VALUE), any(TelemetryPoints.class)
+    );
+
+    Feature result = underTest.findTrack(DEVICE, FROM, TO, null);
+
+    assertEquals(List.of(List.of(-8.0, 38.0), List.of(-9.0, 39.0), List.of(-8.5, 38.5),
+            List.of(-10.0, 40.0)
+        ), ((LineStringGeometry) result.geometry()).coordinates()
+    );
+    assertEquals(FROM.minusSeconds(10), result.properties().get("from"));
+    assertEquals(FROM.plusSeconds(5), result.properties().get("to"));
+    assertEquals(4, result.properties().get("positions"));
+  }
+
+  @Test
+  void findTrackWithLessThanTwoPositions() {
+    whenRead(FROM, TO, 1);
+
+    NotFoundException result = assertThrows(NotFoundException.class,
+        () -> underTest.findTrack(DEVICE, FROM, TO, null)
+    );
+
+    assertEquals(EnduranceTrioError.NOT_FOUND.getCode(), result.getCode());
+  }
+
+  @Test
+  void findTrackWithEmptyTimeRange() {
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findTrack(DEVICE, TO, FROM, null)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+    verifyNoInteractions(telemetryRepository);
+  }
+
+  @Test
+  void findTrackWithNegativeTolerance() {
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.findTrack(DEVICE, FROM, TO, -1.0)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+    verifyNoInteractions(telemetryRepository);
+  }
+
+  private void whenRead(Instant from, Instant to, int positions) {
+    when(telemetryRepository.export(eq(Set.of(DEVICE)), eq(from), eq(to), any(RowHandler.class)))
+        .thenAnswer(invocation -> {
+          RowHandler handler = invocation.getArgument(3);
+          try {
+            for (int i = 0; i < positions; i++) {
+              handler.handle(DEVICE, FROM.plusSeconds(i), 39.0 + i * 0.0001, -9.0, true);
+            }
+          } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+          }
+          return (long) positions;
+        });
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.tracker.dto.GeofenceEventType;
+import com.endurancetrio.business.tracker.event.GeofenceChangedEvent;
+import com.endurancetrio.business.tracker.geo.Fence;
+import com.endurancetrio.business.tracker.service.GeofenceEvaluator.Transition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class GeofenceEvaluatorTest {
+
+  private static final String OWNER = "system";
+  private static final String OTHER_OWNER = "doe";
+  private static final String DEVICE = "SDABC";
+  private static final Instant TIME_1 = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Instant TIME_2 = Instant.parse("2026-09-19T06:00:06Z");
+  private static final Instant TIME_3 = Instant.parse("2026-09-19T06:00:12Z");
+  private static final double INSIDE_LONGITUDE = -9.136079;
+  private static final double INSIDE_LATITUDE = 39.510058;
+  private static final double OUTSIDE_LONGITUDE = -9.0;
+  private static final double OUTSIDE_LATITUDE = 39.0;
+  private static final long FENCE_ID = 1L;
+  private static final Fence FENCE = Fence.circle(FENCE_ID, INSIDE_LONGITUDE, INSIDE_LATITUDE,
+      150
+  );
+
+  private SimpleMeterRegistry meterRegistry;
+  private GeofenceEvaluator underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new GeofenceEvaluator(meterRegistry, 0.1);
+    underTest.load(Map.of(OWNER, List.of(FENCE)));
+  }
+
+  @Test
+  void evaluateReportsEnterAndExit() {
+
+    assertEquals(List.of(),
+        underTest.evaluate(OWNER, DEVICE, TIME_1, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.ENTER)),
+        underTest.evaluate(OWNER, DEVICE, TIME_2, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.EXIT)),
+        underTest.evaluate(OWNER, DEVICE, TIME_3, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+    assertEquals(3, meterRegistry.get("geofence.evaluation").timer().count());
+  }
+
+  @Test
+  void evaluateReportsEnterForTheFirstPositionInside() {
+
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.ENTER)),
+        underTest.evaluate(OWNER, DEVICE, TIME_1, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+    assertEquals(List.of(),
+        underTest.evaluate(OWNER, DEVICE, TIME_2, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+  }
+
+  @Test
+  void evaluateIgnoresOlderPositions() {
+
+    underTest.evaluate(OWNER, DEVICE, TIME_2, INSIDE_LONGITUDE, INSIDE_LATITUDE);
+
+    assertEquals(List.of(),
+        underTest.evaluate(OWNER, DEVICE, TIME_1, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+    assertEquals(List.of(),
+        underTest.evaluate(OWNER, DEVICE, TIME_2, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.EXIT)),
+        underTest.evaluate(OWNER, DEVICE, TIME_3, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+  }
+
+  @Test
+  void evaluateOnlyUsesTheFencesOfTheAccount() {
+
+    assertEquals(List.of(),
+        underTest.evaluate(OTHER_OWNER, DEVICE, TIME_1, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+  }
+
+  @Test
+  void evaluateKeepsTheStateOfEachAccount() {
+
+    underTest.load(Map.of(OWNER, List.of(FENCE), OTHER_OWNER, List.of(FENCE)));
+    underTest.evaluate(OWNER, DEVICE, TIME_1, INSIDE_LONGITUDE, INSIDE_LATITUDE);
+
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.ENTER)),
+        underTest.evaluate(OTHER_OWNER, DEVICE, TIME_2, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+    assertEquals(List.of(),
+        underTest.evaluate(OWNER, DEVICE, TIME_3, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+  }
+
+  @Test
+  void evaluateAppliesTheStateOnCommit() {
+
+    inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+      assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.ENTER)),
+          underTest.evaluate(OWNER, DEVICE, TIME_1, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+      );
+      // The positions of the same transaction see each other
+      assertEquals(List.of(),
+          underTest.evaluate(OWNER, DEVICE, TIME_2, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+      );
+    });
+
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.EXIT)),
+        underTest.evaluate(OWNER, DEVICE, TIME_3, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+  }
+
+  @Test
+  void evaluateDiscardsTheStateOnRollback() {
+
+    inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+        () -> underTest.evaluate(OWNER, DEVICE, TIME_1, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+
+    // The retry of the rolled back position reports its events again
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.ENTER)),
+        underTest.evaluate(OWNER, DEVICE, TIME_1, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+  }
+
+  @Test
+  void seedDoesNotReportTheFencesTheDeviceIsAlreadyInside() {
+
+    underTest.seed(OWNER, DEVICE, TIME_1, INSIDE_LONGITUDE, INSIDE_LATITUDE);
+
+    assertEquals(List.of(),
+        underTest.evaluate(OWNER, DEVICE, TIME_2, INSIDE_LONGITUDE, INSIDE_LATITUDE)
+    );
+    assertEquals(List.of(new Transition(FENCE_ID, GeofenceEventType.EXIT)),
+        underTest.evaluate(OWNER, DEVICE, TIME_3, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+  }
+
+  @Test
+  void onGeofenceChangedAddsAndRemovesFences() {
+
+    long addedId = 6L;
+    underTest.evaluate(OWNER, DEVICE, TIME_1, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE);
+    underTest.onGeofenceChanged(new GeofenceChangedEvent(OWNER, addedId,
+        Fence.circle(addedId, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE, 150)
+    ));
+
+    assertEquals(2, underTest.size());
+    assertEquals(List.of(new Transition(addedId, GeofenceEventType.ENTER)),
+        underTest.evaluate(OWNER, DEVICE, TIME_2, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE)
+    );
+
+    // A deleted fence is forgotten without an exit
+    underTest.onGeofenceChanged(new GeofenceChangedEvent(OWNER, addedId, null));
+
+    assertEquals(1, underTest.size());
+    assertEquals(1.0, meterRegistry.get("geofence.fences").gauge().value());
+    assertTrue(
+        underTest.evaluate(OWNER, DEVICE, TIME_3, OUTSIDE_LONGITUDE, OUTSIDE_LATITUDE).isEmpty()
+    );
+  }
+
+  private static void inTransaction(int status, Runnable action) {
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      action.run();
+      List<TransactionSynchronization> synchronizations =
+          TransactionSynchronizationManager.getSynchronizations();
+      if (status == TransactionSynchronization.STATUS_COMMITTED) {
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+      }
+      synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+}
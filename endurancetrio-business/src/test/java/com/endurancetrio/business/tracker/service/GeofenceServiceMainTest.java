@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.tracker.dto.GeofenceDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventPageDTO;
+import com.endurancetrio.business.tracker.dto.GeofenceEventType;
+import com.endurancetrio.business.tracker.dto.GeofenceShape;
+import com.endurancetrio.business.tracker.event.GeofenceChangedEvent;
+import com.endurancetrio.business.tracker.geo.Fence;
+import com.endurancetrio.business.tracker.mapper.GeofenceMapper;
+import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
+import com.endurancetrio.data.tracker.model.entity.Geofence;
+import com.endurancetrio.data.tracker.model.entity.Geofence.Shape;
+import com.endurancetrio.data.tracker.model.entity.GeofenceEvent;
+import com.endurancetrio.data.tracker.model.entity.GeofenceEvent.Type;
+import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRepository;
+import com.endurancetrio.data.tracker.repository.GeofenceEventRepository;
+import com.endurancetrio.data.tracker.repository.GeofenceRepository;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class GeofenceServiceMainTest {
+
+  private static final String OWNER = "system";
+  private static final String KEY = "TEST_ACCOUNT_KEY_1234567890";
+  private static final boolean IS_ENABLED = true;
+
+  private static final Long GEOFENCE_ID = 6L;
+  private static final String NAME = "Finish Line";
+  private static final String DEVICE = "SDABC";
+  private static final Instant TIME_1 = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Instant TIME_2 = Instant.parse("2026-09-19T06:00:06Z");
+  private static final Instant TIME_3 = Instant.parse("2026-09-19T06:00:12Z");
+  private static final Double INSIDE_LATITUDE = 39.510058;
+  private static final Double INSIDE_LONGITUDE = -9.136079;
+  private static final Double OUTSIDE_LATITUDE = 39.0;
+  private static final Double OUTSIDE_LONGITUDE = -9.0;
+  private static final Double RADIUS = 150.0;
+  private static final List<List<Double>> SQUARE = List.of(List.of(-9.2, 39.4),
+      List.of(-9.0, 39.4), List.of(-9.0, 39.6), List.of(-9.2, 39.6)
+  );
+  private static final double MAX_RADIUS = 1000;
+  private static final int MAX_VERTICES = 5;
+  private static final int EVENTS_DEFAULT_PAGE_SIZE = 1;
+  private static final int EVENTS_MAX_PAGE_SIZE = 2;
+  private static final Instant EVENTS_END = Instant.parse("9999-12-31T00:00:00Z");
+
+  private TrackerAccount mockTrackerAccount;
+  private GeofenceDTO circleDTO;
+
+  @Mock
+  private TrackerAccountRepository trackerAccountRepository;
+
+  @Mock
+  private GeofenceRepository geofenceRepository;
+
+  @Mock
+  private GeofenceEventRepository geofenceEventRepository;
+
+  @Mock
+  private DeviceTelemetryRepository deviceTelemetryRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private GeofenceMapper geofenceMapper = new GeofenceMapper();
+
+  @Spy
+  private GeofenceEvaluator geofenceEvaluator = new GeofenceEvaluator(new SimpleMeterRegistry(),
+      0.1
+  );
+
+  @Captor
+  private ArgumentCaptor<GeofenceChangedEvent> changedEventCaptor;
+
+  @Captor
+  private ArgumentCaptor<List<GeofenceEvent>> eventsCaptor;
+
+  @InjectMocks
+  private GeofenceServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    mockTrackerAccount = new TrackerAccount(OWNER, KEY, IS_ENABLED);
+    circleDTO = new GeofenceDTO(null, NAME, GeofenceShape.CIRCLE, INSIDE_LATITUDE,
+        INSIDE_LONGITUDE, RADIUS, null
+    );
+
+    ReflectionTestUtils.setField(underTest, "maxRadius", MAX_RADIUS);
+    ReflectionTestUtils.setField(underTest, "maxVertices", MAX_VERTICES);
+    ReflectionTestUtils.setField(underTest, "eventsDefaultPageSize", EVENTS_DEFAULT_PAGE_SIZE);
+    ReflectionTestUtils.setField(underTest, "eventsMaxPageSize", EVENTS_MAX_PAGE_SIZE);
+  }
+
+  @Test
+  void save() {
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(geofenceRepository.save(any(Geofence.class))).thenAnswer(invocation -> {
+      Geofence geofence = invocation.getArgument(0);
+      geofence.setId(GEOFENCE_ID);
+      return geofence;
+    });
+
+    GeofenceDTO result = underTest.save(OWNER,
+        new GeofenceDTO(99L, NAME, GeofenceShape.CIRCLE, INSIDE_LATITUDE, INSIDE_LONGITUDE,
+            RADIUS, SQUARE
+        )
+    );
+
+    verify(geofenceRepository, times(1)).existsByOwnerAndName(OWNER, NAME);
+    verify(eventPublisher, times(1)).publishEvent(changedEventCaptor.capture());
+
+    assertEquals(new GeofenceDTO(GEOFENCE_ID, NAME, GeofenceShape.CIRCLE, INSIDE_LATITUDE,
+        INSIDE_LONGITUDE, RADIUS, null
+    ), result);
+    assertEquals(OWNER, changedEventCaptor.getValue().owner());
+    assertEquals(GEOFENCE_ID, changedEventCaptor.getValue().id());
+    assertEquals(GEOFENCE_ID, changedEventCaptor.getValue().fence().getId());
+  }
+
+  @Test
+  void saveDropsTheClosingVertexOfPolygons() {
+
+    List<List<Double>> closed = new ArrayList<>(SQUARE);
+    closed.add(SQUARE.getFirst());
+
+    when(trackerAccountRepository.getReferenceById(OWNER)).thenReturn(mockTrackerAccount);
+    when(geofenceRepository.save(any(Geofence.class))).thenAnswer(invocation -> {
+      Geofence geofence = invocation.getArgument(0);
+      geofence.setId(GEOFENCE_ID);
+      return geofence;
+    });
+
+    GeofenceDTO result = underTest.save(OWNER,
+        new GeofenceDTO(null, NAME, GeofenceShape.POLYGON, null, null, null, closed)
+    );
+
+    assertEquals(SQUARE, result.coordinates());
+    assertNull(result.radius());
+  }
+
+  @Test
+  void saveWithInvalidGeometry() {
+
+    List<GeofenceDTO> invalid = List.of(
+        new GeofenceDTO(null, NAME, GeofenceShape.CIRCLE, 91.0, INSIDE_LONGITUDE, RADIUS, null),
+        new GeofenceDTO(null, NAME, GeofenceShape.CIRCLE, INSIDE_LATITUDE, INSIDE_LONGITUDE, 0.0,
+            null
+        ),
+        new GeofenceDTO(null, NAME, GeofenceShape.CIRCLE, INSIDE_LATITUDE, INSIDE_LONGITUDE,
+            MAX_RADIUS + 1, null
+        ),
+        new GeofenceDTO(null, NAME, GeofenceShape.POLYGON, null, null, null, null),
+        new GeofenceDTO(null, NAME, GeofenceShape.POLYGON, null, null, null,
+            SQUARE.subList(0, 2)
+        ),
+        new GeofenceDTO(null, NAME, GeofenceShape.POLYGON, null, null, null,
+            List.of(List.of(-9.2, 39.4), List.of(-9.0, 39.4), List.of(-9.0, 139.6))
+        ),
+        new GeofenceDTO(null, NAME, GeofenceShape.POLYGON, null, null, null,
+            List.of(List.of(179.0, 0.0), List.of(-179.0, 0.0), List.of(-179.0, 1.0))
+        ),
+        new GeofenceDTO(null, NAME, GeofenceShape.POLYGON, null, null, null,
+            List.of(List.of(0.0, 0.0), List.of(1.0, 0.0), List.of(1.0, 1.0), List.of(0.5, 1.5),
+                List.of(0.0, 1.0), List.of(-0.5, 0.5)
+            )
+        )
+    );
+
+    for (GeofenceDTO geofenceDTO : invalid) {
+      assertThrows(BadRequestException.class, () -> underTest.save(OWNER, geofenceDTO),
+          geofenceDTO.toString()
+      );
+    }
+    verify(geofenceRepository, never()).save(any());
+  }
+
+  @Test
+  void saveWithDuplicatedName() {
+
+    when(geofenceRepository.existsByOwnerAndName(OWNER, NAME)).thenReturn(true);
+
+    assertThrows(BadRequestException.class, () -> underTest.save(OWNER, circleDTO));
+
+    verify(geofenceRepository, never()).save(any());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void delete() {
+
+    Geofence geofence = geofence();
+    when(geofenceRepository.findByIdAndOwner(GEOFENCE_ID, OWNER)).thenReturn(
+        Optional.of(geofence));
+
+    underTest.delete(OWNER, GEOFENCE_ID);
+
+    verify(geofenceEventRepository, times(1)).deleteByGeofenceId(GEOFENCE_ID);
+    verify(geofenceRepository, times(1)).delete(geofence);
+    verify(eventPublisher, times(1)).publishEvent(
+        new GeofenceChangedEvent(OWNER, GEOFENCE_ID, null));
+  }
+
+  @Test
+  void deleteNonExistingGeofence() {
+
+    when(geofenceRepository.findByIdAndOwner(GEOFENCE_ID, OWNER)).thenReturn(Optional.empty());
+
+    assertThrows(NotFoundException.class, () -> underTest.delete(OWNER, GEOFENCE_ID));
+
+    verify(geofenceEventRepository, never()).deleteByGeofenceId(any());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void evaluateSavesTheEventsInTimeOrder() {
+
+    geofenceEvaluator.load(Map.of(OWNER, List.of(
+        Fence.circle(GEOFENCE_ID, INSIDE_LONGITUDE, INSIDE_LATITUDE, RADIUS))));
+
+    DeviceTelemetry inside = new DeviceTelemetry(mockTrackerAccount, DEVICE, TIME_2,
+        INSIDE_LATITUDE, INSIDE_LONGITUDE, true
+    );
+    DeviceTelemetry outside = new DeviceTelemetry(mockTrackerAccount, DEVICE, TIME_1,
+        OUTSIDE_LATITUDE, OUTSIDE_LONGITUDE, true
+    );
+
+    underTest.evaluate(List.of(inside, outside));
+
+    verify(geofenceEventRepository, times(1)).saveAll(eventsCaptor.capture());
+
+    List<GeofenceEvent> events = eventsCaptor.getValue();
+    assertEquals(1, events.size());
+    assertEquals(GEOFENCE_ID, events.getFirst().getGeofenceId());
+    assertEquals(mockTrackerAccount, events.getFirst().getAccount());
+    assertEquals(DEVICE, events.getFirst().getDevice());
+    assertEquals(Type.ENTER, events.getFirst().getType());
+    assertEquals(TIME_2, events.getFirst().getTime());
+  }
+
+  @Test
+  void evaluateWithoutCrossings() {
+
+    underTest.evaluate(List.of(new DeviceTelemetry(mockTrackerAccount, DEVICE, TIME_1,
+        INSIDE_LATITUDE, INSIDE_LONGITUDE, true
+    )));
+
+    verify(geofenceEventRepository, never()).saveAll(anyList());
+  }
+
+  @Test
+  void findEvents() {
+
+    GeofenceEvent first = event(1L, TIME_1);
+    GeofenceEvent second = event(51L, TIME_2);
+    GeofenceEvent third = event(101L, TIME_3);
+
+    when(geofenceEventRepository.findPage(OWNER, TIME_1, 0L, EVENTS_END,
+        Limit.of(EVENTS_MAX_PAGE_SIZE + 1)
+    )).thenReturn(List.of(first, second, third));
+
+    GeofenceEventPageDTO page = underTest.findEvents(OWNER, null, TIME_1, null,
+        EVENTS_MAX_PAGE_SIZE, null
+    );
+
+    assertEquals(List.of(1L, 51L), page.events().stream().map(GeofenceEventDTO::id).toList());
+    assertEquals(GeofenceEventType.ENTER, page.events().getFirst().type());
+    assertNotNull(page.cursor());
+
+    when(geofenceEventRepository.findPage(OWNER, TIME_2, 51L, EVENTS_END,
+        Limit.of(EVENTS_MAX_PAGE_SIZE + 1)
+    )).thenReturn(List.of(third));
+
+    GeofenceEventPageDTO next = underTest.findEvents(OWNER, "", TIME_1, null,
+        EVENTS_MAX_PAGE_SIZE, page.cursor()
+    );
+
+    assertEquals(List.of(101L), next.events().stream().map(GeofenceEventDTO::id).toList());
+    assertNull(next.cursor());
+  }
+
+  @Test
+  void findEventsOfDevice() {
+
+    when(geofenceEventRepository.findPageByDevice(OWNER, DEVICE, Instant.EPOCH, 0L, TIME_3,
+        Limit.of(EVENTS_DEFAULT_PAGE_SIZE + 1)
+    )).thenReturn(List.of(event(1L, TIME_1)));
+
+    GeofenceEventPageDTO page = underTest.findEvents(OWNER, DEVICE, null, TIME_3, null, null);
+
+    assertEquals(1, page.events().size());
+    assertNull(page.cursor());
+    verify(geofenceEventRepository, never()).findPage(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void findEventsWithInvalidRequest() {
+
+    assertThrows(BadRequestException.class,
+        () -> underTest.findEvents(OWNER, null, null, null, EVENTS_MAX_PAGE_SIZE + 1, null)
+    );
+    assertThrows(BadRequestException.class,
+        () -> underTest.findEvents(OWNER, null, TIME_2, TIME_1, null, null)
+    );
+    assertThrows(BadRequestException.class,
+        () -> underTest.findEvents(OWNER, null, null, null, null, "not-a-cursor")
+    );
+  }
+
+  @Test
+  void loadGeofencesSeedsTheDevicesAlreadyInside() {
+
+    when(geofenceRepository.findAll()).thenReturn(List.of(geofence()));
+    when(deviceTelemetryRepository.findMostRecentRecordForEachDevice()).thenReturn(List.of(
+        new DeviceTelemetry(mockTrackerAccount, DEVICE, TIME_1, INSIDE_LATITUDE,
+            INSIDE_LONGITUDE, true
+        )));
+
+    underTest.loadGeofences();
+
+    assertEquals(1, geofenceEvaluator.size());
+    assertEquals(List.of(), geofenceEvaluator.evaluate(OWNER, DEVICE, TIME_2, INSIDE_LONGITUDE,
+        INSIDE_LATITUDE
+    ));
+  }
+
+  private Geofence geofence() {
+    Geofence geofence = new Geofence();
+    geofence.setId(GEOFENCE_ID);
+    geofence.setAccount(mockTrackerAccount);
+    geofence.setName(NAME);
+    geofence.setShape(Shape.CIRCLE);
+    geofence.setLatitude(INSIDE_LATITUDE);
+    geofence.setLongitude(INSIDE_LONGITUDE);
+    geofence.setRadius(RADIUS);
+    return geofence;
+  }
+
+  private GeofenceEvent event(Long id, Instant time) {
+    GeofenceEvent event = new GeofenceEvent(GEOFENCE_ID, mockTrackerAccount, DEVICE, Type.ENTER,
+        time, INSIDE_LATITUDE, INSIDE_LONGITUDE
+    );
+    event.setId(id);
+    return event;
+  }
+}
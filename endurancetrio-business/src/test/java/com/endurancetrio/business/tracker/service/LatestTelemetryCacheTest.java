@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryChangesDTO;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.NearestDeviceDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetryImportedEvent;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LatestTelemetryCacheTest {
+
+  private static final String DEVICE_1 = "SDABC";
+  private static final String DEVICE_2 = "SDDEF";
+  private static final Instant TIME_1 = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Instant TIME_2 = Instant.parse("2026-09-19T06:00:06Z");
+  private static final Double LATITUDE = 39.510058;
+  private static final Double LONGITUDE = -9.136079;
+  private static final double GRID_CELL_SIZE = 0.1;
+
+  private static final DeviceTelemetryDTO DEVICE_1_AT_TIME_1 = new DeviceTelemetryDTO(DEVICE_1,
+      TIME_1, LATITUDE, LONGITUDE, true
+  );
+  private static final DeviceTelemetryDTO DEVICE_1_AT_TIME_2 = new DeviceTelemetryDTO(DEVICE_1,
+      TIME_2, LATITUDE, LONGITUDE, true
+  );
+  private static final DeviceTelemetryDTO DEVICE_2_AT_TIME_1 = new DeviceTelemetryDTO(DEVICE_2,
+      TIME_1, LATITUDE, LONGITUDE, true
+  );
+
+  private SimpleMeterRegistry meterRegistry;
+  private LatestTelemetryCache underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new LatestTelemetryCache(meterRegistry, GRID_CELL_SIZE);
+  }
+
+  @Test
+  void findAllWhenNotLoaded() {
+
+    assertTrue(underTest.findAll().isEmpty());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+  }
+
+  @Test
+  void findAll() {
+
+    underTest.load(List.of(DEVICE_2_AT_TIME_1, DEVICE_1_AT_TIME_1));
+
+    assertEquals(List.of(DEVICE_1_AT_TIME_1, DEVICE_2_AT_TIME_1),
+        underTest.findAll().orElseThrow()
+    );
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+    assertEquals(2.0, meterRegistry.get("cache.size").gauge().value());
+  }
+
+  @Test
+  void findWithinWhenNotLoaded() {
+
+    assertTrue(underTest.findWithin(-10, 39, -9, 40).isEmpty());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+  }
+
+  @Test
+  void findWithin() {
+
+    DeviceTelemetryDTO edge = new DeviceTelemetryDTO(DEVICE_2, TIME_1, 39.6, -9.0, true);
+    DeviceTelemetryDTO outside = new DeviceTelemetryDTO("SDGHI", TIME_1, 39.6, -8.99, true);
+    underTest.load(List.of(outside, edge, DEVICE_1_AT_TIME_1));
+
+    assertEquals(List.of(DEVICE_1_AT_TIME_1, edge),
+        underTest.findWithin(-9.2, 39.4, -9.0, 39.6).orElseThrow()
+    );
+    assertEquals(List.of(outside), underTest.findWithin(-8.995, 39.55, -8.9, 39.7).orElseThrow());
+    assertEquals(3, underTest.findWithin(-180, -90, 180, 90).orElseThrow().size());
+  }
+
+  @Test
+  void findWithinFollowsMovedDevices() {
+
+    DeviceTelemetryDTO moved = new DeviceTelemetryDTO(DEVICE_1, TIME_2, 41.15, -8.61, true);
+    underTest.load(List.of(DEVICE_1_AT_TIME_1));
+    underTest.update(moved);
+
+    assertEquals(List.of(), underTest.findWithin(-9.2, 39.4, -9.0, 39.6).orElseThrow());
+    assertEquals(List.of(moved), underTest.findWithin(-8.7, 41.1, -8.5, 41.2).orElseThrow());
+  }
+
+  @Test
+  void findWithinAcrossTheAntimeridian() {
+
+    DeviceTelemetryDTO east = new DeviceTelemetryDTO(DEVICE_1, TIME_1, -17.7, 179.5, true);
+    DeviceTelemetryDTO west = new DeviceTelemetryDTO(DEVICE_2, TIME_1, -17.7, -179.5, true);
+    underTest.load(List.of(east, west, new DeviceTelemetryDTO("SDGHI", TIME_1, -17.7, 0.0, true)));
+
+    assertEquals(List.of(east, west), underTest.findWithin(179, -18, -179, -17).orElseThrow());
+  }
+
+  @Test
+  void findNearest() {
+
+    DeviceTelemetryDTO far = new DeviceTelemetryDTO(DEVICE_2, TIME_1, 41.15, -8.61, true);
+    underTest.load(List.of(far, DEVICE_1_AT_TIME_1));
+
+    List<NearestDeviceDTO> result = underTest.findNearest(-9.136079, 39.511058, 1).orElseThrow();
+
+    assertEquals(List.of(new NearestDeviceDTO(DEVICE_1, TIME_1, LATITUDE, LONGITUDE, true, 111)),
+        result
+    );
+    assertEquals(List.of(DEVICE_1, DEVICE_2), underTest.findNearest(-9.1, 39.5, 5)
+        .orElseThrow()
+        .stream()
+        .map(NearestDeviceDTO::device)
+        .toList());
+  }
+
+  @Test
+  void findNearestWhenNotLoaded() {
+
+    assertTrue(underTest.findNearest(-9.1, 39.5, 1).isEmpty());
+  }
+
+  @Test
+  void updateKeepsTheNewestRecord() {
+
+    underTest.load(List.of());
+    underTest.update(DEVICE_1_AT_TIME_2);
+    underTest.update(DEVICE_1_AT_TIME_1);
+
+    assertEquals(List.of(DEVICE_1_AT_TIME_2), underTest.findAll().orElseThrow());
+  }
+
+  @Test
+  void updateIgnoresInactiveRecords() {
+
+    DeviceTelemetryDTO inactive = new DeviceTelemetryDTO(DEVICE_1, TIME_2, LATITUDE, LONGITUDE,
+        false
+    );
+
+    underTest.load(List.of(DEVICE_1_AT_TIME_1));
+    underTest.update(inactive);
+
+    assertEquals(List.of(DEVICE_1_AT_TIME_1), underTest.findAll().orElseThrow());
+  }
+
+  @Test
+  void loadKeepsNewerRecordsCachedMeanwhile() {
+
+    underTest.update(DEVICE_1_AT_TIME_2);
+    underTest.load(List.of(DEVICE_1_AT_TIME_1));
+
+    assertEquals(List.of(DEVICE_1_AT_TIME_2), underTest.findAll().orElseThrow());
+  }
+
+  @Test
+  void updateWithConcurrentOutOfOrderRecords() throws InterruptedException {
+
+    List<DeviceTelemetryDTO> records = new ArrayList<>();
+    IntStream.range(0, 1000).forEach(second -> records.add(new DeviceTelemetryDTO(DEVICE_1,
+        TIME_1.plusSeconds(second), LATITUDE, LONGITUDE, true
+    )));
+    Collections.shuffle(records);
+
+    underTest.load(List.of());
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      records.forEach(deviceTelemetryDTO -> executor.execute(() -> underTest.onTelemetrySaved(
+          new DeviceTelemetrySavedEvent(List.of(deviceTelemetryDTO)))
+      ));
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    assertEquals(TIME_1.plusSeconds(999), underTest.findAll().orElseThrow().getFirst().time());
+  }
+
+  @Test
+  void onTelemetryImported() {
+
+    underTest.load(List.of(DEVICE_1_AT_TIME_1));
+    underTest.onTelemetryImported(new DeviceTelemetryImportedEvent("system", 1));
+
+    assertTrue(underTest.findAll().isEmpty());
+  }
+
+  @Test
+  void version() {
+
+    assertTrue(underTest.version().isEmpty());
+
+    underTest.load(List.of(DEVICE_1_AT_TIME_1));
+    String loaded = underTest.version().orElseThrow();
+    underTest.update(DEVICE_1_AT_TIME_1);
+    String unchanged = underTest.version().orElseThrow();
+    underTest.update(DEVICE_1_AT_TIME_2);
+
+    assertEquals(loaded, unchanged);
+    assertNotEquals(loaded, underTest.version().orElseThrow());
+  }
+
+  @Test
+  void findChangedSinceWhenNotLoaded() {
+
+    assertTrue(underTest.findChangedSince(null).isEmpty());
+  }
+
+  @Test
+  void findChangedSinceWithoutCursor() {
+
+    underTest.load(List.of(DEVICE_2_AT_TIME_1, DEVICE_1_AT_TIME_1));
+
+    DeviceTelemetryChangesDTO result = underTest.findChangedSince(null).orElseThrow();
+
+    assertEquals(List.of(DEVICE_1_AT_TIME_1, DEVICE_2_AT_TIME_1), result.telemetry());
+    assertTrue(result.cursor() != null && !result.cursor().isBlank());
+  }
+
+  @Test
+  void findChangedSinceReturnsOnlyTheChangedDevices() {
+
+    underTest.load(List.of(DEVICE_1_AT_TIME_1, DEVICE_2_AT_TIME_1));
+    String cursor = underTest.findChangedSince(null).orElseThrow().cursor();
+
+    DeviceTelemetryChangesDTO unchanged = underTest.findChangedSince(cursor).orElseThrow();
+    underTest.update(DEVICE_1_AT_TIME_2);
+    DeviceTelemetryChangesDTO changed = underTest.findChangedSince(cursor).orElseThrow();
+    DeviceTelemetryChangesDTO next = underTest.findChangedSince(changed.cursor()).orElseThrow();
+
+    assertEquals(List.of(), unchanged.telemetry());
+    assertEquals(cursor, unchanged.cursor());
+    assertEquals(List.of(DEVICE_1_AT_TIME_2), changed.telemetry());
+    assertEquals(List.of(), next.telemetry());
+  }
+
+  @Test
+  void findChangedSinceIgnoresOlderRecords() {
+
+    underTest.load(List.of(DEVICE_1_AT_TIME_2));
+    String cursor = underTest.findChangedSince(null).orElseThrow().cursor();
+    underTest.update(DEVICE_1_AT_TIME_1);
+
+    assertEquals(List.of(), underTest.findChangedSince(cursor).orElseThrow().telemetry());
+  }
+
+  @Test
+  void findChangedSinceWithCursorOfAnotherInstance() {
+
+    String cursor = encode("1:2");
+
+    underTest.load(List.of(DEVICE_1_AT_TIME_1));
+
+    assertEquals(List.of(DEVICE_1_AT_TIME_1),
+        underTest.findChangedSince(cursor).orElseThrow().telemetry()
+    );
+  }
+
+  @Test
+  void findChangedSinceWithMalformedCursor() {
+
+    underTest.load(List.of(DEVICE_1_AT_TIME_1));
+
+    assertThrows(IllegalArgumentException.class, () -> underTest.findChangedSince("not a cursor"));
+    assertThrows(IllegalArgumentException.class,
+        () -> underTest.findChangedSince(encode("1:2:3"))
+    );
+    assertThrows(IllegalArgumentException.class,
+        () -> underTest.findChangedSince(encode("epoch:1"))
+    );
+  }
+
+  private static String encode(String cursor) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(cursor.getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LivePositionServiceMainTest {
+
+  private static final int BUFFER_SIZE = 10;
+  private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+  private static final int MAX_SUBSCRIBERS = 2;
+
+  private static final String DEVICE_1 = "SDABC";
+  private static final Instant TIME_1 = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Double LATITUDE_1 = 39.510058;
+  private static final Double LONGITUDE_1 = -9.136079;
+  private static final String DEVICE_2 = "SDDEF";
+  private static final Instant TIME_2 = Instant.parse("2026-09-19T06:00:06Z");
+  private static final Double LATITUDE_2 = 39.509001;
+  private static final Double LONGITUDE_2 = -9.139602;
+  private static final boolean IS_ACTIVE = true;
+
+  private DeviceTelemetryDTO firstDTO;
+  private DeviceTelemetryDTO secondDTO;
+  private SimpleMeterRegistry meterRegistry;
+
+  @Mock
+  private DeviceTelemetryService deviceTelemetryService;
+
+  private LivePositionServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    firstDTO = new DeviceTelemetryDTO(DEVICE_1, TIME_1, LATITUDE_1, LONGITUDE_1, IS_ACTIVE);
+    secondDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2, LONGITUDE_2, IS_ACTIVE);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (underTest != null && underTest.isRunning()) {
+      underTest.stop();
+    }
+  }
+
+  @Test
+  void subscribe() {
+
+    when(deviceTelemetryService.findMostRecentRecordForEachDevice()).thenReturn(List.of(firstDTO));
+    underTest = createService(BUFFER_SIZE, HEARTBEAT_INTERVAL);
+    underTest.start();
+
+    RecordingSink sink = new RecordingSink();
+    underTest.subscribe(sink);
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.sent.size() == 1);
+
+    DeviceTelemetryDTO newerDTO = new DeviceTelemetryDTO(DEVICE_1, TIME_2, LATITUDE_2,
+        LONGITUDE_2, IS_ACTIVE
+    );
+    underTest.onTelemetrySaved(new DeviceTelemetrySavedEvent(List.of(newerDTO, secondDTO)));
+
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.sent.size() == 2);
+    assertEquals(List.of(firstDTO), sink.sent.get(0));
+    assertEquals(List.of(newerDTO, secondDTO), sink.sent.get(1));
+  }
+
+  @Test
+  void subscribeIgnoresOlderAndInactivePositions() {
+
+    underTest = createService(BUFFER_SIZE, HEARTBEAT_INTERVAL);
+    underTest.start();
+
+    RecordingSink sink = new RecordingSink();
+    underTest.subscribe(sink);
+
+    DeviceTelemetryDTO olderDTO = new DeviceTelemetryDTO(DEVICE_1, TIME_1.minusSeconds(60),
+        LATITUDE_1, LONGITUDE_1, IS_ACTIVE
+    );
+    DeviceTelemetryDTO inactiveDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2,
+        LONGITUDE_2, false
+    );
+    underTest.onTelemetrySaved(new DeviceTelemetrySavedEvent(List.of(firstDTO, olderDTO)));
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.sent.size() == 1);
+
+    underTest.onTelemetrySaved(new DeviceTelemetrySavedEvent(List.of(olderDTO, inactiveDTO)));
+    underTest.onTelemetrySaved(new DeviceTelemetrySavedEvent(List.of(secondDTO)));
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.sent.size() == 2);
+
+    assertEquals(List.of(firstDTO), sink.sent.get(0));
+    assertEquals(List.of(secondDTO), sink.sent.get(1));
+  }
+
+  @Test
+  void subscribeSendsHeartbeatWhenIdle() {
+
+    underTest = createService(BUFFER_SIZE, Duration.ofMillis(20));
+    underTest.start();
+
+    RecordingSink sink = new RecordingSink();
+    underTest.subscribe(sink);
+
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.heartbeats.get() >= 2);
+    assertTrue(sink.sent.isEmpty());
+  }
+
+  @Test
+  void subscribeExceedingMaximumSubscribers() {
+
+    underTest = createService(BUFFER_SIZE, HEARTBEAT_INTERVAL);
+    underTest.start();
+
+    underTest.subscribe(new RecordingSink());
+    underTest.subscribe(new RecordingSink());
+
+    assertThrows(TooManyRequestsException.class, () -> underTest.subscribe(new RecordingSink()));
+    assertEquals(2.0, meterRegistry.get("telemetry.live.subscribers").gauge().value());
+  }
+
+  @Test
+  void subscribeDisconnectsSubscriberFallingBehind() throws Exception {
+
+    when(deviceTelemetryService.findMostRecentRecordForEachDevice()).thenReturn(List.of(firstDTO));
+    underTest = createService(1, HEARTBEAT_INTERVAL);
+    underTest.start();
+
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingSink sink = new RecordingSink(release);
+    underTest.subscribe(sink);
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.sending);
+
+    underTest.onTelemetrySaved(new DeviceTelemetrySavedEvent(List.of(firstDTO, secondDTO)));
+
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.completed.get() == 1);
+    release.countDown();
+    assertEquals(1.0, meterRegistry.get("telemetry.live.disconnected").counter().count());
+    assertEquals(0.0, meterRegistry.get("telemetry.live.subscribers").gauge().value());
+  }
+
+  @Test
+  void unsubscribe() {
+
+    underTest = createService(BUFFER_SIZE, HEARTBEAT_INTERVAL);
+    underTest.start();
+
+    RecordingSink sink = new RecordingSink();
+    underTest.subscribe(sink);
+    underTest.unsubscribe(sink);
+
+    underTest.onTelemetrySaved(new DeviceTelemetrySavedEvent(List.of(firstDTO)));
+
+    assertEquals(0.0, meterRegistry.get("telemetry.live.subscribers").gauge().value());
+    assertEquals(0, sink.completed.get());
+  }
+
+  @Test
+  void stop() {
+
+    underTest = createService(BUFFER_SIZE, HEARTBEAT_INTERVAL);
+    underTest.start();
+
+    RecordingSink sink = new RecordingSink();
+    underTest.subscribe(sink);
+    underTest.stop();
+
+    assertEquals(1, sink.completed.get());
+    assertThrows(TooManyRequestsException.class, () -> underTest.subscribe(new RecordingSink()));
+  }
+
+  private LivePositionServiceMain createService(int bufferSize, Duration heartbeatInterval) {
+    return new LivePositionServiceMain(deviceTelemetryService, meterRegistry, bufferSize,
+        heartbeatInterval, MAX_SUBSCRIBERS
+    );
+  }
+
+  /**
+   * Sink that records what it receives, optionally blocking on the first delivery until released.
+   */
+  private static final class RecordingSink implements LivePositionSink {
+
+    private final List<List<DeviceTelemetryDTO>> sent = new CopyOnWriteArrayList<>();
+    private final AtomicInteger heartbeats = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final CountDownLatch release;
+    private volatile boolean sending;
+
+    private RecordingSink() {
+      this(new CountDownLatch(0));
+    }
+
+    private RecordingSink(CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void send(List<DeviceTelemetryDTO> positions) throws IOException {
+      sending = true;
+      try {
+        release.await();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new IOException(exception);
+      }
+      sent.add(positions);
+    }
+
+    @Override
+    public void heartbeat() {
+      heartbeats.incrementAndGet();
+    }
+
+    @Override
+    public void complete() {
+      completed.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetrySavedEvent;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RecentTelemetryFilterTest {
+
+  private static final int MAX_DEVICES = 2;
+  private static final int TIMES_PER_DEVICE = 2;
+
+  private static final String DEVICE_1 = "SDABC";
+  private static final String DEVICE_2 = "SDDEF";
+  private static final String DEVICE_3 = "SDFGH";
+  private static final Instant TIME_1 = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Instant TIME_2 = Instant.parse("2026-09-19T06:00:06Z");
+  private static final Instant TIME_3 = Instant.parse("2026-09-19T06:00:12Z");
+
+  private RecentTelemetryFilter underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new RecentTelemetryFilter(MAX_DEVICES, TIMES_PER_DEVICE);
+  }
+
+  @Test
+  void isRecent() {
+
+    underTest.remember(DEVICE_1, TIME_1);
+
+    assertTrue(underTest.isRecent(DEVICE_1, TIME_1));
+    assertFalse(underTest.isRecent(DEVICE_1, TIME_2));
+    assertFalse(underTest.isRecent(DEVICE_2, TIME_1));
+  }
+
+  @Test
+  void rememberKeepsOnlyTheLastTimesOfEachDevice() {
+
+    underTest.remember(DEVICE_1, TIME_1);
+    underTest.remember(DEVICE_1, TIME_2);
+    underTest.remember(DEVICE_1, TIME_3);
+
+    assertFalse(underTest.isRecent(DEVICE_1, TIME_1));
+    assertTrue(underTest.isRecent(DEVICE_1, TIME_2));
+    assertTrue(underTest.isRecent(DEVICE_1, TIME_3));
+  }
+
+  @Test
+  void rememberEvictsTheLeastRecentlySeenDevice() {
+
+    underTest.remember(DEVICE_1, TIME_1);
+    underTest.remember(DEVICE_2, TIME_1);
+    underTest.isRecent(DEVICE_1, TIME_1);
+    underTest.remember(DEVICE_3, TIME_1);
+
+    assertTrue(underTest.isRecent(DEVICE_1, TIME_1));
+    assertFalse(underTest.isRecent(DEVICE_2, TIME_1));
+    assertTrue(underTest.isRecent(DEVICE_3, TIME_1));
+  }
+
+  @Test
+  void onTelemetrySaved() {
+
+    DeviceTelemetryDTO deviceTelemetryDTO = new DeviceTelemetryDTO(DEVICE_1, TIME_1, 39.510058,
+        -9.136079, true
+    );
+
+    underTest.onTelemetrySaved(new DeviceTelemetrySavedEvent(List.of(deviceTelemetryDTO)));
+
+    assertTrue(underTest.isRecent(DEVICE_1, TIME_1));
+  }
+}
@@ -23,6 +23,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.doAnswer;
@@ -38,6 +39,7 @@
 import com.endurancetrio.business.tracker.dto.RouteMetricsDTO;
 import com.endurancetrio.business.tracker.dto.RouteSegmentDTO;
 import com.endurancetrio.business.tracker.dto.geojson.Feature;
+import com.endurancetrio.business.tracker.event.RouteSavedEvent;
 import com.endurancetrio.business.tracker.mapper.RouteMapper;
 import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
 import com.endurancetrio.data.tracker.model.entity.Route;
@@ -54,7 +56,10 @@
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class RouteServiceMainTest {
@@ -82,6 +87,7 @@ class RouteServiceMainTest {
 
   private static final Long ROUTE_ID = 1L;
   private static final String REFERENCE = "SMP";
+  private static final Integer VERSION = 3;
 
   private DeviceTelemetry dt1TestDeviceTelemetry;
   private DeviceTelemetry dt2TestDeviceTelemetry;
@@ -97,6 +103,12 @@ class RouteServiceMainTest {
   @Mock
   private RouteRepository routeRepository;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private RouteVersionCache routeVersionCache = new RouteVersionCache();
+
   @InjectMocks
   private RouteServiceMain underTest;
 
@@ -136,6 +148,7 @@ void save() {
     dbEntity.setId(ROUTE_ID);
     dbEntity.setReference("OLD-SMP");
     dbEntity.setSegments(List.of());
+    ReflectionTestUtils.setField(dbEntity, "version", VERSION);
 
     RouteDTO expectedDTO = new RouteDTO(ROUTE_ID, REFERENCE,
         List.of(new RouteSegmentDTO(SEGMENT_ID, ORDER, START_DEVICE, END_DEVICE))
@@ -143,7 +156,7 @@ void save() {
 
     when(deviceTelemetryRepository.findExistingDevicesFrom(anySet())).thenReturn(
         Set.of(START_DEVICE, END_DEVICE));
-    when(routeRepository.findById(ROUTE_ID)).thenReturn(Optional.of(dbEntity));
+    when(routeRepository.findForUpdateById(ROUTE_ID)).thenReturn(Optional.of(dbEntity));
     doAnswer(invocation -> {
       Route target = invocation.getArgument(1);
       target.setReference(testEntity.getReference());
@@ -159,6 +172,8 @@ void save() {
     verify(routeRepository, times(1)).save(any());
     verify(routeMapper, times(1)).updateEntity(testDTO, dbEntity);
     verify(routeRepository, times(1)).save(dbEntity);
+    verify(routeRepository, times(1)).flush();
+    verify(eventPublisher, times(1)).publishEvent(new RouteSavedEvent(ROUTE_ID, VERSION));
     verify(routeMapper, times(1)).map(any(Route.class));
 
     assertNotNull(result);
@@ -181,6 +196,7 @@ void saveWithInvalidSegments() {
 
     verify(deviceTelemetryRepository, times(1)).findExistingDevicesFrom(anySet());
     verify(routeRepository, times(0)).save(any());
+    verify(eventPublisher, never()).publishEvent(any());
     verify(routeMapper, times(0)).map(any(Route.class));
 
     assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
@@ -191,12 +207,12 @@ void saveWithNonExistingRoute() {
 
     when(deviceTelemetryRepository.findExistingDevicesFrom(anySet())).thenReturn(
         Set.of(START_DEVICE, END_DEVICE));
-    when(routeRepository.findById(ROUTE_ID)).thenReturn(Optional.empty());
+    when(routeRepository.findForUpdateById(ROUTE_ID)).thenReturn(Optional.empty());
 
     NotFoundException result = assertThrows(NotFoundException.class, () -> underTest.save(testDTO));
 
     verify(deviceTelemetryRepository, times(1)).findExistingDevicesFrom(anySet());
-    verify(routeRepository, times(1)).findById(ROUTE_ID);
+    verify(routeRepository, times(1)).findForUpdateById(ROUTE_ID);
     verify(routeRepository, times(0)).save(any());
     verify(routeMapper, times(0)).map(any(Route.class));
 
@@ -250,6 +266,41 @@ void findById() {
     assertEquals(1, result.segments().size());
   }
 
+  @Test
+  void findVersionById() {
+
+    ReflectionTestUtils.setField(testEntity, "version", VERSION);
+    when(routeRepository.findById(ROUTE_ID)).thenReturn(Optional.of(testEntity));
+    when(routeMapper.map(any(Route.class))).thenReturn(testDTO);
+
+    when(routeRepository.findVersionById(ROUTE_ID)).thenReturn(Optional.empty());
+
+    Optional<String> before = underTest.findVersionById(ROUTE_ID);
+    underTest.findById(ROUTE_ID);
+    Optional<String> after = underTest.findVersionById(ROUTE_ID);
+
+    verify(routeRepository, times(1)).findById(ROUTE_ID);
+    verify(routeRepository, times(1)).findVersionById(ROUTE_ID);
+
+    assertTrue(before.isEmpty());
+    assertEquals(Optional.of(ROUTE_ID + "-" + VERSION), after);
+  }
+
+  @Test
+  void findVersionByIdWhenNotCached() {
+
+    when(routeRepository.findVersionById(ROUTE_ID)).thenReturn(Optional.of(VERSION));
+
+    Optional<String> first = underTest.findVersionById(ROUTE_ID);
+    Optional<String> second = underTest.findVersionById(ROUTE_ID);
+
+    verify(routeRepository, times(1)).findVersionById(ROUTE_ID);
+    verify(routeRepository, never()).findById(any());
+
+    assertEquals(Optional.of(ROUTE_ID + "-" + VERSION), first);
+    assertEquals(first, second);
+  }
+
   @Test
   void findByIdWhenRouteDoesNotExist() {
     when(routeRepository.findById(ROUTE_ID)).thenReturn(Optional.empty());
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.tracker.event.RouteSavedEvent;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RouteVersionCacheTest {
+
+  private static final Long ROUTE_ID = 1L;
+
+  private RouteVersionCache underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new RouteVersionCache();
+  }
+
+  @Test
+  void findVersionWhenUnknown() {
+
+    assertTrue(underTest.findVersion(ROUTE_ID).isEmpty());
+  }
+
+  @Test
+  void registerKeepsTheHighestVersion() {
+
+    underTest.register(ROUTE_ID, 2);
+    underTest.register(ROUTE_ID, 1);
+
+    assertEquals(Optional.of("1-2"), underTest.findVersion(ROUTE_ID));
+  }
+
+  @Test
+  void registerIgnoresMissingVersions() {
+
+    underTest.register(ROUTE_ID, null);
+
+    assertTrue(underTest.findVersion(ROUTE_ID).isEmpty());
+  }
+
+  @Test
+  void onRouteSaved() {
+
+    String findAllVersion = underTest.findAllVersion();
+    underTest.register(ROUTE_ID, 1);
+    underTest.onRouteSaved(new RouteSavedEvent(ROUTE_ID, 2));
+
+    assertNotEquals(findAllVersion, underTest.findAllVersion());
+    assertEquals(Optional.of("1-2"), underTest.findVersion(ROUTE_ID));
+  }
+
+  @Test
+  void findAllVersionOfAnotherInstance() throws InterruptedException {
+
+    Thread.sleep(2);
+
+    assertNotEquals(new RouteVersionCache().findAllVersion(), underTest.findAllVersion());
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.tracker.dto.SessionTokenDTO;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SessionTokenServiceMainTest {
+
+  private static final Duration TTL = Duration.ofMinutes(15);
+
+  private static final String OWNER_1 = "system";
+  private static final String OWNER_2 = "doe";
+  private static final String SECRET_1 = "TEST_SESSION_SECRET_1";
+  private static final String SECRET_2 = "TEST_SESSION_SECRET_2";
+
+  private MeterRegistry meterRegistry;
+  private SessionTokenServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new SessionTokenServiceMain(meterRegistry, TTL, SECRET_1);
+  }
+
+  @Test
+  void issueAndVerify() {
+
+    Instant before = Instant.now();
+    SessionTokenDTO result = underTest.issue(OWNER_1);
+
+    assertTrue(underTest.isSessionToken(result.token()));
+    assertFalse(underTest.isSessionToken("TEST_ACCOUNT_KEY_1234567890"));
+    assertFalse(result.expiresAt().isBefore(before.plus(TTL).minusMillis(1)));
+    assertEquals(Optional.of(OWNER_1), underTest.verify(result.token()));
+    assertEquals(1, meterRegistry.get("tracker.auth.session.issued").counter().count());
+  }
+
+  @Test
+  void verifyOwnerWithSeparators() {
+
+    SessionTokenDTO result = underTest.issue("team:1.a");
+
+    assertEquals(Optional.of("team:1.a"), underTest.verify(result.token()));
+  }
+
+  @Test
+  void verifyTamperedToken() {
+
+    String token = underTest.issue(OWNER_1).token();
+    String forged = underTest.issue(OWNER_2).token();
+    String[] parts = token.split("\\.");
+    String[] forgedParts = forged.split("\\.");
+
+    assertTrue(underTest.verify(
+        parts[0] + "." + parts[1] + "." + forgedParts[2] + "." + parts[3]).isEmpty());
+    assertTrue(underTest.verify(token.substring(0, token.length() - 2)).isEmpty());
+    assertTrue(underTest.verify(token + ".x").isEmpty());
+    assertTrue(underTest.verify("ets.").isEmpty());
+    assertTrue(underTest.verify("ets.a.%%%.b").isEmpty());
+    assertEquals(5, meterRegistry.get("tracker.auth.session.rejected").counter().count());
+  }
+
+  @Test
+  void verifyExpiredToken() {
+
+    underTest = new SessionTokenServiceMain(meterRegistry, Duration.ZERO, SECRET_1);
+
+    assertTrue(underTest.verify(underTest.issue(OWNER_1).token()).isEmpty());
+  }
+
+  @Test
+  void verifyAcrossInstances() {
+
+    String token = underTest.issue(OWNER_1).token();
+
+    SessionTokenServiceMain other = new SessionTokenServiceMain(meterRegistry, TTL, SECRET_1);
+    SessionTokenServiceMain unrelated = new SessionTokenServiceMain(meterRegistry, TTL, SECRET_2);
+    SessionTokenServiceMain random = new SessionTokenServiceMain(meterRegistry, TTL, "");
+
+    assertEquals(Optional.of(OWNER_1), other.verify(token));
+    assertTrue(unrelated.verify(token).isEmpty());
+    assertTrue(random.verify(token).isEmpty());
+    assertEquals(Optional.of(OWNER_1), random.verify(random.issue(OWNER_1).token()));
+  }
+
+  @Test
+  void verifyAfterRotation() {
+
+    String oldToken = underTest.issue(OWNER_1).token();
+
+    SessionTokenServiceMain rotated = new SessionTokenServiceMain(meterRegistry, TTL,
+        SECRET_2 + ", " + SECRET_1
+    );
+    String newToken = rotated.issue(OWNER_1).token();
+
+    assertEquals(Optional.of(OWNER_1), rotated.verify(oldToken));
+    assertEquals(Optional.of(OWNER_1), rotated.verify(newToken));
+    assertTrue(underTest.verify(newToken).isEmpty());
+  }
+
+  @Test
+  void verifyRevokedToken() throws InterruptedException {
+
+    String token1 = underTest.issue(OWNER_1).token();
+    String token2 = underTest.issue(OWNER_2).token();
+    Thread.sleep(2);
+    Instant changedAt = Instant.now();
+
+    underTest.onTrackerAccountChanged(
+        new TrackerAccountChangedEvent(OWNER_1, Change.DISABLED, changedAt));
+
+    assertTrue(underTest.verify(token1).isEmpty());
+    assertEquals(Optional.of(OWNER_2), underTest.verify(token2));
+    assertEquals(Optional.of(OWNER_1), underTest.verify(underTest.issue(OWNER_1).token()));
+  }
+
+  @Test
+  void verifyTokenIssuedInTheMillisecondOfTheChange() {
+
+    Instant changedAt = Instant.now();
+    String token = underTest.issue(OWNER_1).token();
+
+    underTest.onTrackerAccountChanged(
+        new TrackerAccountChangedEvent(OWNER_1, Change.KEY_REPLACED, changedAt));
+
+    assertEquals(Optional.of(OWNER_1), underTest.verify(token));
+  }
+
+  @Test
+  void verifyTokenAfterKeyRehash() throws InterruptedException {
+
+    String token = underTest.issue(OWNER_1).token();
+    Thread.sleep(2);
+
+    underTest.onTrackerAccountChanged(
+        new TrackerAccountChangedEvent(OWNER_1, Change.KEY_REHASHED, Instant.now()));
+
+    assertEquals(Optional.of(OWNER_1), underTest.verify(token));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryArchiveJobTest {
+
+  private static final String OWNER = "system";
+  private static final String DEVICE = "SDABC";
+  private static final int AFTER_DAYS = 30;
+  private static final Instant NOW = Instant.parse("2026-09-19T04:00:00Z");
+  private static final Instant BEFORE = Instant.parse("2026-08-20T00:00:00Z");
+
+  @Mock
+  private TrackerAccountRepository trackerAccountRepository;
+
+  @Mock
+  private TelemetryRetentionService telemetryRetentionService;
+
+  @Mock
+  private TelemetryArchiveService telemetryArchiveService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private TelemetryArchiveJob underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new TelemetryArchiveJob(trackerAccountRepository, telemetryRetentionService,
+        telemetryArchiveService, meterRegistry, AFTER_DAYS
+    );
+  }
+
+  @Test
+  void archiveDayByDayUntilNothingIsLeft() {
+    when(trackerAccountRepository.findAll()).thenReturn(
+        List.of(new TrackerAccount(OWNER, "key", true)));
+    when(telemetryRetentionService.findDevices(OWNER)).thenReturn(List.of(DEVICE));
+    when(telemetryArchiveService.archiveDay(OWNER, DEVICE, BEFORE)).thenReturn(100, 40, 0);
+
+    underTest.archive(NOW);
+
+    verify(telemetryArchiveService, times(3)).archiveDay(OWNER, DEVICE, BEFORE);
+    assertEquals(140, meterRegistry.counter("telemetry.archive.records").count());
+    assertEquals(2, meterRegistry.counter("telemetry.archive.blocks").count());
+  }
+
+  @Test
+  void archiveGoesOnWithNextAccountOnDatabaseFailure() {
+    when(trackerAccountRepository.findAll()).thenReturn(List.of(
+        new TrackerAccount("failing", "key", true), new TrackerAccount(OWNER, "key", true)));
+    when(telemetryRetentionService.findDevices("failing")).thenThrow(
+        new DataAccessResourceFailureException("Database unavailable"));
+    when(telemetryRetentionService.findDevices(OWNER)).thenReturn(List.of(DEVICE));
+    when(telemetryArchiveService.archiveDay(OWNER, DEVICE, BEFORE)).thenReturn(0);
+
+    underTest.archive(NOW);
+
+    verify(telemetryArchiveService, times(1)).archiveDay(OWNER, DEVICE, BEFORE);
+  }
+
+  @Test
+  void archiveWhenDisabled() {
+    underTest = new TelemetryArchiveJob(trackerAccountRepository, telemetryRetentionService,
+        telemetryArchiveService, meterRegistry, 0
+    );
+
+    underTest.archive();
+
+    verify(trackerAccountRepository, never()).findAll();
+    verify(telemetryRetentionService, never()).findDevices(anyString());
+  }
+}
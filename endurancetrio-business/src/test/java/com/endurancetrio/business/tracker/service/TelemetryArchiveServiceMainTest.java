@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.tracker.archive.TelemetryBlockCodec;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRetentionRepository;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository.Block;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository.BlockHandler;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository.RecordHandler;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryArchiveServiceMainTest {
+
+  private static final String OWNER = "system";
+  private static final String OTHER_OWNER = "doe";
+  private static final String DEVICE = "SDABC";
+  private static final LocalDate DAY = LocalDate.parse("2026-08-01");
+  private static final Instant DAY_END = Instant.parse("2026-08-02T00:00:00Z");
+  private static final Instant BEFORE = Instant.parse("2026-08-20T00:00:00Z");
+  private static final Instant TIME_1 = Instant.parse("2026-08-01T10:00:00Z");
+  private static final Instant TIME_2 = Instant.parse("2026-08-01T10:00:01Z");
+  private static final Instant TIME_3 = Instant.parse("2026-08-01T10:00:02Z");
+
+  @Mock
+  private TelemetryBlockRepository blockRepository;
+
+  @Mock
+  private DeviceTelemetryRetentionRepository retentionRepository;
+
+  private TelemetryArchiveServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new TelemetryArchiveServiceMain(blockRepository, retentionRepository);
+  }
+
+  @Test
+  void archiveDayMovesRecordsOfOldestDayIntoBlock() {
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, BEFORE, 0)).thenReturn(
+        Optional.of(TIME_1));
+    whenRecords(new Record(1L, TIME_1, 1.0), new Record(2L, TIME_3, 3.0));
+    when(blockRepository.findBlock(OWNER, DEVICE, DAY)).thenReturn(Optional.empty());
+    when(blockRepository.deleteRecords(OWNER, DEVICE, DAY_END, new Long[]{1L, 2L})).thenReturn(2);
+
+    int result = underTest.archiveDay(OWNER, DEVICE, BEFORE);
+
+    assertEquals(2, result);
+    Block block = captureBlock();
+    assertEquals(TIME_1, block.firstTime());
+    assertEquals(TIME_3, block.lastTime());
+    assertEquals(2, block.points());
+  }
+
+  @Test
+  void archiveDayMergesRecordsIntoExistingBlock() {
+    TelemetryPoints archived = new TelemetryPoints();
+    archived.add(TelemetryPoints.toMicros(TIME_2), 2.0, 2.0, true);
+    archived.add(TelemetryPoints.toMicros(TIME_3), 3.0, 3.0, true);
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, BEFORE, 0)).thenReturn(
+        Optional.of(TIME_1));
+    whenRecords(new Record(1L, TIME_1, 1.0), new Record(2L, TIME_3, 9.0));
+    when(blockRepository.findBlock(OWNER, DEVICE, DAY)).thenReturn(Optional.of(
+        new Block(DEVICE, DAY, OWNER, TIME_2, TIME_3, 2, TelemetryBlockCodec.encode(archived))));
+    when(blockRepository.deleteRecords(OWNER, DEVICE, DAY_END, new Long[]{1L, 2L})).thenReturn(2);
+
+    underTest.archiveDay(OWNER, DEVICE, BEFORE);
+
+    Block block = captureBlock();
+    TelemetryPoints points = new TelemetryPoints();
+    TelemetryBlockCodec.decode(block.data(), points);
+    assertEquals(3, block.points());
+    assertEquals(TIME_1, block.firstTime());
+    assertArrayEquals(new double[]{1.0, 2.0, 3.0},
+        new double[]{points.latitude(0), points.latitude(1), points.latitude(2)}
+    );
+  }
+
+  @Test
+  void archiveDayWithoutExpiredRecords() {
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, BEFORE, 0)).thenReturn(
+        Optional.empty());
+
+    int result = underTest.archiveDay(OWNER, DEVICE, BEFORE);
+
+    assertEquals(0, result);
+    verify(blockRepository, never()).save(any());
+  }
+
+  @Test
+  void findArchivedKeepsPointsInRangeUpToLimit() {
+    TelemetryPoints archived = new TelemetryPoints();
+    archived.add(TelemetryPoints.toMicros(TIME_1), 1.0, 1.0, true);
+    archived.add(TelemetryPoints.toMicros(TIME_2), 2.0, 2.0, true);
+    archived.add(TelemetryPoints.toMicros(TIME_3), 3.0, 3.0, true);
+    doAnswer(invocation -> {
+      BlockHandler handler = invocation.getArgument(3);
+      handler.handle(new Block(DEVICE, DAY, OWNER, TIME_1, TIME_3, 3,
+          TelemetryBlockCodec.encode(archived)
+      ));
+      return null;
+    }).when(blockRepository).findBlocks(eq(DEVICE), eq(DAY), eq(DAY), any());
+
+    TelemetryPoints result = new TelemetryPoints();
+    underTest.findArchived(DEVICE, TIME_2, TIME_3.plusSeconds(1), 1, result);
+
+    assertEquals(1, result.size());
+    assertEquals(TelemetryPoints.toMicros(TIME_2), result.time(0));
+  }
+
+  @Test
+  void findArchivedMergesBlocksOfSameDayFromDifferentAccounts() {
+    TelemetryPoints first = new TelemetryPoints();
+    first.add(TelemetryPoints.toMicros(TIME_1), 1.0, 1.0, true);
+    first.add(TelemetryPoints.toMicros(TIME_3), 3.0, 3.0, true);
+    TelemetryPoints second = new TelemetryPoints();
+    second.add(TelemetryPoints.toMicros(TIME_2), 2.0, 2.0, true);
+    doAnswer(invocation -> {
+      BlockHandler handler = invocation.getArgument(3);
+      handler.handle(new Block(DEVICE, DAY, OTHER_OWNER, TIME_2, TIME_2, 1,
+          TelemetryBlockCodec.encode(second)
+      ));
+      handler.handle(new Block(DEVICE, DAY, OWNER, TIME_1, TIME_3, 2,
+          TelemetryBlockCodec.encode(first)
+      ));
+      return null;
+    }).when(blockRepository).findBlocks(eq(DEVICE), eq(DAY), eq(DAY), any());
+
+    TelemetryPoints result = new TelemetryPoints();
+    underTest.findArchived(DEVICE, TIME_1, TIME_3.plusSeconds(1), 10, result);
+
+    assertArrayEquals(new double[]{1.0, 2.0, 3.0},
+        new double[]{result.latitude(0), result.latitude(1), result.latitude(2)}
+    );
+  }
+
+  private void whenRecords(Record... records) {
+    doAnswer(invocation -> {
+      RecordHandler handler = invocation.getArgument(3);
+      for (Record record : records) {
+        handler.handle(record.id(), record.time(), record.latitude(), record.latitude(), true);
+      }
+      return null;
+    }).when(blockRepository).findArchivableRecords(eq(OWNER), eq(DEVICE), eq(DAY_END),
+        any()
+    );
+  }
+
+  private Block captureBlock() {
+    ArgumentCaptor<Block> captor = ArgumentCaptor.forClass(Block.class);
+    verify(blockRepository).save(captor.capture());
+    return captor.getValue();
+  }
+
+  private record Record(long id, Instant time, double latitude) {
+
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.business.tracker.dto.TelemetryExportDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryExportFormat;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryExportRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryExportRepository.RowHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryExportServiceMainTest {
+
+  private static final Instant FROM = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Instant TO = Instant.parse("2026-09-19T07:00:00Z");
+  private static final Set<String> DEVICES = Set.of("SDABC");
+
+  @Mock
+  private DeviceTelemetryExportRepository exportRepository;
+
+  @Mock
+  private TelemetryArchiveService telemetryArchiveService;
+
+  private TelemetryExportServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new TelemetryExportServiceMain(exportRepository, telemetryArchiveService,
+        JsonMapper.builder().build(), 2, 1
+    );
+  }
+
+  @Test
+  void exportWritesOneJsonObjectPerLine() throws IOException {
+    whenExported("SDABC");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    TelemetryExportDTO export = underTest.reserve(DEVICES, FROM, TO);
+    long result = underTest.export(export, TelemetryExportFormat.NDJSON, output);
+
+    assertEquals(2, result);
+    assertEquals("""
+        {"device":"SDABC","time":"2026-09-19T06:00:00Z","lat":39.510058,"lon":-9.136079,"active":true}
+        {"device":"SDABC","time":"2026-09-19T06:06:00Z","lat":39.510071,"lon":-9.136071,"active":false}
+        """, output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void exportWritesCsvWithHeaderAndQuotedValues() throws IOException {
+    whenExported("SD,\"A\"");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    TelemetryExportDTO export = underTest.reserve(Set.of("SD,\"A\""), FROM, TO);
+    underTest.export(export, TelemetryExportFormat.CSV, output);
+
+    assertEquals("""
+        device,record_time,latitude,longitude,active
+        "SD,""A\""",2026-09-19T06:00:00Z,39.510058,-9.136079,true
+        "SD,""A\""",2026-09-19T06:06:00Z,39.510071,-9.136071,false
+        """, output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void exportMergesArchivedRecordsByRecordTime() throws IOException {
+    whenExported("SDABC");
+    when(telemetryArchiveService.findArchivedDays("SDABC", FROM, TO)).thenReturn(
+        List.of(LocalDate.parse("2026-09-19")));
+    doAnswer(invocation -> {
+      TelemetryPoints points = invocation.getArgument(4);
+      points.add(TelemetryPoints.toMicros(Instant.parse("2026-09-19T06:03:00Z")), 39.5, -9.1, true);
+      return null;
+    }).when(telemetryArchiveService).findArchived(eq("SDABC"), eq(FROM), eq(TO), any(int.class),
+        any(TelemetryPoints.class)
+    );
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    TelemetryExportDTO export = underTest.reserve(DEVICES, FROM, TO);
+    long result = underTest.export(export, TelemetryExportFormat.CSV, output);
+
+    assertEquals(3, result);
+    assertEquals("""
+        device,record_time,latitude,longitude,active
+        SDABC,2026-09-19T06:00:00Z,39.510058,-9.136079,true
+        SDABC,2026-09-19T06:03:00Z,39.5,-9.1,true
+        SDABC,2026-09-19T06:06:00Z,39.510071,-9.136071,false
+        """, output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void reserveDefaultsTimeRangeAndIgnoresBlankDevices() {
+    TelemetryExportDTO result = underTest.reserve(Set.of(" SDABC ", " "), null, null);
+
+    assertEquals(Set.of("SDABC"), result.devices());
+    assertEquals(Instant.EPOCH, result.from());
+    assertEquals(Instant.parse("9999-12-31T00:00:00Z"), result.to());
+  }
+
+  @Test
+  void reserveWithoutDevices() {
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.reserve(Set.of(" "), FROM, TO)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void reserveWithTooManyDevices() {
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.reserve(Set.of("SDABC", "SDDEF", "SDGHI"), FROM, TO)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void reserveWithEmptyTimeRange() {
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.reserve(DEVICES, TO, FROM)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  @Test
+  void reserveWhileAnotherExportRuns() throws IOException {
+    TelemetryExportDTO export = underTest.reserve(DEVICES, FROM, TO);
+
+    assertThrows(TooManyRequestsException.class, () -> underTest.reserve(DEVICES, FROM, TO));
+
+    underTest.export(export, TelemetryExportFormat.CSV, new ByteArrayOutputStream());
+    assertEquals(DEVICES, underTest.reserve(DEVICES, FROM, TO).devices());
+  }
+
+  @Test
+  void exportWithFailingOutputReleasesTheSlot() {
+    whenExported("SDABC");
+    TelemetryExportDTO export = underTest.reserve(DEVICES, FROM, TO);
+
+    assertThrows(IOException.class,
+        () -> underTest.export(export, TelemetryExportFormat.NDJSON, new FailingOutputStream())
+    );
+    assertEquals(DEVICES, underTest.reserve(DEVICES, FROM, TO).devices());
+  }
+
+  @Test
+  void releaseFreesTheSlotOnce() throws IOException {
+    underTest = new TelemetryExportServiceMain(exportRepository, telemetryArchiveService,
+        JsonMapper.builder().build(), 2, 2
+    );
+    TelemetryExportDTO released = underTest.reserve(DEVICES, FROM, TO);
+    TelemetryExportDTO exported = underTest.reserve(DEVICES, FROM, TO);
+
+    // The slot of an export that is never written is freed once, however often it is released
+    underTest.release(released);
+    underTest.release(released);
+    underTest.export(exported, TelemetryExportFormat.CSV, new ByteArrayOutputStream());
+    underTest.release(exported);
+
+    underTest.reserve(DEVICES, FROM, TO);
+    underTest.reserve(DEVICES, FROM, TO);
+    assertThrows(TooManyRequestsException.class, () -> underTest.reserve(DEVICES, FROM, TO));
+  }
+
+  private void whenExported(String device) {
+    when(exportRepository.export(eq(List.of(device)), eq(FROM), eq(TO), any(RowHandler.class)))
+        .thenAnswer(invocation -> {
+          RowHandler handler = invocation.getArgument(3);
+          try {
+            handler.handle(device, FROM, 39.510058, -9.136079, true);
+            handler.handle(device, Instant.parse("2026-09-19T06:06:00Z"), 39.510071, -9.136071,
+                false
+            );
+          } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+          }
+          return 2L;
+        });
+  }
+
+  private static final class FailingOutputStream extends OutputStream {
+
+    @Override
+    public void write(int value) throws IOException {
+      throw new IOException("Connection reset by peer");
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.TelemetryImportResultDTO;
+import com.endurancetrio.business.tracker.event.DeviceTelemetryImportedEvent;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBulkRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryBulkRepository.ImportSummary;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryImportServiceMainTest {
+
+  private static final String OWNER = "system";
+  private static final String CSV = """
+      device,record_time,latitude,longitude,active
+      SDABC,2026-09-19T06:00:00Z,39.510058,-9.136079,true
+      SDABC,2026-09-19T06:06:00Z,91.0,-9.136071,true
+      """;
+  private static final String COPY_ERROR = "invalid input syntax for type double precision: \"x\"";
+
+  @Mock
+  private DeviceTelemetryBulkRepository bulkRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private TelemetryImportServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new TelemetryImportServiceMain(bulkRepository, eventPublisher);
+  }
+
+  @Test
+  void importCsvReturnsReceivedImportedAndSkippedRecords() {
+    when(bulkRepository.importCsv(eq(OWNER), any(Reader.class))).thenReturn(
+        new ImportSummary(2, 1));
+
+    TelemetryImportResultDTO result = underTest.importCsv(OWNER, stream(CSV));
+
+    assertNotNull(result);
+    assertEquals(2, result.received());
+    assertEquals(1, result.imported());
+    assertEquals(1, result.skipped());
+    verify(eventPublisher).publishEvent(new DeviceTelemetryImportedEvent(OWNER, 1));
+  }
+
+  @Test
+  void importCsvWithFileRejectedByTheDatabase() {
+    when(bulkRepository.importCsv(eq(OWNER), any(Reader.class))).thenThrow(
+        new DataIntegrityViolationException("telemetry import", new SQLException(COPY_ERROR)));
+
+    InputStream inputStream = stream(CSV);
+    BadRequestException exception = assertThrows(BadRequestException.class,
+        () -> underTest.importCsv(OWNER, inputStream)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), exception.getCode());
+    assertTrue(exception.getMessage().contains(COPY_ERROR));
+  }
+
+  @Test
+  void importCsvWithUnreadableFile() {
+    when(bulkRepository.importCsv(eq(OWNER), any(Reader.class))).thenThrow(
+        new UncheckedIOException(new IOException("Connection reset")));
+
+    InputStream inputStream = stream(CSV);
+    BadRequestException exception = assertThrows(BadRequestException.class,
+        () -> underTest.importCsv(OWNER, inputStream)
+    );
+
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), exception.getCode());
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
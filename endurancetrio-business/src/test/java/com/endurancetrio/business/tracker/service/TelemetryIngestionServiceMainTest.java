@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.service;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryItemStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryIngestionServiceMainTest {
+
+  private static final String OWNER_1 = "system";
+  private static final String OWNER_2 = "doe";
+  private static final String MODE_ACCEPTED = "accepted";
+  private static final String MODE_SYNC = "sync";
+  private static final int QUEUE_CAPACITY = 2;
+  private static final int MAX_BATCH_SIZE = 10;
+  private static final Duration MAX_DELAY = Duration.ofMillis(5);
+
+  private static final String DEVICE_1 = "SDABC";
+  private static final Instant TIME_1 = Instant.parse("2026-09-19T06:00:00Z");
+  private static final Double LATITUDE_1 = 39.510058;
+  private static final Double LONGITUDE_1 = -9.136079;
+  private static final String DEVICE_2 = "SDDEF";
+  private static final Instant TIME_2 = Instant.parse("2026-09-19T06:00:06Z");
+  private static final Double LATITUDE_2 = 39.509001;
+  private static final Double LONGITUDE_2 = -9.139602;
+  private static final Boolean IS_ACTIVE = true;
+
+  private DeviceTelemetryDTO firstDTO;
+  private DeviceTelemetryDTO secondDTO;
+  private SimpleMeterRegistry meterRegistry;
+
+  @Mock
+  private DeviceTelemetryService deviceTelemetryService;
+
+  private TelemetryIngestionServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    firstDTO = new DeviceTelemetryDTO(DEVICE_1, TIME_1, LATITUDE_1, LONGITUDE_1, IS_ACTIVE);
+    secondDTO = new DeviceTelemetryDTO(DEVICE_2, TIME_2, LATITUDE_2, LONGITUDE_2, IS_ACTIVE);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (underTest != null && underTest.isRunning()) {
+      underTest.stop();
+    }
+  }
+
+  @Test
+  void enqueue() {
+
+    underTest = createService(MODE_ACCEPTED, QUEUE_CAPACITY);
+    underTest.start();
+
+    underTest.enqueue(OWNER_1, firstDTO);
+    underTest.enqueue(OWNER_2, secondDTO);
+
+    await().atMost(Duration.ofSeconds(5)).untilAsserted(
+        () -> assertEquals(2.0, meterRegistry.get("telemetry.ingestion.commit.size")
+            .summary()
+            .totalAmount()));
+
+    verify(deviceTelemetryService, atLeastOnce()).saveAllByOwner(anyMap());
+    assertEquals(2, meterRegistry.get("telemetry.ingestion.lag").timer().count());
+  }
+
+  @Test
+  void commitSeveralOwnersInOneTransaction() {
+
+    underTest = createService(MODE_ACCEPTED, QUEUE_CAPACITY);
+
+    ReflectionTestUtils.setField(underTest, "running", true);
+    underTest.enqueue(OWNER_1, firstDTO);
+    underTest.enqueue(OWNER_2, secondDTO);
+    underTest.stop();
+
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(
+        Map.of(OWNER_1, List.of(firstDTO), OWNER_2, List.of(secondDTO)));
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(anyMap());
+    assertEquals(1, meterRegistry.get("telemetry.ingestion.commit.size").summary().count());
+    assertEquals(2, meterRegistry.get("telemetry.ingestion.lag").timer().count());
+  }
+
+  @Test
+  void enqueueWithFullQueue() {
+
+    underTest = createService(MODE_ACCEPTED, 1);
+
+    // The writer thread is not started, so the queue is never drained
+    ReflectionTestUtils.setField(underTest, "running", true);
+    underTest.enqueue(OWNER_1, firstDTO);
+
+    TooManyRequestsException result = assertThrows(TooManyRequestsException.class,
+        () -> underTest.enqueue(OWNER_1, secondDTO)
+    );
+
+    assertEquals(EnduranceTrioError.TOO_MANY_REQUESTS.getCode(), result.getCode());
+    assertEquals(1.0, meterRegistry.get("telemetry.ingestion.rejected").counter().count());
+    assertEquals(1.0, meterRegistry.get("telemetry.ingestion.queue.depth").gauge().value());
+  }
+
+  @Test
+  void enqueueWhenStopped() {
+
+    underTest = createService(MODE_ACCEPTED, QUEUE_CAPACITY);
+
+    assertThrows(TooManyRequestsException.class, () -> underTest.enqueue(OWNER_1, firstDTO));
+
+    verify(deviceTelemetryService, never()).saveAllByOwner(anyMap());
+  }
+
+  @Test
+  void stopCommitsQueuedTelemetry() {
+
+    underTest = createService(MODE_ACCEPTED, 1);
+
+    ReflectionTestUtils.setField(underTest, "running", true);
+    underTest.enqueue(OWNER_1, firstDTO);
+    underTest.stop();
+
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(Map.of(OWNER_1, List.of(firstDTO)));
+    assertFalse(underTest.isRunning());
+  }
+
+  @Test
+  void commitFailure() {
+
+    when(deviceTelemetryService.saveAllByOwner(anyMap())).thenThrow(new IllegalStateException());
+    when(deviceTelemetryService.save(OWNER_1, firstDTO)).thenThrow(new IllegalStateException());
+
+    underTest = createService(MODE_ACCEPTED, QUEUE_CAPACITY);
+    underTest.start();
+
+    underTest.enqueue(OWNER_1, firstDTO);
+
+    await().atMost(Duration.ofSeconds(5)).untilAsserted(
+        () -> assertEquals(1.0, meterRegistry.get("telemetry.ingestion.failed").counter().count()));
+  }
+
+  @Test
+  void commitFailureRetriesRecordsOneByOne() {
+
+    when(deviceTelemetryService.saveAllByOwner(Map.of(OWNER_1, List.of(firstDTO, secondDTO))))
+        .thenThrow(new IllegalStateException());
+    when(deviceTelemetryService.save(OWNER_1, firstDTO)).thenThrow(new IllegalStateException());
+    when(deviceTelemetryService.save(OWNER_1, secondDTO)).thenReturn(TelemetryItemStatus.CREATED);
+
+    underTest = createService(MODE_ACCEPTED, QUEUE_CAPACITY);
+
+    ReflectionTestUtils.setField(underTest, "running", true);
+    underTest.enqueue(OWNER_1, firstDTO);
+    underTest.enqueue(OWNER_1, secondDTO);
+    underTest.stop();
+
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(anyMap());
+    verify(deviceTelemetryService, times(1)).save(OWNER_1, secondDTO);
+    assertEquals(1.0, meterRegistry.get("telemetry.ingestion.failed").counter().count());
+    assertEquals(1.0,
+        meterRegistry.get("telemetry.ingestion.commit.size").summary().totalAmount()
+    );
+  }
+
+  @Test
+  void commitFailureKeepsOtherOwners() {
+
+    when(deviceTelemetryService.saveAllByOwner(
+        Map.of(OWNER_1, List.of(firstDTO), OWNER_2, List.of(secondDTO))))
+        .thenThrow(new IllegalStateException());
+    when(deviceTelemetryService.saveAllByOwner(Map.of(OWNER_1, List.of(firstDTO))))
+        .thenThrow(new IllegalStateException());
+    when(deviceTelemetryService.save(OWNER_1, firstDTO)).thenThrow(new IllegalStateException());
+
+    underTest = createService(MODE_ACCEPTED, QUEUE_CAPACITY);
+
+    ReflectionTestUtils.setField(underTest, "running", true);
+    underTest.enqueue(OWNER_1, firstDTO);
+    underTest.enqueue(OWNER_2, secondDTO);
+    underTest.stop();
+
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(Map.of(OWNER_2, List.of(secondDTO)));
+    verify(deviceTelemetryService, never()).save(OWNER_2, secondDTO);
+    assertEquals(1.0, meterRegistry.get("telemetry.ingestion.failed").counter().count());
+  }
+
+  @Test
+  void synchronousMode() {
+
+    underTest = createService(MODE_SYNC, QUEUE_CAPACITY);
+    underTest.start();
+
+    assertFalse(underTest.isAsynchronous());
+    assertFalse(underTest.isRunning());
+    verify(deviceTelemetryService, never()).saveAllByOwner(any());
+  }
+
+  @Test
+  void asynchronousMode() {
+
+    underTest = createService(MODE_ACCEPTED, QUEUE_CAPACITY);
+    underTest.start();
+
+    assertTrue(underTest.isAsynchronous());
+    assertTrue(underTest.isRunning());
+  }
+
+  private TelemetryIngestionServiceMain createService(String mode, int queueCapacity) {
+    return new TelemetryIngestionServiceMain(deviceTelemetryService, meterRegistry, mode,
+        queueCapacity, MAX_BATCH_SIZE, MAX_DELAY
+    );
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.tracker.service.TelemetryRetentionService.Chunk;
+import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryRetentionJobTest {
+
+  private static final String OWNER = "system";
+  private static final String DEVICE = "SDABC";
+  private static final Instant NOW = Instant.parse("2026-09-19T03:30:00Z");
+  private static final Instant RAW_LIMIT = Instant.parse("2026-08-20T03:30:00Z");
+  private static final Instant ROLLUP_LIMIT = Instant.parse("2025-09-19T03:30:00Z");
+
+  @Mock
+  private TrackerAccountRepository trackerAccountRepository;
+
+  @Mock
+  private TelemetryRetentionService telemetryRetentionService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private TelemetryRetentionJob underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new TelemetryRetentionJob(trackerAccountRepository, telemetryRetentionService,
+        meterRegistry, Duration.ZERO
+    );
+  }
+
+  @Test
+  void applyRetentionPurgesRecordsAndRollupsChunkByChunk() {
+    whenAccount(30, 365);
+    when(telemetryRetentionService.findDevices(OWNER)).thenReturn(List.of(DEVICE));
+    when(telemetryRetentionService.purgeExpiredRecords(OWNER, DEVICE, RAW_LIMIT, true)).thenReturn(
+        new Chunk(100, 5), new Chunk(40, 2), new Chunk(0, 0));
+    when(telemetryRetentionService.purgeExpiredBlock(OWNER, DEVICE, RAW_LIMIT, true)).thenReturn(
+        new Chunk(10, 1), new Chunk(0, 0));
+    when(telemetryRetentionService.purgeExpiredRollups(OWNER, ROLLUP_LIMIT)).thenReturn(7, 0);
+
+    underTest.applyRetention(NOW);
+
+    verify(telemetryRetentionService, times(3)).purgeExpiredRecords(OWNER, DEVICE, RAW_LIMIT, true);
+    verify(telemetryRetentionService, times(2)).purgeExpiredBlock(OWNER, DEVICE, RAW_LIMIT, true);
+    assertEquals(150, meterRegistry.counter("telemetry.retention.records").count());
+    assertEquals(8, meterRegistry.counter("telemetry.retention.rollups.written").count());
+    assertEquals(7, meterRegistry.counter("telemetry.retention.rollups.deleted").count());
+  }
+
+  @Test
+  void applyRetentionWithRollupRetentionNotLonger() {
+    whenAccount(30, 30);
+    when(telemetryRetentionService.findDevices(OWNER)).thenReturn(List.of(DEVICE));
+    when(telemetryRetentionService.purgeExpiredRecords(OWNER, DEVICE, RAW_LIMIT, false)).thenReturn(
+        new Chunk(0, 0));
+    when(telemetryRetentionService.purgeExpiredBlock(OWNER, DEVICE, RAW_LIMIT, false)).thenReturn(
+        new Chunk(0, 0));
+    when(telemetryRetentionService.purgeExpiredRollups(OWNER, RAW_LIMIT)).thenReturn(0);
+
+    underTest.applyRetention(NOW);
+
+    verify(telemetryRetentionService, times(1)).purgeExpiredRecords(OWNER, DEVICE, RAW_LIMIT,
+        false
+    );
+  }
+
+  @Test
+  void applyRetentionWithoutPolicy() {
+    whenAccount(null, null);
+
+    underTest.applyRetention(NOW);
+
+    verify(telemetryRetentionService, never()).findDevices(anyString());
+    verify(telemetryRetentionService, never()).purgeExpiredRollups(anyString(), any());
+  }
+
+  @Test
+  void applyRetentionGoesOnWithNextAccountOnDatabaseFailure() {
+    TrackerAccount failing = new TrackerAccount("failing", "key", true);
+    failing.setRawRetentionDays(30);
+    TrackerAccount account = new TrackerAccount(OWNER, "key", true);
+    account.setRollupRetentionDays(365);
+    when(trackerAccountRepository.findAll()).thenReturn(List.of(failing, account));
+    when(telemetryRetentionService.findDevices("failing")).thenThrow(
+        new DataAccessResourceFailureException("Database unavailable"));
+    when(telemetryRetentionService.purgeExpiredRollups(OWNER, ROLLUP_LIMIT)).thenReturn(0);
+
+    underTest.applyRetention(NOW);
+
+    verify(telemetryRetentionService, never()).purgeExpiredRecords(anyString(), anyString(), any(),
+        anyBoolean()
+    );
+    verify(telemetryRetentionService, times(1)).purgeExpiredRollups(OWNER, ROLLUP_LIMIT);
+  }
+
+  private void whenAccount(Integer rawRetentionDays, Integer rollupRetentionDays) {
+    TrackerAccount account = new TrackerAccount(OWNER, "key", true);
+    account.setRawRetentionDays(rawRetentionDays);
+    account.setRollupRetentionDays(rollupRetentionDays);
+    when(trackerAccountRepository.findAll()).thenReturn(List.of(account));
+  }
+}
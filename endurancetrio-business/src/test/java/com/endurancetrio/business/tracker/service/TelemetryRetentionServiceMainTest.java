@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.tracker.archive.TelemetryBlockCodec;
+import com.endurancetrio.business.tracker.archive.TelemetryPoints;
+import com.endurancetrio.business.tracker.service.TelemetryRetentionService.Chunk;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRetentionRepository;
+import com.endurancetrio.data.tracker.repository.DeviceTelemetryRetentionRepository.Rollup;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository;
+import com.endurancetrio.data.tracker.repository.TelemetryBlockRepository.Block;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryRetentionServiceMainTest {
+
+  private static final String OWNER = "system";
+  private static final String DEVICE = "SDABC";
+  private static final int CHUNK_SIZE = 100;
+  private static final Duration INTERVAL = Duration.ofMinutes(1);
+  private static final Instant BEFORE = Instant.parse("2026-08-20T00:00:30Z");
+  private static final Instant LIMIT = Instant.parse("2026-08-20T00:00:00Z");
+
+  @Mock
+  private DeviceTelemetryRetentionRepository retentionRepository;
+
+  @Mock
+  private TelemetryBlockRepository blockRepository;
+
+  private TelemetryRetentionServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new TelemetryRetentionServiceMain(retentionRepository, blockRepository,
+        CHUNK_SIZE, INTERVAL
+    );
+  }
+
+  @Test
+  void purgeExpiredRecordsEndsChunkAtBucketOfFollowingRecord() {
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, LIMIT, 0)).thenReturn(
+        Optional.of(Instant.parse("2026-08-01T10:00:15Z")));
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, LIMIT, CHUNK_SIZE)).thenReturn(
+        Optional.of(Instant.parse("2026-08-01T11:40:45Z")));
+    Instant end = Instant.parse("2026-08-01T11:40:00Z");
+    when(retentionRepository.rollUp(OWNER, DEVICE, end, INTERVAL)).thenReturn(99);
+    when(retentionRepository.deleteExpiredRecords(OWNER, DEVICE, end)).thenReturn(99);
+
+    Chunk result = underTest.purgeExpiredRecords(OWNER, DEVICE, BEFORE, true);
+
+    assertEquals(new Chunk(99, 99), result);
+  }
+
+  @Test
+  void purgeExpiredRecordsIncludesWholeFirstBucketLargerThanChunk() {
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, LIMIT, 0)).thenReturn(
+        Optional.of(Instant.parse("2026-08-01T10:00:15Z")));
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, LIMIT, CHUNK_SIZE)).thenReturn(
+        Optional.of(Instant.parse("2026-08-01T10:00:50Z")));
+    Instant end = Instant.parse("2026-08-01T10:01:00Z");
+    when(retentionRepository.rollUp(OWNER, DEVICE, end, INTERVAL)).thenReturn(1);
+    when(retentionRepository.deleteExpiredRecords(OWNER, DEVICE, end)).thenReturn(150);
+
+    Chunk result = underTest.purgeExpiredRecords(OWNER, DEVICE, BEFORE, true);
+
+    assertEquals(new Chunk(150, 1), result);
+  }
+
+  @Test
+  void purgeExpiredRecordsEndsLastChunkAtRetentionLimit() {
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, LIMIT, 0)).thenReturn(
+        Optional.of(Instant.parse("2026-08-19T23:00:00Z")));
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, LIMIT, CHUNK_SIZE)).thenReturn(
+        Optional.empty());
+    when(retentionRepository.deleteExpiredRecords(OWNER, DEVICE, LIMIT)).thenReturn(10);
+
+    Chunk result = underTest.purgeExpiredRecords(OWNER, DEVICE, BEFORE, false);
+
+    assertEquals(new Chunk(10, 0), result);
+    verify(retentionRepository, never()).rollUp(any(), any(), any(), any());
+  }
+
+  @Test
+  void purgeExpiredRecordsWithoutExpiredRecords() {
+    when(retentionRepository.findExpiredRecordTime(OWNER, DEVICE, LIMIT, 0)).thenReturn(
+        Optional.empty());
+
+    Chunk result = underTest.purgeExpiredRecords(OWNER, DEVICE, BEFORE, true);
+
+    assertEquals(new Chunk(0, 0), result);
+    verify(retentionRepository, never()).findExpiredRecordTime(OWNER, DEVICE, LIMIT, CHUNK_SIZE);
+    verify(retentionRepository, never()).deleteExpiredRecords(any(), any(), any());
+  }
+
+  @Test
+  void purgeExpiredBlockRollsUpAndDeletesFullyExpiredBlock() {
+    LocalDate day = LocalDate.parse("2026-08-10");
+    TelemetryPoints archived = new TelemetryPoints();
+    archived.add(TelemetryPoints.toMicros(Instant.parse("2026-08-10T10:00:10Z")), 1.0, 5.0, false);
+    archived.add(TelemetryPoints.toMicros(Instant.parse("2026-08-10T10:00:50Z")), 3.0, 7.0, true);
+    archived.add(TelemetryPoints.toMicros(Instant.parse("2026-08-10T10:01:00Z")), 4.0, 8.0, false);
+    when(blockRepository.findOldestBlock(OWNER, DEVICE, LIMIT)).thenReturn(Optional.of(
+        block(day, archived)));
+    when(retentionRepository.mergeRollups(any())).thenReturn(2);
+
+    Chunk result = underTest.purgeExpiredBlock(OWNER, DEVICE, BEFORE, true);
+
+    assertEquals(new Chunk(3, 2), result);
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Rollup>> captor = ArgumentCaptor.forClass(List.class);
+    verify(retentionRepository).mergeRollups(captor.capture());
+    assertEquals(List.of(
+        new Rollup(OWNER, DEVICE, Instant.parse("2026-08-10T10:00:00Z"), 2.0, 6.0, true, 2),
+        new Rollup(OWNER, DEVICE, Instant.parse("2026-08-10T10:01:00Z"), 4.0, 8.0, false, 1)
+    ), captor.getValue());
+    verify(blockRepository).deleteBlock(OWNER, DEVICE, day);
+    verify(blockRepository, never()).save(any());
+  }
+
+  @Test
+  void purgeExpiredBlockKeepsRecordsAfterRetentionLimit() {
+    LocalDate day = LocalDate.parse("2026-08-20");
+    Instant before = Instant.parse("2026-08-20T12:00:30Z");
+    Instant limit = Instant.parse("2026-08-20T12:00:00Z");
+    Instant kept = Instant.parse("2026-08-20T12:00:10Z");
+    TelemetryPoints archived = new TelemetryPoints();
+    archived.add(TelemetryPoints.toMicros(Instant.parse("2026-08-20T11:59:00Z")), 1.0, 1.0, true);
+    archived.add(TelemetryPoints.toMicros(kept), 2.0, 2.0, true);
+    when(blockRepository.findOldestBlock(OWNER, DEVICE, limit)).thenReturn(Optional.of(
+        block(day, archived)));
+
+    Chunk result = underTest.purgeExpiredBlock(OWNER, DEVICE, before, false);
+
+    assertEquals(new Chunk(1, 0), result);
+    ArgumentCaptor<Block> captor = ArgumentCaptor.forClass(Block.class);
+    verify(blockRepository).save(captor.capture());
+    assertEquals(1, captor.getValue().points());
+    assertEquals(kept, captor.getValue().firstTime());
+    verify(retentionRepository, never()).mergeRollups(any());
+    verify(blockRepository, never()).deleteBlock(any(), any(), any());
+  }
+
+  @Test
+  void purgeExpiredBlockWithoutExpiredBlock() {
+    when(blockRepository.findOldestBlock(OWNER, DEVICE, LIMIT)).thenReturn(Optional.empty());
+
+    Chunk result = underTest.purgeExpiredBlock(OWNER, DEVICE, BEFORE, true);
+
+    assertEquals(new Chunk(0, 0), result);
+    verify(retentionRepository, never()).mergeRollups(any());
+  }
+
+  @Test
+  void constructorWithRollupIntervalOfFractionalSeconds() {
+    Duration interval = Duration.ofMillis(1500);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new TelemetryRetentionServiceMain(retentionRepository, blockRepository,
+            CHUNK_SIZE, interval
+        )
+    );
+  }
+
+  private static Block block(LocalDate day, TelemetryPoints points) {
+    return new Block(DEVICE, day, OWNER, TelemetryPoints.ofMicros(points.time(0)),
+        TelemetryPoints.ofMicros(points.time(points.size() - 1)), points.size(),
+        TelemetryBlockCodec.encode(points)
+    );
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.common.exception.BadRequestException;
+import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
+import com.endurancetrio.business.tracker.dto.DeviceTelemetryDTO;
+import com.endurancetrio.business.tracker.dto.TelemetryStreamResultDTO;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryStreamServiceMainTest {
+
+  private static final String OWNER = "system";
+  private static final int CHUNK_SIZE = 2;
+  private static final int MAX_LINE_LENGTH = 200;
+  private static final int MAX_REPORTED_REJECTIONS = 1;
+
+  private static final String LINE_1 = """
+      {"device": "SDABC", "time": "2026-09-19T06:00:00Z", "lat": 39.510058, "lon": -9.136079, "active": true}""";
+  private static final String LINE_2 = """
+      {"device": "SDABC", "time": "2026-09-19T06:06:00Z", "lat": 39.510071, "lon": -9.136071, "active": true}""";
+  private static final String LINE_3 = """
+      {"device": "SDABC", "time": "2026-09-19T06:12:00Z", "lat": 39.510082, "lon": -9.136062, "active": true}""";
+  private static final String INVALID_LINE = """
+      {"device": "SDABC", "time": "2026-09-19T06:12:00Z", "lat": 91.0, "lon": -9.136062, "active": true}""";
+  private static final String MALFORMED_LINE = """
+      {"device": "SDABC", "time": "2026-09-19T06:12:00Z", "lat": 39.5""";
+
+  private static final DeviceTelemetryDTO DTO_1 = new DeviceTelemetryDTO("SDABC",
+      Instant.parse("2026-09-19T06:00:00Z"), 39.510058, -9.136079, true
+  );
+  private static final DeviceTelemetryDTO DTO_2 = new DeviceTelemetryDTO("SDABC",
+      Instant.parse("2026-09-19T06:06:00Z"), 39.510071, -9.136071, true
+  );
+  private static final DeviceTelemetryDTO DTO_3 = new DeviceTelemetryDTO("SDABC",
+      Instant.parse("2026-09-19T06:12:00Z"), 39.510082, -9.136062, true
+  );
+
+  @Mock
+  private DeviceTelemetryService deviceTelemetryService;
+
+  private TelemetryStreamServiceMain underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new TelemetryStreamServiceMain(deviceTelemetryService, JsonMapper.builder().build(),
+        Validation.buildDefaultValidatorFactory().getValidator()
+    );
+    ReflectionTestUtils.setField(underTest, "chunkSize", CHUNK_SIZE);
+    ReflectionTestUtils.setField(underTest, "maxLineLength", MAX_LINE_LENGTH);
+    ReflectionTestUtils.setField(underTest, "maxReportedRejections", MAX_REPORTED_REJECTIONS);
+  }
+
+  @Test
+  void save() {
+
+    when(deviceTelemetryService.saveAllByOwner(Map.of(OWNER, List.of(DTO_1, DTO_2)))).thenReturn(2);
+    when(deviceTelemetryService.saveAllByOwner(Map.of(OWNER, List.of(DTO_3)))).thenReturn(1);
+
+    TelemetryStreamResultDTO result = underTest.save(OWNER,
+        stream(LINE_1 + "\n" + LINE_2 + "\r\n\n" + LINE_3)
+    );
+
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(Map.of(OWNER, List.of(DTO_1, DTO_2)));
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(Map.of(OWNER, List.of(DTO_3)));
+
+    assertNotNull(result);
+    assertEquals(3, result.received());
+    assertEquals(3, result.accepted());
+    assertEquals(0, result.duplicated());
+    assertEquals(0, result.rejected());
+    assertEquals(0, result.rejections().size());
+  }
+
+  @Test
+  void saveWithDuplicatedRecords() {
+
+    when(deviceTelemetryService.saveAllByOwner(Map.of(OWNER, List.of(DTO_1, DTO_2)))).thenReturn(1);
+
+    TelemetryStreamResultDTO result = underTest.save(OWNER, stream(LINE_1 + "\n" + LINE_2));
+
+    assertEquals(2, result.received());
+    assertEquals(1, result.accepted());
+    assertEquals(1, result.duplicated());
+    assertEquals(0, result.rejected());
+  }
+
+  @Test
+  void saveWithRejectedRecords() {
+
+    when(deviceTelemetryService.saveAllByOwner(Map.of(OWNER, List.of(DTO_1)))).thenReturn(1);
+
+    TelemetryStreamResultDTO result = underTest.save(OWNER,
+        stream(MALFORMED_LINE + "\n" + LINE_1 + "\n" + INVALID_LINE + "\n")
+    );
+
+    assertEquals(3, result.received());
+    assertEquals(1, result.accepted());
+    assertEquals(2, result.rejected());
+    assertEquals(MAX_REPORTED_REJECTIONS, result.rejections().size());
+    assertEquals(1, result.rejections().getFirst().line());
+    assertEquals(List.of("Telemetry data record is not valid JSON"),
+        result.rejections().getFirst().errors()
+    );
+  }
+
+  @Test
+  void saveWithInvalidRecordLineNumber() {
+
+    TelemetryStreamResultDTO result = underTest.save(OWNER, stream("\n\n" + INVALID_LINE));
+
+    verify(deviceTelemetryService, never()).saveAllByOwner(anyMap());
+
+    assertEquals(1, result.received());
+    assertEquals(0, result.accepted());
+    assertEquals(3, result.rejections().getFirst().line());
+    assertEquals(List.of("Latitude must be between -90 and 90"),
+        result.rejections().getFirst().errors()
+    );
+  }
+
+  @Test
+  void saveWithTooLongRecord() {
+
+    String longLine = "{\"device\": \"" + "A".repeat(MAX_LINE_LENGTH) + "\"}";
+
+    TelemetryStreamResultDTO result = underTest.save(OWNER, stream(longLine));
+
+    assertEquals(1, result.rejected());
+    assertEquals(List.of("Telemetry data record exceeds " + MAX_LINE_LENGTH + " characters"),
+        result.rejections().getFirst().errors()
+    );
+  }
+
+  @Test
+  void saveWithUnreadableStream() {
+
+    when(deviceTelemetryService.saveAllByOwner(Map.of(OWNER, List.of(DTO_1, DTO_2)))).thenReturn(2);
+
+    InputStream failingStream = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("Connection reset");
+      }
+    };
+    InputStream inputStream = new SequenceInputStream(stream(LINE_1 + "\n" + LINE_2 + "\n"),
+        failingStream
+    );
+
+    BadRequestException result = assertThrows(BadRequestException.class,
+        () -> underTest.save(OWNER, inputStream)
+    );
+
+    verify(deviceTelemetryService, times(1)).saveAllByOwner(Map.of(OWNER, List.of(DTO_1, DTO_2)));
+    assertEquals(EnduranceTrioError.BAD_REQUEST.getCode(), result.getCode());
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
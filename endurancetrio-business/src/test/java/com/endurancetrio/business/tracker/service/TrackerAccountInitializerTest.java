@@ -20,12 +20,15 @@
 
 package com.endurancetrio.business.tracker.service;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
 import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
 import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
 import java.util.Optional;
@@ -34,6 +37,7 @@
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,11 +45,18 @@ class TrackerAccountInitializerTest {
 
   private static final String FIRST_OWNER = "system";
 
-  private static final String FIRST_HASH = "TEST_ACCOUNT_KEY_1234567890";
+  private static final String FIRST_HASH =
+      "$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW";
+
+  private static final String FIRST_HMAC_HASH =
+      "{hmac-sha256}K7gNU3sdo+OL0wNhqoVWhr3g6s1xYv72ol/pe/Unols=";
 
   @Mock
   private TrackerAccountRepository trackerAccountRepository;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private TrackerAccountInitializer underTest;
 
@@ -62,6 +73,7 @@ void accountInitializer() {
     verify(trackerAccountRepository, times(1)).save(argThat(
         account -> account.getOwner().equals(FIRST_OWNER) && account.getKey().equals(FIRST_HASH)
             && account.isEnabled()));
+    verify(eventPublisher, never()).publishEvent(any());
   }
 
   @Test
@@ -92,6 +104,33 @@ void accountInitializerWithEmptyFirstHash() {
             && account.isEnabled()));
   }
 
+  @Test
+  void accountInitializerWithHmacHash() {
+
+    ReflectionTestUtils.setField(underTest, "firstOwner", FIRST_OWNER);
+    ReflectionTestUtils.setField(underTest, "firstHash", FIRST_HMAC_HASH);
+    when(trackerAccountRepository.findByOwner(FIRST_OWNER)).thenReturn(Optional.empty());
+
+    underTest.accountInitializer();
+
+    verify(trackerAccountRepository, times(1)).save(argThat(
+        account -> account.getOwner().equals(FIRST_OWNER)
+            && account.getKey().equals(FIRST_HMAC_HASH) && account.isEnabled()));
+  }
+
+  @Test
+  void accountInitializerWithInvalidHash() {
+
+    ReflectionTestUtils.setField(underTest, "firstOwner", FIRST_OWNER);
+    ReflectionTestUtils.setField(underTest, "firstHash", "TEST_ACCOUNT_KEY_1234567890");
+
+    underTest.accountInitializer();
+
+    verify(trackerAccountRepository, never()).findByOwner(FIRST_OWNER);
+    verify(trackerAccountRepository, never()).save(argThat(
+        account -> account.getOwner().equals(FIRST_OWNER)));
+  }
+
   @Test
   void accountInitializerWithExistingAccount() {
 
@@ -106,5 +145,23 @@ void accountInitializerWithExistingAccount() {
     verify(trackerAccountRepository, times(1)).save(argThat(
         account -> account.getOwner().equals(FIRST_OWNER) && account.getKey().equals(FIRST_HASH)
             && account.isEnabled()));
+    verify(eventPublisher, times(1)).publishEvent(argThat(
+        (Object event) -> event instanceof TrackerAccountChangedEvent changed
+            && changed.owner().equals(FIRST_OWNER) && changed.change() == Change.KEY_REPLACED));
+  }
+
+  @Test
+  void accountInitializerWithExistingAccountOfSameHash() {
+
+    ReflectionTestUtils.setField(underTest, "firstOwner", FIRST_OWNER);
+    ReflectionTestUtils.setField(underTest, "firstHash", FIRST_HASH);
+    when(trackerAccountRepository.findByOwner(FIRST_OWNER)).thenReturn(
+        Optional.of(new TrackerAccount(FIRST_OWNER, FIRST_HASH, true)));
+
+    underTest.accountInitializer();
+
+    verify(trackerAccountRepository, times(1)).save(argThat(
+        account -> account.getOwner().equals(FIRST_OWNER) && account.getKey().equals(FIRST_HASH)));
+    verify(eventPublisher, never()).publishEvent(any());
   }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.endurancetrio.business.tracker.dto.TrackerAccountDTO;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
+import com.endurancetrio.business.tracker.mapper.TrackerAccountMapper;
+import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TrackerAccountRegistryTest {
+
+  private static final String OWNER_1 = "system";
+  private static final String OWNER_2 = "doe";
+  private static final String HASH_1 = "$2a$10$hash1";
+  private static final String HASH_2 = "$2a$10$hash2";
+  private static final Instant CREATED_AT = Instant.parse("2026-09-19T06:00:00Z");
+
+  @Mock
+  private TrackerAccountRepository repository;
+
+  @Spy
+  private TrackerAccountMapper trackerAccountMapper = new TrackerAccountMapper();
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @InjectMocks
+  private TrackerAccountRegistry underTest;
+
+  @Test
+  void findBeforeLoading() {
+    when(repository.findByOwner(OWNER_1)).thenReturn(Optional.of(account(OWNER_1, HASH_1, true)));
+
+    Optional<TrackerAccountDTO> result = underTest.find(OWNER_1);
+
+    verify(repository, times(1)).findByOwner(OWNER_1);
+
+    assertEquals(Optional.of(new TrackerAccountDTO(OWNER_1, HASH_1, true)), result);
+  }
+
+  @Test
+  void findAfterLoading() {
+    when(repository.findAll()).thenReturn(List.of(account(OWNER_1, HASH_1, true)));
+
+    underTest.loadAccounts();
+
+    assertEquals(Optional.of(new TrackerAccountDTO(OWNER_1, HASH_1, true)),
+        underTest.find(OWNER_1)
+    );
+    assertTrue(underTest.find(OWNER_2).isEmpty());
+    assertEquals(1, meterRegistry.get("tracker.auth.accounts").gauge().value());
+
+    verify(repository, never()).findByOwner(anyString());
+    verify(eventPublisher, never()).publishEvent(any(TrackerAccountChangedEvent.class));
+  }
+
+  @Test
+  void findWhenTheLoadingFailed() {
+    when(repository.findAll()).thenThrow(new DataAccessResourceFailureException("down"));
+    when(repository.findByOwner(OWNER_1)).thenReturn(Optional.empty());
+
+    underTest.loadAccounts();
+
+    assertTrue(underTest.find(OWNER_1).isEmpty());
+
+    verify(repository, times(1)).findByOwner(OWNER_1);
+  }
+
+  @Test
+  void refreshAccounts() {
+    TrackerAccount disabled = account(OWNER_1, HASH_1, false);
+    when(repository.findAll()).thenReturn(List.of(account(OWNER_1, HASH_1, true)))
+        .thenReturn(List.of(disabled))
+        .thenReturn(List.of(disabled));
+    underTest.loadAccounts();
+
+    underTest.refreshAccounts();
+
+    assertFalse(underTest.find(OWNER_1).orElseThrow().enabled());
+
+    verify(eventPublisher, times(1)).publishEvent(changed(OWNER_1, Change.DISABLED));
+
+    underTest.refreshAccounts();
+
+    verify(eventPublisher, times(1)).publishEvent(any(TrackerAccountChangedEvent.class));
+  }
+
+  @Test
+  void refreshAccountsCreated() {
+    when(repository.findAll()).thenReturn(List.of(account(OWNER_1, HASH_1, true)))
+        .thenReturn(List.of(account(OWNER_1, HASH_1, true), account(OWNER_2, HASH_2, true)));
+    underTest.loadAccounts();
+
+    underTest.refreshAccounts();
+
+    assertTrue(underTest.find(OWNER_2).isPresent());
+
+    verify(eventPublisher, times(1)).publishEvent(changed(OWNER_2, Change.CREATED));
+  }
+
+  @Test
+  void refreshAccountsDeleted() {
+    when(repository.findAll()).thenReturn(
+            List.of(account(OWNER_1, HASH_1, true), account(OWNER_2, HASH_2, true)))
+        .thenReturn(List.of(account(OWNER_1, HASH_1, true)));
+    underTest.loadAccounts();
+
+    underTest.refreshAccounts();
+
+    assertTrue(underTest.find(OWNER_1).isPresent());
+    assertTrue(underTest.find(OWNER_2).isEmpty());
+
+    verify(eventPublisher, times(1)).publishEvent(changed(OWNER_2, Change.DELETED));
+  }
+
+  @Test
+  void refreshAccountsKeyReplaced() {
+    when(repository.findAll()).thenReturn(List.of(account(OWNER_1, HASH_1, true)))
+        .thenReturn(List.of(account(OWNER_1, HASH_2, false)));
+    underTest.loadAccounts();
+
+    underTest.refreshAccounts();
+
+    verify(eventPublisher, times(1)).publishEvent(changed(OWNER_1, Change.KEY_REPLACED));
+  }
+
+  @Test
+  void onTrackerAccountChanged() {
+    when(repository.findAll()).thenReturn(List.of(account(OWNER_1, HASH_1, true)));
+    underTest.loadAccounts();
+    when(repository.findByOwner(OWNER_1)).thenReturn(Optional.of(account(OWNER_1, HASH_2, true)));
+
+    underTest.onTrackerAccountChanged(
+        new TrackerAccountChangedEvent(OWNER_1, Change.KEY_REPLACED, Instant.now()));
+
+    assertEquals(HASH_2, underTest.find(OWNER_1).orElseThrow().key());
+
+    verify(eventPublisher, never()).publishEvent(any(TrackerAccountChangedEvent.class));
+  }
+
+  @Test
+  void onTrackerAccountChangedInTheDatabase() {
+    when(repository.findAll()).thenReturn(List.of(account(OWNER_1, HASH_1, true)));
+    underTest.loadAccounts();
+
+    underTest.onTrackerAccountChanged(
+        new TrackerAccountChangedEvent(OWNER_1, Change.KEY_REPLACED, Instant.now(), true));
+
+    verify(repository, never()).findByOwner(anyString());
+  }
+
+  private static Object changed(String owner, Change change) {
+    return argThat((Object event) -> event instanceof TrackerAccountChangedEvent changed
+        && changed.owner().equals(owner) && changed.change() == change && changed.fromDatabase());
+  }
+
+  private static TrackerAccount account(String owner, String keyHash, boolean enabled) {
+    TrackerAccount account = new TrackerAccount(owner, keyHash, enabled);
+    ReflectionTestUtils.setField(account, "createdAt", CREATED_AT);
+    return account;
+  }
+}
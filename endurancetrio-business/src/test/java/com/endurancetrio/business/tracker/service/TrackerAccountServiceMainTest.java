@@ -25,24 +25,37 @@
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.endurancetrio.business.common.exception.NotFoundException;
+import com.endurancetrio.business.common.exception.TooManyRequestsException;
 import com.endurancetrio.business.common.exception.base.EnduranceTrioError;
 import com.endurancetrio.business.tracker.dto.TrackerAccountDTO;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
 import com.endurancetrio.business.tracker.mapper.TrackerAccountMapper;
 import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
 import com.endurancetrio.data.tracker.repository.TrackerAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +64,9 @@ class TrackerAccountServiceMainTest {
   private static final String OWNER = "system";
   private static final String KEY = "TEST_ACCOUNT_KEY_1234567890";
   private static final boolean IS_ENABLED = true;
+  private static final String LONG_KEY = "et_1QGdBFNl6xH0sR0pUq8b4mWvVYtKZc3JhA9eTfLjXo2";
+  private static final String HMAC_HASH =
+      "{hmac-sha256}K7gNU3sdo+OL0wNhqoVWhr3g6s1xYv72ol/pe/Unols=";
 
   private String inputOwner;
   private String inputKey;
@@ -66,6 +82,23 @@ class TrackerAccountServiceMainTest {
   @Mock
   private PasswordEncoder passwordEncoder;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private AuthFailureGuard authFailureGuard;
+
+  @Mock
+  private TrackerAccountRegistry trackerAccountRegistry;
+
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Spy
+  private VerifiedKeyCache verifiedKeyCache = new VerifiedKeyCache(new SimpleMeterRegistry(), 10,
+      Duration.ofMinutes(5)
+  );
+
   @InjectMocks
   private TrackerAccountServiceMain underTest;
 
@@ -79,29 +112,193 @@ void setUp() {
 
   @Test
   void validateKey() {
-    when(trackerAccountRepository.findByOwner(inputOwner)).thenReturn(
-        Optional.of(mockTrackerAccount));
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
     when(passwordEncoder.matches(inputKey, KEY)).thenReturn(true);
 
     boolean result = underTest.validateKey(inputOwner, inputKey);
 
-    verify(trackerAccountRepository, times(1)).findByOwner(inputOwner);
+    verify(trackerAccountRegistry, times(1)).find(inputOwner);
     verify(passwordEncoder, times(1)).matches(inputKey, KEY);
 
     assertTrue(result);
   }
 
+  @Test
+  void validateKeyVerifiedBefore() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
+    when(passwordEncoder.matches(inputKey, KEY)).thenReturn(true);
+
+    boolean first = underTest.validateKey(inputOwner, inputKey);
+    boolean second = underTest.validateKey(inputOwner, inputKey);
+
+    verify(trackerAccountRegistry, times(2)).find(inputOwner);
+    verify(passwordEncoder, times(1)).matches(inputKey, KEY);
+
+    assertTrue(first);
+    assertTrue(second);
+    assertEquals(1, meterRegistry.get("tracker.auth.verification").tag("method", "cache").timer()
+        .count());
+    assertEquals(1, meterRegistry.get("tracker.auth.verification").tag("method", "bcrypt").timer()
+        .count());
+  }
+
+  @Test
+  void validateKeyVerifiedBeforeIsNotThrottled() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
+    when(passwordEncoder.matches(inputKey, KEY)).thenReturn(true);
+    underTest.validateKey(inputOwner, inputKey);
+
+    boolean result = underTest.validateKey(inputOwner, inputKey);
+
+    // The cached verification does not need bcrypt, so it is never throttled
+    verify(authFailureGuard, times(1)).isOwnerThrottled(inputOwner);
+    verify(passwordEncoder, times(1)).matches(inputKey, KEY);
+
+    assertTrue(result);
+  }
+
+  @Test
+  void validateKeyWhenOwnerThrottled() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
+    when(authFailureGuard.isOwnerThrottled(inputOwner)).thenReturn(true);
+
+    TooManyRequestsException result = assertThrows(TooManyRequestsException.class,
+        () -> underTest.validateKey(inputOwner, inputKey)
+    );
+
+    verify(passwordEncoder, never()).matches(anyString(), anyString());
+
+    assertEquals(EnduranceTrioError.TOO_MANY_REQUESTS.getCode(), result.getCode());
+  }
+
+  @Test
+  void validateKeyWithHmacHash() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(new TrackerAccountDTO(OWNER, HMAC_HASH, IS_ENABLED)));
+    when(passwordEncoder.matches(LONG_KEY, HMAC_HASH)).thenReturn(true);
+
+    boolean result = underTest.validateKey(inputOwner, LONG_KEY);
+
+    verify(verifiedKeyCache, never()).isVerified(anyString(), anyString(), anyString());
+    verify(authFailureGuard, never()).isOwnerThrottled(anyString());
+    verify(passwordEncoder, never()).upgradeEncoding(anyString());
+
+    assertTrue(result);
+    assertEquals(1, meterRegistry.get("tracker.auth.verification").tag("method", "hmac").timer()
+        .count());
+  }
+
+  @Test
+  void validateKeyWithHmacHashAndInvalidKey() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(new TrackerAccountDTO(OWNER, HMAC_HASH, IS_ENABLED)));
+    when(passwordEncoder.matches(LONG_KEY, HMAC_HASH)).thenReturn(false);
+
+    boolean result = underTest.validateKey(inputOwner, LONG_KEY);
+
+    assertFalse(result);
+  }
+
+  @Test
+  void validateKeyUpgradesTheKeyHash() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
+    when(passwordEncoder.matches(LONG_KEY, KEY)).thenReturn(true);
+    when(passwordEncoder.upgradeEncoding(KEY)).thenReturn(true);
+    when(passwordEncoder.encode(LONG_KEY)).thenReturn(HMAC_HASH);
+    when(trackerAccountRepository.updateKey(eq(OWNER), eq(KEY), eq(HMAC_HASH),
+        any(Instant.class)
+    )).thenReturn(1);
+
+    boolean result = underTest.validateKey(inputOwner, LONG_KEY);
+
+    verify(trackerAccountRepository, times(1)).updateKey(eq(OWNER), eq(KEY), eq(HMAC_HASH),
+        any(Instant.class)
+    );
+    verify(eventPublisher, times(1)).publishEvent(argThat(
+        (Object event) -> event instanceof TrackerAccountChangedEvent changed
+            && changed.owner().equals(OWNER) && changed.change() == Change.KEY_REHASHED));
+
+    assertTrue(result);
+  }
+
+  @Test
+  void validateKeyUpgradedMeanwhile() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
+    when(passwordEncoder.matches(LONG_KEY, KEY)).thenReturn(true);
+    when(passwordEncoder.upgradeEncoding(KEY)).thenReturn(true);
+    when(passwordEncoder.encode(LONG_KEY)).thenReturn(HMAC_HASH);
+    when(trackerAccountRepository.updateKey(eq(OWNER), eq(KEY), eq(HMAC_HASH),
+        any(Instant.class)
+    )).thenReturn(0);
+
+    boolean result = underTest.validateKey(inputOwner, LONG_KEY);
+
+    verify(eventPublisher, never()).publishEvent(any(TrackerAccountChangedEvent.class));
+
+    assertTrue(result);
+  }
+
+  @Test
+  void validateKeyDoesNotUpgradeShortKeys() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
+    when(passwordEncoder.matches(inputKey, KEY)).thenReturn(true);
+
+    boolean result = underTest.validateKey(inputOwner, inputKey);
+
+    verify(passwordEncoder, never()).encode(any());
+    verify(trackerAccountRepository, never()).updateKey(any(), any(), any(), any());
+
+    assertTrue(result);
+  }
+
+  @Test
+  void validateKeyVerifiedBeforeAgainstAnotherHash() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(Optional.of(mockTrackerAccountDTO))
+        .thenReturn(Optional.of(new TrackerAccountDTO(OWNER, "NEW_HASH", true)));
+    when(passwordEncoder.matches(inputKey, KEY)).thenReturn(true);
+    when(passwordEncoder.matches(inputKey, "NEW_HASH")).thenReturn(false);
+
+    boolean first = underTest.validateKey(inputOwner, inputKey);
+    boolean second = underTest.validateKey(inputOwner, inputKey);
+
+    verify(passwordEncoder, times(1)).matches(inputKey, "NEW_HASH");
+
+    assertTrue(first);
+    assertFalse(second);
+  }
+
+  @Test
+  void validateKeyVerifiedBeforeWithAccountDisabled() {
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(Optional.of(mockTrackerAccountDTO))
+        .thenReturn(Optional.of(new TrackerAccountDTO(OWNER, KEY, false)));
+    when(passwordEncoder.matches(inputKey, KEY)).thenReturn(true);
+
+    boolean first = underTest.validateKey(inputOwner, inputKey);
+    boolean second = underTest.validateKey(inputOwner, inputKey);
+
+    assertTrue(first);
+    assertFalse(second);
+  }
+
   @Test
   void validateKeyWithUnknownOwner() {
 
     String unknownOwner = "doe";
 
-    when(trackerAccountRepository.findByOwner(unknownOwner)).thenReturn(Optional.empty());
+    when(trackerAccountRegistry.find(unknownOwner)).thenReturn(Optional.empty());
 
     boolean result = underTest.validateKey(unknownOwner, inputKey);
 
-    verify(trackerAccountRepository, times(1)).findByOwner(unknownOwner);
+    verify(trackerAccountRegistry, times(1)).find(unknownOwner);
     verify(passwordEncoder, never()).matches(inputKey, KEY);
+    verify(authFailureGuard, times(1)).rememberUnknownOwner(unknownOwner);
 
     assertFalse(result);
   }
@@ -109,13 +306,13 @@ void validateKeyWithUnknownOwner() {
   @Test
   void validateKeyWithAccountDisabled() {
 
-    TrackerAccount disabledAccount = new TrackerAccount(OWNER, KEY, false);
+    TrackerAccountDTO disabledAccount = new TrackerAccountDTO(OWNER, KEY, false);
 
-    when(trackerAccountRepository.findByOwner(OWNER)).thenReturn(Optional.of(disabledAccount));
+    when(trackerAccountRegistry.find(OWNER)).thenReturn(Optional.of(disabledAccount));
 
     boolean result = underTest.validateKey(inputOwner, inputKey);
 
-    verify(trackerAccountRepository, times(1)).findByOwner(inputOwner);
+    verify(trackerAccountRegistry, times(1)).find(inputOwner);
     verify(passwordEncoder, never()).matches(inputKey, KEY);
 
     assertFalse(result);
@@ -124,14 +321,15 @@ void validateKeyWithAccountDisabled() {
   @Test
   void validateKeyWithInvalidKey() {
 
-    when(trackerAccountRepository.findByOwner(inputOwner)).thenReturn(
-        Optional.of(mockTrackerAccount));
+    when(trackerAccountRegistry.find(inputOwner)).thenReturn(
+        Optional.of(mockTrackerAccountDTO));
     when(passwordEncoder.matches(inputKey, KEY)).thenReturn(false);
 
     boolean result = underTest.validateKey(inputOwner, inputKey);
 
-    verify(trackerAccountRepository, times(1)).findByOwner(inputOwner);
+    verify(trackerAccountRegistry, times(1)).find(inputOwner);
     verify(passwordEncoder, times(1)).matches(inputKey, KEY);
+    verify(verifiedKeyCache, never()).remember(inputOwner, inputKey, KEY);
 
     assertFalse(result);
   }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.business.tracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent;
+import com.endurancetrio.business.tracker.event.TrackerAccountChangedEvent.Change;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VerifiedKeyCacheTest {
+
+  private static final int MAX_ENTRIES = 2;
+  private static final Duration TTL = Duration.ofMinutes(5);
+
+  private static final String OWNER_1 = "system";
+  private static final String OWNER_2 = "doe";
+  private static final String KEY_1 = "TEST_ACCOUNT_KEY_1234567890";
+  private static final String KEY_2 = "TEST_ACCOUNT_KEY_0987654321";
+  private static final String KEY_3 = "TEST_ACCOUNT_KEY_1122334455";
+  private static final String HASH_1 = "$2a$10$hash1";
+  private static final String HASH_2 = "$2a$10$hash2";
+
+  private MeterRegistry meterRegistry;
+  private VerifiedKeyCache underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new VerifiedKeyCache(meterRegistry, MAX_ENTRIES, TTL);
+  }
+
+  @Test
+  void isVerified() {
+
+    underTest.remember(OWNER_1, KEY_1, HASH_1);
+
+    assertTrue(underTest.isVerified(OWNER_1, KEY_1, HASH_1));
+    assertFalse(underTest.isVerified(OWNER_1, KEY_2, HASH_1));
+    assertFalse(underTest.isVerified(OWNER_2, KEY_1, HASH_1));
+    assertEquals(1, meterRegistry.get("tracker.auth.cache.hits").counter().count());
+    assertEquals(2, meterRegistry.get("tracker.auth.cache.misses").counter().count());
+  }
+
+  @Test
+  void isVerifiedAgainstAnotherHash() {
+
+    underTest.remember(OWNER_1, KEY_1, HASH_1);
+
+    assertFalse(underTest.isVerified(OWNER_1, KEY_1, HASH_2));
+  }
+
+  @Test
+  void isVerifiedAfterTheTtl() {
+
+    underTest = new VerifiedKeyCache(meterRegistry, MAX_ENTRIES, Duration.ZERO);
+    underTest.remember(OWNER_1, KEY_1, HASH_1);
+
+    assertFalse(underTest.isVerified(OWNER_1, KEY_1, HASH_1));
+  }
+
+  @Test
+  void rememberForgetsTheLeastRecentlyUsed() {
+
+    underTest.remember(OWNER_1, KEY_1, HASH_1);
+    underTest.remember(OWNER_1, KEY_2, HASH_1);
+    underTest.isVerified(OWNER_1, KEY_1, HASH_1);
+    underTest.remember(OWNER_1, KEY_3, HASH_1);
+
+    assertEquals(MAX_ENTRIES, underTest.size());
+    assertTrue(underTest.isVerified(OWNER_1, KEY_1, HASH_1));
+    assertFalse(underTest.isVerified(OWNER_1, KEY_2, HASH_1));
+    assertTrue(underTest.isVerified(OWNER_1, KEY_3, HASH_1));
+  }
+
+  @Test
+  void onTrackerAccountChanged() {
+
+    underTest.remember(OWNER_1, KEY_1, HASH_1);
+    underTest.remember(OWNER_2, KEY_2, HASH_2);
+
+    underTest.onTrackerAccountChanged(
+        new TrackerAccountChangedEvent(OWNER_1, Change.KEY_REPLACED, Instant.now()));
+
+    assertFalse(underTest.isVerified(OWNER_1, KEY_1, HASH_1));
+    assertTrue(underTest.isVerified(OWNER_2, KEY_2, HASH_2));
+    assertEquals(1.0, meterRegistry.get("tracker.auth.cache.size").gauge().value());
+  }
+}
@@ -29,6 +29,7 @@
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.io.Serial;
 import java.time.Instant;
 import java.util.StringJoiner;
@@ -74,14 +75,30 @@
  *    inherited from {@link AuditableEntity}.
  *  </li>
  * </ul>
+ * <p>
+ * A device records at most one {@link DeviceTelemetry} per timestamp. The new records are inserted
+ * by the {@link com.endurancetrio.data.tracker.repository.DeviceTelemetryInsertRepository}, which
+ * skips the records resent by the devices and reports which records were actually inserted.
  */
 @Entity
-@Table(name = "device_telemetry")
+@Table(
+    name = "device_telemetry", uniqueConstraints = @UniqueConstraint(
+        name = "uk_device_telemetry_device_record_time", columnNames = {"device", "record_time"}
+    )
+)
 @SequenceGenerator(
-    name = "seq_endurancetrio_generator", sequenceName = "seq_device_telemetry_id", allocationSize = 5
+    name = "seq_endurancetrio_generator", sequenceName = "seq_device_telemetry_id",
+    allocationSize = DeviceTelemetry.ID_ALLOCATION_SIZE
 )
 public class DeviceTelemetry extends BaseEntity<Long> {
 
+  /**
+   * Number of identifiers reserved by each {@code seq_device_telemetry_id} value, which must match
+   * the sequence increment. A sequence value {@code n} reserves the identifiers from
+   * {@code n - ID_ALLOCATION_SIZE + 1} to {@code n}.
+   */
+  public static final int ID_ALLOCATION_SIZE = 50;
+
   @Serial
   private static final long serialVersionUID = 1L;
 
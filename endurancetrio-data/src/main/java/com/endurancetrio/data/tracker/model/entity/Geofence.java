@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.model.entity;
+
+import com.endurancetrio.data.common.model.entity.AuditableEntity;
+import com.endurancetrio.data.common.model.entity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.io.Serial;
+import java.util.StringJoiner;
+
+/**
+ * The {@link Geofence} represents a geographic area of a tracker account whose boundary, when
+ * crossed by a device, raises a {@link GeofenceEvent}.
+ * <p>
+ * The {@link Geofence} fields are defined as follows:
+ * <ul>
+ *   <li>
+ *     {@link #getId()} id : The unique identifier of the {@link Geofence} that is automatically
+ *     generated and is the primary key.
+ *  </li>
+ *  <li>
+ *    {@link #getAccount()} account : The account that owns the geofence
+ *  </li>
+ *  <li>
+ *    {@link #getName()} name : The name of the geofence, unique within the account
+ *  </li>
+ *  <li>
+ *    {@link #getShape()} shape : The shape of the geofence, a {@link Shape#CIRCLE} or a
+ *    {@link Shape#POLYGON}
+ *  </li>
+ *  <li>
+ *    {@link #getLatitude()} latitude : The latitude of the center of a circle
+ *  </li>
+ *  <li>
+ *    {@link #getLongitude()} longitude : The longitude of the center of a circle
+ *  </li>
+ *  <li>
+ *    {@link #getRadius()} radius : The radius of a circle, in meters
+ *  </li>
+ *  <li>
+ *    {@link #getCoordinates()} coordinates : The vertices of a polygon, written as
+ *    {@code longitude latitude} pairs separated by commas
+ *  </li>
+ *  <li>
+ *    {@link #getVersion()} version : The version number for optimistic locking,
+ *    inherited from {@link AuditableEntity}.
+ *  </li>
+ *  <li>
+ *    {@link #getCreatedAt()} createdAt : The system timestamp of creation,
+ *    inherited from {@link AuditableEntity}.
+ *  </li>
+ *  <li>
+ *    {@link #getUpdatedAt()} updatedAt : The system timestamp of the last update,
+ *    inherited from {@link AuditableEntity}.
+ *  </li>
+ * </ul>
+ */
+@Entity
+@Table(name = "geofence")
+@SequenceGenerator(
+    name = "seq_endurancetrio_generator", sequenceName = "seq_geofence_id", allocationSize = 5
+)
+public class Geofence extends BaseEntity<Long> {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "account", nullable = false)
+  private TrackerAccount account;
+
+  @Column(name = "name", nullable = false, length = 50)
+  private String name;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "shape", nullable = false, length = 10)
+  private Shape shape;
+
+  @Column(name = "latitude")
+  private Double latitude;
+
+  @Column(name = "longitude")
+  private Double longitude;
+
+  @Column(name = "radius")
+  private Double radius;
+
+  @Column(name = "coordinates", length = 50000)
+  private String coordinates;
+
+  public Geofence() {
+    super();
+  }
+
+  public TrackerAccount getAccount() {
+    return account;
+  }
+
+  public void setAccount(TrackerAccount account) {
+    this.account = account;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public Shape getShape() {
+    return shape;
+  }
+
+  public void setShape(Shape shape) {
+    this.shape = shape;
+  }
+
+  public Double getLatitude() {
+    return latitude;
+  }
+
+  public void setLatitude(Double latitude) {
+    this.latitude = latitude;
+  }
+
+  public Double getLongitude() {
+    return longitude;
+  }
+
+  public void setLongitude(Double longitude) {
+    this.longitude = longitude;
+  }
+
+  public Double getRadius() {
+    return radius;
+  }
+
+  public void setRadius(Double radius) {
+    this.radius = radius;
+  }
+
+  public String getCoordinates() {
+    return coordinates;
+  }
+
+  public void setCoordinates(String coordinates) {
+    this.coordinates = coordinates;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", getClass().getSimpleName() + "[", "]")
+        .add("id=" + this.getId())
+        .add("account='" + (account != null ? account.getOwner() : null) + "'")
+        .add("name='" + name + "'")
+        .add("shape=" + shape)
+        .add("latitude=" + latitude)
+        .add("longitude=" + longitude)
+        .add("radius=" + radius)
+        .add("createdAt=" + this.getCreatedAt())
+        .toString();
+  }
+
+  /**
+   * The shapes of a {@link Geofence}.
+   */
+  public enum Shape {
+    CIRCLE,
+    POLYGON
+  }
+}
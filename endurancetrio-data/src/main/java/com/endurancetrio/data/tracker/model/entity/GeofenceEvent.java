@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.model.entity;
+
+import com.endurancetrio.data.common.model.entity.AuditableEntity;
+import com.endurancetrio.data.common.model.entity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.io.Serial;
+import java.time.Instant;
+import java.util.StringJoiner;
+
+/**
+ * The {@link GeofenceEvent} represents a device entering or leaving a {@link Geofence}.
+ * <p>
+ * The {@link GeofenceEvent} fields are defined as follows:
+ * <ul>
+ *   <li>
+ *     {@link #getId()} id : The unique identifier of the {@link GeofenceEvent} that is
+ *     automatically generated and is the primary key.
+ *  </li>
+ *  <li>
+ *    {@link #getGeofenceId()} geofenceId : The identifier of the {@link Geofence} crossed
+ *  </li>
+ *  <li>
+ *    {@link #getAccount()} account : The account that owns the geofence
+ *  </li>
+ *  <li>
+ *    {@link #getDevice()} device : Identifier of the device that crossed the boundary
+ *  </li>
+ *  <li>
+ *    {@link #getType()} type : Whether the device entered ({@link Type#ENTER}) or left
+ *    ({@link Type#EXIT}) the geofence
+ *  </li>
+ *  <li>
+ *    {@link #getTime()} time : The timestamp of the telemetry data record that crossed the
+ *    boundary
+ *  </li>
+ *  <li>
+ *    {@link #getLatitude()} latitude : The latitude of the telemetry data record
+ *  </li>
+ *  <li>
+ *    {@link #getLongitude()} longitude : The longitude of the telemetry data record
+ *  </li>
+ *  <li>
+ *    {@link #getVersion()} version : The version number for optimistic locking,
+ *    inherited from {@link AuditableEntity}.
+ *  </li>
+ *  <li>
+ *    {@link #getCreatedAt()} createdAt : The system timestamp of creation,
+ *    inherited from {@link AuditableEntity}.
+ *  </li>
+ *  <li>
+ *    {@link #getUpdatedAt()} updatedAt : The system timestamp of the last update,
+ *    inherited from {@link AuditableEntity}.
+ *  </li>
+ * </ul>
+ * <p>
+ * The events of a {@link Geofence} are deleted along with it. The {@code geofence_id} column has
+ * no foreign key, so a geofence deleted while a device is crossing it may leave an event behind.
+ */
+@Entity
+@Table(name = "geofence_event")
+@SequenceGenerator(
+    name = "seq_endurancetrio_generator", sequenceName = "seq_geofence_event_id",
+    allocationSize = 50
+)
+public class GeofenceEvent extends BaseEntity<Long> {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  @Column(name = "geofence_id", nullable = false)
+  private Long geofenceId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "account", nullable = false)
+  private TrackerAccount account;
+
+  @Column(name = "device", nullable = false, length = 50)
+  private String device;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", nullable = false, length = 10)
+  private Type type;
+
+  @Column(name = "record_time", nullable = false)
+  private Instant time;
+
+  @Column(name = "latitude", nullable = false)
+  private Double latitude;
+
+  @Column(name = "longitude", nullable = false)
+  private Double longitude;
+
+  public GeofenceEvent() {
+    super();
+  }
+
+  public GeofenceEvent(
+      Long geofenceId, TrackerAccount account, String device, Type type, Instant time,
+      Double latitude, Double longitude
+  ) {
+    this.geofenceId = geofenceId;
+    this.account = account;
+    this.device = device;
+    this.type = type;
+    this.time = time;
+    this.latitude = latitude;
+    this.longitude = longitude;
+  }
+
+  public Long getGeofenceId() {
+    return geofenceId;
+  }
+
+  public void setGeofenceId(Long geofenceId) {
+    this.geofenceId = geofenceId;
+  }
+
+  public TrackerAccount getAccount() {
+    return account;
+  }
+
+  public void setAccount(TrackerAccount account) {
+    this.account = account;
+  }
+
+  public String getDevice() {
+    return device;
+  }
+
+  public void setDevice(String device) {
+    this.device = device;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public void setType(Type type) {
+    this.type = type;
+  }
+
+  public Instant getTime() {
+    return time;
+  }
+
+  public void setTime(Instant time) {
+    this.time = time;
+  }
+
+  public Double getLatitude() {
+    return latitude;
+  }
+
+  public void setLatitude(Double latitude) {
+    this.latitude = latitude;
+  }
+
+  public Double getLongitude() {
+    return longitude;
+  }
+
+  public void setLongitude(Double longitude) {
+    this.longitude = longitude;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", getClass().getSimpleName() + "[", "]")
+        .add("id=" + this.getId())
+        .add("geofenceId=" + geofenceId)
+        .add("account='" + (account != null ? account.getOwner() : null) + "'")
+        .add("device='" + device + "'")
+        .add("type=" + type)
+        .add("time=" + time)
+        .add("latitude=" + latitude)
+        .add("longitude=" + longitude)
+        .toString();
+  }
+
+  /**
+   * The types of a {@link GeofenceEvent}.
+   */
+  public enum Type {
+    ENTER,
+    EXIT
+  }
+}
@@ -44,6 +44,16 @@
  *   <li>
  *     {@link #isEnabled()} enabled : Flag indicating whether the account is active
  *   </li>
+ *   <li>
+ *     {@link #getRawRetentionDays()} rawRetentionDays : The days the raw telemetry records of the
+ *     account are kept before being rolled up, or {@code null} to keep them forever
+ *   </li>
+ *   <li>
+ *     {@link #getRollupRetentionDays()} rollupRetentionDays : The days the rolled up telemetry
+ *     records of the account are kept before being deleted, or {@code null} to keep them forever.
+ *     The raw records are deleted without being rolled up when it is not greater than
+ *     {@code rawRetentionDays}
+ *   </li>
  *  <li>
  *    {@link #getVersion()} version : The version number for optimistic locking,
  *    inherited from {@link AuditableEntity}.
@@ -75,6 +85,12 @@ public class TrackerAccount extends AuditableEntity {
   @Column(name = "enabled", nullable = false)
   private boolean enabled;
 
+  @Column(name = "raw_retention_days")
+  private Integer rawRetentionDays;
+
+  @Column(name = "rollup_retention_days")
+  private Integer rollupRetentionDays;
+
   public TrackerAccount() {
     super();
   }
@@ -109,6 +125,22 @@ public void setEnabled(boolean enabled) {
     this.enabled = enabled;
   }
 
+  public Integer getRawRetentionDays() {
+    return rawRetentionDays;
+  }
+
+  public void setRawRetentionDays(Integer rawRetentionDays) {
+    this.rawRetentionDays = rawRetentionDays;
+  }
+
+  public Integer getRollupRetentionDays() {
+    return rollupRetentionDays;
+  }
+
+  public void setRollupRetentionDays(Integer rollupRetentionDays) {
+    this.rollupRetentionDays = rollupRetentionDays;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Maintains the {@code device_latest} table, which references the most recent active
+ * {@code device_telemetry} record of each device.
+ * <p>
+ * The table turns the "latest position of each device" lookups into a primary key join instead of
+ * a scan of the whole telemetry history. It is kept up to date by upserting the newly inserted
+ * telemetry records in the same transaction as the insert, so it never references a record that
+ * was rolled back. A row is only replaced by a record with a later record time, which makes the
+ * upsert safe for records received out of order and for concurrent transactions.
+ * <p>
+ * The table has no foreign key to {@code device_telemetry}, which is partitioned on PostgreSQL, so
+ * whoever deletes telemetry records must delete the rows referencing them, and the partitions
+ * holding referenced records are not detached.
+ * <p>
+ * On PostgreSQL the upsert is an {@code INSERT ... ON CONFLICT (device) DO UPDATE}. Any other
+ * database (H2 in the tests) uses the equivalent {@code MERGE} statement.
+ * <p>
+ * The methods read the {@code device_telemetry} table through JDBC, so the pending Hibernate
+ * inserts must be flushed before calling them.
+ */
+@Repository
+public class DeviceLatestRepository {
+
+  private static final String LATEST_RECORDS = """
+      SELECT DISTINCT ON (t.device) t.device, t.id, t.record_time
+      FROM %1$s.device_telemetry t
+      WHERE t.active = true AND %2$s
+      ORDER BY t.device, t.record_time DESC
+      """;
+
+  private static final String UPSERT = """
+      INSERT INTO %1$s.device_latest AS latest (device, telemetry_id, record_time)
+      %2$s
+      ON CONFLICT (device) DO UPDATE
+        SET telemetry_id = excluded.telemetry_id, record_time = excluded.record_time
+        WHERE excluded.record_time > latest.record_time
+      """;
+
+  private static final String MERGE = """
+      MERGE INTO %1$s.device_latest latest
+      USING (%2$s) source ON latest.device = source.device
+      WHEN MATCHED AND source.record_time > latest.record_time THEN
+        UPDATE SET telemetry_id = source.id, record_time = source.record_time
+      WHEN NOT MATCHED THEN
+        INSERT (device, telemetry_id, record_time)
+        VALUES (source.device, source.id, source.record_time)
+      """;
+
+  private static final String DELETE_ALL = "DELETE FROM %s.device_latest";
+
+  private final DataSource dataSource;
+  private final String schema;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public DeviceLatestRepository(
+      DataSource dataSource,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema
+  ) {
+    this.dataSource = dataSource;
+    this.schema = schema;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Updates the latest record of the devices of the given telemetry records, with the most recent
+   * active record of each device among them.
+   *
+   * @param telemetryIds the identifiers of the newly inserted telemetry records, which may include
+   *                     identifiers of records that were not inserted because they already existed
+   * @return the number of devices whose latest record was inserted or replaced
+   */
+  public int upsert(Collection<Long> telemetryIds) {
+    if (telemetryIds.isEmpty()) {
+      return 0;
+    }
+    return execute("t.id = ANY (?)", "bigint", telemetryIds.toArray());
+  }
+
+  /**
+   * Updates the latest record of the given devices, with the most recent active record of each
+   * device in the whole telemetry history.
+   * <p>
+   * Used after bulk imports, whose record identifiers are not known by the caller.
+   *
+   * @param devices the device identifiers to update
+   * @return the number of devices whose latest record was inserted or replaced
+   */
+  public int refresh(Collection<String> devices) {
+    if (devices.isEmpty()) {
+      return 0;
+    }
+    return execute("t.device = ANY (?)", "varchar", devices.toArray());
+  }
+
+  /**
+   * Rebuilds the whole table from the telemetry history.
+   * <p>
+   * Meant for existing data, e.g. after telemetry records were changed or deleted directly in the
+   * database. The table is locked until the calling transaction ends.
+   *
+   * @return the number of devices with a latest record
+   */
+  public int rebuild() {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate(DELETE_ALL.formatted(schema));
+      return statement.executeUpdate(statementFor(connection, "true"));
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("device latest rebuild", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private int execute(String filter, String type, Object[] values) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        statementFor(connection, filter))) {
+
+      statement.setArray(1, connection.createArrayOf(type, values));
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("device latest upsert", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private String statementFor(Connection connection, String filter) throws SQLException {
+    String latestRecords = LATEST_RECORDS.formatted(schema, filter);
+    if (connection.isWrapperFor(PGConnection.class)) {
+      return UPSERT.formatted(schema, latestRecords);
+    }
+    return MERGE.formatted(schema, latestRecords);
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads the {@code device_telemetry} history downsampled to one point per device and time bucket.
+ * <p>
+ * The buckets are computed by the database, so only one row per device and bucket is sent to the
+ * application, however many records each bucket holds. The buckets are aligned on the start of the
+ * requested time range. On PostgreSQL a record is assigned to its bucket with {@code date_bin}.
+ * Any other database (H2 in the tests) uses the equivalent {@code DATEADD}/{@code DATEDIFF}
+ * arithmetic, which requires whole second bucket sizes.
+ */
+@Repository
+public class DeviceTelemetryBucketRepository {
+
+  private static final String PG_BUCKET = "date_bin(CAST(? AS interval), t.record_time, ?)";
+  private static final String H2_BUCKET = """
+      DATEADD(SECOND, DATEDIFF(SECOND, CAST(? AS TIMESTAMP), t.record_time) / ? * ?, \
+      CAST(? AS TIMESTAMP))""";
+
+  private static final String BUCKETED = """
+      SELECT t.device, %2$s AS bucket, t.record_time, t.latitude, t.longitude, t.active
+      FROM %1$s.device_telemetry t
+      WHERE t.device = ANY (?) AND t.record_time >= ? AND t.record_time < ?
+      """;
+
+  private static final String RANKED = """
+      SELECT device, bucket, record_time, latitude, longitude, active, points
+      FROM (
+        SELECT b.*,
+          ROW_NUMBER() OVER (PARTITION BY device, bucket ORDER BY record_time %2$s) AS bucket_rank,
+          COUNT(*) OVER (PARTITION BY device, bucket) AS points
+        FROM (%1$s) b
+      ) ranked
+      WHERE bucket_rank = 1
+      ORDER BY device, bucket
+      """;
+
+  private static final String CENTROID = """
+      SELECT device, bucket, bucket, AVG(latitude), AVG(longitude), BOOL_OR(active), COUNT(*)
+      FROM (%s) b
+      GROUP BY device, bucket
+      ORDER BY device, bucket
+      """;
+
+  private final DataSource dataSource;
+  private final String schema;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public DeviceTelemetryBucketRepository(
+      DataSource dataSource,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema
+  ) {
+    this.dataSource = dataSource;
+    this.schema = schema;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Finds the first record of each device in each bucket of the time range.
+   *
+   * @param devices the device identifiers
+   * @param from    the start of the time range, inclusive, and of the first bucket
+   * @param to      the end of the time range, exclusive
+   * @param bucket  the size of the buckets, in whole seconds
+   * @return the first record of each non-empty bucket, ordered by device and bucket
+   */
+  public List<Bucket> findFirst(
+      Collection<String> devices, Instant from, Instant to, Duration bucket
+  ) {
+    return find(RANKED, "ASC", devices, from, to, bucket);
+  }
+
+  /**
+   * Finds the last record of each device in each bucket of the time range.
+   *
+   * @param devices the device identifiers
+   * @param from    the start of the time range, inclusive, and of the first bucket
+   * @param to      the end of the time range, exclusive
+   * @param bucket  the size of the buckets, in whole seconds
+   * @return the last record of each non-empty bucket, ordered by device and bucket
+   */
+  public List<Bucket> findLast(
+      Collection<String> devices, Instant from, Instant to, Duration bucket
+  ) {
+    return find(RANKED, "DESC", devices, from, to, bucket);
+  }
+
+  /**
+   * Finds the centroid of the records of each device in each bucket of the time range. The time
+   * of a centroid is the start of its bucket, and it is active when any of its records is.
+   *
+   * @param devices the device identifiers
+   * @param from    the start of the time range, inclusive, and of the first bucket
+   * @param to      the end of the time range, exclusive
+   * @param bucket  the size of the buckets, in whole seconds
+   * @return the centroid of each non-empty bucket, ordered by device and bucket
+   */
+  public List<Bucket> findCentroid(
+      Collection<String> devices, Instant from, Instant to, Duration bucket
+  ) {
+    return find(CENTROID, null, devices, from, to, bucket);
+  }
+
+  private List<Bucket> find(
+      String query, String order, Collection<String> devices, Instant from, Instant to,
+      Duration bucket
+  ) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      boolean postgres = connection.isWrapperFor(PGConnection.class);
+      String bucketed = BUCKETED.formatted(schema, postgres ? PG_BUCKET : H2_BUCKET);
+
+      try (PreparedStatement statement = connection.prepareStatement(
+          query.formatted(bucketed, order))) {
+
+        LocalDateTime start = LocalDateTime.ofInstant(from, ZoneOffset.UTC);
+        long seconds = bucket.toSeconds();
+
+        int index = 1;
+        if (postgres) {
+          statement.setString(index++, seconds + " seconds");
+          statement.setObject(index++, start);
+        } else {
+          statement.setObject(index++, start);
+          statement.setLong(index++, seconds);
+          statement.setLong(index++, seconds);
+          statement.setObject(index++, start);
+        }
+        statement.setArray(index++, connection.createArrayOf("varchar", devices.toArray()));
+        statement.setObject(index++, start);
+        statement.setObject(index, LocalDateTime.ofInstant(to, ZoneOffset.UTC));
+
+        List<Bucket> buckets = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            buckets.add(new Bucket(resultSet.getString(1),
+                resultSet.getObject(2, LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                resultSet.getObject(3, LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                resultSet.getDouble(4), resultSet.getDouble(5), resultSet.getBoolean(6),
+                resultSet.getLong(7)
+            ));
+          }
+        }
+        return buckets;
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry buckets", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * The representative point of the records of a device in a time bucket.
+   *
+   * @param device    the device identifier
+   * @param start     the start of the bucket
+   * @param time      the time of the point
+   * @param latitude  the latitude of the point
+   * @param longitude the longitude of the point
+   * @param active    the active flag of the point
+   * @param points    the number of records in the bucket
+   */
+  public record Bucket(
+      String device, Instant start, Instant time, double latitude, double longitude,
+      boolean active, long points
+  ) {
+
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk loader for historical {@code device_telemetry} records.
+ * <p>
+ * The records are read from a CSV document with a header line and the columns
+ * {@code device,record_time,latitude,longitude,active}, where {@code record_time} is an ISO-8601
+ * instant (e.g. {@code 2025-06-14T09:30:00Z}). The {@code account}, {@code version} and
+ * {@code created_at} columns are filled by the database, and the primary keys are taken from the
+ * {@code seq_device_telemetry_id} sequence in blocks of
+ * {@link DeviceTelemetry#ID_ALLOCATION_SIZE} identifiers, exactly as Hibernate's pooled optimizer
+ * does, so both insert paths can be used concurrently.
+ * <p>
+ * On PostgreSQL the document is streamed through the {@code COPY} protocol into a temporary
+ * staging table and moved into {@code device_telemetry} with a single {@code INSERT ... SELECT}.
+ * Any other database (H2 in the tests) falls back to JDBC batch inserts. In both cases the records
+ * that are already saved for the same device and record time are ignored, and the
+ * {@code device_latest} table is refreshed for the imported devices through the
+ * {@link DeviceLatestRepository}. On PostgreSQL, a violation of any other constraint fails the
+ * import.
+ * <p>
+ * The methods must be called within a transaction, since the staging table is dropped on commit.
+ */
+@Repository
+public class DeviceTelemetryBulkRepository {
+
+  private static final String CSV_COLUMNS = "device, record_time, latitude, longitude, active";
+
+  private static final String CREATE_STAGING_TABLE = """
+      CREATE TEMPORARY TABLE device_telemetry_import (
+        device      VARCHAR(50),
+        record_time TIMESTAMP WITH TIME ZONE,
+        latitude    DOUBLE PRECISION,
+        longitude   DOUBLE PRECISION,
+        active      BOOLEAN
+      ) ON COMMIT DROP
+      """;
+
+  private static final String COPY_STAGING_TABLE = """
+      COPY device_telemetry_import (%s) FROM STDIN WITH (FORMAT csv, HEADER true)
+      """.formatted(CSV_COLUMNS);
+
+  private static final String INSERT_FROM_STAGING_TABLE = """
+      WITH valid AS (
+        SELECT i.*, ROW_NUMBER() OVER () - 1 AS rn FROM device_telemetry_import i
+        WHERE i.device IS NOT NULL AND i.device <> '' AND i.record_time IS NOT NULL
+          AND i.latitude BETWEEN -90 AND 90 AND i.longitude BETWEEN -180 AND 180
+          AND i.active IS NOT NULL
+      ),
+      blocks AS (
+        SELECT b.n, nextval('%1$s.seq_device_telemetry_id') AS hi
+        FROM generate_series(0, (SELECT (COUNT(*) - 1) / %2$d FROM valid)) AS b(n)
+      )
+      INSERT INTO %1$s.device_telemetry
+        (id, account, device, record_time, latitude, longitude, active, version, created_at)
+      SELECT blocks.hi - %2$d + 1 + MOD(valid.rn, %2$d), ?, valid.device,
+        valid.record_time AT TIME ZONE 'UTC', valid.latitude, valid.longitude, valid.active, 0,
+        now() AT TIME ZONE 'UTC'
+      FROM valid JOIN blocks ON blocks.n = valid.rn / %2$d
+      ON CONFLICT (device, record_time) DO NOTHING
+      """;
+
+  private static final String STAGED_DEVICES = """
+      SELECT DISTINCT device FROM device_telemetry_import WHERE device IS NOT NULL AND device <> ''
+      """;
+
+  private static final String NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR %s.seq_device_telemetry_id";
+
+  private static final String INSERT = """
+      INSERT INTO %s.device_telemetry
+        (id, account, device, record_time, latitude, longitude, active, version, created_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)
+      ON CONFLICT DO NOTHING
+      """;
+
+  private final DataSource dataSource;
+  private final DeviceLatestRepository deviceLatestRepository;
+  private final String schema;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public DeviceTelemetryBulkRepository(
+      DataSource dataSource, DeviceLatestRepository deviceLatestRepository,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema
+  ) {
+    this.dataSource = dataSource;
+    this.deviceLatestRepository = deviceLatestRepository;
+    this.schema = schema;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Imports the telemetry records of the given CSV document on behalf of the given account.
+   * <p>
+   * Records with missing values or coordinates out of range are skipped. A document that cannot
+   * be parsed at all (wrong number of columns, malformed numbers or instants on PostgreSQL) fails
+   * the whole import.
+   *
+   * @param owner the owner of the account that the records belong to
+   * @param csv   the CSV document, which is consumed but not closed
+   * @return the number of records read and the number of records imported, which excludes the
+   * skipped and the already saved records
+   * @throws org.springframework.dao.DataAccessException if the database rejects the document
+   * @throws UncheckedIOException                        if the document cannot be read
+   */
+  public ImportSummary importCsv(String owner, Reader csv) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      if (connection.isWrapperFor(PGConnection.class)) {
+        return copy(connection, owner, csv);
+      }
+      return batchInsert(connection, owner, csv);
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry import", null, e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private ImportSummary copy(Connection connection, String owner, Reader csv)
+      throws SQLException, IOException {
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(CREATE_STAGING_TABLE);
+    }
+
+    long received = connection.unwrap(PGConnection.class)
+        .getCopyAPI()
+        .copyIn(COPY_STAGING_TABLE, csv);
+
+    String insert = INSERT_FROM_STAGING_TABLE.formatted(
+        schema, DeviceTelemetry.ID_ALLOCATION_SIZE);
+    long imported;
+    try (PreparedStatement statement = connection.prepareStatement(insert)) {
+      statement.setString(1, owner);
+      imported = statement.executeUpdate();
+    }
+
+    if (imported > 0) {
+      List<String> devices = new ArrayList<>();
+      try (
+          Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery(STAGED_DEVICES)
+      ) {
+        while (resultSet.next()) {
+          devices.add(resultSet.getString(1));
+        }
+      }
+      deviceLatestRepository.refresh(devices);
+    }
+
+    return new ImportSummary(received, imported);
+  }
+
+  private ImportSummary batchInsert(Connection connection, String owner, Reader csv)
+      throws SQLException, IOException {
+
+    BufferedReader reader = new BufferedReader(csv);
+    if (reader.readLine() == null) {
+      return new ImportSummary(0, 0);
+    }
+
+    LocalDateTime createdAt = LocalDateTime.now(ZoneOffset.UTC);
+    long received = 0;
+    long batched = 0;
+    long imported = 0;
+    long nextId = 0;
+    long lastId = -1;
+    Set<String> devices = new HashSet<>();
+
+    try (
+        PreparedStatement idBlock = connection.prepareStatement(NEXT_ID_BLOCK.formatted(schema));
+        PreparedStatement insert = connection.prepareStatement(INSERT.formatted(schema))
+    ) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        received++;
+
+        String[] columns = line.split(",", -1);
+        if (columns.length != 5 || !isValid(columns)) {
+          continue;
+        }
+
+        if (nextId > lastId) {
+          try (ResultSet resultSet = idBlock.executeQuery()) {
+            resultSet.next();
+            lastId = resultSet.getLong(1);
+            nextId = lastId - DeviceTelemetry.ID_ALLOCATION_SIZE + 1;
+          }
+        }
+
+        insert.setLong(1, nextId++);
+        insert.setString(2, owner);
+        devices.add(columns[0].trim());
+        insert.setString(3, columns[0].trim());
+        insert.setObject(
+            4, LocalDateTime.ofInstant(Instant.parse(columns[1].trim()), ZoneOffset.UTC));
+        insert.setDouble(5, Double.parseDouble(columns[2].trim()));
+        insert.setDouble(6, Double.parseDouble(columns[3].trim()));
+        insert.setBoolean(7, Boolean.parseBoolean(columns[4].trim()));
+        insert.setObject(8, createdAt);
+        insert.addBatch();
+
+        if (++batched % DeviceTelemetry.ID_ALLOCATION_SIZE == 0) {
+          imported += countInserted(insert.executeBatch());
+        }
+      }
+      imported += countInserted(insert.executeBatch());
+    }
+
+    if (imported > 0) {
+      deviceLatestRepository.refresh(devices);
+    }
+
+    return new ImportSummary(received, imported);
+  }
+
+  private static long countInserted(int[] updateCounts) {
+    return Arrays.stream(updateCounts).filter(count -> count > 0).count();
+  }
+
+  private static boolean isValid(String[] columns) {
+    try {
+      Instant.parse(columns[1].trim());
+      double latitude = Double.parseDouble(columns[2].trim());
+      double longitude = Double.parseDouble(columns[3].trim());
+      String active = columns[4].trim();
+
+      return !columns[0].isBlank() && columns[0].trim().length() <= 50
+          && latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180
+          && ("true".equalsIgnoreCase(active) || "false".equalsIgnoreCase(active));
+    } catch (DateTimeException | NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * The outcome of a bulk import.
+   *
+   * @param received the number of records read from the document
+   * @param imported the number of records inserted into {@code device_telemetry}
+   */
+  public record ImportSummary(long received, long imported) {
+
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads {@code device_telemetry} records for exports and tracks, without loading them into
+ * memory.
+ * <p>
+ * The records are read through a forward-only, read-only JDBC result set with a fetch size of
+ * {@code app.telemetry.export.fetch-size} rows, and each row is handed to a {@link RowHandler}
+ * as soon as it is read. No entity is created, so the memory use does not depend on the number of
+ * records exported and the persistence context does not grow. On PostgreSQL the fetch size only
+ * turns into a server side cursor when auto-commit is disabled, so the method must be called
+ * within a transaction.
+ */
+@Repository
+public class DeviceTelemetryExportRepository {
+
+  private static final String SELECT = """
+      SELECT device, record_time, latitude, longitude, active FROM %s.device_telemetry
+      WHERE device = ANY (?) AND record_time >= ? AND record_time < ?
+      ORDER BY device, record_time
+      """;
+
+  private final DataSource dataSource;
+  private final String schema;
+  private final int fetchSize;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public DeviceTelemetryExportRepository(
+      DataSource dataSource,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema,
+      @Value("${app.telemetry.export.fetch-size:1000}") int fetchSize
+  ) {
+    this.dataSource = dataSource;
+    this.schema = schema;
+    this.fetchSize = fetchSize;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Reads the telemetry records of the given devices within the given time range, ordered by
+   * device and record time, and hands each one to the given handler.
+   *
+   * @param devices the device identifiers
+   * @param from    the start of the time range, inclusive
+   * @param to      the end of the time range, exclusive
+   * @param handler the handler of each record read
+   * @return the number of records read
+   * @throws org.springframework.dao.DataAccessException if the records cannot be read
+   * @throws UncheckedIOException                        if the handler fails to write a record
+   */
+  public long export(Collection<String> devices, Instant from, Instant to, RowHandler handler) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(SELECT.formatted(schema),
+        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+    )) {
+      statement.setFetchSize(fetchSize);
+      statement.setArray(1, connection.createArrayOf("varchar", devices.toArray()));
+      statement.setObject(2, LocalDateTime.ofInstant(from, ZoneOffset.UTC));
+      statement.setObject(3, LocalDateTime.ofInstant(to, ZoneOffset.UTC));
+
+      long exported = 0;
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          handler.handle(resultSet.getString(1),
+              resultSet.getObject(2, LocalDateTime.class).toInstant(ZoneOffset.UTC),
+              resultSet.getDouble(3), resultSet.getDouble(4), resultSet.getBoolean(5)
+          );
+          exported++;
+        }
+      }
+      return exported;
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry export", null, e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Handles each telemetry record read by {@link #export}.
+   */
+  @FunctionalInterface
+  public interface RowHandler {
+
+    void handle(String device, Instant time, double latitude, double longitude, boolean active)
+        throws IOException;
+  }
+}
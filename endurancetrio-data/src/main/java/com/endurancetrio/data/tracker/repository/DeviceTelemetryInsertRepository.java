@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts new {@code device_telemetry} records, skipping the ones already saved for the same device
+ * and record time.
+ * <p>
+ * Only the {@code uk_device_telemetry_device_record_time} constraint is skipped: any other
+ * violation, of the primary key or of the account foreign key, fails the insert. The records that
+ * were skipped are told apart from the inserted ones by the database itself, so a record saved by
+ * a concurrent transaction between the duplicate lookup and the insert is never reported as
+ * inserted.
+ * <p>
+ * On PostgreSQL the records are inserted by a single {@code INSERT ... SELECT FROM unnest(...)}
+ * with {@code ON CONFLICT (device, record_time) DO NOTHING}, whose {@code RETURNING} clause lists
+ * the inserted records. The batched inserts cannot tell them apart, since the driver reports no
+ * update count for the statements it rewrites. Any other database (H2 in the tests) uses a JDBC
+ * batch of {@code MERGE} statements, whose update count is zero for a skipped record; unlike
+ * {@code ON CONFLICT}, the {@code MERGE} does not skip a record inserted by a concurrent
+ * transaction, which fails with a {@link org.springframework.dao.DuplicateKeyException}.
+ * <p>
+ * The primary keys are taken from the {@code seq_device_telemetry_id} sequence in blocks of
+ * {@link DeviceTelemetry#ID_ALLOCATION_SIZE} identifiers, exactly as Hibernate's pooled optimizer
+ * and the {@link DeviceTelemetryBulkRepository} do, so the identifiers never collide. The records
+ * are inserted through the connection of the current transaction, so the
+ * {@link DeviceLatestRepository} can read them without a flush.
+ * <p>
+ * The records already saved are found by their device and record time pairs, through the
+ * {@code uk_device_telemetry_device_record_time} index, before the insert.
+ */
+@Repository
+public class DeviceTelemetryInsertRepository {
+
+  private static final String SAVED_KEYS = """
+      SELECT t.device, t.record_time FROM %s.device_telemetry t
+      JOIN unnest(?, ?) AS k (device, record_time)
+        ON t.device = k.device AND t.record_time = k.record_time
+      """;
+
+  private static final String NEXT_ID_BLOCKS = """
+      SELECT nextval('%s.seq_device_telemetry_id') FROM generate_series(1, ?)
+      """;
+
+  private static final String INSERT = """
+      INSERT INTO %s.device_telemetry
+        (id, account, device, record_time, latitude, longitude, active, version, created_at)
+      SELECT r.id, r.account, r.device, r.record_time, r.latitude, r.longitude, r.active, 0, ?
+      FROM unnest(?, ?, ?, ?, ?, ?, ?)
+        AS r (id, account, device, record_time, latitude, longitude, active)
+      ON CONFLICT (device, record_time) DO NOTHING
+      RETURNING id
+      """;
+
+  private static final String MERGE = """
+      MERGE INTO %s.device_telemetry t
+      USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR),
+        CAST(? AS TIMESTAMP), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION),
+        CAST(? AS BOOLEAN))) AS r (id, account, device, record_time, latitude, longitude, active)
+      ON t.device = r.device AND t.record_time = r.record_time
+      WHEN NOT MATCHED THEN
+        INSERT (id, account, device, record_time, latitude, longitude, active, version, created_at)
+        VALUES (r.id, r.account, r.device, r.record_time, r.latitude, r.longitude, r.active, 0, ?)
+      """;
+
+  private final DataSource dataSource;
+  private final String schema;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public DeviceTelemetryInsertRepository(
+      DataSource dataSource,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema
+  ) {
+    this.dataSource = dataSource;
+    this.schema = schema;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Finds which of the given device and record time pairs are already saved.
+   *
+   * @param keys the device and record time pairs to look for
+   * @return the pairs that match a saved telemetry record
+   */
+  public Set<TelemetryKey> findSaved(Collection<TelemetryKey> keys) {
+    if (keys.isEmpty()) {
+      return Set.of();
+    }
+
+    String[] devices = new String[keys.size()];
+    LocalDateTime[] times = new LocalDateTime[keys.size()];
+    int index = 0;
+    for (TelemetryKey key : keys) {
+      devices[index] = key.device();
+      times[index++] = LocalDateTime.ofInstant(key.time(), ZoneOffset.UTC);
+    }
+
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(SAVED_KEYS.formatted(schema))) {
+      statement.setArray(1, connection.createArrayOf("varchar", devices));
+      statement.setArray(2, connection.createArrayOf("timestamp", times));
+
+      Set<TelemetryKey> saved = new HashSet<>();
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          saved.add(new TelemetryKey(resultSet.getString(1),
+              resultSet.getObject(2, LocalDateTime.class).toInstant(ZoneOffset.UTC)
+          ));
+        }
+      }
+      return saved;
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry lookup", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Inserts the given telemetry records, except the ones whose device and record time are already
+   * saved.
+   * <p>
+   * Each record is assigned a new identifier, whether it is inserted or not.
+   *
+   * @param records the telemetry records to insert, with their account set
+   * @return the records that were inserted, in the given order
+   * @throws org.springframework.dao.DataIntegrityViolationException if a record violates any other
+   *                                                                 constraint
+   */
+  public List<DeviceTelemetry> insert(List<DeviceTelemetry> records) {
+    if (records.isEmpty()) {
+      return List.of();
+    }
+
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      assignIds(connection, records);
+
+      LocalDateTime createdAt = LocalDateTime.now(ZoneOffset.UTC);
+      if (connection.isWrapperFor(PGConnection.class)) {
+        return insertAll(connection, records, createdAt);
+      }
+      return mergeAll(connection, records, createdAt);
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry insert", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private void assignIds(Connection connection, List<DeviceTelemetry> records)
+      throws SQLException {
+
+    int blocks = (records.size() - 1) / DeviceTelemetry.ID_ALLOCATION_SIZE + 1;
+    try (PreparedStatement statement = connection.prepareStatement(
+        NEXT_ID_BLOCKS.formatted(schema))) {
+
+      statement.setInt(1, blocks);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        int index = 0;
+        while (resultSet.next()) {
+          long nextId = resultSet.getLong(1) - DeviceTelemetry.ID_ALLOCATION_SIZE + 1;
+          int end = Math.min(index + DeviceTelemetry.ID_ALLOCATION_SIZE, records.size());
+          for (; index < end; index++) {
+            records.get(index).setId(nextId++);
+          }
+        }
+      }
+    }
+  }
+
+  private List<DeviceTelemetry> insertAll(
+      Connection connection, List<DeviceTelemetry> records, LocalDateTime createdAt
+  ) throws SQLException {
+
+    int size = records.size();
+    Long[] ids = new Long[size];
+    String[] accounts = new String[size];
+    String[] devices = new String[size];
+    LocalDateTime[] times = new LocalDateTime[size];
+    Double[] latitudes = new Double[size];
+    Double[] longitudes = new Double[size];
+    Boolean[] actives = new Boolean[size];
+
+    for (int index = 0; index < size; index++) {
+      DeviceTelemetry record = records.get(index);
+      ids[index] = record.getId();
+      accounts[index] = record.getAccount().getOwner();
+      devices[index] = record.getDevice();
+      times[index] = LocalDateTime.ofInstant(record.getTime(), ZoneOffset.UTC);
+      latitudes[index] = record.getLatitude();
+      longitudes[index] = record.getLongitude();
+      actives[index] = record.isActive();
+    }
+
+    Set<Long> inserted = new HashSet<>();
+    try (PreparedStatement statement = connection.prepareStatement(INSERT.formatted(schema))) {
+      statement.setObject(1, createdAt);
+      statement.setArray(2, connection.createArrayOf("bigint", ids));
+      statement.setArray(3, connection.createArrayOf("varchar", accounts));
+      statement.setArray(4, connection.createArrayOf("varchar", devices));
+      statement.setArray(5, connection.createArrayOf("timestamp", times));
+      statement.setArray(6, connection.createArrayOf("float8", latitudes));
+      statement.setArray(7, connection.createArrayOf("float8", longitudes));
+      statement.setArray(8, connection.createArrayOf("bool", actives));
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          inserted.add(resultSet.getLong(1));
+        }
+      }
+    }
+
+    return records.stream().filter(record -> inserted.contains(record.getId())).toList();
+  }
+
+  private List<DeviceTelemetry> mergeAll(
+      Connection connection, List<DeviceTelemetry> records, LocalDateTime createdAt
+  ) throws SQLException {
+
+    int[] updateCounts;
+    try (PreparedStatement statement = connection.prepareStatement(MERGE.formatted(schema))) {
+      for (DeviceTelemetry record : records) {
+        statement.setLong(1, record.getId());
+        statement.setString(2, record.getAccount().getOwner());
+        statement.setString(3, record.getDevice());
+        statement.setObject(4, LocalDateTime.ofInstant(record.getTime(), ZoneOffset.UTC));
+        statement.setDouble(5, record.getLatitude());
+        statement.setDouble(6, record.getLongitude());
+        statement.setBoolean(7, record.isActive());
+        statement.setObject(8, createdAt);
+        statement.addBatch();
+      }
+      updateCounts = statement.executeBatch();
+    }
+
+    List<DeviceTelemetry> inserted = new ArrayList<>(records.size());
+    for (int index = 0; index < records.size(); index++) {
+      if (updateCounts[index] > 0) {
+        inserted.add(records.get(index));
+      }
+    }
+    return inserted;
+  }
+
+  /**
+   * The key of a telemetry record: a device records at most one record per time.
+   *
+   * @param device the device identifier
+   * @param time   the record time
+   */
+  public record TelemetryKey(String device, Instant time) {
+
+  }
+}
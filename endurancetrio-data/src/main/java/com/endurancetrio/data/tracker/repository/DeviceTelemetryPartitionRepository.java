@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Manages the monthly partitions of the {@code device_telemetry} table.
+ * <p>
+ * On PostgreSQL the table is partitioned by range of {@code record_time}, with one partition per
+ * month named {@code device_telemetry_pYYYYMM} and a {@code device_telemetry_default} partition
+ * for the records outside them. Any other database (H2 in the tests) has no partitioning, which
+ * {@link #findMonthlyPartitions} reports as an empty {@link Optional}.
+ * <p>
+ * A partition is created as a standalone table, filled with the records of its month found in the
+ * default partition, and then attached. The writes to {@code device_telemetry} are locked out for
+ * the whole creation, since a record of the month written to the default partition after the move
+ * would fail the attachment: they wait until the creation commits and are then routed to the new
+ * partition. The reads go on until the attachment, which takes an {@code ACCESS EXCLUSIVE} lock on
+ * the default partition to check that none of its records belongs to the month. The partitions are
+ * created ahead, so the creation normally moves no record and these locks are short; it gives up
+ * after {@value #LOCK_TIMEOUT} rather than queueing the writes behind a long running transaction.
+ * A detached partition is kept as a standalone table, to be archived or dropped. Its records are
+ * locked while the {@code device_latest} references are checked, so no device can make one of
+ * them its latest record before it is detached.
+ * <p>
+ * The methods must be called within a transaction.
+ */
+@Repository
+public class DeviceTelemetryPartitionRepository {
+
+  private static final String PARTITION_PREFIX = "device_telemetry_p";
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+  private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  private static final String PARTITIONED = """
+      SELECT 1 FROM pg_partitioned_table p
+      JOIN pg_class c ON c.oid = p.partrelid
+      JOIN pg_namespace n ON n.oid = c.relnamespace
+      WHERE n.nspname = ? AND c.relname = 'device_telemetry'
+      """;
+
+  private static final String PARTITIONS = """
+      SELECT c.relname FROM pg_inherits i
+      JOIN pg_class c ON c.oid = i.inhrelid
+      JOIN pg_class p ON p.oid = i.inhparent
+      JOIN pg_namespace n ON n.oid = p.relnamespace
+      WHERE n.nspname = ? AND p.relname = 'device_telemetry'
+      ORDER BY c.relname
+      """;
+
+  private static final String LOCK_TIMEOUT = "10s";
+
+  private static final String SET_LOCK_TIMEOUT = "SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'";
+
+  private static final String LOCK_WRITES = """
+      LOCK TABLE ONLY %s.device_telemetry IN SHARE ROW EXCLUSIVE MODE
+      """;
+
+  private static final String CREATE = """
+      CREATE TABLE %1$s.%2$s (LIKE %1$s.device_telemetry INCLUDING DEFAULTS)
+      """;
+
+  private static final String MOVE_FROM_DEFAULT = """
+      WITH moved AS (
+        DELETE FROM %1$s.device_telemetry_default
+        WHERE record_time >= ? AND record_time < ?
+        RETURNING *
+      )
+      INSERT INTO %1$s.%2$s SELECT * FROM moved
+      """;
+
+  private static final String ATTACH = """
+      ALTER TABLE %1$s.device_telemetry ATTACH PARTITION %1$s.%2$s
+      FOR VALUES FROM ('%3$s') TO ('%4$s')
+      """;
+
+  private static final String LOCK_PARTITIONING = """
+      LOCK TABLE ONLY %s.device_telemetry IN SHARE UPDATE EXCLUSIVE MODE
+      """;
+
+  private static final String LOCK_PARTITION = """
+      LOCK TABLE %1$s.%2$s IN ACCESS EXCLUSIVE MODE
+      """;
+
+  private static final String REFERENCED_BY_LATEST = """
+      SELECT 1 FROM %s.device_latest WHERE record_time >= ? AND record_time < ? LIMIT 1
+      """;
+
+  private static final String DETACH = """
+      ALTER TABLE %1$s.device_telemetry DETACH PARTITION %1$s.%2$s
+      """;
+
+  private final DataSource dataSource;
+  private final String schema;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public DeviceTelemetryPartitionRepository(
+      DataSource dataSource,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema
+  ) {
+    this.dataSource = dataSource;
+    this.schema = schema;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Finds the months of the partitions attached to {@code device_telemetry}.
+   *
+   * @return the months of the monthly partitions, in ascending order, or an empty
+   * {@link Optional} when the table is not partitioned
+   */
+  public Optional<List<YearMonth>> findMonthlyPartitions() {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      if (!connection.isWrapperFor(PGConnection.class) || !exists(connection, PARTITIONED)) {
+        return Optional.empty();
+      }
+
+      List<YearMonth> months = new ArrayList<>();
+      try (PreparedStatement statement = connection.prepareStatement(PARTITIONS)) {
+        statement.setString(1, schema);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            String name = resultSet.getString(1);
+            if (name.startsWith(PARTITION_PREFIX)) {
+              months.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()),
+                  PARTITION_SUFFIX
+              ));
+            }
+          }
+        }
+      }
+      return Optional.of(months);
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry partitions lookup", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Creates and attaches the partition of the given month, moving into it the records of the
+   * month held by the default partition. The writes to {@code device_telemetry} wait until the
+   * transaction commits.
+   *
+   * @param month the month of the partition
+   * @return the number of records moved from the default partition
+   */
+  public int createMonthlyPartition(YearMonth month) {
+    String partition = partitionName(month);
+    LocalDateTime start = month.atDay(1).atStartOfDay();
+    LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (Statement statement = connection.createStatement();
+        PreparedStatement move = connection.prepareStatement(
+            MOVE_FROM_DEFAULT.formatted(schema, partition))) {
+
+      statement.execute(SET_LOCK_TIMEOUT);
+      statement.execute(LOCK_WRITES.formatted(schema));
+      statement.execute(CREATE.formatted(schema, partition));
+
+      move.setObject(1, start);
+      move.setObject(2, end);
+      int moved = move.executeUpdate();
+
+      statement.execute(
+          ATTACH.formatted(schema, partition, BOUND.format(start), BOUND.format(end)));
+      return moved;
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry partition creation", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Detaches the partition of the given month, which is kept as a standalone table, unless it
+   * holds the latest record of a device. Such a record is referenced by {@code device_latest} and
+   * is the device's last known position, so the partition is kept until the device records a
+   * later one.
+   *
+   * @param month the month of the partition
+   * @return {@code true} if the partition was detached, {@code false} if it holds the latest
+   * record of a device
+   */
+  public boolean detachMonthlyPartition(YearMonth month) {
+    String partition = partitionName(month);
+
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (Statement statement = connection.createStatement();
+        PreparedStatement referenced = connection.prepareStatement(
+            REFERENCED_BY_LATEST.formatted(schema))) {
+
+      statement.execute(SET_LOCK_TIMEOUT);
+      statement.execute(LOCK_PARTITIONING.formatted(schema));
+      statement.execute(LOCK_PARTITION.formatted(schema, partition));
+
+      referenced.setObject(1, month.atDay(1).atStartOfDay());
+      referenced.setObject(2, month.plusMonths(1).atDay(1).atStartOfDay());
+      try (ResultSet resultSet = referenced.executeQuery()) {
+        if (resultSet.next()) {
+          return false;
+        }
+      }
+
+      statement.execute(DETACH.formatted(schema, partition));
+      return true;
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry partition detachment", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private boolean exists(Connection connection, String query) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(query)) {
+      statement.setString(1, schema);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next();
+      }
+    }
+  }
+
+  private static String partitionName(YearMonth month) {
+    return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+  }
+}
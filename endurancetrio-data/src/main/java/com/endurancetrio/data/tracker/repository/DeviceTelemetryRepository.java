@@ -21,9 +21,11 @@
 package com.endurancetrio.data.tracker.repository;
 
 import com.endurancetrio.data.tracker.model.entity.DeviceTelemetry;
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import org.jspecify.annotations.NonNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -45,68 +47,76 @@ public interface DeviceTelemetryRepository extends
   /**
    * Finds the most recent active telemetry record for each specified device.
    * <p>
-   * This method uses PostgreSQL's {@code DISTINCT ON} feature to efficiently retrieve exactly one
-   * record per device - specifically, the record with the latest {@code created_at} timestamp for
-   * each device where {@code active = true}.
-   * <p>
-   * Implementation Details: The query uses {@code ORDER BY device, created_at DESC} to ensure
-   * deterministic results. PostgreSQL requires that {@code DISTINCT ON} columns (in this case,
-   * {@code device}) appear as the leftmost columns in the {@code ORDER BY} clause. This groups all
-   * records by device and sorts each group by {@code created_at} in descending order, guaranteeing
-   * that the first record selected for each device is the most recent one.</p>
-   * <p>
-   * Example: Given devices [A, B] with the following records:
-   * <pre>
-   * Device | created_at       | active | value
-   * -------|------------------|--------|-------
-   * A      | 2024-01-05 10:00 | true   | 100
-   * A      | 2024-01-04 09:00 | true   | 150
-   * B      | 2024-01-05 10:00 | true   | 200  ← Same timestamp as A
-   * B      | 2024-01-03 08:00 | true   | 250
-   * </pre>
-   * Returns: [A(2024-01-05 10:00), B(2024-01-05 10:00)]</p>
+   * The records are read through the {@code device_latest} table, which references the latest
+   * active record of each device, so the query costs one primary key lookup per device regardless
+   * of the size of the telemetry history. The join matches the record time as well as the id, so
+   * that on a partitioned table each lookup is pruned to the partition holding the record.
    *
    * @param devices the list of device identifiers to query (must not be null)
    * @return a non-null list containing the most recent active telemetry record for each device in
    * the input list, ordered by device name ascending. If a device has no active records or is not
    * in the database, it will not appear in the results. Returns an empty list if no active records
    * exist for any of the specified devices.
-   * @throws IllegalArgumentException if {@code devices} is null
+   * @see DeviceLatestRepository
    */
   @Query(
       value = """
-          SELECT DISTINCT ON (device) * FROM {h-schema}device_telemetry
-                  WHERE active = true AND device IN :devices ORDER BY device, created_at DESC
+          SELECT t.* FROM {h-schema}device_telemetry t
+          JOIN {h-schema}device_latest l
+            ON l.telemetry_id = t.id AND l.record_time = t.record_time
+          WHERE l.device IN :devices ORDER BY t.device
           """, nativeQuery = true
   )
   List<DeviceTelemetry> findMostRecentByDevices(@NonNull @Param("devices") List<String> devices);
 
   /**
-   * Finds the most recent telemetry data record for each device present in the database.
+   * Finds the most recent active telemetry data record for each device present in the database.
    * <p>
-   * Uses a correlated subquery to identify records with the maximum timestamp per device. The main
-   * advantage of this approach is JPA provider compatibility, though performance may degrade with
-   * larger datasets. For databases supporting DISTINCT ON, consider migrating to a native query
-   * approach when performance becomes a concern.
-   * <p>
-   * PostgreSQL native query alternative:
-   *   {@code
-   *     @Query(value = """
-   *       SELECT DISTINCT ON (device) * FROM {h-schema}device_telemetry WHERE active = true
-   *       ORDER BY device, time DESC", nativeQuery = true
-   *     )
-   *   }
+   * The records are read through the {@code device_latest} table, which references the latest
+   * active record of each device, so the query costs one primary key lookup per device regardless
+   * of the size of the telemetry history. The join matches the record time as well as the id, so
+   * that on a partitioned table each lookup is pruned to the partition holding the record.
    *
-   * @return non-null list of telemetry data records containing the latest record for each device.
-   *         Returns an empty list if no active records exist for any device.
+   * @return non-null list of telemetry data records containing the latest record for each device,
+   *         ordered by device. Returns an empty list if no active records exist for any device.
+   * @see DeviceLatestRepository
    */
   @Query(
       value = """
-          SELECT data FROM DeviceTelemetry data WHERE data.active = true AND data.time = (
-            SELECT MAX(maxTimeData.time)
-            FROM DeviceTelemetry maxTimeData WHERE maxTimeData.active = true AND maxTimeData.device = data.device
-          ) ORDER BY data.device
-          """
+          SELECT t.* FROM {h-schema}device_telemetry t
+          JOIN {h-schema}device_latest l
+            ON l.telemetry_id = t.id AND l.record_time = t.record_time
+          ORDER BY t.device
+          """, nativeQuery = true
   )
   List<DeviceTelemetry> findMostRecentRecordForEachDevice();
+
+  /**
+   * Finds the telemetry data records of the specified device within a time range, after the
+   * provided time, ordered by time.
+   * <p>
+   * Used to read the history of a device page by page with keyset pagination: each page starts
+   * after the time of the last record of the previous page. The device and the record time are
+   * unique together, so the scan seeks straight to the first record of the page through the
+   * {@code uk_device_telemetry_device_record_time} index, whatever the page number, and only the
+   * partitions overlapping the time range are scanned.
+   *
+   * @param device the device identifier
+   * @param from   the start of the time range, inclusive
+   * @param after  the time of the last record of the previous page, exclusive
+   * @param to     the end of the time range, exclusive
+   * @param limit  the maximum number of records to return
+   * @return the telemetry data records of the device, ordered by time
+   */
+  @Query(
+      """
+          SELECT d FROM DeviceTelemetry d
+          WHERE d.device = :device AND d.time >= :from AND d.time > :after AND d.time < :to
+          ORDER BY d.time
+          """
+  )
+  List<DeviceTelemetry> findHistory(
+      @Param("device") String device, @Param("from") Instant from, @Param("after") Instant after,
+      @Param("to") Instant to, Limit limit
+  );
 }
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Applies the telemetry retention policy: rolls up the raw {@code device_telemetry} records of a
+ * device into the {@code device_telemetry_rollup} table and deletes them, and deletes the expired
+ * rollups. Every statement is restricted to the records and rollups of one account, so that the
+ * policy of an account never touches the data of a device reported by another account.
+ * <p>
+ * The methods work on bounded chunks that are found through the
+ * {@code uk_device_telemetry_device_record_time} and
+ * {@code idx_device_telemetry_rollup_account_bucket_time} indexes, so that each transaction only
+ * locks and logs a limited number of rows. The record referenced by {@code device_latest} is never
+ * rolled up nor deleted, so that the latest position of each device is always kept.
+ * <p>
+ * A rollup holds the centroid of the records of a device in a time bucket aligned on the epoch,
+ * whether it is active when any of its records is, and how many records it merges. Rolling up
+ * records into an existing rollup merges them, weighting each side by its number of records. On
+ * PostgreSQL the merge is an {@code INSERT ... ON CONFLICT DO UPDATE} and the records are assigned
+ * to their bucket with {@code date_bin}. Any other database (H2 in the tests) uses the equivalent
+ * {@code MERGE} statement and {@code DATEADD}/{@code DATEDIFF} arithmetic.
+ * <p>
+ * The methods must be called within a transaction.
+ */
+@Repository
+public class DeviceTelemetryRetentionRepository {
+
+  private static final String EXPIRED_RECORDS = """
+      FROM %s.device_telemetry t
+      WHERE t.account = ? AND t.device = ? AND t.record_time < ?
+        AND NOT EXISTS (
+          SELECT 1 FROM %1$s.device_latest l WHERE l.device = t.device AND l.telemetry_id = t.id
+        )
+      """;
+
+  private static final String DEVICES = """
+      SELECT device FROM %1$s.device_telemetry WHERE account = ?
+      UNION
+      SELECT device FROM %1$s.telemetry_block WHERE account = ?
+      ORDER BY device
+      """;
+
+  private static final String RECORD_TIME = """
+      SELECT t.record_time %s ORDER BY t.record_time OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY
+      """;
+
+  private static final String PG_BUCKET = """
+      date_bin(CAST(? AS interval), t.record_time, TIMESTAMP '1970-01-01 00:00:00')""";
+  private static final String H2_BUCKET = """
+      DATEADD(SECOND, DATEDIFF(SECOND, TIMESTAMP '1970-01-01 00:00:00', t.record_time) / ? * ?, \
+      TIMESTAMP '1970-01-01 00:00:00')""";
+
+  private static final String ROLLUPS = """
+      SELECT account, device, bucket_time, AVG(latitude) AS latitude, AVG(longitude) AS longitude,
+        BOOL_OR(active) AS active, COUNT(*) AS points
+      FROM (
+        SELECT t.device, %2$s AS bucket_time, t.account, t.latitude, t.longitude, t.active
+        %1$s
+      ) b
+      GROUP BY account, device, bucket_time
+      """;
+
+  private static final String UPSERT = """
+      INSERT INTO %1$s.device_telemetry_rollup AS r
+        (account, device, bucket_time, latitude, longitude, active, points)
+      %2$s
+      ON CONFLICT (account, device, bucket_time) DO UPDATE SET
+        latitude = (r.latitude * r.points + excluded.latitude * excluded.points)
+          / (r.points + excluded.points),
+        longitude = (r.longitude * r.points + excluded.longitude * excluded.points)
+          / (r.points + excluded.points),
+        active = r.active OR excluded.active,
+        points = r.points + excluded.points
+      """;
+
+  private static final String MERGE = """
+      MERGE INTO %1$s.device_telemetry_rollup r
+      USING (%2$s) s
+        ON r.account = s.account AND r.device = s.device AND r.bucket_time = s.bucket_time
+      WHEN MATCHED THEN UPDATE SET
+        latitude = (r.latitude * r.points + s.latitude * s.points) / (r.points + s.points),
+        longitude = (r.longitude * r.points + s.longitude * s.points) / (r.points + s.points),
+        active = r.active OR s.active,
+        points = r.points + s.points
+      WHEN NOT MATCHED THEN
+        INSERT (account, device, bucket_time, latitude, longitude, active, points)
+        VALUES (s.account, s.device, s.bucket_time, s.latitude, s.longitude, s.active, s.points)
+      """;
+
+  private static final String COMPUTED_ROLLUP = """
+      SELECT CAST(? AS VARCHAR(50)) AS account, CAST(? AS VARCHAR(50)) AS device,
+        CAST(? AS TIMESTAMP) AS bucket_time, CAST(? AS DOUBLE PRECISION) AS latitude,
+        CAST(? AS DOUBLE PRECISION) AS longitude, CAST(? AS BOOLEAN) AS active,
+        CAST(? AS INTEGER) AS points""";
+
+  private static final String DELETE_RECORDS = """
+      DELETE %s
+      """;
+
+  private static final String DELETE_ROLLUPS = """
+      DELETE FROM %1$s.device_telemetry_rollup
+      WHERE account = ? AND (device, bucket_time) IN (
+        SELECT device, bucket_time FROM %1$s.device_telemetry_rollup
+        WHERE account = ? AND bucket_time < ?
+        ORDER BY bucket_time
+        FETCH FIRST ? ROWS ONLY
+      )
+      """;
+
+  private final DataSource dataSource;
+  private final String schema;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public DeviceTelemetryRetentionRepository(
+      DataSource dataSource,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema
+  ) {
+    this.dataSource = dataSource;
+    this.schema = schema;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Finds the devices with telemetry records or archived blocks of an account.
+   *
+   * @param account the account owner
+   * @return the device identifiers, ordered by identifier
+   */
+  public List<String> findDevices(String account) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(DEVICES.formatted(schema))) {
+      statement.setString(1, account);
+      statement.setString(2, account);
+
+      List<String> devices = new ArrayList<>();
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          devices.add(resultSet.getString(1));
+        }
+      }
+      return devices;
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry retention devices", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Finds the record time of the expired record of a device at the given position, the oldest
+   * expired record being at position 0. The record referenced by {@code device_latest} is not
+   * counted.
+   *
+   * @param account  the account owner
+   * @param device   the device identifier
+   * @param before   the retention limit, exclusive
+   * @param position the position of the record, from the oldest one
+   * @return the record time of the record, or an empty {@link Optional} when the device has no
+   * more expired records
+   */
+  public Optional<Instant> findExpiredRecordTime(
+      String account, String device, Instant before, long position
+  ) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        RECORD_TIME.formatted(EXPIRED_RECORDS.formatted(schema)))) {
+      statement.setString(1, account);
+      statement.setString(2, device);
+      statement.setObject(3, LocalDateTime.ofInstant(before, ZoneOffset.UTC));
+      statement.setLong(4, position);
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        if (!resultSet.next()) {
+          return Optional.empty();
+        }
+        return Optional.of(resultSet.getObject(1, LocalDateTime.class).toInstant(ZoneOffset.UTC));
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry retention chunk", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Rolls up the expired records of a device into the {@code device_telemetry_rollup} table,
+   * merging them into the existing rollups of their buckets. The records are not deleted.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param before  the end of the chunk, exclusive, aligned on a bucket boundary
+   * @param bucket  the size of the buckets, in whole seconds
+   * @return the number of rollups written
+   */
+  public int rollUp(String account, String device, Instant before, Duration bucket) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      boolean postgres = connection.isWrapperFor(PGConnection.class);
+      String rollups = ROLLUPS.formatted(EXPIRED_RECORDS.formatted(schema),
+          postgres ? PG_BUCKET : H2_BUCKET
+      );
+
+      try (PreparedStatement statement = connection.prepareStatement(
+          (postgres ? UPSERT : MERGE).formatted(schema, rollups))) {
+
+        long seconds = bucket.toSeconds();
+        int index = 1;
+        if (postgres) {
+          statement.setString(index++, seconds + " seconds");
+        } else {
+          statement.setLong(index++, seconds);
+          statement.setLong(index++, seconds);
+        }
+        statement.setString(index++, account);
+        statement.setString(index++, device);
+        statement.setObject(index, LocalDateTime.ofInstant(before, ZoneOffset.UTC));
+        return statement.executeUpdate();
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry rollup", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Merges rollups computed by the application, such as the rollups of archived records, into the
+   * existing rollups of their buckets, the same way as {@link #rollUp} does.
+   *
+   * @param rollups the rollups to merge
+   * @return the number of rollups written
+   */
+  public int mergeRollups(List<Rollup> rollups) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      boolean postgres = connection.isWrapperFor(PGConnection.class);
+
+      try (PreparedStatement statement = connection.prepareStatement(
+          (postgres ? UPSERT : MERGE).formatted(schema, COMPUTED_ROLLUP))) {
+
+        for (Rollup rollup : rollups) {
+          statement.setString(1, rollup.account());
+          statement.setString(2, rollup.device());
+          statement.setObject(3, LocalDateTime.ofInstant(rollup.bucketTime(), ZoneOffset.UTC));
+          statement.setDouble(4, rollup.latitude());
+          statement.setDouble(5, rollup.longitude());
+          statement.setBoolean(6, rollup.active());
+          statement.setInt(7, rollup.points());
+          statement.addBatch();
+        }
+
+        int written = 0;
+        for (int count : statement.executeBatch()) {
+          written += Math.max(count, 0);
+        }
+        return written;
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry rollup merge", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Deletes the expired records of a device.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param before  the end of the chunk, exclusive
+   * @return the number of records deleted
+   */
+  public int deleteExpiredRecords(String account, String device, Instant before) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        DELETE_RECORDS.formatted(EXPIRED_RECORDS.formatted(schema)))) {
+      statement.setString(1, account);
+      statement.setString(2, device);
+      statement.setObject(3, LocalDateTime.ofInstant(before, ZoneOffset.UTC));
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry retention deletion", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Deletes the oldest expired rollups of an account, up to the given number of rollups.
+   *
+   * @param account   the account owner
+   * @param before    the retention limit, exclusive
+   * @param chunkSize the maximum number of rollups to delete
+   * @return the number of rollups deleted
+   */
+  public int deleteExpiredRollups(String account, Instant before, int chunkSize) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        DELETE_ROLLUPS.formatted(schema))) {
+      statement.setString(1, account);
+      statement.setString(2, account);
+      statement.setObject(3, LocalDateTime.ofInstant(before, ZoneOffset.UTC));
+      statement.setInt(4, chunkSize);
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry rollup deletion", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * The downsampled telemetry records of a device of an account in a time bucket.
+   *
+   * @param account    the account owner
+   * @param device     the device identifier
+   * @param bucketTime the start of the bucket
+   * @param latitude   the centroid latitude of the records
+   * @param longitude  the centroid longitude of the records
+   * @param active     whether any of the records is active
+   * @param points     the number of records
+   */
+  public record Rollup(
+      String account, String device, Instant bucketTime, double latitude, double longitude,
+      boolean active, int points
+  ) {
+
+  }
+}
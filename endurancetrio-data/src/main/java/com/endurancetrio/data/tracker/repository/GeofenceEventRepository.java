@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import com.endurancetrio.data.tracker.model.entity.GeofenceEvent;
+import java.time.Instant;
+import java.util.List;
+import org.jspecify.annotations.NonNull;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GeofenceEventRepository extends
+    JpaRepository<@NonNull GeofenceEvent, @NonNull Long> {
+
+  /**
+   * Finds the geofence events of the specified account before the provided time, after the
+   * provided event, ordered by time and identifier.
+   * <p>
+   * Used to read the events page by page with keyset pagination: each page starts after the time
+   * and identifier of the last event of the previous page, so the scan seeks straight to the first
+   * event of the page through the {@code idx_geofence_event_account_record_time} index, whatever
+   * the page number.
+   *
+   * @param owner     the owner of the account
+   * @param afterTime the time of the last event of the previous page
+   * @param afterId   the identifier of the last event of the previous page, exclusive
+   * @param to        the end of the time range, exclusive
+   * @param limit     the maximum number of events to return
+   * @return the geofence events of the account, ordered by time and identifier
+   */
+  @Query(
+      """
+          SELECT e FROM GeofenceEvent e
+          WHERE e.account.owner = :owner AND e.time < :to
+            AND (e.time > :afterTime OR (e.time = :afterTime AND e.id > :afterId))
+          ORDER BY e.time, e.id
+          """
+  )
+  List<GeofenceEvent> findPage(
+      @Param("owner") String owner, @Param("afterTime") Instant afterTime,
+      @Param("afterId") Long afterId, @Param("to") Instant to, Limit limit
+  );
+
+  /**
+   * Finds the geofence events of the specified account and device before the provided time, after
+   * the provided event, ordered by time and identifier.
+   *
+   * @param owner     the owner of the account
+   * @param device    the device identifier
+   * @param afterTime the time of the last event of the previous page
+   * @param afterId   the identifier of the last event of the previous page, exclusive
+   * @param to        the end of the time range, exclusive
+   * @param limit     the maximum number of events to return
+   * @return the geofence events of the device, ordered by time and identifier
+   * @see #findPage(String, Instant, Long, Instant, Limit)
+   */
+  @Query(
+      """
+          SELECT e FROM GeofenceEvent e
+          WHERE e.account.owner = :owner AND e.device = :device AND e.time < :to
+            AND (e.time > :afterTime OR (e.time = :afterTime AND e.id > :afterId))
+          ORDER BY e.time, e.id
+          """
+  )
+  List<GeofenceEvent> findPageByDevice(
+      @Param("owner") String owner, @Param("device") String device,
+      @Param("afterTime") Instant afterTime, @Param("afterId") Long afterId,
+      @Param("to") Instant to, Limit limit
+  );
+
+  /**
+   * Deletes the events of the specified geofence.
+   *
+   * @param geofenceId the unique identifier of the geofence
+   * @return the number of events deleted
+   */
+  @Modifying
+  @Query("DELETE FROM GeofenceEvent e WHERE e.geofenceId = :geofenceId")
+  int deleteByGeofenceId(@Param("geofenceId") Long geofenceId);
+}
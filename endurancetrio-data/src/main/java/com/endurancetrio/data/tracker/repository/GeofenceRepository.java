@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import com.endurancetrio.data.tracker.model.entity.Geofence;
+import java.util.List;
+import java.util.Optional;
+import org.jspecify.annotations.NonNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GeofenceRepository extends JpaRepository<@NonNull Geofence, @NonNull Long> {
+
+  /**
+   * Finds the geofences of the specified account, ordered by name.
+   *
+   * @param owner the owner of the account
+   * @return the geofences of the account
+   */
+  @Query("SELECT g FROM Geofence g WHERE g.account.owner = :owner ORDER BY g.name")
+  List<Geofence> findAllByOwner(@Param("owner") String owner);
+
+  /**
+   * Finds the geofence with the specified identifier, provided that it belongs to the specified
+   * account.
+   *
+   * @param id    the unique identifier of the geofence
+   * @param owner the owner of the account
+   * @return the geofence, or an empty {@link Optional} when the account has no such geofence
+   */
+  @Query("SELECT g FROM Geofence g WHERE g.id = :id AND g.account.owner = :owner")
+  Optional<Geofence> findByIdAndOwner(@Param("id") Long id, @Param("owner") String owner);
+
+  /**
+   * Checks whether the specified account already has a geofence with the specified name.
+   *
+   * @param owner the owner of the account
+   * @param name  the name of the geofence
+   * @return {@code true} if the name is already used by a geofence of the account
+   */
+  @Query(
+      """
+          SELECT COUNT(g) > 0 FROM Geofence g
+          WHERE g.account.owner = :owner AND g.name = :name
+          """
+  )
+  boolean existsByOwnerAndName(@Param("owner") String owner, @Param("name") String name);
+}
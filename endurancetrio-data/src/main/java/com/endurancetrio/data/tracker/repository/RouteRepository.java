@@ -21,10 +21,15 @@
 package com.endurancetrio.data.tracker.repository;
 
 import com.endurancetrio.data.tracker.model.entity.Route;
+import jakarta.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -34,4 +39,25 @@ public interface RouteRepository extends JpaRepository<@NonNull Route, @NonNull
   @NonNull
   @EntityGraph(attributePaths = {"segments"})
   List<Route> findAll();
+
+  /**
+   * Finds the route with the specified identifier for an update, locking its row and incrementing
+   * its version right away, so that every update of the route or of its segments changes the
+   * version, even when only the segments are modified.
+   *
+   * @param id the unique identifier of the route
+   * @return the route, or an empty {@link Optional} when no route exists with the identifier
+   */
+  @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+  @Query("SELECT r FROM Route r WHERE r.id = :id")
+  Optional<Route> findForUpdateById(@Param("id") Long id);
+
+  /**
+   * Finds the version of the route with the specified identifier, without loading the route.
+   *
+   * @param id the unique identifier of the route
+   * @return the version, or an empty {@link Optional} when no route exists with the identifier
+   */
+  @Query("SELECT r.version FROM Route r WHERE r.id = :id")
+  Optional<Integer> findVersionById(@Param("id") Long id);
 }
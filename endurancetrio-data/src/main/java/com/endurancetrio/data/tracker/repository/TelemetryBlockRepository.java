@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2025-2025 Ricardo do Canto
+ *
+ * This file is part of the EnduranceTrio Tracker project.
+ *
+ * Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+ * (the "License");
+ *
+ * You may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at https://fsl.software/
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+ * PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+ *
+ * IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+ * SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+ * EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+ */
+
+package com.endurancetrio.data.tracker.repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Maintains the {@code telemetry_block} table, which keeps the archived telemetry records of each
+ * account, device and UTC day encoded in a single compressed block. The blocks are written per
+ * account, like the records they archive, and read per device, like the {@code device_telemetry}
+ * records.
+ * <p>
+ * The blocks are opaque to the database: they are encoded and decoded by the application. The
+ * blocks of a time range are read one at a time through a forward-only result set, so that only
+ * the block being decoded is held in memory. On PostgreSQL a block is saved with an
+ * {@code INSERT ... ON CONFLICT DO UPDATE}. Any other database (H2 in the tests) uses the
+ * equivalent {@code MERGE} statement.
+ * <p>
+ * The methods must be called within a transaction.
+ */
+@Repository
+public class TelemetryBlockRepository {
+
+  private static final int BLOCK_FETCH_SIZE = 16;
+
+  private static final String ARCHIVABLE_RECORDS = """
+      SELECT t.id, t.record_time, t.latitude, t.longitude, t.active
+      FROM %1$s.device_telemetry t
+      WHERE t.account = ? AND t.device = ? AND t.record_time < ?
+        AND NOT EXISTS (
+          SELECT 1 FROM %1$s.device_latest l WHERE l.device = t.device AND l.telemetry_id = t.id
+        )
+      ORDER BY t.record_time
+      """;
+
+  private static final String DELETE_RECORDS = """
+      DELETE FROM %s.device_telemetry
+      WHERE account = ? AND device = ? AND record_time < ? AND id = ANY (?)
+      """;
+
+  private static final String COLUMNS = """
+      device, block_day, account, first_time, last_time, points, data""";
+
+  private static final String FIND_BLOCK = """
+      SELECT %2$s FROM %1$s.telemetry_block WHERE account = ? AND device = ? AND block_day = ?
+      """;
+
+  private static final String FIND_BLOCKS = """
+      SELECT %2$s FROM %1$s.telemetry_block
+      WHERE device = ? AND block_day >= ? AND block_day <= ?
+      ORDER BY block_day, account
+      """;
+
+  private static final String FIND_DAYS = """
+      SELECT DISTINCT block_day FROM %s.telemetry_block
+      WHERE device = ? AND block_day >= ? AND block_day <= ?
+      ORDER BY block_day
+      """;
+
+  private static final String FIND_OLDEST_BLOCK = """
+      SELECT %2$s FROM %1$s.telemetry_block
+      WHERE account = ? AND device = ? AND first_time < ?
+      ORDER BY block_day
+      FETCH FIRST 1 ROWS ONLY
+      """;
+
+  private static final String DELETE_BLOCK = """
+      DELETE FROM %s.telemetry_block WHERE account = ? AND device = ? AND block_day = ?
+      """;
+
+  private static final String UPSERT = """
+      INSERT INTO %1$s.telemetry_block (%2$s) VALUES (?, ?, ?, ?, ?, ?, ?)
+      ON CONFLICT (device, block_day, account) DO UPDATE SET
+        first_time = excluded.first_time,
+        last_time = excluded.last_time, points = excluded.points, data = excluded.data
+      """;
+
+  private static final String MERGE = """
+      MERGE INTO %1$s.telemetry_block (%2$s) KEY (device, block_day, account)
+      VALUES (?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private final DataSource dataSource;
+  private final String schema;
+  private final SQLExceptionTranslator exceptionTranslator;
+
+  public TelemetryBlockRepository(
+      DataSource dataSource,
+      @Value("${spring.jpa.properties.hibernate.default_schema}") String schema
+  ) {
+    this.dataSource = dataSource;
+    this.schema = schema;
+    this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+  }
+
+  /**
+   * Reads the telemetry records of a device of an account recorded before the given time, ordered
+   * by record time, and hands each one to the given handler. The record referenced by
+   * {@code device_latest} is not read, since it is never archived.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param before  the end of the records to read, exclusive
+   * @param handler the handler of each record read
+   */
+  public void findArchivableRecords(
+      String account, String device, Instant before, RecordHandler handler
+  ) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        ARCHIVABLE_RECORDS.formatted(schema))) {
+      statement.setString(1, account);
+      statement.setString(2, device);
+      statement.setObject(3, LocalDateTime.ofInstant(before, ZoneOffset.UTC));
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          handler.handle(resultSet.getLong(1),
+              resultSet.getObject(2, LocalDateTime.class).toInstant(ZoneOffset.UTC),
+              resultSet.getDouble(3), resultSet.getDouble(4), resultSet.getBoolean(5)
+          );
+        }
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry archivable records", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Deletes the given telemetry records of a device of an account, once archived. Only the
+   * records read by {@link #findArchivableRecords} are deleted, so that a record inserted
+   * meanwhile is not lost.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param before  the end of the records read, exclusive, which bounds the partitions scanned
+   * @param ids     the identifiers of the records
+   * @return the number of records deleted
+   */
+  public int deleteRecords(String account, String device, Instant before, Long[] ids) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        DELETE_RECORDS.formatted(schema))) {
+      Array array = connection.createArrayOf("bigint", ids);
+      statement.setString(1, account);
+      statement.setString(2, device);
+      statement.setObject(3, LocalDateTime.ofInstant(before, ZoneOffset.UTC));
+      statement.setArray(4, array);
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry archived records deletion", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Finds the block of a device of an account and day.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param day     the UTC day of the block
+   * @return the block, or an empty {@link Optional} when the day has no archived records
+   */
+  public Optional<Block> findBlock(String account, String device, LocalDate day) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        FIND_BLOCK.formatted(schema, COLUMNS))) {
+      statement.setString(1, account);
+      statement.setString(2, device);
+      statement.setObject(3, day);
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? Optional.of(toBlock(resultSet)) : Optional.empty();
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry block", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Reads the blocks of a device within a range of days, whatever their account, ordered by day
+   * and account, and hands each one to the given handler until it returns {@code false}.
+   *
+   * @param device  the device identifier
+   * @param fromDay the first UTC day, inclusive
+   * @param toDay   the last UTC day, inclusive
+   * @param handler the handler of each block read
+   */
+  public void findBlocks(String device, LocalDate fromDay, LocalDate toDay, BlockHandler handler) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        FIND_BLOCKS.formatted(schema, COLUMNS), ResultSet.TYPE_FORWARD_ONLY,
+        ResultSet.CONCUR_READ_ONLY
+    )) {
+      statement.setFetchSize(BLOCK_FETCH_SIZE);
+      statement.setString(1, device);
+      statement.setObject(2, fromDay);
+      statement.setObject(3, toDay);
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          if (!handler.handle(toBlock(resultSet))) {
+            return;
+          }
+        }
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry blocks", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Finds the days of a device with archived records within a range of days, whatever their
+   * account.
+   *
+   * @param device  the device identifier
+   * @param fromDay the first UTC day, inclusive
+   * @param toDay   the last UTC day, inclusive
+   * @return the UTC days with a block, ordered by day
+   */
+  public List<LocalDate> findBlockDays(String device, LocalDate fromDay, LocalDate toDay) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(FIND_DAYS.formatted(schema))) {
+      statement.setString(1, device);
+      statement.setObject(2, fromDay);
+      statement.setObject(3, toDay);
+
+      List<LocalDate> days = new ArrayList<>();
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          days.add(resultSet.getObject(1, LocalDate.class));
+        }
+      }
+      return days;
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry block days", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Finds the oldest block of a device of an account holding records recorded before the given
+   * time.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param before  the end of the records, exclusive
+   * @return the oldest block, or an empty {@link Optional} when no block holds such records
+   */
+  public Optional<Block> findOldestBlock(String account, String device, Instant before) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        FIND_OLDEST_BLOCK.formatted(schema, COLUMNS))) {
+      statement.setString(1, account);
+      statement.setString(2, device);
+      statement.setObject(3, LocalDateTime.ofInstant(before, ZoneOffset.UTC));
+
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? Optional.of(toBlock(resultSet)) : Optional.empty();
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry oldest block", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Deletes the block of a device of an account and day.
+   *
+   * @param account the account owner
+   * @param device  the device identifier
+   * @param day     the UTC day of the block
+   * @return the number of blocks deleted
+   */
+  public int deleteBlock(String account, String device, LocalDate day) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        DELETE_BLOCK.formatted(schema))) {
+      statement.setString(1, account);
+      statement.setString(2, device);
+      statement.setObject(3, day);
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry block deletion", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  /**
+   * Saves a block, replacing the existing block of the same account, device and day.
+   *
+   * @param block the block to save
+   */
+  public void save(Block block) {
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try {
+      String query = connection.isWrapperFor(PGConnection.class) ? UPSERT : MERGE;
+      try (PreparedStatement statement = connection.prepareStatement(
+          query.formatted(schema, COLUMNS))) {
+        statement.setString(1, block.device());
+        statement.setObject(2, block.day());
+        statement.setString(3, block.account());
+        statement.setObject(4, LocalDateTime.ofInstant(block.firstTime(), ZoneOffset.UTC));
+        statement.setObject(5, LocalDateTime.ofInstant(block.lastTime(), ZoneOffset.UTC));
+        statement.setInt(6, block.points());
+        statement.setBytes(7, block.data());
+        statement.executeUpdate();
+      }
+    } catch (SQLException e) {
+      throw exceptionTranslator.translate("telemetry block save", null, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private static Block toBlock(ResultSet resultSet) throws SQLException {
+    return new Block(resultSet.getString(1), resultSet.getObject(2, LocalDate.class),
+        resultSet.getString(3),
+        resultSet.getObject(4, LocalDateTime.class).toInstant(ZoneOffset.UTC),
+        resultSet.getObject(5, LocalDateTime.class).toInstant(ZoneOffset.UTC), resultSet.getInt(6),
+        resultSet.getBytes(7)
+    );
+  }
+
+  /**
+   * The archived telemetry records of a device of an account and UTC day.
+   *
+   * @param device    the device identifier
+   * @param day       the UTC day of the records
+   * @param account   the owner of the account of the records
+   * @param firstTime the record time of the first record
+   * @param lastTime  the record time of the last record
+   * @param points    the number of records
+   * @param data      the encoded records
+   */
+  public record Block(
+      String device, LocalDate day, String account, Instant firstTime, Instant lastTime,
+      int points, byte[] data
+  ) {
+
+  }
+
+  /**
+   * Handles each telemetry record read by {@link #findArchivableRecords}.
+   */
+  @FunctionalInterface
+  public interface RecordHandler {
+
+    void handle(long id, Instant time, double latitude, double longitude, boolean active);
+  }
+
+  /**
+   * Handles each block read by {@link #findBlocks}.
+   */
+  @FunctionalInterface
+  public interface BlockHandler {
+
+    /**
+     * Handles a block.
+     *
+     * @param block the block read
+     * @return {@code true} to read the next block, {@code false} to stop reading
+     */
+    boolean handle(Block block);
+  }
+}
@@ -21,14 +21,44 @@
 package com.endurancetrio.data.tracker.repository;
 
 import com.endurancetrio.data.tracker.model.entity.TrackerAccount;
+import java.time.Instant;
 import java.util.Optional;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface TrackerAccountRepository extends
     JpaRepository<@NonNull TrackerAccount, @NonNull String> {
 
   Optional<TrackerAccount> findByOwner(String owner);
+
+  /**
+   * Replaces the key hash of the specified account, provided that it is still the expected one, so
+   * that concurrent replacements of the same hash do not conflict. It runs in its own transaction
+   * when called outside one.
+   *
+   * @param owner   the owner of the account
+   * @param oldHash the key hash expected to be replaced
+   * @param newHash the new key hash
+   * @param now     the time of the update
+   * @return the number of accounts updated, 0 if the hash was already replaced
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      """
+          UPDATE TrackerAccount a
+          SET a.key = :newHash, a.version = a.version + 1, a.updatedAt = :now
+          WHERE a.owner = :owner AND a.key = :oldHash
+          """
+  )
+  int updateKey(
+      @Param("owner") String owner, @Param("oldHash") String oldHash,
+      @Param("newHash") String newHash, @Param("now") Instant now
+  );
 }
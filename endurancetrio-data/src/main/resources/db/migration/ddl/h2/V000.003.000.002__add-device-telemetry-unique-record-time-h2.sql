@@ -0,0 +1,34 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: Makes the device telemetry records unique per device and record time, so that the
+-- records resent by the devices are ignored instead of being stored again
+--
+
+-- Delete the duplicated records, keeping the first one saved for each device and record time
+DELETE FROM device_telemetry t WHERE EXISTS (
+  SELECT 1 FROM device_telemetry d
+  WHERE d.device = t.device AND d.record_time = t.record_time AND d.id < t.id
+);
+
+-- Replace the device and record time index with a unique constraint on the same columns
+DROP INDEX IF EXISTS idx_device_telemetry_device_time;
+ALTER TABLE device_telemetry ADD CONSTRAINT uk_device_telemetry_device_record_time
+  UNIQUE (device, record_time);
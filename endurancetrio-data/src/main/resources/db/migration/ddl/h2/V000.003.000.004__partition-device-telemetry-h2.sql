@@ -0,0 +1,31 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: H2 counterpart of the device_telemetry partitioning. H2 has no table partitioning,
+-- so the table stays a single table, with the same constraints and indexes as the partitioned
+-- PostgreSQL table
+--
+
+-- device_latest references its telemetry record without a foreign key, as on PostgreSQL
+ALTER TABLE device_latest DROP CONSTRAINT IF EXISTS fk_device_latest_device_telemetry_id;
+
+-- Remove the indexes made redundant by the unique constraint and the account and device index
+DROP INDEX IF EXISTS idx_device_telemetry_device;
+DROP INDEX IF EXISTS idx_device_telemetry_account;
@@ -0,0 +1,42 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: Create the telemetry_block table, which keeps the archived telemetry records of
+-- each account, device and day encoded in a compressed columnar block
+--
+
+-- Create the telemetry_block table
+CREATE TABLE telemetry_block (
+  device     VARCHAR(50) NOT NULL,
+  block_day  DATE        NOT NULL,
+  account    VARCHAR(50) NOT NULL,
+  first_time TIMESTAMP   NOT NULL,
+  last_time  TIMESTAMP   NOT NULL,
+  points     INTEGER     NOT NULL,
+  data       BYTEA       NOT NULL
+);
+
+-- Create primary key, foreign key and indexes on the telemetry_block table
+ALTER TABLE telemetry_block ADD CONSTRAINT pk_telemetry_block
+  PRIMARY KEY (device, block_day, account);
+ALTER TABLE telemetry_block ADD CONSTRAINT fk_telemetry_block_tracker_account_owner
+  FOREIGN KEY (account) REFERENCES tracker_account(owner);
+CREATE INDEX idx_telemetry_block_account_device_day
+  ON telemetry_block(account, device, block_day);
@@ -0,0 +1,26 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: Increases the device_telemetry primary key sequence increment to allow large
+-- JDBC insert batches (the value must match the allocationSize of the DeviceTelemetry entity)
+--
+
+-- Alter the sequence for device_telemetry table primary key
+ALTER SEQUENCE seq_device_telemetry_id INCREMENT BY 50 CACHE 50;
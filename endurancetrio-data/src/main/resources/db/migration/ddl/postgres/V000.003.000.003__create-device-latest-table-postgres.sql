@@ -0,0 +1,43 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: Create the device_latest table, which keeps the reference to the most recent active
+-- device telemetry record of each device, and fill it with the records already saved
+--
+
+-- Create the device_latest table
+CREATE TABLE device_latest (
+  device       VARCHAR(50) NOT NULL,
+  telemetry_id BIGINT      NOT NULL,
+  record_time  TIMESTAMP   NOT NULL
+);
+
+-- Create primary key, foreign key and indexes on the device_latest table
+ALTER TABLE device_latest ADD CONSTRAINT pk_device_latest
+  PRIMARY KEY (device);
+ALTER TABLE device_latest ADD CONSTRAINT fk_device_latest_device_telemetry_id
+  FOREIGN KEY (telemetry_id) REFERENCES device_telemetry(id) ON DELETE CASCADE;
+CREATE INDEX idx_device_latest_telemetry_id ON device_latest(telemetry_id);
+
+-- Fill the device_latest table with the most recent active record of each device
+INSERT INTO device_latest (device, telemetry_id, record_time)
+SELECT DISTINCT ON (device) device, id, record_time FROM device_telemetry
+WHERE active = true
+ORDER BY device, record_time DESC;
@@ -0,0 +1,102 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: Partitions the device_telemetry table by month of record time, so that inserts
+-- and reads only touch the indexes of the partitions of the requested time range, and removes
+-- the indexes made redundant by the unique constraint and the account and device index
+--
+-- Locking: the migration runs in a single transaction that holds an ACCESS EXCLUSIVE lock on
+-- device_telemetry from the rename to the commit, so every read and write of the table waits for
+-- the whole copy. The keys and indexes are built after the copy, which more than halves its
+-- duration. On PostgreSQL 16 (1 vCPU) it took 7 seconds for 1 million records (181 MB) and 35
+-- seconds for 5 million (882 MB), about 40 seconds per GB: plan the deployment as downtime
+-- accordingly
+--
+
+-- Partitions are created ahead and detached by the application
+-- (DeviceTelemetryPartitionManager). A foreign key to a partitioned table would forbid detaching
+-- partitions and moving records out of the default partition, so device_latest references its
+-- telemetry record without one
+ALTER TABLE device_latest DROP CONSTRAINT IF EXISTS fk_device_latest_device_telemetry_id;
+
+-- Keep the current table aside, releasing the names of its constraints and indexes
+ALTER TABLE device_telemetry RENAME TO device_telemetry_unpartitioned;
+ALTER TABLE device_telemetry_unpartitioned RENAME CONSTRAINT pk_device_telemetry
+  TO pk_device_telemetry_unpartitioned;
+ALTER TABLE device_telemetry_unpartitioned RENAME CONSTRAINT uk_device_telemetry_device_record_time
+  TO uk_device_telemetry_unpartitioned_device_record_time;
+DROP INDEX IF EXISTS idx_device_telemetry_device;
+DROP INDEX IF EXISTS idx_device_telemetry_account;
+DROP INDEX IF EXISTS idx_device_telemetry_account_device;
+
+-- Create the partitioned device_telemetry table
+CREATE TABLE device_telemetry (
+  id          BIGINT           NOT NULL,
+  account     VARCHAR(50)      NOT NULL,
+  device      VARCHAR(50)      NOT NULL,
+  record_time TIMESTAMP        NOT NULL,
+  latitude    DOUBLE PRECISION NOT NULL,
+  longitude   DOUBLE PRECISION NOT NULL,
+  active      BOOLEAN          NOT NULL,
+  version     INTEGER          NOT NULL DEFAULT 0,
+  created_at  TIMESTAMP        NOT NULL,
+  updated_at  TIMESTAMP
+) PARTITION BY RANGE (record_time);
+
+-- Create the default partition, for the records outside the monthly partitions
+CREATE TABLE device_telemetry_default PARTITION OF device_telemetry DEFAULT;
+
+-- Create a partition per month from the oldest record to three months ahead
+DO $$
+DECLARE
+  partition_start DATE;
+  last_start      DATE;
+BEGIN
+  SELECT date_trunc('month', COALESCE(MIN(record_time), now() AT TIME ZONE 'UTC'))
+  INTO partition_start FROM device_telemetry_unpartitioned;
+  last_start := date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months';
+
+  WHILE partition_start <= last_start LOOP
+    EXECUTE format(
+      'CREATE TABLE device_telemetry_p%s PARTITION OF device_telemetry FOR VALUES FROM (%L) TO (%L)',
+      to_char(partition_start, 'YYYYMM'), partition_start, partition_start + INTERVAL '1 month'
+    );
+    partition_start := partition_start + INTERVAL '1 month';
+  END LOOP;
+END $$;
+
+-- Move the records into the partitioned table
+INSERT INTO device_telemetry (id, account, device, record_time, latitude, longitude, active,
+  version, created_at, updated_at)
+SELECT id, account, device, record_time, latitude, longitude, active, version, created_at,
+  updated_at
+FROM device_telemetry_unpartitioned;
+
+-- Create primary key, foreign key and indexes on the device_telemetry table, once filled (the
+-- primary key of a partitioned table must include the partition key)
+ALTER TABLE device_telemetry ADD CONSTRAINT pk_device_telemetry
+  PRIMARY KEY (id, record_time);
+ALTER TABLE device_telemetry ADD CONSTRAINT uk_device_telemetry_device_record_time
+  UNIQUE (device, record_time);
+ALTER TABLE device_telemetry ADD CONSTRAINT fk_device_telemetry_tracker_account_owner
+  FOREIGN KEY (account) REFERENCES tracker_account(owner);
+CREATE INDEX idx_device_telemetry_account_device ON device_telemetry(account, device);
+
+DROP TABLE device_telemetry_unpartitioned;
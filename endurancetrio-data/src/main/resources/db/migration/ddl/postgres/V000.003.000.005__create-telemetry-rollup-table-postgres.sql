@@ -0,0 +1,47 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: Add the telemetry retention policy of each tracker account and create the
+-- device_telemetry_rollup table, which keeps the downsampled telemetry records once the raw
+-- records are out of retention
+--
+
+-- Add the retention policy columns to the tracker_account table (NULL keeps the records forever)
+ALTER TABLE tracker_account ADD COLUMN raw_retention_days INTEGER;
+ALTER TABLE tracker_account ADD COLUMN rollup_retention_days INTEGER;
+
+-- Create the device_telemetry_rollup table
+CREATE TABLE device_telemetry_rollup (
+  device      VARCHAR(50)      NOT NULL,
+  bucket_time TIMESTAMP        NOT NULL,
+  account     VARCHAR(50)      NOT NULL,
+  latitude    DOUBLE PRECISION NOT NULL,
+  longitude   DOUBLE PRECISION NOT NULL,
+  active      BOOLEAN          NOT NULL,
+  points      INTEGER          NOT NULL
+);
+
+-- Create primary key, foreign key and indexes on the device_telemetry_rollup table
+ALTER TABLE device_telemetry_rollup ADD CONSTRAINT pk_device_telemetry_rollup
+  PRIMARY KEY (account, device, bucket_time);
+ALTER TABLE device_telemetry_rollup ADD CONSTRAINT fk_device_telemetry_rollup_tracker_account_owner
+  FOREIGN KEY (account) REFERENCES tracker_account(owner);
+CREATE INDEX idx_device_telemetry_rollup_account_bucket_time
+  ON device_telemetry_rollup(account, bucket_time);
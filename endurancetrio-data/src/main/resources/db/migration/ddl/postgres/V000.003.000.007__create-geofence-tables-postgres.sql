@@ -0,0 +1,74 @@
+--
+-- Copyright (c) 2025-2025 Ricardo do Canto
+--
+-- This file is part of the EnduranceTrio Tracker project.
+--
+-- Licensed under the Functional Software License (FSL), Version 1.1, ALv2 Future License
+-- (the "License");
+--
+-- You may not use this file except in compliance with the License. You may obtain a copy
+-- of the License at https://fsl.software/
+--
+-- THE SOFTWARE IS PROVIDED "AS IS" AND WITHOUT WARRANTIES OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING WITHOUT LIMITATION WARRANTIES OF FITNESS FOR A PARTICULAR
+-- PURPOSE, MERCHANTABILITY, TITLE OR NON-INFRINGEMENT.
+--
+-- IN NO EVENT WILL WE HAVE ANY LIABILITY TO YOU ARISING OUT OF OR RELATED TO THE
+-- SOFTWARE, INCLUDING INDIRECT, SPECIAL, INCIDENTAL OR CONSEQUENTIAL DAMAGES,
+-- EVEN IF WE HAVE BEEN INFORMED OF THEIR POSSIBILITY IN ADVANCE.
+--
+
+-- Description: Create the geofence table, which keeps the circular and polygon geofences of each
+-- tracker account, and the geofence_event table, which keeps the enter and exit events of the
+-- devices crossing their boundaries
+--
+
+-- Create sequences for primary keys on the geofence tables
+CREATE SEQUENCE seq_geofence_id START WITH 1 INCREMENT BY 5 CACHE 5;
+CREATE SEQUENCE seq_geofence_event_id START WITH 1 INCREMENT BY 50 CACHE 50;
+
+-- Create the geofence table (latitude, longitude and radius in meters describe a CIRCLE, the
+-- coordinates a POLYGON, written as "longitude latitude" pairs separated by commas)
+CREATE TABLE geofence (
+  id          BIGINT           NOT NULL,
+  account     VARCHAR(50)      NOT NULL,
+  name        VARCHAR(50)      NOT NULL,
+  shape       VARCHAR(10)      NOT NULL,
+  latitude    DOUBLE PRECISION,
+  longitude   DOUBLE PRECISION,
+  radius      DOUBLE PRECISION,
+  coordinates VARCHAR(50000),
+  version     INTEGER          NOT NULL DEFAULT 0,
+  created_at  TIMESTAMP        NOT NULL,
+  updated_at  TIMESTAMP
+);
+
+-- Create primary key, foreign key and unique constraint on the geofence table
+ALTER TABLE geofence ADD CONSTRAINT pk_geofence PRIMARY KEY (id);
+ALTER TABLE geofence ADD CONSTRAINT fk_geofence_tracker_account_owner
+  FOREIGN KEY (account) REFERENCES tracker_account(owner);
+ALTER TABLE geofence ADD CONSTRAINT uk_geofence_account_name UNIQUE (account, name);
+
+-- Create the geofence_event table
+CREATE TABLE geofence_event (
+  id          BIGINT           NOT NULL,
+  geofence_id BIGINT           NOT NULL,
+  account     VARCHAR(50)      NOT NULL,
+  device      VARCHAR(50)      NOT NULL,
+  event_type  VARCHAR(10)      NOT NULL,
+  record_time TIMESTAMP        NOT NULL,
+  latitude    DOUBLE PRECISION NOT NULL,
+  longitude   DOUBLE PRECISION NOT NULL,
+  version     INTEGER          NOT NULL DEFAULT 0,
+  created_at  TIMESTAMP        NOT NULL,
+  updated_at  TIMESTAMP
+);
+
+-- Create primary key, foreign key and indexes on the geofence_event table (geofence_id has no
+-- foreign key, so deleting a geofence never fails the ingestion of a record crossing it; its events
+-- are deleted by the application along with it)
+ALTER TABLE geofence_event ADD CONSTRAINT pk_geofence_event PRIMARY KEY (id);
+ALTER TABLE geofence_event ADD CONSTRAINT fk_geofence_event_tracker_account_owner
+  FOREIGN KEY (account) REFERENCES tracker_account(owner);
+CREATE INDEX idx_geofence_event_account_record_time ON geofence_event(account, record_time, id);
+CREATE INDEX idx_geofence_event_geofence_id ON geofence_event(geofence_id);
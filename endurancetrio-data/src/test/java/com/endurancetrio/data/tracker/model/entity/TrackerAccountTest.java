@@ -37,6 +37,8 @@ class TrackerAccountTest {
 
   private static final String OWNER = "system";
   private static final String KEY = "TEST_ACCOUNT_KEY_1234567890";
+  private static final int RAW_RETENTION_DAYS = 30;
+  private static final int ROLLUP_RETENTION_DAYS = 365;
 
   private TrackerAccount underTest;
 
@@ -46,6 +48,8 @@ void setUp() {
     underTest.setOwner(OWNER);
     underTest.setKey(KEY);
     underTest.setEnabled(true);
+    underTest.setRawRetentionDays(RAW_RETENTION_DAYS);
+    underTest.setRollupRetentionDays(ROLLUP_RETENTION_DAYS);
   }
 
   @Test
@@ -54,5 +58,7 @@ void entityShouldRetainValues() {
     assertEquals(OWNER, underTest.getOwner());
     assertEquals(KEY, underTest.getKey());
     assertTrue(underTest.isEnabled());
+    assertEquals(RAW_RETENTION_DAYS, underTest.getRawRetentionDays());
+    assertEquals(ROLLUP_RETENTION_DAYS, underTest.getRollupRetentionDays());
   }
 }